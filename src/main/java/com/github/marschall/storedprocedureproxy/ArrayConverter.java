@@ -0,0 +1,872 @@
+package com.github.marschall.storedprocedureproxy;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Converts the value of {@link java.sql.Array#getArray()} to the
+ * element type requested by the method.
+ *
+ * <p>Drivers return either primitive arrays, box arrays or
+ * {@code Object[]}, sometimes containing {@link BigDecimal}s. Every
+ * primitive type has a specialized converter so that no reflection
+ * is involved and values are boxed at most once.</p>
+ *
+ * <p>Integral values are converted exactly, an
+ * {@link ArithmeticException} is thrown if a value does not fit or is
+ * not integral. {@code null} elements can only be converted to box
+ * types.</p>
+ */
+abstract class ArrayConverter {
+
+  static ArrayConverter forElementType(Class<?> elementType) {
+    if (elementType == int.class) {
+      return IntArrayConverter.PRIMITIVE;
+    } else if (elementType == Integer.class) {
+      return IntArrayConverter.BOXED;
+    } else if (elementType == long.class) {
+      return LongArrayConverter.PRIMITIVE;
+    } else if (elementType == Long.class) {
+      return LongArrayConverter.BOXED;
+    } else if (elementType == double.class) {
+      return DoubleArrayConverter.PRIMITIVE;
+    } else if (elementType == Double.class) {
+      return DoubleArrayConverter.BOXED;
+    } else if (elementType == float.class) {
+      return FloatArrayConverter.PRIMITIVE;
+    } else if (elementType == Float.class) {
+      return FloatArrayConverter.BOXED;
+    } else if (elementType == short.class) {
+      return ShortArrayConverter.PRIMITIVE;
+    } else if (elementType == Short.class) {
+      return ShortArrayConverter.BOXED;
+    } else if (elementType == byte.class) {
+      return ByteArrayConverter.PRIMITIVE;
+    } else if (elementType == Byte.class) {
+      return ByteArrayConverter.BOXED;
+    } else if (elementType == boolean.class) {
+      return BooleanArrayConverter.PRIMITIVE;
+    } else if (elementType == Boolean.class) {
+      return BooleanArrayConverter.BOXED;
+    } else if (elementType == char.class) {
+      return CharArrayConverter.PRIMITIVE;
+    } else if (elementType == Character.class) {
+      return CharArrayConverter.BOXED;
+    } else {
+      return new ReferenceArrayConverter(elementType);
+    }
+  }
+
+  /**
+   * Boxes a primitive array into an {@code Object[]}.
+   *
+   * @param primitiveArray the array to box, not {@code null}
+   * @return the box array
+   */
+  static Object[] box(Object primitiveArray) {
+    Class<?> componentType = primitiveArray.getClass().getComponentType();
+    ArrayConverter converter;
+    if (componentType == int.class) {
+      converter = IntArrayConverter.BOXED;
+    } else if (componentType == long.class) {
+      converter = LongArrayConverter.BOXED;
+    } else if (componentType == double.class) {
+      converter = DoubleArrayConverter.BOXED;
+    } else if (componentType == float.class) {
+      converter = FloatArrayConverter.BOXED;
+    } else if (componentType == short.class) {
+      converter = ShortArrayConverter.BOXED;
+    } else if (componentType == byte.class) {
+      converter = ByteArrayConverter.BOXED;
+    } else if (componentType == boolean.class) {
+      converter = BooleanArrayConverter.BOXED;
+    } else if (componentType == char.class) {
+      converter = CharArrayConverter.BOXED;
+    } else {
+      throw new IllegalArgumentException("not a primitive array: " + primitiveArray.getClass());
+    }
+    return (Object[]) converter.toArray(primitiveArray);
+  }
+
+  /**
+   * Converts to an array of the element type.
+   *
+   * @param source the value of {@link java.sql.Array#getArray()}, not {@code null}
+   * @return the converted array, may be {@code source}
+   */
+  abstract Object toArray(Object source);
+
+  /**
+   * Converts to a list of the element type.
+   *
+   * <p>{@code Object[]} sources are converted in place and wrapped
+   * to avoid a second copy.</p>
+   *
+   * @param source the value of {@link java.sql.Array#getArray()}, not {@code null}
+   * @return the converted list
+   */
+  abstract List<?> toList(Object source);
+
+  static Object[] elements(Object source, Class<?> elementType) {
+    if (source instanceof Object[]) {
+      return (Object[]) source;
+    }
+    throw new ClassCastException("expected array of " + elementType + " but got array of " + source.getClass().getComponentType());
+  }
+
+  static Object nonNull(Object element, int index, Class<?> elementType) {
+    if (element == null) {
+      throw new NullPointerException("null element at index " + index + " can not be converted to " + elementType);
+    }
+    return element;
+  }
+
+  static boolean isObjectArray(Object[] elements) {
+    return elements.getClass() == Object[].class;
+  }
+
+  static long longValue(Object element) {
+    if (element instanceof Long) {
+      return (Long) element;
+    } else if (element instanceof BigDecimal) {
+      return ((BigDecimal) element).longValueExact();
+    } else if (element instanceof BigInteger) {
+      return ((BigInteger) element).longValueExact();
+    } else if ((element instanceof Double) || (element instanceof Float)) {
+      double value = ((Number) element).doubleValue();
+      if (Double.isNaN(value) || Double.isInfinite(value)) {
+        throw new ArithmeticException("not an integral value: " + value);
+      }
+      // fails for fractional values instead of truncating them
+      return BigDecimal.valueOf(value).longValueExact();
+    } else {
+      return ((Number) element).longValue();
+    }
+  }
+
+  static int intValue(Object element) {
+    if (element instanceof Integer) {
+      return (Integer) element;
+    }
+    return Math.toIntExact(longValue(element));
+  }
+
+  static short shortValue(Object element) {
+    int value = intValue(element);
+    if ((short) value != value) {
+      throw new ArithmeticException("short overflow");
+    }
+    return (short) value;
+  }
+
+  static byte byteValue(Object element) {
+    int value = intValue(element);
+    if ((byte) value != value) {
+      throw new ArithmeticException("byte overflow");
+    }
+    return (byte) value;
+  }
+
+}
+
+final class BooleanArrayConverter extends ArrayConverter {
+
+  static final ArrayConverter PRIMITIVE = new BooleanArrayConverter(false);
+
+  static final ArrayConverter BOXED = new BooleanArrayConverter(true);
+
+  private final boolean boxed;
+
+  private BooleanArrayConverter(boolean boxed) {
+    this.boxed = boxed;
+  }
+
+  @Override
+  Object toArray(Object source) {
+    if (this.boxed) {
+      return toBoxed(source);
+    } else {
+      return toPrimitive(source);
+    }
+  }
+
+  @Override
+  List<?> toList(Object source) {
+    if (source instanceof boolean[]) {
+      return Arrays.asList(toBoxed(source));
+    }
+    Object[] elements = elements(source, Boolean.class);
+    if (isObjectArray(elements)) {
+      for (int i = 0; i < elements.length; i++) {
+        Object element = elements[i];
+        if ((element != null) && !(element instanceof Boolean)) {
+          throw new ClassCastException("expected array of " + Boolean.class + " but got element of " + element.getClass());
+        }
+      }
+      return Arrays.asList(elements);
+    }
+    return Arrays.asList(toBoxed(source));
+  }
+
+  private static boolean[] toPrimitive(Object source) {
+    if (source instanceof boolean[]) {
+      return (boolean[]) source;
+    }
+    Object[] elements = elements(source, boolean.class);
+    boolean[] result = new boolean[elements.length];
+    for (int i = 0; i < elements.length; i++) {
+      Object element = nonNull(elements[i], i, boolean.class);
+      result[i] = (Boolean) element;
+    }
+    return result;
+  }
+
+  private static Boolean[] toBoxed(Object source) {
+    if (source instanceof Boolean[]) {
+      return (Boolean[]) source;
+    }
+    if (source instanceof boolean[]) {
+      boolean[] values = (boolean[]) source;
+      Boolean[] result = new Boolean[values.length];
+      for (int i = 0; i < values.length; i++) {
+        result[i] = values[i];
+      }
+      return result;
+    }
+    Object[] elements = elements(source, Boolean.class);
+    Boolean[] result = new Boolean[elements.length];
+    for (int i = 0; i < elements.length; i++) {
+      Object element = elements[i];
+      if (element != null) {
+        result[i] = (Boolean) element;
+      }
+    }
+    return result;
+  }
+
+  @Override
+  public String toString() {
+    return this.getClass().getSimpleName() + '[' + (this.boxed ? "Boolean" : "boolean") + ']';
+  }
+
+}
+
+final class ByteArrayConverter extends ArrayConverter {
+
+  static final ArrayConverter PRIMITIVE = new ByteArrayConverter(false);
+
+  static final ArrayConverter BOXED = new ByteArrayConverter(true);
+
+  private final boolean boxed;
+
+  private ByteArrayConverter(boolean boxed) {
+    this.boxed = boxed;
+  }
+
+  @Override
+  Object toArray(Object source) {
+    if (this.boxed) {
+      return toBoxed(source);
+    } else {
+      return toPrimitive(source);
+    }
+  }
+
+  @Override
+  List<?> toList(Object source) {
+    if (source instanceof byte[]) {
+      return Arrays.asList(toBoxed(source));
+    }
+    Object[] elements = elements(source, Byte.class);
+    if (isObjectArray(elements)) {
+      for (int i = 0; i < elements.length; i++) {
+        Object element = elements[i];
+        if ((element != null) && !(element instanceof Byte)) {
+          elements[i] = Byte.valueOf(byteValue(element));
+        }
+      }
+      return Arrays.asList(elements);
+    }
+    return Arrays.asList(toBoxed(source));
+  }
+
+  private static byte[] toPrimitive(Object source) {
+    if (source instanceof byte[]) {
+      return (byte[]) source;
+    }
+    Object[] elements = elements(source, byte.class);
+    byte[] result = new byte[elements.length];
+    for (int i = 0; i < elements.length; i++) {
+      Object element = nonNull(elements[i], i, byte.class);
+      result[i] = byteValue(element);
+    }
+    return result;
+  }
+
+  private static Byte[] toBoxed(Object source) {
+    if (source instanceof Byte[]) {
+      return (Byte[]) source;
+    }
+    if (source instanceof byte[]) {
+      byte[] values = (byte[]) source;
+      Byte[] result = new Byte[values.length];
+      for (int i = 0; i < values.length; i++) {
+        result[i] = values[i];
+      }
+      return result;
+    }
+    Object[] elements = elements(source, Byte.class);
+    Byte[] result = new Byte[elements.length];
+    for (int i = 0; i < elements.length; i++) {
+      Object element = elements[i];
+      if (element != null) {
+        result[i] = byteValue(element);
+      }
+    }
+    return result;
+  }
+
+  @Override
+  public String toString() {
+    return this.getClass().getSimpleName() + '[' + (this.boxed ? "Byte" : "byte") + ']';
+  }
+
+}
+
+final class ShortArrayConverter extends ArrayConverter {
+
+  static final ArrayConverter PRIMITIVE = new ShortArrayConverter(false);
+
+  static final ArrayConverter BOXED = new ShortArrayConverter(true);
+
+  private final boolean boxed;
+
+  private ShortArrayConverter(boolean boxed) {
+    this.boxed = boxed;
+  }
+
+  @Override
+  Object toArray(Object source) {
+    if (this.boxed) {
+      return toBoxed(source);
+    } else {
+      return toPrimitive(source);
+    }
+  }
+
+  @Override
+  List<?> toList(Object source) {
+    if (source instanceof short[]) {
+      return Arrays.asList(toBoxed(source));
+    }
+    Object[] elements = elements(source, Short.class);
+    if (isObjectArray(elements)) {
+      for (int i = 0; i < elements.length; i++) {
+        Object element = elements[i];
+        if ((element != null) && !(element instanceof Short)) {
+          elements[i] = Short.valueOf(shortValue(element));
+        }
+      }
+      return Arrays.asList(elements);
+    }
+    return Arrays.asList(toBoxed(source));
+  }
+
+  private static short[] toPrimitive(Object source) {
+    if (source instanceof short[]) {
+      return (short[]) source;
+    }
+    Object[] elements = elements(source, short.class);
+    short[] result = new short[elements.length];
+    for (int i = 0; i < elements.length; i++) {
+      Object element = nonNull(elements[i], i, short.class);
+      result[i] = shortValue(element);
+    }
+    return result;
+  }
+
+  private static Short[] toBoxed(Object source) {
+    if (source instanceof Short[]) {
+      return (Short[]) source;
+    }
+    if (source instanceof short[]) {
+      short[] values = (short[]) source;
+      Short[] result = new Short[values.length];
+      for (int i = 0; i < values.length; i++) {
+        result[i] = values[i];
+      }
+      return result;
+    }
+    Object[] elements = elements(source, Short.class);
+    Short[] result = new Short[elements.length];
+    for (int i = 0; i < elements.length; i++) {
+      Object element = elements[i];
+      if (element != null) {
+        result[i] = shortValue(element);
+      }
+    }
+    return result;
+  }
+
+  @Override
+  public String toString() {
+    return this.getClass().getSimpleName() + '[' + (this.boxed ? "Short" : "short") + ']';
+  }
+
+}
+
+final class CharArrayConverter extends ArrayConverter {
+
+  static final ArrayConverter PRIMITIVE = new CharArrayConverter(false);
+
+  static final ArrayConverter BOXED = new CharArrayConverter(true);
+
+  private final boolean boxed;
+
+  private CharArrayConverter(boolean boxed) {
+    this.boxed = boxed;
+  }
+
+  @Override
+  Object toArray(Object source) {
+    if (this.boxed) {
+      return toBoxed(source);
+    } else {
+      return toPrimitive(source);
+    }
+  }
+
+  @Override
+  List<?> toList(Object source) {
+    if (source instanceof char[]) {
+      return Arrays.asList(toBoxed(source));
+    }
+    Object[] elements = elements(source, Character.class);
+    if (isObjectArray(elements)) {
+      for (int i = 0; i < elements.length; i++) {
+        Object element = elements[i];
+        if ((element != null) && !(element instanceof Character)) {
+          throw new ClassCastException("expected array of " + Character.class + " but got element of " + element.getClass());
+        }
+      }
+      return Arrays.asList(elements);
+    }
+    return Arrays.asList(toBoxed(source));
+  }
+
+  private static char[] toPrimitive(Object source) {
+    if (source instanceof char[]) {
+      return (char[]) source;
+    }
+    Object[] elements = elements(source, char.class);
+    char[] result = new char[elements.length];
+    for (int i = 0; i < elements.length; i++) {
+      Object element = nonNull(elements[i], i, char.class);
+      result[i] = (Character) element;
+    }
+    return result;
+  }
+
+  private static Character[] toBoxed(Object source) {
+    if (source instanceof Character[]) {
+      return (Character[]) source;
+    }
+    if (source instanceof char[]) {
+      char[] values = (char[]) source;
+      Character[] result = new Character[values.length];
+      for (int i = 0; i < values.length; i++) {
+        result[i] = values[i];
+      }
+      return result;
+    }
+    Object[] elements = elements(source, Character.class);
+    Character[] result = new Character[elements.length];
+    for (int i = 0; i < elements.length; i++) {
+      Object element = elements[i];
+      if (element != null) {
+        result[i] = (Character) element;
+      }
+    }
+    return result;
+  }
+
+  @Override
+  public String toString() {
+    return this.getClass().getSimpleName() + '[' + (this.boxed ? "Character" : "char") + ']';
+  }
+
+}
+
+final class IntArrayConverter extends ArrayConverter {
+
+  static final ArrayConverter PRIMITIVE = new IntArrayConverter(false);
+
+  static final ArrayConverter BOXED = new IntArrayConverter(true);
+
+  private final boolean boxed;
+
+  private IntArrayConverter(boolean boxed) {
+    this.boxed = boxed;
+  }
+
+  @Override
+  Object toArray(Object source) {
+    if (this.boxed) {
+      return toBoxed(source);
+    } else {
+      return toPrimitive(source);
+    }
+  }
+
+  @Override
+  List<?> toList(Object source) {
+    if (source instanceof int[]) {
+      return Arrays.asList(toBoxed(source));
+    }
+    Object[] elements = elements(source, Integer.class);
+    if (isObjectArray(elements)) {
+      for (int i = 0; i < elements.length; i++) {
+        Object element = elements[i];
+        if ((element != null) && !(element instanceof Integer)) {
+          elements[i] = Integer.valueOf(intValue(element));
+        }
+      }
+      return Arrays.asList(elements);
+    }
+    return Arrays.asList(toBoxed(source));
+  }
+
+  private static int[] toPrimitive(Object source) {
+    if (source instanceof int[]) {
+      return (int[]) source;
+    }
+    Object[] elements = elements(source, int.class);
+    int[] result = new int[elements.length];
+    for (int i = 0; i < elements.length; i++) {
+      Object element = nonNull(elements[i], i, int.class);
+      result[i] = intValue(element);
+    }
+    return result;
+  }
+
+  private static Integer[] toBoxed(Object source) {
+    if (source instanceof Integer[]) {
+      return (Integer[]) source;
+    }
+    if (source instanceof int[]) {
+      int[] values = (int[]) source;
+      Integer[] result = new Integer[values.length];
+      for (int i = 0; i < values.length; i++) {
+        result[i] = values[i];
+      }
+      return result;
+    }
+    Object[] elements = elements(source, Integer.class);
+    Integer[] result = new Integer[elements.length];
+    for (int i = 0; i < elements.length; i++) {
+      Object element = elements[i];
+      if (element != null) {
+        result[i] = intValue(element);
+      }
+    }
+    return result;
+  }
+
+  @Override
+  public String toString() {
+    return this.getClass().getSimpleName() + '[' + (this.boxed ? "Integer" : "int") + ']';
+  }
+
+}
+
+final class LongArrayConverter extends ArrayConverter {
+
+  static final ArrayConverter PRIMITIVE = new LongArrayConverter(false);
+
+  static final ArrayConverter BOXED = new LongArrayConverter(true);
+
+  private final boolean boxed;
+
+  private LongArrayConverter(boolean boxed) {
+    this.boxed = boxed;
+  }
+
+  @Override
+  Object toArray(Object source) {
+    if (this.boxed) {
+      return toBoxed(source);
+    } else {
+      return toPrimitive(source);
+    }
+  }
+
+  @Override
+  List<?> toList(Object source) {
+    if (source instanceof long[]) {
+      return Arrays.asList(toBoxed(source));
+    }
+    Object[] elements = elements(source, Long.class);
+    if (isObjectArray(elements)) {
+      for (int i = 0; i < elements.length; i++) {
+        Object element = elements[i];
+        if ((element != null) && !(element instanceof Long)) {
+          elements[i] = Long.valueOf(longValue(element));
+        }
+      }
+      return Arrays.asList(elements);
+    }
+    return Arrays.asList(toBoxed(source));
+  }
+
+  private static long[] toPrimitive(Object source) {
+    if (source instanceof long[]) {
+      return (long[]) source;
+    }
+    Object[] elements = elements(source, long.class);
+    long[] result = new long[elements.length];
+    for (int i = 0; i < elements.length; i++) {
+      Object element = nonNull(elements[i], i, long.class);
+      result[i] = longValue(element);
+    }
+    return result;
+  }
+
+  private static Long[] toBoxed(Object source) {
+    if (source instanceof Long[]) {
+      return (Long[]) source;
+    }
+    if (source instanceof long[]) {
+      long[] values = (long[]) source;
+      Long[] result = new Long[values.length];
+      for (int i = 0; i < values.length; i++) {
+        result[i] = values[i];
+      }
+      return result;
+    }
+    Object[] elements = elements(source, Long.class);
+    Long[] result = new Long[elements.length];
+    for (int i = 0; i < elements.length; i++) {
+      Object element = elements[i];
+      if (element != null) {
+        result[i] = longValue(element);
+      }
+    }
+    return result;
+  }
+
+  @Override
+  public String toString() {
+    return this.getClass().getSimpleName() + '[' + (this.boxed ? "Long" : "long") + ']';
+  }
+
+}
+
+final class FloatArrayConverter extends ArrayConverter {
+
+  static final ArrayConverter PRIMITIVE = new FloatArrayConverter(false);
+
+  static final ArrayConverter BOXED = new FloatArrayConverter(true);
+
+  private final boolean boxed;
+
+  private FloatArrayConverter(boolean boxed) {
+    this.boxed = boxed;
+  }
+
+  @Override
+  Object toArray(Object source) {
+    if (this.boxed) {
+      return toBoxed(source);
+    } else {
+      return toPrimitive(source);
+    }
+  }
+
+  @Override
+  List<?> toList(Object source) {
+    if (source instanceof float[]) {
+      return Arrays.asList(toBoxed(source));
+    }
+    Object[] elements = elements(source, Float.class);
+    if (isObjectArray(elements)) {
+      for (int i = 0; i < elements.length; i++) {
+        Object element = elements[i];
+        if ((element != null) && !(element instanceof Float)) {
+          elements[i] = Float.valueOf(((Number) element).floatValue());
+        }
+      }
+      return Arrays.asList(elements);
+    }
+    return Arrays.asList(toBoxed(source));
+  }
+
+  private static float[] toPrimitive(Object source) {
+    if (source instanceof float[]) {
+      return (float[]) source;
+    }
+    Object[] elements = elements(source, float.class);
+    float[] result = new float[elements.length];
+    for (int i = 0; i < elements.length; i++) {
+      Object element = nonNull(elements[i], i, float.class);
+      result[i] = ((Number) element).floatValue();
+    }
+    return result;
+  }
+
+  private static Float[] toBoxed(Object source) {
+    if (source instanceof Float[]) {
+      return (Float[]) source;
+    }
+    if (source instanceof float[]) {
+      float[] values = (float[]) source;
+      Float[] result = new Float[values.length];
+      for (int i = 0; i < values.length; i++) {
+        result[i] = values[i];
+      }
+      return result;
+    }
+    Object[] elements = elements(source, Float.class);
+    Float[] result = new Float[elements.length];
+    for (int i = 0; i < elements.length; i++) {
+      Object element = elements[i];
+      if (element != null) {
+        result[i] = ((Number) element).floatValue();
+      }
+    }
+    return result;
+  }
+
+  @Override
+  public String toString() {
+    return this.getClass().getSimpleName() + '[' + (this.boxed ? "Float" : "float") + ']';
+  }
+
+}
+
+final class DoubleArrayConverter extends ArrayConverter {
+
+  static final ArrayConverter PRIMITIVE = new DoubleArrayConverter(false);
+
+  static final ArrayConverter BOXED = new DoubleArrayConverter(true);
+
+  private final boolean boxed;
+
+  private DoubleArrayConverter(boolean boxed) {
+    this.boxed = boxed;
+  }
+
+  @Override
+  Object toArray(Object source) {
+    if (this.boxed) {
+      return toBoxed(source);
+    } else {
+      return toPrimitive(source);
+    }
+  }
+
+  @Override
+  List<?> toList(Object source) {
+    if (source instanceof double[]) {
+      return Arrays.asList(toBoxed(source));
+    }
+    Object[] elements = elements(source, Double.class);
+    if (isObjectArray(elements)) {
+      for (int i = 0; i < elements.length; i++) {
+        Object element = elements[i];
+        if ((element != null) && !(element instanceof Double)) {
+          elements[i] = Double.valueOf(((Number) element).doubleValue());
+        }
+      }
+      return Arrays.asList(elements);
+    }
+    return Arrays.asList(toBoxed(source));
+  }
+
+  private static double[] toPrimitive(Object source) {
+    if (source instanceof double[]) {
+      return (double[]) source;
+    }
+    Object[] elements = elements(source, double.class);
+    double[] result = new double[elements.length];
+    for (int i = 0; i < elements.length; i++) {
+      Object element = nonNull(elements[i], i, double.class);
+      result[i] = ((Number) element).doubleValue();
+    }
+    return result;
+  }
+
+  private static Double[] toBoxed(Object source) {
+    if (source instanceof Double[]) {
+      return (Double[]) source;
+    }
+    if (source instanceof double[]) {
+      double[] values = (double[]) source;
+      Double[] result = new Double[values.length];
+      for (int i = 0; i < values.length; i++) {
+        result[i] = values[i];
+      }
+      return result;
+    }
+    Object[] elements = elements(source, Double.class);
+    Double[] result = new Double[elements.length];
+    for (int i = 0; i < elements.length; i++) {
+      Object element = elements[i];
+      if (element != null) {
+        result[i] = ((Number) element).doubleValue();
+      }
+    }
+    return result;
+  }
+
+  @Override
+  public String toString() {
+    return this.getClass().getSimpleName() + '[' + (this.boxed ? "Double" : "double") + ']';
+  }
+
+}
+
+/**
+ * Converts to arrays of non-primitive and non-box types like
+ * {@link String} or {@link BigDecimal}.
+ */
+final class ReferenceArrayConverter extends ArrayConverter {
+
+  private final Class<?> elementType;
+
+  ReferenceArrayConverter(Class<?> elementType) {
+    this.elementType = elementType;
+  }
+
+  @Override
+  Object toArray(Object source) {
+    Object[] elements = elements(source, this.elementType);
+    if (this.elementType.isAssignableFrom(elements.getClass().getComponentType())) {
+      return elements;
+    }
+    Object[] result = (Object[]) java.lang.reflect.Array.newInstance(this.elementType, elements.length);
+    // fails with ArrayStoreException if an element has the wrong type
+    System.arraycopy(elements, 0, result, 0, elements.length);
+    return result;
+  }
+
+  @Override
+  List<?> toList(Object source) {
+    Object[] elements = elements(source, this.elementType);
+    if (!this.elementType.isAssignableFrom(elements.getClass().getComponentType())) {
+      for (Object element : elements) {
+        if ((element != null) && !this.elementType.isInstance(element)) {
+          throw new ClassCastException("expected array of " + this.elementType + " but got element of " + element.getClass());
+        }
+      }
+    }
+    return Arrays.asList(elements);
+  }
+
+  @Override
+  public String toString() {
+    return this.getClass().getSimpleName() + '[' + ToStringUtils.classNameToString(this.elementType) + ']';
+  }
+
+}
@@ -0,0 +1,86 @@
+package com.github.marschall.storedprocedureproxy;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+
+/**
+ * Identifies a call by the method called and its arguments.
+ *
+ * <p>Arguments are compared deeply so that array arguments with equal
+ * elements are considered equal. The constructor does not copy the
+ * arguments, they must not be modified while the key is in use. Keys
+ * that are kept after the call should be created with
+ * {@link #copyOf(Method, Object[])}.</p>
+ *
+ * <p>This class is immutable.</p>
+ */
+final class CallKey {
+
+  private final Method method;
+
+  private final Object[] args;
+
+  private final int hashCode;
+
+  CallKey(Method method, Object[] args) {
+    this.method = method;
+    this.args = args != null ? args : new Object[0];
+    this.hashCode = (31 * method.hashCode()) + Arrays.deepHashCode(this.args);
+  }
+
+  /**
+   * Creates a key that is not affected by later modifications of array
+   * arguments. Collections are not copied.
+   *
+   * @param method the method called
+   * @param args the arguments, may be {@code null}
+   * @return the key
+   */
+  static CallKey copyOf(Method method, Object[] args) {
+    return new CallKey(method, args != null ? deepCopy(args) : null);
+  }
+
+  private static Object[] deepCopy(Object[] array) {
+    Object[] copy = array.clone();
+    for (int i = 0; i < copy.length; i++) {
+      Object element = copy[i];
+      if (element instanceof Object[]) {
+        copy[i] = deepCopy((Object[]) element);
+      } else if ((element != null) && element.getClass().isArray()) {
+        // primitive array
+        int length = Array.getLength(element);
+        Object elementCopy = Array.newInstance(element.getClass().getComponentType(), length);
+        System.arraycopy(element, 0, elementCopy, 0, length);
+        copy[i] = elementCopy;
+      }
+    }
+    return copy;
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (this == obj) {
+      return true;
+    }
+    if (!(obj instanceof CallKey)) {
+      return false;
+    }
+    CallKey other = (CallKey) obj;
+    return (this.hashCode == other.hashCode)
+            && this.method.equals(other.method)
+            && Arrays.deepEquals(this.args, other.args);
+  }
+
+  @Override
+  public int hashCode() {
+    return this.hashCode;
+  }
+
+  @Override
+  public String toString() {
+    return this.getClass().getSimpleName() + "[method=" + this.method.getName()
+            + ", args=" + Arrays.deepToString(this.args) + ']';
+  }
+
+}
@@ -1,13 +1,37 @@
 package com.github.marschall.storedprocedureproxy;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.UncheckedIOException;
 import java.lang.invoke.MethodHandle;
 import java.lang.invoke.MethodHandles;
 import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.sql.Array;
+import java.sql.CallableStatement;
 import java.sql.Connection;
+import java.sql.PreparedStatement;
 import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.SQLXML;
+import java.sql.Statement;
+import java.sql.Types;
 import java.util.Collection;
 
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import javax.xml.transform.Source;
+import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerConfigurationException;
+import javax.xml.transform.TransformerException;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.stax.StAXResult;
+
 import org.postgresql.PGConnection;
 
 interface CallResource extends AutoCloseable {
@@ -21,6 +45,18 @@ interface CallResource extends AutoCloseable {
 
 }
 
+/**
+ * A resource that binds itself rather than being bound with
+ * {@link CallableStatement#setObject(int, Object)}.
+ */
+interface SelfBindingResource {
+
+  void bind(CallableStatement statement, int parameterIndex) throws SQLException;
+
+  void bind(CallableStatement statement, String parameterName) throws SQLException;
+
+}
+
 final class NoResource implements CallResource {
 
   static final CallResource INSTANCE = new NoResource();
@@ -147,6 +183,140 @@ final class ArrayResource implements CallResource {
 
 }
 
+final class SqlXmlResource implements CallResource {
+
+  private final SQLXML xml;
+  private final int xmlIndex;
+
+  SqlXmlResource(SQLXML xml, int xmlIndex) {
+    this.xml = xml;
+    this.xmlIndex = xmlIndex;
+  }
+
+  @Override
+  public void close() throws SQLException {
+    this.xml.free();
+  }
+
+  @Override
+  public boolean hasResourceAt(int index) {
+    return index == this.xmlIndex;
+  }
+
+  @Override
+  public Object resourceAt(int index) {
+    if (index != this.xmlIndex) {
+      throw new IllegalArgumentException("no resource at: " + index);
+    }
+    return this.xml;
+  }
+
+  @Override
+  public String toString() {
+    return this.getClass().getSimpleName() + '[' + this.xmlIndex + ']';
+  }
+
+}
+
+/**
+ * A stream to be bound using {@link CallableStatement#setBinaryStream(int, InputStream, long)}
+ * or {@link CallableStatement#setCharacterStream(int, Reader, long)} instead of
+ * {@link CallableStatement#setObject(int, Object)}.
+ */
+final class LobStreamResource implements CallResource, SelfBindingResource {
+
+  static final long UNKNOWN_LENGTH = -1L;
+
+  private final int argumentIndex;
+
+  /**
+   * Either an {@link InputStream} or a {@link Reader}.
+   */
+  private final Object stream;
+
+  private final long length;
+
+  /**
+   * Whether we opened the stream and have to close it.
+   */
+  private final boolean ownsStream;
+
+  LobStreamResource(int argumentIndex, Object stream, long length, boolean ownsStream) {
+    this.argumentIndex = argumentIndex;
+    this.stream = stream;
+    this.length = length;
+    this.ownsStream = ownsStream;
+  }
+
+  @Override
+  public void bind(CallableStatement statement, int parameterIndex) throws SQLException {
+    if (this.stream instanceof Reader) {
+      Reader reader = (Reader) this.stream;
+      if (this.length == UNKNOWN_LENGTH) {
+        statement.setCharacterStream(parameterIndex, reader);
+      } else {
+        statement.setCharacterStream(parameterIndex, reader, this.length);
+      }
+    } else {
+      InputStream inputStream = (InputStream) this.stream;
+      if (this.length == UNKNOWN_LENGTH) {
+        statement.setBinaryStream(parameterIndex, inputStream);
+      } else {
+        statement.setBinaryStream(parameterIndex, inputStream, this.length);
+      }
+    }
+  }
+
+  @Override
+  public void bind(CallableStatement statement, String parameterName) throws SQLException {
+    if (this.stream instanceof Reader) {
+      Reader reader = (Reader) this.stream;
+      if (this.length == UNKNOWN_LENGTH) {
+        statement.setCharacterStream(parameterName, reader);
+      } else {
+        statement.setCharacterStream(parameterName, reader, this.length);
+      }
+    } else {
+      InputStream inputStream = (InputStream) this.stream;
+      if (this.length == UNKNOWN_LENGTH) {
+        statement.setBinaryStream(parameterName, inputStream);
+      } else {
+        statement.setBinaryStream(parameterName, inputStream, this.length);
+      }
+    }
+  }
+
+  @Override
+  public boolean hasResourceAt(int index) {
+    return index == this.argumentIndex;
+  }
+
+  @Override
+  public Object resourceAt(int index) {
+    if (index != this.argumentIndex) {
+      throw new IllegalArgumentException("no resource at: " + index);
+    }
+    return this;
+  }
+
+  @Override
+  public void close() throws SQLException {
+    if (this.ownsStream) {
+      try {
+        ((InputStream) this.stream).close();
+      } catch (IOException e) {
+        throw new SQLException("could not close stream", e);
+      }
+    }
+  }
+
+  @Override
+  public String toString() {
+    return this.getClass().getSimpleName() + '[' + this.argumentIndex + ']';
+  }
+
+}
+
 interface CallResourceFactory {
 
   CallResource createResource(Connection connection, Object[] args) throws SQLException;
@@ -221,14 +391,155 @@ final class CompositeFactory implements CallResourceFactory {
 
 }
 
+/**
+ * Binds streams, buffers, channels and files as LOBs without
+ * materializing them.
+ */
+final class LobStreamFactory implements CallResourceFactory {
+
+  private final int argumentIndex;
+
+  LobStreamFactory(int argumentIndex) {
+    this.argumentIndex = argumentIndex;
+  }
+
+  static boolean isLobStream(Class<?> parameterType) {
+    return InputStream.class.isAssignableFrom(parameterType)
+            || Reader.class.isAssignableFrom(parameterType)
+            || ReadableByteChannel.class.isAssignableFrom(parameterType)
+            || ByteBuffer.class.isAssignableFrom(parameterType)
+            || Path.class.isAssignableFrom(parameterType);
+  }
+
+  @Override
+  public CallResource createResource(Connection connection, Object[] args) {
+    Object argument = args[this.argumentIndex];
+    if (argument == null) {
+      // bound like any other null
+      return NoResource.INSTANCE;
+    } else if ((argument instanceof InputStream) || (argument instanceof Reader)) {
+      return new LobStreamResource(this.argumentIndex, argument, LobStreamResource.UNKNOWN_LENGTH, false);
+    } else if (argument instanceof ByteBuffer) {
+      ByteBuffer buffer = (ByteBuffer) argument;
+      return new LobStreamResource(this.argumentIndex, new ByteBufferInputStream(buffer), buffer.remaining(), false);
+    } else if (argument instanceof ReadableByteChannel) {
+      // the channel belongs to the caller, only the adapter would be closed
+      InputStream inputStream = Channels.newInputStream((ReadableByteChannel) argument);
+      return new LobStreamResource(this.argumentIndex, inputStream, LobStreamResource.UNKNOWN_LENGTH, false);
+    } else if (argument instanceof Path) {
+      return this.openFile((Path) argument);
+    }
+    throw new IllegalArgumentException("argument at index: " + this.argumentIndex + " expected to be a stream but was not");
+  }
+
+  private CallResource openFile(Path path) {
+    try {
+      long length = Files.size(path);
+      InputStream inputStream = Files.newInputStream(path);
+      return new LobStreamResource(this.argumentIndex, inputStream, length, true);
+    } catch (IOException e) {
+      throw new UncheckedIOException("could not open file: " + path, e);
+    }
+  }
+
+  @Override
+  public String toString() {
+    return this.getClass().getSimpleName() + "[argumentIndex=" + this.argumentIndex + ']';
+  }
+
+}
+
+/**
+ * Writes a {@link Source} or {@link XMLStreamWriterCallback} into a
+ * {@link SQLXML} through a {@link StAXResult} so that the document is
+ * never materialized as a {@link String} or DOM.
+ */
+final class SqlXmlFactory implements CallResourceFactory {
+
+  // creating a TransformerFactory involves a service lookup
+  private static final TransformerFactory TRANSFORMER_FACTORY = TransformerFactory.newInstance();
+
+  private final int argumentIndex;
+
+  SqlXmlFactory(int argumentIndex) {
+    this.argumentIndex = argumentIndex;
+  }
+
+  static boolean isXmlContent(Class<?> parameterType) {
+    return Source.class.isAssignableFrom(parameterType)
+            || XMLStreamWriterCallback.class.isAssignableFrom(parameterType);
+  }
+
+  @Override
+  public CallResource createResource(Connection connection, Object[] args) throws SQLException {
+    Object argument = args[this.argumentIndex];
+    if (argument == null) {
+      // bound like any other null
+      return NoResource.INSTANCE;
+    }
+    SQLXML xml = connection.createSQLXML();
+    try {
+      if (argument instanceof XMLStreamWriterCallback) {
+        this.write((XMLStreamWriterCallback) argument, xml);
+      } else {
+        this.transform((Source) argument, xml);
+      }
+    } catch (SQLException | RuntimeException e) {
+      ResourceCloser.closeAfterException(e, xml::free);
+      throw e;
+    }
+    return new SqlXmlResource(xml, this.argumentIndex);
+  }
+
+  private void write(XMLStreamWriterCallback callback, SQLXML xml) throws SQLException {
+    XMLStreamWriter writer = xml.setResult(StAXResult.class).getXMLStreamWriter();
+    try {
+      writer.writeStartDocument();
+      callback.write(writer);
+      writer.writeEndDocument();
+      writer.close();
+    } catch (XMLStreamException e) {
+      throw new SQLException("could not write XML of argument at index: " + this.argumentIndex, e);
+    }
+  }
+
+  private void transform(Source source, SQLXML xml) throws SQLException {
+    StAXResult result = xml.setResult(StAXResult.class);
+    try {
+      newTransformer().transform(source, result);
+    } catch (TransformerException e) {
+      throw new SQLException("could not write XML of argument at index: " + this.argumentIndex, e);
+    }
+  }
+
+  private static Transformer newTransformer() throws TransformerConfigurationException {
+    // TransformerFactory is not guaranteed to be thread safe
+    synchronized (TRANSFORMER_FACTORY) {
+      return TRANSFORMER_FACTORY.newTransformer();
+    }
+  }
+
+  @Override
+  public String toString() {
+    return this.getClass().getSimpleName() + "[argumentIndex=" + this.argumentIndex + ']';
+  }
+
+}
+
 abstract class AbstractArrayFactory implements CallResourceFactory {
 
   final int argumentIndex;
   final String typeName;
+  /**
+   * Unboxes collection arguments into primitive arrays, {@code null}
+   * if not supported by the driver or the element type.
+   */
+  final CollectionUnboxer unboxer;
 
-  AbstractArrayFactory(int argumentIndex, String typeName) {
+  AbstractArrayFactory(int argumentIndex, String typeName, CollectionUnboxer unboxer) {
     this.argumentIndex = argumentIndex;
     this.typeName = typeName;
+    this.unboxer = unboxer;
   }
 
   CallResource createArrayOf(Connection connection, Object[] args) throws SQLException {
@@ -238,6 +549,19 @@ abstract class AbstractArrayFactory implements CallResourceFactory {
     return new ArrayResource(array, this.argumentIndex);
   }
 
+  /**
+   * Unboxes a collection argument into a primitive array.
+   *
+   * @return the primitive array or {@code null} if the argument can not
+   *         be unboxed
+   */
+  Object unboxElements(Object elements) {
+    if ((this.unboxer != null) && (elements instanceof Collection)) {
+      return this.unboxer.unbox((Collection<?>) elements);
+    }
+    return null;
+  }
+
   private Object[] extractElements(Object[] args) {
     Object elements = args[this.argumentIndex];
     if (elements instanceof Collection) {
@@ -248,12 +572,7 @@ abstract class AbstractArrayFactory implements CallResourceFactory {
     }
     if (elements.getClass().isArray()) {
       // primitive array
-      int length = java.lang.reflect.Array.getLength(elements);
-      Object[] array = new Object[length];
-      for (int i = 0; i < length; ++i) {
-        array[i] = java.lang.reflect.Array.get(elements, i);
-      }
-      return array;
+      return ArrayConverter.box(elements);
     }
     throw new IllegalArgumentException("argument at index: " + this.argumentIndex + " expected to be a collection or array but was not");
   }
@@ -261,7 +580,8 @@ abstract class AbstractArrayFactory implements CallResourceFactory {
   @Override
   public String toString() {
     return this.getClass().getSimpleName() + "[argumentIndex=" + this.argumentIndex
-            + ", typeName=" + this.typeName + ']';
+            + ", typeName=" + this.typeName
+            + (this.unboxer != null ? ", unboxer=" + this.unboxer : "") + ']';
   }
 
 }
@@ -269,7 +589,8 @@ abstract class AbstractArrayFactory implements CallResourceFactory {
 final class ArrayFactory extends AbstractArrayFactory {
 
   ArrayFactory(int argumentIndex, String typeName) {
-    super(argumentIndex, typeName);
+    // createArrayOf needs an Object[] anyway
+    super(argumentIndex, typeName, null);
   }
 
   @Override
@@ -286,7 +607,11 @@ final class ArrayFactory extends AbstractArrayFactory {
 final class PgArrayFactory extends AbstractArrayFactory {
 
   PgArrayFactory(int argumentIndex, String typeName) {
-    super(argumentIndex, typeName);
+    this(argumentIndex, typeName, null);
+  }
+
+  PgArrayFactory(int argumentIndex, String typeName, CollectionUnboxer unboxer) {
+    super(argumentIndex, typeName, unboxer);
   }
 
   @Override
@@ -296,9 +621,12 @@ final class PgArrayFactory extends AbstractArrayFactory {
     Object elements = args[this.argumentIndex];
     if ((elements != null) && isSupportedPrimitiveArray(elements.getClass())) {
       return this.createPgArrayOf(connection, elements);
-    } else {
-      return this.createArrayOf(connection, args);
     }
+    Object unboxed = this.unboxElements(elements);
+    if (unboxed != null) {
+      return this.createPgArrayOf(connection, unboxed);
+    }
+    return this.createArrayOf(connection, args);
   }
 
   private ArrayResource createPgArrayOf(Connection connection, Object elements) throws SQLException {
@@ -320,6 +648,181 @@ final class PgArrayFactory extends AbstractArrayFactory {
 
 }
 
+/**
+ * Creates arrays of a composite type using the PostgreS API. Each element
+ * is encoded once into a row literal, the driver then sends the array
+ * of row literals as a single array parameter.
+ *
+ * <p>Elements can be records, the accessors of the components are
+ * looked up once when the factory is created, or {@code Object[]}
+ * holding the field values. Since {@code Object[]} elements are also
+ * used for nested arrays they are only bound as a composite type if
+ * the type name is given explicitly.</p>
+ *
+ * <p>Fields can be nested records or {@code Object[]} but not
+ * collections or other arrays, except {@code byte[]}.</p>
+ *
+ * @see <a href="https://www.postgresql.org/docs/current/rowtypes.html#ROWTYPES-IO-SYNTAX">Composite Type Input and Output Syntax</a>
+ */
+final class PgCompositeArrayFactory implements CallResourceFactory {
+
+  private final int argumentIndex;
+
+  private final String typeName;
+
+  /**
+   * The accessors of the record components, {@code null} for
+   * {@code Object[]} elements.
+   */
+  private final MethodHandle[] accessors;
+
+  PgCompositeArrayFactory(int argumentIndex, String typeName, Class<?> elementType) {
+    this.argumentIndex = argumentIndex;
+    this.typeName = typeName;
+    this.accessors = elementType == Object[].class ? null : TableRows.lookUpAccessors(elementType);
+  }
+
+  /**
+   * Whether elements of a type are bound as a composite type.
+   *
+   * @param elementType the element type, may be {@code null}
+   * @param explicitTypeName whether the type name was given explicitly
+   * @return whether the type is a record or {@code Object[]} with an
+   *         explicit type name
+   */
+  static boolean isComposite(Class<?> elementType, boolean explicitTypeName) {
+    if (elementType == null) {
+      return false;
+    }
+    if (elementType == Object[].class) {
+      return explicitTypeName;
+    }
+    return TableRows.lookUpAccessors(elementType) != null;
+  }
+
+  @Override
+  public CallResource createResource(Connection connection, Object[] args) throws SQLException {
+    Object elements = args[this.argumentIndex];
+    Object[] rows;
+    if (elements instanceof Collection) {
+      rows = ((Collection<?>) elements).toArray();
+    } else if (elements instanceof Object[]) {
+      rows = (Object[]) elements;
+    } else {
+      throw new IllegalArgumentException("argument at index: " + this.argumentIndex + " expected to be a collection or array but was not");
+    }
+    String[] literals = new String[rows.length];
+    for (int i = 0; i < rows.length; i++) {
+      Object row = rows[i];
+      if (row != null) {
+        literals[i] = toRowLiteral(this.toRow(row));
+      }
+    }
+    PGConnection pgConnection = connection.unwrap(PGConnection.class);
+    Array array = pgConnection.createArrayOf(this.typeName, literals);
+    return new ArrayResource(array, this.argumentIndex);
+  }
+
+  private Object[] toRow(Object element) {
+    if (this.accessors == null) {
+      return (Object[]) element;
+    }
+    return TableRows.toRow(element, this.accessors);
+  }
+
+  /**
+   * Encodes the field values of a row into a row literal.
+   *
+   * @param row the field values, not {@code null}
+   * @return the row literal
+   */
+  static String toRowLiteral(Object[] row) {
+    StringBuilder builder = new StringBuilder();
+    builder.append('(');
+    for (int i = 0; i < row.length; i++) {
+      if (i > 0) {
+        builder.append(',');
+      }
+      Object value = row[i];
+      if (value != null) {
+        // an absent value is null
+        appendFieldValue(toFieldValue(value), builder);
+      }
+    }
+    builder.append(')');
+    return builder.toString();
+  }
+
+  private static String toFieldValue(Object value) {
+    if (value instanceof Boolean) {
+      return ((Boolean) value) ? "t" : "f";
+    } else if (value instanceof byte[]) {
+      return toByteaHex((byte[]) value);
+    } else if (value instanceof Object[]) {
+      // nested composite
+      return toRowLiteral((Object[]) value);
+    } else if ((value instanceof Collection) || value.getClass().isArray()) {
+      // would otherwise be encoded with #toString()
+      throw new IllegalArgumentException("field of type " + value.getClass().getName()
+              + " not supported in a composite type, only nested records or Object[]");
+    } else {
+      MethodHandle[] nestedAccessors = TableRows.lookUpAccessors(value.getClass());
+      if (nestedAccessors != null) {
+        return toRowLiteral(TableRows.toRow(value, nestedAccessors));
+      }
+      return value.toString();
+    }
+  }
+
+  private static String toByteaHex(byte[] value) {
+    char[] digits = "0123456789abcdef".toCharArray();
+    StringBuilder builder = new StringBuilder(2 + (value.length * 2));
+    builder.append("\\x");
+    for (byte b : value) {
+      builder.append(digits[(b >> 4) & 0xF]);
+      builder.append(digits[b & 0xF]);
+    }
+    return builder.toString();
+  }
+
+  private static void appendFieldValue(String value, StringBuilder builder) {
+    if (!needsQuotes(value)) {
+      builder.append(value);
+      return;
+    }
+    builder.append('"');
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      if ((c == '"') || (c == '\\')) {
+        builder.append(c);
+      }
+      builder.append(c);
+    }
+    builder.append('"');
+  }
+
+  private static boolean needsQuotes(String value) {
+    if (value.isEmpty()) {
+      // an empty string has to be distinguished from null
+      return true;
+    }
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      if ((c == '"') || (c == '\\') || (c == '(') || (c == ')') || (c == ',') || Character.isWhitespace(c)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  @Override
+  public String toString() {
+    return this.getClass().getSimpleName() + "[argumentIndex=" + this.argumentIndex
+            + ", typeName=" + this.typeName + ']';
+  }
+
+}
+
 /**
  * Creates array using the Oracle API. In Oracle arrays are created
  * using the array name instead of the element name. In addition
@@ -349,7 +852,11 @@ final class OracleArrayFactory extends AbstractArrayFactory {
   }
 
   OracleArrayFactory(int argumentIndex, String typeName) {
-    super(argumentIndex, typeName);
+    this(argumentIndex, typeName, null);
+  }
+
+  OracleArrayFactory(int argumentIndex, String typeName, CollectionUnboxer unboxer) {
+    super(argumentIndex, typeName, unboxer);
   }
 
   @Override
@@ -384,6 +891,11 @@ final class OracleArrayFactory extends AbstractArrayFactory {
   private Object extractElements(Object[] args) {
     Object elements = args[this.argumentIndex];
     if (elements instanceof Collection) {
+      Object unboxed = this.unboxElements(elements);
+      if (unboxed != null) {
+        // primitive array, directly supported by Oracle
+        return unboxed;
+      }
       return ((Collection<?>) elements).toArray();
     }
     if (elements instanceof Object[]) {
@@ -398,15 +910,593 @@ final class OracleArrayFactory extends AbstractArrayFactory {
 
 }
 
-interface ArrayResourceFactoryFactory {
+/**
+ * Binds a PL/SQL index-by table using the Oracle API.
+ */
+final class PlsqlIndexTableResource implements CallResource, SelfBindingResource {
+
+  private final int argumentIndex;
+
+  private final Object elements;
+
+  private final int maxLength;
+
+  private final int length;
+
+  private final int elementSqlType;
+
+  private final int elementLength;
+
+  PlsqlIndexTableResource(int argumentIndex, Object elements, int maxLength, int length, int elementSqlType, int elementLength) {
+    this.argumentIndex = argumentIndex;
+    this.elements = elements;
+    this.maxLength = maxLength;
+    this.length = length;
+    this.elementSqlType = elementSqlType;
+    this.elementLength = elementLength;
+  }
+
+  @Override
+  public void bind(CallableStatement statement, int parameterIndex) throws SQLException {
+    PlsqlIndexTables.setPlsqlIndexTable(statement, parameterIndex, this.elements,
+            this.maxLength, this.length, this.elementSqlType, this.elementLength);
+  }
+
+  @Override
+  public void bind(CallableStatement statement, String parameterName) throws SQLException {
+    throw new SQLFeatureNotSupportedException("index-by tables can only be bound by index, parameter: " + parameterName);
+  }
+
+  @Override
+  public boolean hasResourceAt(int index) {
+    return index == this.argumentIndex;
+  }
+
+  @Override
+  public Object resourceAt(int index) {
+    if (index != this.argumentIndex) {
+      throw new IllegalArgumentException("no resource at: " + index);
+    }
+    return this;
+  }
+
+  @Override
+  public void close() {
+    // nothing, the elements are bound directly
+  }
 
-  CallResourceFactory createArrayFactory(int argumentIndex, String typeName);
+  @Override
+  public String toString() {
+    return this.getClass().getSimpleName() + '[' + this.argumentIndex + ']';
+  }
+
+}
+
+/**
+ * Creates PL/SQL index-by tables from collection or array arguments.
+ *
+ * <p>Collections of boxed primitives are unboxed so that the driver can
+ * bind them without a conversion of every element.</p>
+ */
+final class PlsqlIndexTableFactory implements CallResourceFactory {
+
+  private final int argumentIndex;
+
+  private final int maxLength;
+
+  private final int elementSqlType;
+
+  private final int elementLength;
+
+  /**
+   * Unboxes collection arguments into primitive arrays, {@code null}
+   * if the element type can not be unboxed.
+   */
+  private final CollectionUnboxer unboxer;
+
+  PlsqlIndexTableFactory(int argumentIndex, int maxLength, int elementSqlType, int elementLength, CollectionUnboxer unboxer) {
+    this.argumentIndex = argumentIndex;
+    this.maxLength = maxLength;
+    this.elementSqlType = elementSqlType;
+    this.elementLength = elementLength;
+    this.unboxer = unboxer;
+  }
+
+  @Override
+  public CallResource createResource(Connection connection, Object[] args) throws SQLException {
+    PlsqlIndexTables.checkSupported();
+    Object elements = this.extractElements(args[this.argumentIndex]);
+    int length = java.lang.reflect.Array.getLength(elements);
+    // the driver rejects a maximum length of 0
+    int maxLength = Math.max(Math.max(this.maxLength, length), 1);
+    int elementLength = this.elementLength;
+    if ((elementLength == 0) && (this.elementSqlType == Types.VARCHAR)) {
+      elementLength = maxStringLength((Object[]) elements);
+    }
+    return new PlsqlIndexTableResource(this.argumentIndex, elements, maxLength, length, this.elementSqlType, elementLength);
+  }
+
+  private Object extractElements(Object elements) {
+    if (elements instanceof Collection) {
+      if (this.unboxer != null) {
+        Object unboxed = this.unboxer.unbox((Collection<?>) elements);
+        if (unboxed != null) {
+          return unboxed;
+        }
+      }
+      return ((Collection<?>) elements).toArray();
+    }
+    if ((elements != null) && elements.getClass().isArray()) {
+      // primitive arrays are directly supported by Oracle
+      return elements;
+    }
+    throw new IllegalArgumentException("argument at index: " + this.argumentIndex + " expected to be a collection or array but was not");
+  }
+
+  private static int maxStringLength(Object[] elements) {
+    int maxLength = 1;
+    for (Object element : elements) {
+      if (element != null) {
+        maxLength = Math.max(maxLength, ((String) element).length());
+      }
+    }
+    return maxLength;
+  }
+
+  @Override
+  public String toString() {
+    return this.getClass().getSimpleName() + "[argumentIndex=" + this.argumentIndex
+            + ", maxLength=" + this.maxLength
+            + ", elementSqlType=" + this.elementSqlType
+            + ", elementLength=" + this.elementLength + ']';
+  }
+
+}
+
+/**
+ * Passes the name of a temporary table holding the staged elements of
+ * an argument. Deletes the staged rows when closed.
+ */
+final class TempTableResource implements CallResource, SelfBindingResource {
+
+  private final int argumentIndex;
+
+  private final String tableName;
+
+  private final Connection connection;
+
+  TempTableResource(int argumentIndex, String tableName, Connection connection) {
+    this.argumentIndex = argumentIndex;
+    this.tableName = tableName;
+    this.connection = connection;
+  }
+
+  @Override
+  public void bind(CallableStatement statement, int parameterIndex) throws SQLException {
+    statement.setString(parameterIndex, this.tableName);
+  }
+
+  @Override
+  public void bind(CallableStatement statement, String parameterName) throws SQLException {
+    statement.setString(parameterName, this.tableName);
+  }
+
+  @Override
+  public boolean hasResourceAt(int index) {
+    return index == this.argumentIndex;
+  }
+
+  @Override
+  public Object resourceAt(int index) {
+    if (index != this.argumentIndex) {
+      throw new IllegalArgumentException("no resource at: " + index);
+    }
+    return this;
+  }
+
+  @Override
+  public void close() throws SQLException {
+    TempTableFactory.deleteRows(this.connection, this.tableName);
+  }
+
+  @Override
+  public String toString() {
+    return this.getClass().getSimpleName() + '[' + this.argumentIndex + ']';
+  }
+
+}
+
+/**
+ * Stages the elements of an argument in a temporary table using a JDBC
+ * batch on the connection of the call.
+ *
+ * <p>Each element of the collection or array becomes a row. Elements can
+ * be an {@code Object[]} holding the column values, a record whose
+ * components are the column values or a single value for tables with
+ * only one column.</p>
+ */
+final class TempTableFactory implements CallResourceFactory {
+
+  private final int argumentIndex;
+
+  private final String tableName;
+
+  /**
+   * The statement creating the table, {@code null} if the table exists.
+   */
+  private final String createStatement;
+
+  private final String[] columnNames;
+
+  private final int batchSize;
+
+  TempTableFactory(int argumentIndex, String tableName, String createStatement, String[] columnNames, int batchSize) {
+    if (batchSize <= 0) {
+      throw new IllegalArgumentException("batch size must be positive but was: " + batchSize);
+    }
+    this.argumentIndex = argumentIndex;
+    this.tableName = tableName;
+    this.createStatement = createStatement;
+    this.columnNames = columnNames;
+    this.batchSize = batchSize;
+  }
+
+  @Override
+  public CallResource createResource(Connection connection, Object[] args) throws SQLException {
+    Object[] rows = this.extractRows(args[this.argumentIndex]);
+    if (this.createStatement != null) {
+      try (Statement statement = connection.createStatement()) {
+        statement.execute(this.createStatement);
+      }
+    }
+    TempTableResource resource = new TempTableResource(this.argumentIndex, this.tableName, connection);
+    if (rows.length > 0) {
+      try {
+        this.insertRows(connection, rows);
+      } catch (SQLException | RuntimeException e) {
+        ResourceCloser.closeAfterException(e, resource);
+        throw e;
+      }
+    }
+    return resource;
+  }
+
+  private Object[] extractRows(Object elements) {
+    if (elements == null) {
+      // staged as an empty table
+      return new Object[0];
+    } else if (elements instanceof Collection) {
+      return ((Collection<?>) elements).toArray();
+    } else if (elements instanceof Object[]) {
+      return (Object[]) elements;
+    } else if (elements.getClass().isArray()) {
+      // primitive array
+      return ArrayConverter.box(elements);
+    }
+    throw new IllegalArgumentException("argument at index: " + this.argumentIndex + " expected to be a collection or array but was not");
+  }
+
+  private void insertRows(Connection connection, Object[] rows) throws SQLException {
+    Object[] firstRow = TableRows.toRow(rows[0]);
+    try (PreparedStatement statement = connection.prepareStatement(this.buildInsertString(firstRow.length))) {
+      int batchCount = 0;
+      for (int i = 0; i < rows.length; i++) {
+        Object[] row = i == 0 ? firstRow : TableRows.toRow(rows[i]);
+        for (int j = 0; j < row.length; j++) {
+          statement.setObject(j + 1, row[j]);
+        }
+        statement.addBatch();
+        batchCount += 1;
+        if (batchCount == this.batchSize) {
+          statement.executeBatch();
+          batchCount = 0;
+        }
+      }
+      if (batchCount > 0) {
+        statement.executeBatch();
+      }
+    }
+  }
+
+  String buildInsertString(int columnCount) {
+    StringBuilder builder = new StringBuilder();
+    builder.append("INSERT INTO ");
+    builder.append(this.tableName);
+    int parameterCount = columnCount;
+    if (this.columnNames.length > 0) {
+      builder.append('(');
+      for (int i = 0; i < this.columnNames.length; i++) {
+        if (i > 0) {
+          builder.append(", ");
+        }
+        builder.append(this.columnNames[i]);
+      }
+      builder.append(')');
+      parameterCount = this.columnNames.length;
+    }
+    builder.append(" VALUES (");
+    for (int i = 0; i < parameterCount; i++) {
+      if (i > 0) {
+        builder.append(", ");
+      }
+      builder.append('?');
+    }
+    builder.append(')');
+    return builder.toString();
+  }
+
+  static void deleteRows(Connection connection, String tableName) throws SQLException {
+    // not TRUNCATE which implicitly commits on some databases
+    try (Statement statement = connection.createStatement()) {
+      statement.executeUpdate("DELETE FROM " + tableName);
+    }
+  }
 
-  ArrayResourceFactoryFactory JDBC = ArrayFactory::new;
+  @Override
+  public String toString() {
+    return this.getClass().getSimpleName() + "[argumentIndex=" + this.argumentIndex
+            + ", tableName=" + this.tableName
+            + ", batchSize=" + this.batchSize + ']';
+  }
+
+}
+
+/**
+ * Binds a table valued parameter using the SQL Server API.
+ *
+ * @see <a href="https://learn.microsoft.com/en-us/sql/connect/jdbc/using-table-valued-parameters">Using table-valued parameters</a>
+ */
+final class TableValuedParameterResource implements CallResource, SelfBindingResource {
+
+  private final int argumentIndex;
+
+  private final String typeName;
+
+  /**
+   * The {@code SQLServerDataTable}, {@code null} for an empty table.
+   */
+  private final Object dataTable;
+
+  TableValuedParameterResource(int argumentIndex, String typeName, Object dataTable) {
+    this.argumentIndex = argumentIndex;
+    this.typeName = typeName;
+    this.dataTable = dataTable;
+  }
+
+  @Override
+  public void bind(CallableStatement statement, int parameterIndex) throws SQLException {
+    TableValuedParameterFactory.setStructured(statement, parameterIndex, this.typeName, this.dataTable);
+  }
+
+  @Override
+  public void bind(CallableStatement statement, String parameterName) throws SQLException {
+    TableValuedParameterFactory.setStructured(statement, parameterName, this.typeName, this.dataTable);
+  }
+
+  @Override
+  public boolean hasResourceAt(int index) {
+    return index == this.argumentIndex;
+  }
+
+  @Override
+  public Object resourceAt(int index) {
+    if (index != this.argumentIndex) {
+      throw new IllegalArgumentException("no resource at: " + index);
+    }
+    return this;
+  }
 
-  ArrayResourceFactoryFactory ORACLE = OracleArrayFactory::new;
+  @Override
+  public void close() {
+    // nothing, the data table holds no database resources
+  }
+
+  @Override
+  public String toString() {
+    return this.getClass().getSimpleName() + '[' + this.argumentIndex + ']';
+  }
+
+}
+
+/**
+ * Creates table valued parameters using the SQL Server API. The type name
+ * is the name of the table type.
+ *
+ * <p>Each element of the collection or array becomes a row. Elements can
+ * be an {@code Object[]} holding the column values, a record whose
+ * components are the column values or a single value for tables with
+ * only one column. The column types are derived from the values of the
+ * first row.</p>
+ */
+final class TableValuedParameterFactory implements CallResourceFactory {
+
+  private static final Class<?> SQL_SERVER_CALLABLE_STATEMENT;
+  private static final MethodHandle NEW_DATA_TABLE;
+  private static final MethodHandle ADD_COLUMN_METADATA;
+  private static final MethodHandle ADD_ROW;
+  private static final MethodHandle SET_STRUCTURED_INDEX;
+  private static final MethodHandle SET_STRUCTURED_NAME;
+
+  static {
+    // https://learn.microsoft.com/en-us/sql/connect/jdbc/reference/sqlserverdatatable-class
+    Class<?> callableStatement;
+    MethodHandle newDataTable;
+    MethodHandle addColumnMetadata;
+    MethodHandle addRow;
+    MethodHandle setStructuredIndex;
+    MethodHandle setStructuredName;
+    try {
+      Class<?> dataTable = Class.forName("com.microsoft.sqlserver.jdbc.SQLServerDataTable");
+      callableStatement = Class.forName("com.microsoft.sqlserver.jdbc.ISQLServerCallableStatement");
+
+      MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+      newDataTable = lookup.unreflectConstructor(dataTable.getConstructor());
+      addColumnMetadata = lookup.unreflect(dataTable.getMethod("addColumnMetadata", String.class, int.class));
+      addRow = lookup.unreflect(dataTable.getMethod("addRow", Object[].class)).asFixedArity();
+      setStructuredIndex = lookup.unreflect(callableStatement.getMethod("setStructured", int.class, String.class, dataTable));
+      setStructuredName = lookup.unreflect(callableStatement.getMethod("setStructured", String.class, String.class, dataTable));
+    } catch (ReflectiveOperationException e) {
+      callableStatement = null;
+      newDataTable = null;
+      addColumnMetadata = null;
+      addRow = null;
+      setStructuredIndex = null;
+      setStructuredName = null;
+    }
+    SQL_SERVER_CALLABLE_STATEMENT = callableStatement;
+    NEW_DATA_TABLE = newDataTable;
+    ADD_COLUMN_METADATA = addColumnMetadata;
+    ADD_ROW = addRow;
+    SET_STRUCTURED_INDEX = setStructuredIndex;
+    SET_STRUCTURED_NAME = setStructuredName;
+  }
+
+  private final int argumentIndex;
+
+  private final String typeName;
+
+  TableValuedParameterFactory(int argumentIndex, String typeName) {
+    this.argumentIndex = argumentIndex;
+    this.typeName = typeName;
+  }
+
+  @Override
+  public CallResource createResource(Connection connection, Object[] args) throws SQLException {
+    if (NEW_DATA_TABLE == null) {
+      throw new IllegalStateException("SQL Server JDBC classes not found in expected shape");
+    }
+    Object elements = args[this.argumentIndex];
+    Object dataTable = this.createDataTable(elements);
+    return new TableValuedParameterResource(this.argumentIndex, this.typeName, dataTable);
+  }
+
+  private Object createDataTable(Object elements) throws SQLException {
+    if (elements == null) {
+      return null;
+    }
+    Object[] rows;
+    if (elements instanceof Collection) {
+      rows = ((Collection<?>) elements).toArray();
+    } else if (elements instanceof Object[]) {
+      rows = (Object[]) elements;
+    } else if (elements.getClass().isArray()) {
+      // primitive array
+      rows = ArrayConverter.box(elements);
+    } else {
+      throw new IllegalArgumentException("argument at index: " + this.argumentIndex + " expected to be a collection or array but was not");
+    }
+    if (rows.length == 0) {
+      // sent as an empty table
+      return null;
+    }
+    try {
+      Object dataTable = NEW_DATA_TABLE.invoke();
+      Object[][] values = new Object[rows.length][];
+      for (int i = 0; i < rows.length; i++) {
+        values[i] = TableRows.toRow(rows[i]);
+      }
+      int columnCount = values[0].length;
+      for (int i = 0; i < columnCount; i++) {
+        ADD_COLUMN_METADATA.invoke(dataTable, "c" + (i + 1), columnType(values, i));
+      }
+      for (Object[] row : values) {
+        ADD_ROW.invoke(dataTable, row);
+      }
+      return dataTable;
+    } catch (SQLException e) {
+      throw e;
+    } catch (RuntimeException e) {
+      throw e;
+    } catch (Error e) {
+      throw e;
+    } catch (Throwable e) {
+      // should not happen, does not fall into type signature
+      throw new RuntimeException("unknwon exception occured when calling " + ADD_ROW, e);
+    }
+  }
+
+  private static int columnType(Object[][] values, int columnIndex) {
+    for (Object[] row : values) {
+      Object value = row[columnIndex];
+      if (value != null) {
+        return DefaultTypeMapper.INSTANCE.mapToSqlType(value.getClass());
+      }
+    }
+    // only null values, the type does not matter
+    return Types.VARCHAR;
+  }
+
+  static void setStructured(CallableStatement statement, int parameterIndex, String typeName, Object dataTable) throws SQLException {
+    Object sqlServerStatement = statement.unwrap(SQL_SERVER_CALLABLE_STATEMENT);
+    try {
+      SET_STRUCTURED_INDEX.invoke(sqlServerStatement, parameterIndex, typeName, dataTable);
+    } catch (SQLException e) {
+      throw e;
+    } catch (RuntimeException e) {
+      throw e;
+    } catch (Error e) {
+      throw e;
+    } catch (Throwable e) {
+      // should not happen, does not fall into type signature
+      throw new RuntimeException("unknwon exception occured when calling " + SET_STRUCTURED_INDEX, e);
+    }
+  }
+
+  static void setStructured(CallableStatement statement, String parameterName, String typeName, Object dataTable) throws SQLException {
+    Object sqlServerStatement = statement.unwrap(SQL_SERVER_CALLABLE_STATEMENT);
+    try {
+      SET_STRUCTURED_NAME.invoke(sqlServerStatement, parameterName, typeName, dataTable);
+    } catch (SQLException e) {
+      throw e;
+    } catch (RuntimeException e) {
+      throw e;
+    } catch (Error e) {
+      throw e;
+    } catch (Throwable e) {
+      // should not happen, does not fall into type signature
+      throw new RuntimeException("unknwon exception occured when calling " + SET_STRUCTURED_NAME, e);
+    }
+  }
+
+  @Override
+  public String toString() {
+    return this.getClass().getSimpleName() + "[argumentIndex=" + this.argumentIndex
+            + ", typeName=" + this.typeName + ']';
+  }
+
+}
+
+interface ArrayResourceFactoryFactory {
+
+  /**
+   * Creates the factory for an array argument.
+   *
+   * @param argumentIndex the index of the argument
+   * @param typeName the SQL type name
+   * @param elementType the element type of the array or collection,
+   *        {@code null} if not known
+   * @param explicitTypeName whether the type name was given with a
+   *        {@link com.github.marschall.storedprocedureproxy.annotations.TypeName}
+   * @param unboxer unboxes collection arguments, {@code null} if the
+   *        element type can not be unboxed
+   * @return the factory for the argument
+   */
+  CallResourceFactory createArrayFactory(int argumentIndex, String typeName, Class<?> elementType,
+          boolean explicitTypeName, CollectionUnboxer unboxer);
+
+  ArrayResourceFactoryFactory JDBC = (argumentIndex, typeName, elementType, explicitTypeName, unboxer) -> new ArrayFactory(argumentIndex, typeName);
+
+  ArrayResourceFactoryFactory ORACLE = (argumentIndex, typeName, elementType, explicitTypeName, unboxer) -> new OracleArrayFactory(argumentIndex, typeName, unboxer);
+
+  ArrayResourceFactoryFactory POSTGRES = (argumentIndex, typeName, elementType, explicitTypeName, unboxer) -> {
+    if (PgCompositeArrayFactory.isComposite(elementType, explicitTypeName)) {
+      return new PgCompositeArrayFactory(argumentIndex, typeName, elementType);
+    } else {
+      return new PgArrayFactory(argumentIndex, typeName, unboxer);
+    }
+  };
 
-  ArrayResourceFactoryFactory POSTGRES = PgArrayFactory::new;
+  ArrayResourceFactoryFactory SQL_SERVER = (argumentIndex, typeName, elementType, explicitTypeName, unboxer) -> new TableValuedParameterFactory(argumentIndex, typeName);
 
 }
 
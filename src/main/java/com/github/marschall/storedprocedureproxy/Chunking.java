@@ -0,0 +1,272 @@
+package com.github.marschall.storedprocedureproxy;
+
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import com.github.marschall.storedprocedureproxy.annotations.Chunked;
+
+/**
+ * Splits an array or collection argument into chunks and merges the
+ * results of the calls for every chunk.
+ *
+ * <p>This class is immutable.</p>
+ *
+ * @see Chunked
+ */
+final class Chunking {
+
+  private final int argumentIndex;
+
+  private final int chunkSize;
+
+  private final boolean parallel;
+
+  private final ResultMerger merger;
+
+  Chunking(int argumentIndex, int chunkSize, boolean parallel, ResultMerger merger) {
+    if (chunkSize <= 0) {
+      throw new IllegalArgumentException("chunk size must be positive but was: " + chunkSize);
+    }
+    this.argumentIndex = argumentIndex;
+    this.chunkSize = chunkSize;
+    this.parallel = parallel;
+    this.merger = merger;
+  }
+
+  boolean isParallel() {
+    return this.parallel;
+  }
+
+  /**
+   * Whether the arguments of a call need to be split.
+   *
+   * @param args the arguments of the call
+   * @return whether the chunked argument has more elements than the
+   *         chunk size
+   */
+  boolean needsChunking(Object[] args) {
+    Object elements = args[this.argumentIndex];
+    return (elements != null) && (size(elements) > this.chunkSize);
+  }
+
+  private static int size(Object elements) {
+    if (elements instanceof Collection) {
+      return ((Collection<?>) elements).size();
+    } else {
+      return Array.getLength(elements);
+    }
+  }
+
+  /**
+   * Splits the arguments of a call into the arguments for every chunk.
+   *
+   * @param args the arguments of the call
+   * @return the arguments of every chunk in order
+   */
+  Object[][] split(Object[] args) {
+    Object elements = args[this.argumentIndex];
+    int size = size(elements);
+    int chunkCount = ((size - 1) / this.chunkSize) + 1;
+    Object[][] chunks = new Object[chunkCount][];
+    List<?> list = null;
+    if (elements instanceof List) {
+      list = (List<?>) elements;
+    } else if (elements instanceof Collection) {
+      list = new ArrayList<>((Collection<?>) elements);
+    }
+    for (int i = 0; i < chunkCount; i++) {
+      int from = i * this.chunkSize;
+      int to = Math.min(from + this.chunkSize, size);
+      Object[] chunkArgs = args.clone();
+      if (list != null) {
+        chunkArgs[this.argumentIndex] = list.subList(from, to);
+      } else {
+        Object chunk = Array.newInstance(elements.getClass().getComponentType(), to - from);
+        System.arraycopy(elements, from, chunk, 0, to - from);
+        chunkArgs[this.argumentIndex] = chunk;
+      }
+      chunks[i] = chunkArgs;
+    }
+    return chunks;
+  }
+
+  /**
+   * Merges the results of the calls for every chunk.
+   *
+   * @param results the results in order of the chunks
+   * @return the merged result
+   */
+  Object merge(Object[] results) {
+    return this.merger.merge(results);
+  }
+
+  @Override
+  public String toString() {
+    return this.getClass().getSimpleName() + "[argumentIndex=" + this.argumentIndex
+            + ", chunkSize=" + this.chunkSize
+            + (this.parallel ? ", parallel" : "")
+            + ", merger=" + this.merger + ']';
+  }
+
+}
+
+/**
+ * Merges the results of several calls into one.
+ */
+abstract class ResultMerger {
+
+  /**
+   * Returns the merger for a method return type.
+   *
+   * @param returnType the return type of the method
+   * @param sumResults whether {@code int} and {@code long} results
+   *        should be summed up
+   * @return the merger or {@code null} if results of the type can not be
+   *         merged
+   */
+  static ResultMerger forReturnType(Class<?> returnType, boolean sumResults) {
+    if (sumResults) {
+      if (returnType == int.class) {
+        return IntSumResultMerger.INSTANCE;
+      } else if (returnType == long.class) {
+        return LongSumResultMerger.INSTANCE;
+      } else {
+        return null;
+      }
+    }
+    if (returnType == void.class) {
+      return VoidResultMerger.INSTANCE;
+    } else if (returnType == List.class) {
+      return ListResultMerger.INSTANCE;
+    } else if (returnType.isArray()) {
+      return new ArrayResultMerger(returnType.getComponentType());
+    } else {
+      return null;
+    }
+  }
+
+  abstract Object merge(Object[] results);
+
+  @Override
+  public String toString() {
+    return this.getClass().getSimpleName();
+  }
+
+}
+
+final class VoidResultMerger extends ResultMerger {
+
+  static final ResultMerger INSTANCE = new VoidResultMerger();
+
+  private VoidResultMerger() {
+    super();
+  }
+
+  @Override
+  Object merge(Object[] results) {
+    return null;
+  }
+
+}
+
+final class ListResultMerger extends ResultMerger {
+
+  static final ResultMerger INSTANCE = new ListResultMerger();
+
+  private ListResultMerger() {
+    super();
+  }
+
+  @Override
+  Object merge(Object[] results) {
+    int size = 0;
+    for (Object result : results) {
+      if (result != null) {
+        size += ((List<?>) result).size();
+      }
+    }
+    List<Object> merged = new ArrayList<>(size);
+    for (Object result : results) {
+      if (result != null) {
+        merged.addAll((List<?>) result);
+      }
+    }
+    return merged;
+  }
+
+}
+
+final class ArrayResultMerger extends ResultMerger {
+
+  private final Class<?> componentType;
+
+  ArrayResultMerger(Class<?> componentType) {
+    this.componentType = componentType;
+  }
+
+  @Override
+  Object merge(Object[] results) {
+    int length = 0;
+    for (Object result : results) {
+      if (result != null) {
+        length += Array.getLength(result);
+      }
+    }
+    Object merged = Array.newInstance(this.componentType, length);
+    int position = 0;
+    for (Object result : results) {
+      if (result != null) {
+        int resultLength = Array.getLength(result);
+        System.arraycopy(result, 0, merged, position, resultLength);
+        position += resultLength;
+      }
+    }
+    return merged;
+  }
+
+  @Override
+  public String toString() {
+    return this.getClass().getSimpleName() + '[' + ToStringUtils.classNameToString(this.componentType) + ']';
+  }
+
+}
+
+final class IntSumResultMerger extends ResultMerger {
+
+  static final ResultMerger INSTANCE = new IntSumResultMerger();
+
+  private IntSumResultMerger() {
+    super();
+  }
+
+  @Override
+  Object merge(Object[] results) {
+    int sum = 0;
+    for (Object result : results) {
+      sum += (Integer) result;
+    }
+    return sum;
+  }
+
+}
+
+final class LongSumResultMerger extends ResultMerger {
+
+  static final ResultMerger INSTANCE = new LongSumResultMerger();
+
+  private LongSumResultMerger() {
+    super();
+  }
+
+  @Override
+  Object merge(Object[] results) {
+    long sum = 0L;
+    for (Object result : results) {
+      sum += (Long) result;
+    }
+    return sum;
+  }
+
+}
@@ -0,0 +1,247 @@
+package com.github.marschall.storedprocedureproxy;
+
+import java.io.FilterInputStream;
+import java.io.FilterReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.sql.Blob;
+import java.sql.Clob;
+import java.sql.SQLException;
+import java.sql.SQLXML;
+
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.util.StreamReaderDelegate;
+import javax.xml.transform.stax.StAXSource;
+
+/**
+ * Holds on to the JDBC objects a result depends on and closes them
+ * when the result is closed.
+ *
+ * <p>Used for results that have to outlive the procedure call like
+ * LOB streams.</p>
+ */
+interface ResourceOwner {
+
+  /**
+   * Adds resources to be closed once the result is closed. Resources
+   * are closed in the order they were added.
+   *
+   * @param resources the resources to close, elements may be {@code null}
+   */
+  void closeAlso(AutoCloseable... resources);
+
+}
+
+final class ResourceCloser {
+
+  private AutoCloseable[] resources;
+
+  ResourceCloser(AutoCloseable... resources) {
+    this.resources = resources;
+  }
+
+  void add(AutoCloseable... additionalResources) {
+    AutoCloseable[] newResources = new AutoCloseable[this.resources.length + additionalResources.length];
+    System.arraycopy(this.resources, 0, newResources, 0, this.resources.length);
+    System.arraycopy(additionalResources, 0, newResources, this.resources.length, additionalResources.length);
+    this.resources = newResources;
+  }
+
+  void close() throws IOException {
+    Exception firstException = null;
+    for (AutoCloseable resource : this.resources) {
+      if (resource == null) {
+        continue;
+      }
+      try {
+        resource.close();
+      } catch (Exception e) {
+        if (firstException == null) {
+          firstException = e;
+        } else {
+          firstException.addSuppressed(e);
+        }
+      }
+    }
+    // make close idempotent
+    this.resources = new AutoCloseable[0];
+    if (firstException instanceof IOException) {
+      throw (IOException) firstException;
+    } else if (firstException instanceof RuntimeException) {
+      throw (RuntimeException) firstException;
+    } else if (firstException != null) {
+      throw new IOException("could not release resources", firstException);
+    }
+  }
+
+  /**
+   * Closes the given resources after an exception occurred, all
+   * exceptions are added as suppressed exceptions.
+   */
+  static void closeAfterException(Exception originalException, AutoCloseable... resources) {
+    for (AutoCloseable resource : resources) {
+      if (resource == null) {
+        continue;
+      }
+      try {
+        resource.close();
+      } catch (Exception e) {
+        originalException.addSuppressed(e);
+      }
+    }
+  }
+
+}
+
+/**
+ * Streams a {@link Blob} and frees it, as well as the statement and
+ * connection it came from, when closed.
+ */
+final class ClosingInputStream extends FilterInputStream implements ResourceOwner {
+
+  private final ResourceCloser closer;
+
+  ClosingInputStream(Blob blob, AutoCloseable resultSet) throws SQLException {
+    super(blob.getBinaryStream());
+    this.closer = new ResourceCloser(this.in, blob::free, resultSet);
+  }
+
+  @Override
+  public void closeAlso(AutoCloseable... resources) {
+    this.closer.add(resources);
+  }
+
+  @Override
+  public void close() throws IOException {
+    this.closer.close();
+  }
+
+}
+
+/**
+ * Streams a {@link Clob} and frees it, as well as the statement and
+ * connection it came from, when closed.
+ */
+final class ClosingReader extends FilterReader implements ResourceOwner {
+
+  private final ResourceCloser closer;
+
+  ClosingReader(Clob clob, AutoCloseable resultSet) throws SQLException {
+    super(clob.getCharacterStream());
+    this.closer = new ResourceCloser(this.in, clob::free, resultSet);
+  }
+
+  @Override
+  public void closeAlso(AutoCloseable... resources) {
+    this.closer.add(resources);
+  }
+
+  @Override
+  public void close() throws IOException {
+    this.closer.close();
+  }
+
+}
+
+/**
+ * Reads a {@link SQLXML} and frees it, as well as the statement and
+ * connection it came from, when closed.
+ */
+final class ClosingXMLStreamReader extends StreamReaderDelegate implements ResourceOwner {
+
+  private final ResourceCloser closer;
+
+  ClosingXMLStreamReader(XMLStreamReader reader, SQLXML xml, AutoCloseable resultSet) {
+    super(reader);
+    this.closer = new ResourceCloser(reader::close, xml::free, resultSet);
+  }
+
+  @Override
+  public void closeAlso(AutoCloseable... resources) {
+    this.closer.add(resources);
+  }
+
+  @Override
+  public void close() throws XMLStreamException {
+    try {
+      this.closer.close();
+    } catch (IOException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof XMLStreamException) {
+        throw (XMLStreamException) cause;
+      }
+      throw new XMLStreamException("could not release resources", e);
+    }
+  }
+
+}
+
+/**
+ * {@link StAXSource} whose {@link #getXMLStreamReader()} has to be
+ * closed to release the statement and connection.
+ */
+final class ClosingStAXSource extends StAXSource implements ResourceOwner {
+
+  private final ClosingXMLStreamReader reader;
+
+  ClosingStAXSource(ClosingXMLStreamReader reader) {
+    super(reader);
+    this.reader = reader;
+  }
+
+  @Override
+  public void closeAlso(AutoCloseable... resources) {
+    this.reader.closeAlso(resources);
+  }
+
+}
+
+/**
+ * Reads from the remaining content of a {@link ByteBuffer}
+ * without copying it into a {@code byte[]} first.
+ */
+final class ByteBufferInputStream extends InputStream {
+
+  private final ByteBuffer buffer;
+
+  ByteBufferInputStream(ByteBuffer buffer) {
+    // don't change the position of the callers buffer
+    this.buffer = buffer.duplicate();
+  }
+
+  @Override
+  public int read() {
+    if (!this.buffer.hasRemaining()) {
+      return -1;
+    }
+    return Byte.toUnsignedInt(this.buffer.get());
+  }
+
+  @Override
+  public int read(byte[] b, int off, int len) {
+    if (len == 0) {
+      return 0;
+    }
+    if (!this.buffer.hasRemaining()) {
+      return -1;
+    }
+    int length = Math.min(len, this.buffer.remaining());
+    this.buffer.get(b, off, length);
+    return length;
+  }
+
+  @Override
+  public long skip(long n) {
+    int length = (int) Math.min(Math.max(n, 0L), this.buffer.remaining());
+    this.buffer.position(this.buffer.position() + length);
+    return length;
+  }
+
+  @Override
+  public int available() {
+    return this.buffer.remaining();
+  }
+
+}
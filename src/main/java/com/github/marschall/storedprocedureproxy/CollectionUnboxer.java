@@ -0,0 +1,166 @@
+package com.github.marschall.storedprocedureproxy;
+
+import java.util.Collection;
+
+/**
+ * Unboxes a {@link Collection} argument into a primitive array so that
+ * drivers with support for primitive arrays can use their binary
+ * encoding instead of boxing every element again.
+ *
+ * <p>Selected once per method from the type argument of the
+ * parameter.</p>
+ */
+abstract class CollectionUnboxer {
+
+  /**
+   * Returns the unboxer for collections of the given element type.
+   *
+   * @param elementType the type argument of the collection parameter
+   * @return the unboxer or {@code null} if the element type can not be unboxed
+   */
+  static CollectionUnboxer forElementType(Class<?> elementType) {
+    if (elementType == Integer.class) {
+      return IntCollectionUnboxer.INSTANCE;
+    } else if (elementType == Long.class) {
+      return LongCollectionUnboxer.INSTANCE;
+    } else if (elementType == Double.class) {
+      return DoubleCollectionUnboxer.INSTANCE;
+    } else if (elementType == Float.class) {
+      return FloatCollectionUnboxer.INSTANCE;
+    } else if (elementType == Short.class) {
+      return ShortCollectionUnboxer.INSTANCE;
+    } else {
+      return null;
+    }
+  }
+
+  /**
+   * Unboxes the elements of a collection.
+   *
+   * @param collection the collection to unbox, not {@code null}
+   * @return the primitive array or {@code null} if the collection
+   *         contains {@code null}
+   */
+  abstract Object unbox(Collection<?> collection);
+
+  @Override
+  public String toString() {
+    return this.getClass().getSimpleName();
+  }
+
+}
+
+final class IntCollectionUnboxer extends CollectionUnboxer {
+
+  static final CollectionUnboxer INSTANCE = new IntCollectionUnboxer();
+
+  private IntCollectionUnboxer() {
+    super();
+  }
+
+  @Override
+  Object unbox(Collection<?> collection) {
+    int[] values = new int[collection.size()];
+    int i = 0;
+    for (Object element : collection) {
+      if (element == null) {
+        return null;
+      }
+      values[i++] = (Integer) element;
+    }
+    return values;
+  }
+
+}
+
+final class LongCollectionUnboxer extends CollectionUnboxer {
+
+  static final CollectionUnboxer INSTANCE = new LongCollectionUnboxer();
+
+  private LongCollectionUnboxer() {
+    super();
+  }
+
+  @Override
+  Object unbox(Collection<?> collection) {
+    long[] values = new long[collection.size()];
+    int i = 0;
+    for (Object element : collection) {
+      if (element == null) {
+        return null;
+      }
+      values[i++] = (Long) element;
+    }
+    return values;
+  }
+
+}
+
+final class DoubleCollectionUnboxer extends CollectionUnboxer {
+
+  static final CollectionUnboxer INSTANCE = new DoubleCollectionUnboxer();
+
+  private DoubleCollectionUnboxer() {
+    super();
+  }
+
+  @Override
+  Object unbox(Collection<?> collection) {
+    double[] values = new double[collection.size()];
+    int i = 0;
+    for (Object element : collection) {
+      if (element == null) {
+        return null;
+      }
+      values[i++] = (Double) element;
+    }
+    return values;
+  }
+
+}
+
+final class FloatCollectionUnboxer extends CollectionUnboxer {
+
+  static final CollectionUnboxer INSTANCE = new FloatCollectionUnboxer();
+
+  private FloatCollectionUnboxer() {
+    super();
+  }
+
+  @Override
+  Object unbox(Collection<?> collection) {
+    float[] values = new float[collection.size()];
+    int i = 0;
+    for (Object element : collection) {
+      if (element == null) {
+        return null;
+      }
+      values[i++] = (Float) element;
+    }
+    return values;
+  }
+
+}
+
+final class ShortCollectionUnboxer extends CollectionUnboxer {
+
+  static final CollectionUnboxer INSTANCE = new ShortCollectionUnboxer();
+
+  private ShortCollectionUnboxer() {
+    super();
+  }
+
+  @Override
+  Object unbox(Collection<?> collection) {
+    short[] values = new short[collection.size()];
+    int i = 0;
+    for (Object element : collection) {
+      if (element == null) {
+        return null;
+      }
+      values[i++] = (Short) element;
+    }
+    return values;
+  }
+
+}
@@ -0,0 +1,715 @@
+package com.github.marschall.storedprocedureproxy;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.Objects;
+
+/**
+ * Writes the rows of a ref cursor or {@link ResultSet} directly to a
+ * byte destination without creating intermediate Java objects.
+ *
+ * <p>This class is used as an argument to a procedure method instead of
+ * a {@link ValueExtractor}. The return type of the method has to be
+ * either {@code void}, {@code int} or {@code long}, in the later two
+ * cases the number of exported rows is returned.</p>
+ * <pre><code>
+ *  &#64;OutParameter
+ *  long exportOrders(int customerId, CursorExport export);
+ *
+ *  procedures.exportOrders(42, CursorExport.csv(Paths.get("orders.csv")));
+ * </code></pre>
+ *
+ * <p>Rows are encoded into a single buffer that is reused for all
+ * rows. When exporting to a {@link WritableByteChannel} or {@link Path}
+ * a direct buffer is used, when exporting to an {@link OutputStream}
+ * a heap buffer is used.</p>
+ *
+ * <p>The supported formats are:</p>
+ * <dl>
+ *  <dt>CSV</dt>
+ *  <dd><a href="https://tools.ietf.org/html/rfc4180">RFC 4180</a> with
+ *  a header line containing the column labels, UTF-8 encoded,
+ *  {@code NULL} is written as an empty field.</dd>
+ *  <dt>binary</dt>
+ *  <dd>every value is written as a big endian 4 byte length followed by
+ *  the value bytes. A length of {@code -1} means {@code NULL}.
+ *  Integer columns are written as 8 byte big endian {@code long}s,
+ *  floating point columns as 8 byte IEEE 754 {@code double}s, boolean
+ *  columns as a single byte, binary columns as is and all other
+ *  columns as UTF-8 encoded strings. There is no header and
+ *  no row separator.</dd>
+ * </dl>
+ *
+ * <p>Instances of this class should only be used for a single call.
+ * Channels and streams passed in are not closed, files are created
+ * or truncated and closed after the call.</p>
+ *
+ * <p>{@link IOException}s are thrown as {@link UncheckedIOException}s.</p>
+ */
+public final class CursorExport {
+
+  static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+  private final RowEncoder encoder;
+
+  private final ExportTarget target;
+
+  private CursorExport(RowEncoder encoder, ExportTarget target) {
+    this.encoder = encoder;
+    this.target = target;
+  }
+
+  /**
+   * Exports the rows as CSV to an {@link OutputStream}.
+   *
+   * @param outputStream the stream to write to, not closed, not {@code null}
+   * @return the export to pass to the procedure method
+   */
+  public static CursorExport csv(OutputStream outputStream) {
+    Objects.requireNonNull(outputStream);
+    return new CursorExport(CsvRowEncoder.INSTANCE, new OutputStreamTarget(outputStream));
+  }
+
+  /**
+   * Exports the rows as CSV to an {@link WritableByteChannel}.
+   *
+   * @param channel the channel to write to, not closed, not {@code null}
+   * @return the export to pass to the procedure method
+   */
+  public static CursorExport csv(WritableByteChannel channel) {
+    Objects.requireNonNull(channel);
+    return new CursorExport(CsvRowEncoder.INSTANCE, new ChannelTarget(channel));
+  }
+
+  /**
+   * Exports the rows as CSV to a file.
+   *
+   * @param path the file to write to, created or truncated, not {@code null}
+   * @return the export to pass to the procedure method
+   */
+  public static CursorExport csv(Path path) {
+    Objects.requireNonNull(path);
+    return new CursorExport(CsvRowEncoder.INSTANCE, new PathTarget(path));
+  }
+
+  /**
+   * Exports the rows in the binary format to an {@link OutputStream}.
+   *
+   * @param outputStream the stream to write to, not closed, not {@code null}
+   * @return the export to pass to the procedure method
+   */
+  public static CursorExport binary(OutputStream outputStream) {
+    Objects.requireNonNull(outputStream);
+    return new CursorExport(BinaryRowEncoder.INSTANCE, new OutputStreamTarget(outputStream));
+  }
+
+  /**
+   * Exports the rows in the binary format to an {@link WritableByteChannel}.
+   *
+   * @param channel the channel to write to, not closed, not {@code null}
+   * @return the export to pass to the procedure method
+   */
+  public static CursorExport binary(WritableByteChannel channel) {
+    Objects.requireNonNull(channel);
+    return new CursorExport(BinaryRowEncoder.INSTANCE, new ChannelTarget(channel));
+  }
+
+  /**
+   * Exports the rows in the binary format to a file.
+   *
+   * @param path the file to write to, created or truncated, not {@code null}
+   * @return the export to pass to the procedure method
+   */
+  public static CursorExport binary(Path path) {
+    Objects.requireNonNull(path);
+    return new CursorExport(BinaryRowEncoder.INSTANCE, new PathTarget(path));
+  }
+
+  /**
+   * Writes all rows of the given result set.
+   *
+   * @param resultSet the result set to export, positioned before the first row
+   * @return the number of rows written
+   * @throws SQLException if the JDBC driver throws an exception
+   */
+  long export(ResultSet resultSet) throws SQLException {
+    try (ExportSink sink = this.target.open()) {
+      int[] columnKinds = this.encoder.writeHeader(resultSet.getMetaData(), sink);
+      long rowCount = 0L;
+      while (resultSet.next()) {
+        this.encoder.writeRow(resultSet, columnKinds, sink);
+        rowCount += 1L;
+      }
+      return rowCount;
+    } catch (IOException e) {
+      throw new UncheckedIOException("could not export rows to " + this.target, e);
+    }
+  }
+
+  @Override
+  public String toString() {
+    return this.getClass().getSimpleName() + "[format=" + this.encoder + ", target=" + this.target + ']';
+  }
+
+}
+
+/**
+ * Where the encoded rows should be written to.
+ */
+interface ExportTarget {
+
+  ExportSink open() throws IOException;
+
+}
+
+final class OutputStreamTarget implements ExportTarget {
+
+  private final OutputStream outputStream;
+
+  OutputStreamTarget(OutputStream outputStream) {
+    this.outputStream = outputStream;
+  }
+
+  @Override
+  public ExportSink open() {
+    // the stream API needs a byte[] anyway, a direct buffer would only add a copy
+    return new OutputStreamSink(this.outputStream, ByteBuffer.allocate(CursorExport.DEFAULT_BUFFER_SIZE));
+  }
+
+  @Override
+  public String toString() {
+    return "OutputStream";
+  }
+
+}
+
+final class ChannelTarget implements ExportTarget {
+
+  private final WritableByteChannel channel;
+
+  ChannelTarget(WritableByteChannel channel) {
+    this.channel = channel;
+  }
+
+  @Override
+  public ExportSink open() {
+    return new ChannelSink(this.channel, false, ByteBuffer.allocateDirect(CursorExport.DEFAULT_BUFFER_SIZE));
+  }
+
+  @Override
+  public String toString() {
+    return "WritableByteChannel";
+  }
+
+}
+
+final class PathTarget implements ExportTarget {
+
+  private final Path path;
+
+  PathTarget(Path path) {
+    this.path = path;
+  }
+
+  @Override
+  public ExportSink open() throws IOException {
+    FileChannel channel = FileChannel.open(this.path,
+            StandardOpenOption.WRITE, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
+    return new ChannelSink(channel, true, ByteBuffer.allocateDirect(CursorExport.DEFAULT_BUFFER_SIZE));
+  }
+
+  @Override
+  public String toString() {
+    return this.path.toString();
+  }
+
+}
+
+/**
+ * Buffers encoded bytes and writes them once the buffer is full.
+ */
+abstract class ExportSink implements Closeable {
+
+  /**
+   * The longest UTF-8 sequence for a single code point.
+   */
+  private static final int MAX_UTF8_LENGTH = 4;
+
+  final ByteBuffer buffer;
+
+  ExportSink(ByteBuffer buffer) {
+    this.buffer = buffer;
+  }
+
+  /**
+   * Writes the content of the buffer, the buffer is in write mode
+   * before and after.
+   */
+  abstract void drain() throws IOException;
+
+  void ensureRemaining(int length) throws IOException {
+    if (this.buffer.remaining() < length) {
+      this.drain();
+    }
+  }
+
+  void putByte(byte b) throws IOException {
+    this.ensureRemaining(1);
+    this.buffer.put(b);
+  }
+
+  void putInt(int i) throws IOException {
+    this.ensureRemaining(Integer.BYTES);
+    this.buffer.putInt(i);
+  }
+
+  void putLong(long l) throws IOException {
+    this.ensureRemaining(Long.BYTES);
+    this.buffer.putLong(l);
+  }
+
+  void putDouble(double d) throws IOException {
+    this.ensureRemaining(Double.BYTES);
+    this.buffer.putDouble(d);
+  }
+
+  void putBytes(byte[] bytes) throws IOException {
+    int offset = 0;
+    while (offset < bytes.length) {
+      if (!this.buffer.hasRemaining()) {
+        this.drain();
+      }
+      int length = Math.min(this.buffer.remaining(), bytes.length - offset);
+      this.buffer.put(bytes, offset, length);
+      offset += length;
+    }
+  }
+
+  /**
+   * Writes the decimal representation of a long without allocating
+   * a {@link String}.
+   */
+  void putDecimal(long value) throws IOException {
+    // Long.MIN_VALUE has 19 digits and a sign
+    this.ensureRemaining(20);
+    if (value == 0L) {
+      this.buffer.put((byte) '0');
+      return;
+    }
+    if (value < 0L) {
+      this.buffer.put((byte) '-');
+    }
+    int start = this.buffer.position();
+    // negative numbers have a larger range
+    long remaining = value < 0L ? value : -value;
+    while (remaining != 0L) {
+      this.buffer.put((byte) ('0' - (remaining % 10L)));
+      remaining /= 10L;
+    }
+    // digits were written in reverse order
+    int end = this.buffer.position() - 1;
+    while (start < end) {
+      byte temp = this.buffer.get(start);
+      this.buffer.put(start, this.buffer.get(end));
+      this.buffer.put(end, temp);
+      start += 1;
+      end -= 1;
+    }
+  }
+
+  void putUtf8(CharSequence s) throws IOException {
+    int length = s.length();
+    for (int i = 0; i < length; i++) {
+      char c = s.charAt(i);
+      if (c < 0x80) {
+        this.putByte((byte) c);
+      } else {
+        i = this.putNonAscii(s, i, c);
+      }
+    }
+  }
+
+  /**
+   * Writes a non-ASCII character.
+   *
+   * @return the index of the last character consumed
+   */
+  int putNonAscii(CharSequence s, int index, char c) throws IOException {
+    this.ensureRemaining(MAX_UTF8_LENGTH);
+    if (c < 0x800) {
+      this.buffer.put((byte) (0xC0 | (c >> 6)));
+      this.buffer.put((byte) (0x80 | (c & 0x3F)));
+      return index;
+    }
+    if (Character.isHighSurrogate(c) && ((index + 1) < s.length()) && Character.isLowSurrogate(s.charAt(index + 1))) {
+      int codePoint = Character.toCodePoint(c, s.charAt(index + 1));
+      this.buffer.put((byte) (0xF0 | (codePoint >> 18)));
+      this.buffer.put((byte) (0x80 | ((codePoint >> 12) & 0x3F)));
+      this.buffer.put((byte) (0x80 | ((codePoint >> 6) & 0x3F)));
+      this.buffer.put((byte) (0x80 | (codePoint & 0x3F)));
+      return index + 1;
+    }
+    if (Character.isSurrogate(c)) {
+      // unpaired surrogate, same replacement as String#getBytes
+      this.buffer.put((byte) '?');
+      return index;
+    }
+    this.buffer.put((byte) (0xE0 | (c >> 12)));
+    this.buffer.put((byte) (0x80 | ((c >> 6) & 0x3F)));
+    this.buffer.put((byte) (0x80 | (c & 0x3F)));
+    return index;
+  }
+
+  static int utf8Length(CharSequence s) {
+    int length = s.length();
+    int utf8Length = length;
+    for (int i = 0; i < length; i++) {
+      char c = s.charAt(i);
+      if (c >= 0x80) {
+        if (c < 0x800) {
+          utf8Length += 1;
+        } else if (Character.isHighSurrogate(c) && ((i + 1) < length) && Character.isLowSurrogate(s.charAt(i + 1))) {
+          // 4 bytes for two chars
+          utf8Length += 2;
+          i += 1;
+        } else if (!Character.isSurrogate(c)) {
+          utf8Length += 2;
+        }
+      }
+    }
+    return utf8Length;
+  }
+
+}
+
+final class OutputStreamSink extends ExportSink {
+
+  private final OutputStream outputStream;
+
+  OutputStreamSink(OutputStream outputStream, ByteBuffer buffer) {
+    super(buffer);
+    this.outputStream = outputStream;
+  }
+
+  @Override
+  void drain() throws IOException {
+    this.outputStream.write(this.buffer.array(), this.buffer.arrayOffset(), this.buffer.position());
+    this.buffer.clear();
+  }
+
+  @Override
+  public void close() throws IOException {
+    this.drain();
+    this.outputStream.flush();
+  }
+
+}
+
+final class ChannelSink extends ExportSink {
+
+  private final WritableByteChannel channel;
+
+  private final boolean closeChannel;
+
+  ChannelSink(WritableByteChannel channel, boolean closeChannel, ByteBuffer buffer) {
+    super(buffer);
+    this.channel = channel;
+    this.closeChannel = closeChannel;
+  }
+
+  @Override
+  void drain() throws IOException {
+    this.buffer.flip();
+    while (this.buffer.hasRemaining()) {
+      this.channel.write(this.buffer);
+    }
+    this.buffer.clear();
+  }
+
+  @Override
+  public void close() throws IOException {
+    try {
+      this.drain();
+    } finally {
+      if (this.closeChannel) {
+        this.channel.close();
+      }
+    }
+  }
+
+}
+
+/**
+ * Encodes rows of a {@link ResultSet} into bytes.
+ */
+abstract class RowEncoder {
+
+  static final int LONG_COLUMN = 0;
+  static final int DOUBLE_COLUMN = 1;
+  static final int BOOLEAN_COLUMN = 2;
+  static final int BINARY_COLUMN = 3;
+  static final int DECIMAL_COLUMN = 4;
+  static final int STRING_COLUMN = 5;
+
+  /**
+   * Writes the header, if any, and determines how the columns should
+   * be read so that this has to be done only once and not for every row.
+   *
+   * @return the column kinds, one of the {@code *_COLUMN} constants per column
+   */
+  abstract int[] writeHeader(ResultSetMetaData metaData, ExportSink sink) throws SQLException, IOException;
+
+  abstract void writeRow(ResultSet resultSet, int[] columnKinds, ExportSink sink) throws SQLException, IOException;
+
+  static int[] getColumnKinds(ResultSetMetaData metaData) throws SQLException {
+    int[] columnKinds = new int[metaData.getColumnCount()];
+    for (int i = 0; i < columnKinds.length; i++) {
+      columnKinds[i] = getColumnKind(metaData.getColumnType(i + 1));
+    }
+    return columnKinds;
+  }
+
+  private static int getColumnKind(int sqlType) {
+    switch (sqlType) {
+      case Types.TINYINT:
+      case Types.SMALLINT:
+      case Types.INTEGER:
+      case Types.BIGINT:
+        return LONG_COLUMN;
+      case Types.REAL:
+      case Types.FLOAT:
+      case Types.DOUBLE:
+        return DOUBLE_COLUMN;
+      case Types.BOOLEAN:
+        return BOOLEAN_COLUMN;
+      case Types.BINARY:
+      case Types.VARBINARY:
+      case Types.LONGVARBINARY:
+        return BINARY_COLUMN;
+      case Types.NUMERIC:
+      case Types.DECIMAL:
+        return DECIMAL_COLUMN;
+      default:
+        return STRING_COLUMN;
+    }
+  }
+
+}
+
+/**
+ * Encodes rows as <a href="https://tools.ietf.org/html/rfc4180">RFC 4180</a> CSV.
+ */
+final class CsvRowEncoder extends RowEncoder {
+
+  static final RowEncoder INSTANCE = new CsvRowEncoder();
+
+  private static final byte SEPARATOR = ',';
+
+  private static final byte QUOTE = '"';
+
+  private CsvRowEncoder() {
+    super();
+  }
+
+  @Override
+  int[] writeHeader(ResultSetMetaData metaData, ExportSink sink) throws SQLException, IOException {
+    int[] columnKinds = getColumnKinds(metaData);
+    for (int i = 0; i < columnKinds.length; i++) {
+      if (i > 0) {
+        sink.putByte(SEPARATOR);
+      }
+      putField(metaData.getColumnLabel(i + 1), sink);
+    }
+    putLineBreak(sink);
+    return columnKinds;
+  }
+
+  @Override
+  void writeRow(ResultSet resultSet, int[] columnKinds, ExportSink sink) throws SQLException, IOException {
+    for (int i = 0; i < columnKinds.length; i++) {
+      if (i > 0) {
+        sink.putByte(SEPARATOR);
+      }
+      int columnIndex = i + 1;
+      switch (columnKinds[i]) {
+        case LONG_COLUMN: {
+          long value = resultSet.getLong(columnIndex);
+          if (!resultSet.wasNull()) {
+            sink.putDecimal(value);
+          }
+          break;
+        }
+        case BOOLEAN_COLUMN: {
+          boolean value = resultSet.getBoolean(columnIndex);
+          if (!resultSet.wasNull()) {
+            sink.putUtf8(value ? "true" : "false");
+          }
+          break;
+        }
+        case DECIMAL_COLUMN: {
+          BigDecimal value = resultSet.getBigDecimal(columnIndex);
+          if (value != null) {
+            // avoid scientific notation
+            sink.putUtf8(value.toPlainString());
+          }
+          break;
+        }
+        default:
+          putField(resultSet.getString(columnIndex), sink);
+          break;
+      }
+    }
+    putLineBreak(sink);
+  }
+
+  private static void putLineBreak(ExportSink sink) throws IOException {
+    sink.putByte((byte) '\r');
+    sink.putByte((byte) '\n');
+  }
+
+  private static void putField(String value, ExportSink sink) throws IOException {
+    if (value == null) {
+      return;
+    }
+    if (!needsQuoting(value)) {
+      sink.putUtf8(value);
+      return;
+    }
+    sink.putByte(QUOTE);
+    int length = value.length();
+    for (int i = 0; i < length; i++) {
+      char c = value.charAt(i);
+      if (c == QUOTE) {
+        sink.putByte(QUOTE);
+        sink.putByte(QUOTE);
+      } else if (c < 0x80) {
+        sink.putByte((byte) c);
+      } else {
+        i = sink.putNonAscii(value, i, c);
+      }
+    }
+    sink.putByte(QUOTE);
+  }
+
+  private static boolean needsQuoting(String value) {
+    int length = value.length();
+    for (int i = 0; i < length; i++) {
+      char c = value.charAt(i);
+      if ((c == SEPARATOR) || (c == QUOTE) || (c == '\r') || (c == '\n')) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  @Override
+  public String toString() {
+    return "CSV";
+  }
+
+}
+
+/**
+ * Encodes rows in a length prefixed binary format.
+ *
+ * @see CursorExport
+ */
+final class BinaryRowEncoder extends RowEncoder {
+
+  static final RowEncoder INSTANCE = new BinaryRowEncoder();
+
+  static final int NULL_LENGTH = -1;
+
+  private BinaryRowEncoder() {
+    super();
+  }
+
+  @Override
+  int[] writeHeader(ResultSetMetaData metaData, ExportSink sink) throws SQLException {
+    return getColumnKinds(metaData);
+  }
+
+  @Override
+  void writeRow(ResultSet resultSet, int[] columnKinds, ExportSink sink) throws SQLException, IOException {
+    for (int i = 0; i < columnKinds.length; i++) {
+      int columnIndex = i + 1;
+      switch (columnKinds[i]) {
+        case LONG_COLUMN: {
+          long value = resultSet.getLong(columnIndex);
+          if (resultSet.wasNull()) {
+            sink.putInt(NULL_LENGTH);
+          } else {
+            sink.putInt(Long.BYTES);
+            sink.putLong(value);
+          }
+          break;
+        }
+        case DOUBLE_COLUMN: {
+          double value = resultSet.getDouble(columnIndex);
+          if (resultSet.wasNull()) {
+            sink.putInt(NULL_LENGTH);
+          } else {
+            sink.putInt(Double.BYTES);
+            sink.putDouble(value);
+          }
+          break;
+        }
+        case BOOLEAN_COLUMN: {
+          boolean value = resultSet.getBoolean(columnIndex);
+          if (resultSet.wasNull()) {
+            sink.putInt(NULL_LENGTH);
+          } else {
+            sink.putInt(1);
+            sink.putByte(value ? (byte) 1 : (byte) 0);
+          }
+          break;
+        }
+        case BINARY_COLUMN: {
+          byte[] value = resultSet.getBytes(columnIndex);
+          if (value == null) {
+            sink.putInt(NULL_LENGTH);
+          } else {
+            sink.putInt(value.length);
+            sink.putBytes(value);
+          }
+          break;
+        }
+        case DECIMAL_COLUMN: {
+          BigDecimal value = resultSet.getBigDecimal(columnIndex);
+          putString(value != null ? value.toPlainString() : null, sink);
+          break;
+        }
+        default:
+          putString(resultSet.getString(columnIndex), sink);
+          break;
+      }
+    }
+  }
+
+  private static void putString(String value, ExportSink sink) throws IOException {
+    if (value == null) {
+      sink.putInt(NULL_LENGTH);
+    } else {
+      sink.putInt(ExportSink.utf8Length(value));
+      sink.putUtf8(value);
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "binary";
+  }
+
+}
@@ -1,7 +1,12 @@
 package com.github.marschall.storedprocedureproxy;
 
+import java.io.InputStream;
+import java.io.Reader;
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
 import java.sql.Blob;
 import java.sql.Clob;
 import java.sql.NClob;
@@ -18,6 +23,10 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.transform.Source;
+import javax.xml.transform.stax.StAXSource;
+
 import com.github.marschall.storedprocedureproxy.spi.TypeMapper;
 
 final class DefaultTypeMapper implements TypeMapper {
@@ -56,6 +65,12 @@ final class DefaultTypeMapper implements TypeMapper {
     this.typeMap.put(Blob.class, Types.BLOB);
     this.typeMap.put(Clob.class, Types.CLOB);
     this.typeMap.put(NClob.class, Types.NCLOB);
+    // streamed LOBs
+    this.typeMap.put(InputStream.class, Types.BLOB);
+    this.typeMap.put(ReadableByteChannel.class, Types.BLOB);
+    this.typeMap.put(ByteBuffer.class, Types.BLOB);
+    this.typeMap.put(Path.class, Types.BLOB);
+    this.typeMap.put(Reader.class, Types.CLOB);
 
     // java 8 date time
     this.typeMap.put(LocalDate.class, Types.DATE);
@@ -70,6 +85,11 @@ final class DefaultTypeMapper implements TypeMapper {
     this.typeMap.put(java.sql.Timestamp.class, Types.TIMESTAMP);
 
     this.typeMap.put(SQLXML.class, Types.SQLXML);
+    // streamed XML
+    this.typeMap.put(Source.class, Types.SQLXML);
+    this.typeMap.put(StAXSource.class, Types.SQLXML);
+    this.typeMap.put(XMLStreamReader.class, Types.SQLXML);
+    this.typeMap.put(XMLStreamWriterCallback.class, Types.SQLXML);
     // boolean
     this.typeMap.put(Boolean.class, Types.BOOLEAN);
     this.typeMap.put(boolean.class, Types.BOOLEAN);
@@ -0,0 +1,261 @@
+package com.github.marschall.storedprocedureproxy;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.github.marschall.storedprocedureproxy.WriteBehindQueue.BatchCall;
+import com.github.marschall.storedprocedureproxy.annotations.Aggregated;
+import com.github.marschall.storedprocedureproxy.spi.WriteBehindFailureHandler;
+
+/**
+ * Adds up the deltas of an {@link Aggregated} procedure per key and
+ * flushes the sums in batches.
+ *
+ * <p>The deltas are added to a {@link LongAdder} per key so that
+ * concurrent calls for the same key do not contend. A flush swaps the
+ * current generation of sums for an empty one and waits until no
+ * caller is still adding to the old generation before reading it, no
+ * delta is lost or counted twice. The callers adding to a generation
+ * are counted with an {@link AtomicInteger} rather than a
+ * {@link LongAdder} because the flush needs an exact count, the sum of
+ * a {@link LongAdder} is not an atomic snapshot.</p>
+ *
+ * <p>This class is thread safe.</p>
+ */
+final class DeltaAggregator {
+
+  private final String procedureName;
+
+  private final long flushInterval;
+
+  private final int maxKeys;
+
+  /**
+   * Whether the delta is an {@code int} rather than a {@code long}.
+   */
+  private final boolean intDelta;
+
+  private final ScheduledExecutorService executor;
+
+  private final WriteBehindFailureHandler failureHandler;
+
+  private final BatchCall batchCall;
+
+  private final AtomicReference<Generation> current;
+
+  private final AtomicBoolean started;
+
+  private final AtomicBoolean flushScheduled;
+
+  private final Lock flushLock;
+
+  private volatile ScheduledFuture<?> periodicFlush;
+
+  private volatile boolean shutdown;
+
+  DeltaAggregator(String procedureName, long flushInterval, int maxKeys, boolean intDelta,
+          ScheduledExecutorService executor, WriteBehindFailureHandler failureHandler, BatchCall batchCall) {
+    this.procedureName = procedureName;
+    this.flushInterval = flushInterval;
+    this.maxKeys = maxKeys;
+    this.intDelta = intDelta;
+    this.executor = executor;
+    this.failureHandler = failureHandler;
+    this.batchCall = batchCall;
+    this.current = new AtomicReference<>(new Generation());
+    this.started = new AtomicBoolean();
+    this.flushScheduled = new AtomicBoolean();
+    this.flushLock = new ReentrantLock();
+  }
+
+  /**
+   * Adds the delta of a call.
+   *
+   * @param args the arguments of the call, the last one is the delta
+   * @return {@code true} if the delta was added, {@code false} if the
+   *         caller has to execute the call because the aggregator has
+   *         been shut down
+   */
+  boolean add(Object[] args) {
+    if (this.shutdown) {
+      return false;
+    }
+    List<Object> key = Arrays.asList(Arrays.copyOf(args, args.length - 1));
+    long delta = ((Number) args[args.length - 1]).longValue();
+    boolean flush;
+    while (true) {
+      Generation generation = this.current.get();
+      generation.writers.incrementAndGet();
+      try {
+        if (this.current.get() != generation) {
+          // a flush swapped the generation, add to the new one
+          continue;
+        }
+        LongAdder sum = generation.sums.get(key);
+        boolean newKey = sum == null;
+        if (newKey) {
+          LongAdder newSum = new LongAdder();
+          sum = generation.sums.putIfAbsent(key, newSum);
+          if (sum == null) {
+            sum = newSum;
+          }
+        }
+        sum.add(delta);
+        flush = newKey && (generation.sums.size() >= this.maxKeys);
+        break;
+      } finally {
+        generation.writers.decrementAndGet();
+      }
+    }
+    this.start();
+    if (flush) {
+      // only after we stopped adding, the flush waits for us
+      this.scheduleFlush();
+    }
+    if (this.shutdown) {
+      // raced with shutdown, make sure the delta is not lost
+      this.flush();
+    }
+    return true;
+  }
+
+  private void start() {
+    if (!this.started.get() && this.started.compareAndSet(false, true)) {
+      this.periodicFlush = this.executor.scheduleWithFixedDelay(this::backgroundFlush,
+              this.flushInterval, this.flushInterval, MILLISECONDS);
+      if (this.shutdown) {
+        this.periodicFlush.cancel(false);
+      }
+    }
+  }
+
+  private void scheduleFlush() {
+    if (!this.flushScheduled.get() && this.flushScheduled.compareAndSet(false, true)) {
+      this.executor.execute(() -> {
+        this.flushScheduled.set(false);
+        this.backgroundFlush();
+      });
+    }
+  }
+
+  private void backgroundFlush() {
+    // if a flush is already running the next periodic flush picks up
+    // the new deltas
+    if (this.flushLock.tryLock()) {
+      try {
+        this.flushGeneration();
+      } finally {
+        this.flushLock.unlock();
+      }
+    }
+  }
+
+  /**
+   * Calls the procedure for all added deltas on the current thread.
+   */
+  void flush() {
+    this.flushLock.lock();
+    try {
+      this.flushGeneration();
+    } finally {
+      this.flushLock.unlock();
+    }
+  }
+
+  private void flushGeneration() {
+    Generation generation = this.current.getAndSet(new Generation());
+    while (generation.writers.get() != 0) {
+      // callers only hold on to a generation for a few instructions
+      Thread.yield();
+    }
+    List<Object[]> batch = new ArrayList<>(generation.sums.size());
+    for (Entry<List<Object>, LongAdder> entry : generation.sums.entrySet()) {
+      this.addCalls(entry.getKey(), entry.getValue().sum(), batch);
+    }
+    if (batch.isEmpty()) {
+      return;
+    }
+    try {
+      this.batchCall.call(batch);
+    } catch (Throwable e) {
+      WriteBehindQueue.notifyFailure(this.failureHandler, this.procedureName, batch, e);
+    }
+  }
+
+  private void addCalls(List<Object> key, long sum, List<Object[]> batch) {
+    if (!this.intDelta) {
+      if (sum != 0L) {
+        batch.add(toArgs(key, sum));
+      }
+      return;
+    }
+    // a sum of int deltas may not fit into an int
+    long remaining = sum;
+    while (remaining != 0L) {
+      int delta = (int) Math.max(Integer.MIN_VALUE, Math.min(Integer.MAX_VALUE, remaining));
+      batch.add(toArgs(key, delta));
+      remaining -= delta;
+    }
+  }
+
+  private static Object[] toArgs(List<Object> key, Object delta) {
+    Object[] args = key.toArray(new Object[key.size() + 1]);
+    args[key.size()] = delta;
+    return args;
+  }
+
+  /**
+   * Stops the periodic flushing and calls the procedure for all added
+   * deltas on the current thread. Calls made afterwards are not
+   * aggregated.
+   */
+  void shutdown() {
+    this.shutdown = true;
+    ScheduledFuture<?> future = this.periodicFlush;
+    if (future != null) {
+      future.cancel(false);
+    }
+    this.flush();
+  }
+
+  @Override
+  public String toString() {
+    return this.getClass().getSimpleName() + "[procedureName=" + this.procedureName
+            + ", flushInterval=" + this.flushInterval
+            + ", maxKeys=" + this.maxKeys
+            + (this.shutdown ? ", shutdown" : "") + ']';
+  }
+
+  /**
+   * The sums added between two flushes.
+   */
+  static final class Generation {
+
+    final ConcurrentHashMap<List<Object>, LongAdder> sums;
+
+    /**
+     * The number of callers currently adding to this generation.
+     */
+    final AtomicInteger writers;
+
+    Generation() {
+      this.sums = new ConcurrentHashMap<>();
+      this.writers = new AtomicInteger();
+    }
+
+  }
+
+}
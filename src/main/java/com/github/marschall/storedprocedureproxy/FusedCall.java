@@ -0,0 +1,293 @@
+package com.github.marschall.storedprocedureproxy;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import com.github.marschall.storedprocedureproxy.ProcedureCallerFactory.CallSyntax;
+import com.github.marschall.storedprocedureproxy.ProcedureCallerFactory.ProcedureCaller;
+
+/**
+ * Calls several procedures in a single anonymous block and therefore in
+ * a single round trip.
+ *
+ * <p>The calls are recorded on interface instances created by
+ * {@link ProcedureCallerFactory} and executed together by
+ * {@link #execute()}. The result of every call is available from the
+ * {@link Supplier} returned when it was recorded.</p>
+ *
+ * <pre><code>
+ * FusedCall fused = ProcedureCallerFactory.fuse();
+ * Supplier&lt;Customer&gt; customer = fused.call(customers, c -&gt; c.findCustomer(id));
+ * Supplier&lt;List&lt;Order&gt;&gt; orders = fused.call(orders, o -&gt; o.findOrders(id));
+ * fused.execute();
+ * </code></pre>
+ *
+ * <p>All interface instances have to use the same data source, the
+ * {@link CallSyntax#ORACLE Oracle call syntax} and bind parameters by
+ * index. Vendor specific bindings like index-by tables are not supported.
+ * If any call fails none of the results are available.</p>
+ *
+ * <p>This class is not thread safe.</p>
+ *
+ * @see ProcedureCallerFactory#fuse()
+ */
+public final class FusedCall {
+
+  private final List<FusedPart> parts;
+
+  private boolean executed;
+
+  FusedCall() {
+    this.parts = new ArrayList<>();
+  }
+
+  /**
+   * Records a call of a procedure returning a value.
+   *
+   * @param <T> the type of the interface
+   * @param <R> the type of the result
+   * @param procedures the interface instance created by
+   *        {@link ProcedureCallerFactory}, not {@code null}
+   * @param call calls exactly one method on the instance passed to it
+   * @return the result of the call, only available after {@link #execute()}
+   * @throws IllegalArgumentException if the instance was not created by
+   *         {@link ProcedureCallerFactory} or the function does not call
+   *         exactly one method
+   * @throws IllegalStateException if the calls were already executed
+   */
+  public <T, R> Supplier<R> call(T procedures, Function<? super T, R> call) {
+    Objects.requireNonNull(call, "call");
+    FusedPart part = this.record(procedures, call::apply);
+    return part::getResult;
+  }
+
+  /**
+   * Records a call of a procedure without a result.
+   *
+   * @param <T> the type of the interface
+   * @param procedures the interface instance created by
+   *        {@link ProcedureCallerFactory}, not {@code null}
+   * @param call calls exactly one method on the instance passed to it
+   * @throws IllegalArgumentException if the instance was not created by
+   *         {@link ProcedureCallerFactory} or the consumer does not call
+   *         exactly one method
+   * @throws IllegalStateException if the calls were already executed
+   */
+  public <T> void run(T procedures, Consumer<? super T> call) {
+    Objects.requireNonNull(call, "call");
+    this.record(procedures, call::accept);
+  }
+
+  private <T> FusedPart record(T procedures, Consumer<T> call) {
+    Objects.requireNonNull(procedures, "procedures");
+    if (this.executed) {
+      throw new IllegalStateException("calls already executed");
+    }
+    ProcedureCaller caller = ProcedureCallerFactory.getProcedureCaller(procedures);
+    RecordingHandler handler = new RecordingHandler();
+    @SuppressWarnings("unchecked")
+    T recorder = (T) Proxy.newProxyInstance(procedures.getClass().getClassLoader(),
+            procedures.getClass().getInterfaces(), handler);
+    call.accept(recorder);
+    if (handler.method == null) {
+      throw new IllegalArgumentException("no procedure was called");
+    }
+    FusedPart part = new FusedPart(caller, handler.method, handler.args);
+    this.parts.add(part);
+    return part;
+  }
+
+  /**
+   * Executes all recorded calls in a single anonymous block.
+   *
+   * @throws SQLException if calling the procedures fails and any of the
+   *         methods declares {@link SQLException}
+   * @throws RuntimeException if calling the procedures fails and the
+   *         exception is translated
+   * @throws IllegalStateException if the calls were already executed
+   */
+  public void execute() throws SQLException {
+    if (this.executed) {
+      throw new IllegalStateException("calls already executed");
+    }
+    this.executed = true;
+    if (this.parts.isEmpty()) {
+      return;
+    }
+    int count = this.parts.size();
+    ProcedureCaller[] callers = new ProcedureCaller[count];
+    Method[] methods = new Method[count];
+    Object[][] args = new Object[count][];
+    for (int i = 0; i < count; i++) {
+      FusedPart part = this.parts.get(i);
+      callers[i] = part.caller;
+      methods[i] = part.method;
+      args[i] = part.args;
+    }
+    Object[] results = ProcedureCaller.invokeFused(callers, methods, args);
+    for (int i = 0; i < count; i++) {
+      this.parts.get(i).setResult(results[i]);
+    }
+  }
+
+  @Override
+  public String toString() {
+    return this.getClass().getSimpleName() + "[calls=" + this.parts.size()
+            + (this.executed ? ", executed" : "") + ']';
+  }
+
+  /**
+   * Records the method called on an interface instance.
+   */
+  static final class RecordingHandler implements InvocationHandler {
+
+    Method method;
+
+    Object[] args;
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) {
+      if ((method.getDeclaringClass() == Object.class) || method.isDefault()) {
+        throw new IllegalArgumentException("only procedure methods can be recorded: " + method);
+      }
+      if (this.method != null) {
+        throw new IllegalArgumentException("only one procedure can be called per recorded call");
+      }
+      this.method = method;
+      this.args = args == null ? new Object[0] : args;
+      return defaultValue(method.getReturnType());
+    }
+
+    private static Object defaultValue(Class<?> type) {
+      if (!type.isPrimitive() || (type == void.class)) {
+        return null;
+      } else if (type == boolean.class) {
+        return false;
+      } else if (type == char.class) {
+        return '\0';
+      } else if (type == byte.class) {
+        return (byte) 0;
+      } else if (type == short.class) {
+        return (short) 0;
+      } else if (type == int.class) {
+        return 0;
+      } else if (type == long.class) {
+        return 0L;
+      } else if (type == float.class) {
+        return 0.0f;
+      } else {
+        return 0.0d;
+      }
+    }
+
+  }
+
+  /**
+   * A single recorded call and its result.
+   */
+  static final class FusedPart {
+
+    private static final Object NO_RESULT = new Object();
+
+    final ProcedureCaller caller;
+
+    final Method method;
+
+    final Object[] args;
+
+    private Object result;
+
+    FusedPart(ProcedureCaller caller, Method method, Object[] args) {
+      this.caller = caller;
+      this.method = method;
+      this.args = args;
+      this.result = NO_RESULT;
+    }
+
+    void setResult(Object result) {
+      this.result = result;
+    }
+
+    @SuppressWarnings("unchecked")
+    <R> R getResult() {
+      if (this.result == NO_RESULT) {
+        throw new IllegalStateException("calls not yet executed");
+      }
+      return (R) this.result;
+    }
+
+  }
+
+}
+
+/**
+ * Shifts the parameter indices of a {@link CallableStatement} so that
+ * the registrations of a single call can bind and read their parameters
+ * in a fused anonymous block.
+ *
+ * <p>The statement is executed only once for all calls so
+ * {@link CallableStatement#execute()} only reports that there is no
+ * result set.</p>
+ */
+final class OffsetCallableStatement implements InvocationHandler {
+
+  private final CallableStatement statement;
+
+  private final int offset;
+
+  private OffsetCallableStatement(CallableStatement statement, int offset) {
+    this.statement = statement;
+    this.offset = offset;
+  }
+
+  static CallableStatement newInstance(CallableStatement statement, int offset) {
+    return (CallableStatement) Proxy.newProxyInstance(OffsetCallableStatement.class.getClassLoader(),
+            new Class<?>[] {CallableStatement.class}, new OffsetCallableStatement(statement, offset));
+  }
+
+  @Override
+  public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+    String methodName = method.getName();
+    if (methodName.equals("execute") && (args == null)) {
+      // already executed
+      return false;
+    } else if (methodName.equals("unwrap")) {
+      throw new SQLFeatureNotSupportedException("vendor specific bindings are not supported in fused calls");
+    } else if (isParameterIndexMethod(method)) {
+      args[0] = (Integer) args[0] + this.offset;
+    }
+    try {
+      return method.invoke(this.statement, args);
+    } catch (InvocationTargetException e) {
+      throw e.getCause();
+    }
+  }
+
+  private static boolean isParameterIndexMethod(Method method) {
+    Class<?> declaringClass = method.getDeclaringClass();
+    if ((declaringClass != PreparedStatement.class) && (declaringClass != CallableStatement.class)) {
+      // Statement methods like setFetchSize(int) do not take a parameter index
+      return false;
+    }
+    Class<?>[] parameterTypes = method.getParameterTypes();
+    return (parameterTypes.length > 0) && (parameterTypes[0] == int.class);
+  }
+
+  @Override
+  public String toString() {
+    return this.getClass().getSimpleName() + "[offset=" + this.offset + ']';
+  }
+
+}
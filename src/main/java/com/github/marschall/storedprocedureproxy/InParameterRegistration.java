@@ -1,6 +1,5 @@
 package com.github.marschall.storedprocedureproxy;
 
-import java.math.BigDecimal;
 import java.sql.CallableStatement;
 import java.sql.SQLException;
 import java.sql.Types;
@@ -45,6 +44,15 @@ final class NoInParameterRegistration implements InParameterRegistration {
 
 abstract class AbstractInParameterRegistration implements InParameterRegistration  {
 
+  /**
+   * The binder for each argument, {@code null} if every argument is
+   * bound with {@link ParameterBinder#OBJECT}.
+   */
+  private final ParameterBinder[] binders;
+
+  AbstractInParameterRegistration(ParameterBinder[] binders) {
+    this.binders = binders;
+  }
 
   abstract int inParameterIndexAt(int i);
 
@@ -59,10 +67,15 @@ abstract class AbstractInParameterRegistration implements InParameterRegistratio
       Object arg;
       if (callResource.hasResourceAt(i)) {
         arg = callResource.resourceAt(i);
+        if (arg instanceof SelfBindingResource) {
+          ((SelfBindingResource) arg).bind(statement, parameterIndex);
+          continue;
+        }
       } else {
         arg = args[i];
       }
-      statement.setObject(parameterIndex, arg);
+      ParameterBinder binder = this.binders != null ? this.binders[i] : ParameterBinder.OBJECT;
+      binder.bind(statement, parameterIndex, arg);
     }
   }
 
@@ -77,6 +90,11 @@ final class ByIndexInParameterRegistration extends AbstractInParameterRegistrati
   private final byte[] inParameterIndices;
 
   ByIndexInParameterRegistration(byte[] inParameterIndices) {
+    this(inParameterIndices, null);
+  }
+
+  ByIndexInParameterRegistration(byte[] inParameterIndices, ParameterBinder[] binders) {
+    super(binders);
     this.inParameterIndices = inParameterIndices;
   }
 
@@ -104,7 +122,11 @@ final class ByIndexInParameterRegistration extends AbstractInParameterRegistrati
  */
 final class PrefixByIndexInParameterRegistration extends AbstractInParameterRegistration {
 
-  static final InParameterRegistration INSTANCE = new PrefixByIndexInParameterRegistration();
+  static final InParameterRegistration INSTANCE = new PrefixByIndexInParameterRegistration(null);
+
+  PrefixByIndexInParameterRegistration(ParameterBinder[] binders) {
+    super(binders);
+  }
 
   @Override
   int inParameterIndexAt(int i) {
@@ -127,7 +149,11 @@ final class PrefixByIndexInParameterRegistration extends AbstractInParameterRegi
  */
 final class SuffixByIndexInParameterRegistration extends AbstractInParameterRegistration {
 
-  static final InParameterRegistration INSTANCE = new SuffixByIndexInParameterRegistration();
+  static final InParameterRegistration INSTANCE = new SuffixByIndexInParameterRegistration(null);
+
+  SuffixByIndexInParameterRegistration(ParameterBinder[] binders) {
+    super(binders);
+  }
 
   @Override
   int inParameterIndexAt(int i) {
@@ -150,9 +176,15 @@ final class SuffixByIndexInParameterRegistration extends AbstractInParameterRegi
 final class ByNameInParameterRegistration implements InParameterRegistration {
 
   private final String[] inParameterNames;
+  private final ParameterBinder[] binders;
 
   ByNameInParameterRegistration(String[] inParameterNames) {
+    this(inParameterNames, ParameterBinder.objectBinders(inParameterNames.length));
+  }
+
+  ByNameInParameterRegistration(String[] inParameterNames, ParameterBinder[] binders) {
     this.inParameterNames = inParameterNames;
+    this.binders = binders;
   }
 
   @Override
@@ -167,10 +199,14 @@ final class ByNameInParameterRegistration implements InParameterRegistration {
       Object arg;
       if (callResource.hasResourceAt(i)) {
         arg = callResource.resourceAt(i);
+        if (arg instanceof SelfBindingResource) {
+          ((SelfBindingResource) arg).bind(statement, parameterName);
+          continue;
+        }
       } else {
         arg = args[i];
       }
-      statement.setObject(parameterName, arg);
+      this.binders[i].bind(statement, parameterName, arg);
     }
   }
 
@@ -194,10 +230,16 @@ final class ByIndexAndTypeInParameterRegistration implements InParameterRegistra
   // an interface method can not have more than 254 parameters
   private final byte[] inParameterIndices;
   private final int[] inParameterTypes;
+  private final ParameterBinder[] binders;
 
   ByIndexAndTypeInParameterRegistration(byte[] inParameterIndices, int[] inParameterTypes) {
+    this(inParameterIndices, inParameterTypes, ParameterBinder.sqlTypeBinders(inParameterTypes));
+  }
+
+  ByIndexAndTypeInParameterRegistration(byte[] inParameterIndices, int[] inParameterTypes, ParameterBinder[] binders) {
     this.inParameterIndices = inParameterIndices;
     this.inParameterTypes = inParameterTypes;
+    this.binders = binders;
   }
 
   private int inParameterIndexAt(int i) {
@@ -215,23 +257,14 @@ final class ByIndexAndTypeInParameterRegistration implements InParameterRegistra
       Object arg;
       if (callResource.hasResourceAt(i)) {
         arg = callResource.resourceAt(i);
-      } else {
-        arg = args[i];
-      }
-      int type = this.inParameterTypes[i];
-      if (arg != null) {
-        if (InParameterRegistration.hasScale(type) && (arg instanceof BigDecimal)) {
-          // if we don't do this a scale of 0 is assumed
-          statement.setObject(parameterIndex, arg, type, ((BigDecimal) arg).scale());
-        } else {
-          // Javadoc
-          // This method is similar to #setObject
-          // except that it assumes a scale of zero!
-          statement.setObject(parameterIndex, arg, type);
+        if (arg instanceof SelfBindingResource) {
+          ((SelfBindingResource) arg).bind(statement, parameterIndex);
+          continue;
         }
       } else {
-        statement.setNull(parameterIndex, type);
+        arg = args[i];
       }
+      this.binders[i].bind(statement, parameterIndex, arg);
     }
   }
 
@@ -256,10 +289,16 @@ final class ByNameAndTypeInParameterRegistration implements InParameterRegistrat
 
   private final String[] inParameterNames;
   private final int[] inParameterTypes;
+  private final ParameterBinder[] binders;
 
   ByNameAndTypeInParameterRegistration(String[] inParameterNames, int[] inParameterTypes) {
+    this(inParameterNames, inParameterTypes, ParameterBinder.sqlTypeBinders(inParameterTypes));
+  }
+
+  ByNameAndTypeInParameterRegistration(String[] inParameterNames, int[] inParameterTypes, ParameterBinder[] binders) {
     this.inParameterTypes = inParameterTypes;
     this.inParameterNames = inParameterNames;
+    this.binders = binders;
   }
 
   @Override
@@ -273,23 +312,14 @@ final class ByNameAndTypeInParameterRegistration implements InParameterRegistrat
       Object arg;
       if (callResource.hasResourceAt(i)) {
         arg = callResource.resourceAt(i);
-      } else {
-        arg = args[i];
-      }
-      int type = this.inParameterTypes[i];
-      if (arg != null) {
-        if (InParameterRegistration.hasScale(type) && (arg instanceof BigDecimal)) {
-          // if we don't do this a scale of 0 is assumed
-          statement.setObject(parameterName, arg, type, ((BigDecimal) arg).scale());
-        } else {
-          // Javadoc
-          // This method is similar to #setObject
-          // except that it assumes a scale of zero!
-          statement.setObject(parameterName, arg, type);
+        if (arg instanceof SelfBindingResource) {
+          ((SelfBindingResource) arg).bind(statement, parameterName);
+          continue;
         }
       } else {
-        statement.setNull(parameterName, type);
+        arg = args[i];
       }
+      this.binders[i].bind(statement, parameterName, arg);
     }
   }
 
@@ -0,0 +1,103 @@
+package com.github.marschall.storedprocedureproxy;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import com.github.marschall.storedprocedureproxy.annotations.Memoized;
+
+/**
+ * A scope in which repeated calls of {@link Memoized} procedures with
+ * equal arguments return the result of the first call.
+ *
+ * <p>The scope is bound to the current thread until it is closed,
+ * usually for the duration of a request. Nothing is remembered once the
+ * scope is closed.</p>
+ *
+ * <pre><code>
+ * try (MemoizationScope scope = MemoizationScope.open()) {
+ *   handleRequest(request);
+ * }
+ * </code></pre>
+ *
+ * <p>Opening a scope while one is already open on the current thread
+ * joins it, the results are shared and only closing the outermost scope
+ * forgets them.</p>
+ *
+ * <p>This class is not thread safe, a scope has to be closed on the
+ * thread that opened it.</p>
+ */
+public final class MemoizationScope implements AutoCloseable {
+
+  private static final ThreadLocal<MemoizationScope> CURRENT = new ThreadLocal<>();
+
+  /**
+   * The results per interface instance.
+   */
+  private final Map<Object, Map<CallKey, Object>> results;
+
+  private final boolean outermost;
+
+  private boolean closed;
+
+  private MemoizationScope(Map<Object, Map<CallKey, Object>> results, boolean outermost) {
+    this.results = results;
+    this.outermost = outermost;
+  }
+
+  /**
+   * Opens a scope on the current thread or joins the one already open.
+   *
+   * @return the scope to close, never {@code null}
+   */
+  public static MemoizationScope open() {
+    MemoizationScope current = CURRENT.get();
+    if (current != null) {
+      return new MemoizationScope(current.results, false);
+    }
+    MemoizationScope scope = new MemoizationScope(new HashMap<>(), true);
+    CURRENT.set(scope);
+    return scope;
+  }
+
+  /**
+   * Returns the scope open on the current thread.
+   *
+   * @return the scope, {@code null} if none is open
+   */
+  static MemoizationScope current() {
+    return CURRENT.get();
+  }
+
+  /**
+   * Returns the results of the calls made in this scope.
+   *
+   * @param caller the caller making the calls
+   * @return the results, by call
+   */
+  Map<CallKey, Object> getResults(Object caller) {
+    return this.results.computeIfAbsent(caller, c -> new HashMap<>());
+  }
+
+  /**
+   * Closes the scope. If this is the outermost scope all remembered
+   * results are forgotten.
+   */
+  @Override
+  public void close() {
+    if (this.closed) {
+      return;
+    }
+    this.closed = true;
+    if (this.outermost) {
+      CURRENT.remove();
+    }
+  }
+
+  @Override
+  public String toString() {
+    return this.getClass().getSimpleName() + "[results=" + this.results.size()
+            + (this.outermost ? "" : ", joined")
+            + (this.closed ? ", closed" : "") + ']';
+  }
+
+}
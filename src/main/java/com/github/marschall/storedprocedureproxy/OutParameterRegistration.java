@@ -1,5 +1,6 @@
 package com.github.marschall.storedprocedureproxy;
 
+import java.math.BigDecimal;
 import java.sql.CallableStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
@@ -16,6 +17,144 @@ interface OutParameterRegistration {
 }
 
 
+/**
+ * Reads an out parameter.
+ *
+ * <p>Types with a typed getter like {@link CallableStatement#getInt(int)}
+ * are read with it and {@link CallableStatement#wasNull()}. Other types
+ * are read with {@link CallableStatement#getObject(int, Class)}. Some
+ * drivers don't support this method and require
+ * {@link CallableStatement#getObject(int)} instead. Which one works is
+ * detected on the first call and remembered so that no exception is
+ * thrown on later calls.</p>
+ *
+ * @see <a href="https://github.com/pgjdbc/pgjdbc/pull/813">pgjdbc/pgjdbc#813</a>
+ */
+final class OutParameterReader {
+
+  private static final Object NO_TYPED_GETTER = new Object();
+
+  /**
+   * Whether the driver failed {@link CallableStatement#getObject(int, Class)}
+   * but succeeded with {@link CallableStatement#getObject(int)}. A data
+   * race only results in an additional fallback.
+   */
+  private volatile boolean untyped;
+
+  <T> T getOutParameter(CallableStatement statement, int index, Class<T> type) throws SQLException {
+    Object value = getTyped(statement, index, type);
+    if (value != NO_TYPED_GETTER) {
+      return castValue(value);
+    }
+    if (this.untyped) {
+      return type.cast(statement.getObject(index));
+    }
+    try {
+      return statement.getObject(index, type);
+    } catch (SQLException e) {
+      // Postgres hack
+      // https://github.com/pgjdbc/pgjdbc/pull/813
+      T result = type.cast(statement.getObject(index));
+      this.untyped = true;
+      return result;
+    }
+  }
+
+  static <T> T getOutParameter(CallableStatement statement, String name, Class<T> type) throws SQLException {
+    Object value = getTyped(statement, name, type);
+    if (value != NO_TYPED_GETTER) {
+      return castValue(value);
+    }
+    return statement.getObject(name, type);
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <T> T castValue(Object value) {
+    // Class#cast does not work for primitive types
+    return (T) value;
+  }
+
+  private static Object getTyped(CallableStatement statement, int index, Class<?> type) throws SQLException {
+    if ((type == Integer.class) || (type == int.class)) {
+      int value = statement.getInt(index);
+      return statement.wasNull() ? null : value;
+    } else if ((type == Long.class) || (type == long.class)) {
+      long value = statement.getLong(index);
+      return statement.wasNull() ? null : value;
+    } else if (type == String.class) {
+      return statement.getString(index);
+    } else if (type == BigDecimal.class) {
+      return statement.getBigDecimal(index);
+    } else if ((type == Short.class) || (type == short.class)) {
+      short value = statement.getShort(index);
+      return statement.wasNull() ? null : value;
+    } else if ((type == Byte.class) || (type == byte.class)) {
+      byte value = statement.getByte(index);
+      return statement.wasNull() ? null : value;
+    } else if ((type == Boolean.class) || (type == boolean.class)) {
+      boolean value = statement.getBoolean(index);
+      return statement.wasNull() ? null : value;
+    } else if ((type == Double.class) || (type == double.class)) {
+      double value = statement.getDouble(index);
+      return statement.wasNull() ? null : value;
+    } else if ((type == Float.class) || (type == float.class)) {
+      float value = statement.getFloat(index);
+      return statement.wasNull() ? null : value;
+    } else if (type == java.sql.Date.class) {
+      return statement.getDate(index);
+    } else if (type == java.sql.Time.class) {
+      return statement.getTime(index);
+    } else if (type == java.sql.Timestamp.class) {
+      return statement.getTimestamp(index);
+    } else {
+      return NO_TYPED_GETTER;
+    }
+  }
+
+  private static Object getTyped(CallableStatement statement, String name, Class<?> type) throws SQLException {
+    if ((type == Integer.class) || (type == int.class)) {
+      int value = statement.getInt(name);
+      return statement.wasNull() ? null : value;
+    } else if ((type == Long.class) || (type == long.class)) {
+      long value = statement.getLong(name);
+      return statement.wasNull() ? null : value;
+    } else if (type == String.class) {
+      return statement.getString(name);
+    } else if (type == BigDecimal.class) {
+      return statement.getBigDecimal(name);
+    } else if ((type == Short.class) || (type == short.class)) {
+      short value = statement.getShort(name);
+      return statement.wasNull() ? null : value;
+    } else if ((type == Byte.class) || (type == byte.class)) {
+      byte value = statement.getByte(name);
+      return statement.wasNull() ? null : value;
+    } else if ((type == Boolean.class) || (type == boolean.class)) {
+      boolean value = statement.getBoolean(name);
+      return statement.wasNull() ? null : value;
+    } else if ((type == Double.class) || (type == double.class)) {
+      double value = statement.getDouble(name);
+      return statement.wasNull() ? null : value;
+    } else if ((type == Float.class) || (type == float.class)) {
+      float value = statement.getFloat(name);
+      return statement.wasNull() ? null : value;
+    } else if (type == java.sql.Date.class) {
+      return statement.getDate(name);
+    } else if (type == java.sql.Time.class) {
+      return statement.getTime(name);
+    } else if (type == java.sql.Timestamp.class) {
+      return statement.getTimestamp(name);
+    } else {
+      return NO_TYPED_GETTER;
+    }
+  }
+
+  @Override
+  public String toString() {
+    return this.getClass().getSimpleName() + '[' + (this.untyped ? "getObject(int)" : "getObject(int, Class)") + ']';
+  }
+
+}
+
 /**
  * Register out parameters by index and type.
  */
@@ -24,10 +163,12 @@ final class ByIndexOutParameterRegistration implements OutParameterRegistration
   // an interface method can not have more than 254 parameters
   private final byte outParameterIndex;
   private final int outParameterType;
+  private final OutParameterReader reader;
 
   ByIndexOutParameterRegistration(int outParameterIndex, int outParameterType) {
     this.outParameterIndex = ByteUtils.toByte(outParameterIndex);
     this.outParameterType = outParameterType;
+    this.reader = new OutParameterReader();
   }
 
   private int getOutParameterIndex() {
@@ -41,13 +182,7 @@ final class ByIndexOutParameterRegistration implements OutParameterRegistration
 
   @Override
   public <T> T getOutParamter(CallableStatement statement, Class<T> type) throws SQLException {
-    try {
-      return statement.getObject(this.getOutParameterIndex(), type);
-    } catch (SQLException e) {
-      // Postgres hack
-      // https://github.com/pgjdbc/pgjdbc/pull/813
-      return type.cast(statement.getObject(this.getOutParameterIndex()));
-    }
+    return this.reader.getOutParameter(statement, this.getOutParameterIndex(), type);
   }
 
   @Override
@@ -78,7 +213,7 @@ final class ByNameOutParameterRegistration implements OutParameterRegistration {
 
   @Override
   public <T> T getOutParamter(CallableStatement statement, Class<T> type) throws SQLException {
-    return statement.getObject(this.outParameterName, type);
+    return OutParameterReader.getOutParameter(statement, this.outParameterName, type);
   }
 
   @Override
@@ -106,11 +241,13 @@ final class ByIndexAndTypeNameOutParameterRegistration implements OutParameterRe
   private final byte outParameterIndex;
   private final int outParameterType;
   private final String typeName;
+  private final OutParameterReader reader;
 
   ByIndexAndTypeNameOutParameterRegistration(int outParameterIndex, int outParameterType, String typeName) {
     this.outParameterIndex = ByteUtils.toByte(outParameterIndex);
     this.outParameterType = outParameterType;
     this.typeName = typeName;
+    this.reader = new OutParameterReader();
   }
 
   private int getOutParameterIndex() {
@@ -124,13 +261,7 @@ final class ByIndexAndTypeNameOutParameterRegistration implements OutParameterRe
 
   @Override
   public <T> T getOutParamter(CallableStatement statement, Class<T> type) throws SQLException {
-    try {
-      return statement.getObject(this.getOutParameterIndex(), type);
-    } catch (SQLException e) {
-      // Postgres hack
-      // https://github.com/pgjdbc/pgjdbc/pull/813
-      return type.cast(statement.getObject(this.getOutParameterIndex()));
-    }
+    return this.reader.getOutParameter(statement, this.getOutParameterIndex(), type);
   }
 
   @Override
@@ -173,7 +304,7 @@ final class ByNameAndTypeNameOutParameterRegistration implements OutParameterReg
 
   @Override
   public <T> T getOutParamter(CallableStatement statement, Class<T> type) throws SQLException {
-    return statement.getObject(this.outParameterName, type);
+    return OutParameterReader.getOutParameter(statement, this.outParameterName, type);
   }
 
   @Override
@@ -217,3 +348,56 @@ final class  NoOutParameterRegistration implements OutParameterRegistration {
   }
 
 }
+
+/**
+ * Register out parameters as PL/SQL index-by tables using the Oracle API.
+ * Index-by tables can only be registered by index.
+ */
+final class IndexTableOutParameterRegistration implements OutParameterRegistration {
+
+  // an interface method can not have more than 254 parameters
+  private final byte outParameterIndex;
+  private final int maxLength;
+  private final int elementSqlType;
+  private final int elementLength;
+
+  IndexTableOutParameterRegistration(int outParameterIndex, int maxLength, int elementSqlType, int elementLength) {
+    this.outParameterIndex = ByteUtils.toByte(outParameterIndex);
+    this.maxLength = maxLength;
+    this.elementSqlType = elementSqlType;
+    this.elementLength = elementLength;
+  }
+
+  private int getOutParameterIndex() {
+    return ByteUtils.toInt(this.outParameterIndex);
+  }
+
+  @Override
+  public void bindOutParamter(CallableStatement statement) throws SQLException {
+    PlsqlIndexTables.checkSupported();
+    PlsqlIndexTables.registerIndexTableOutParameter(statement, this.getOutParameterIndex(),
+            this.maxLength, this.elementSqlType, this.elementLength);
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * <p>Primitive array types are read directly by the driver, any other
+   * type results in a {@code BigDecimal[]} or {@code String[]}.</p>
+   */
+  @Override
+  public <T> T getOutParamter(CallableStatement statement, Class<T> type) throws SQLException {
+    Class<?> componentType = type.getComponentType();
+    Class<?> primitiveType = (componentType != null) && componentType.isPrimitive() ? componentType : null;
+    return type.cast(PlsqlIndexTables.getPlsqlIndexTable(statement, this.getOutParameterIndex(), primitiveType));
+  }
+
+  @Override
+  public String toString() {
+    return this.getClass().getSimpleName() + "[index=" + this.getOutParameterIndex()
+      + ", maxLength=" + this.maxLength
+      + ", elementType=" + this.elementSqlType
+      + ", elementLength=" + this.elementLength + ']';
+  }
+
+}
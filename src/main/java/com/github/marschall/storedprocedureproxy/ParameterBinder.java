@@ -0,0 +1,660 @@
+package com.github.marschall.storedprocedureproxy;
+
+import java.math.BigDecimal;
+import java.sql.CallableStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+
+/**
+ * Binds a single in parameter.
+ *
+ * <p>Selected once per method from the Java parameter type so that
+ * the typed setters like {@link CallableStatement#setInt(int, int)} can
+ * be used instead of {@link CallableStatement#setObject(int, Object)}
+ * which makes the driver dispatch on the type of every argument.</p>
+ */
+abstract class ParameterBinder {
+
+  /**
+   * Binds using {@link CallableStatement#setObject(int, Object)}.
+   */
+  static final ParameterBinder OBJECT = new ObjectBinder();
+
+  /**
+   * Returns the binder for a parameter without a known SQL type.
+   *
+   * @param javaType the Java type of the parameter
+   * @return the binder, {@link #OBJECT} if there is no typed setter
+   */
+  static ParameterBinder forType(Class<?> javaType) {
+    if ((javaType == int.class) || (javaType == Integer.class)) {
+      return new IntBinder(Types.INTEGER);
+    } else if ((javaType == long.class) || (javaType == Long.class)) {
+      return new LongBinder(Types.BIGINT);
+    } else if (javaType == String.class) {
+      return new StringBinder(Types.VARCHAR);
+    } else if (javaType == BigDecimal.class) {
+      return new BigDecimalBinder(Types.NUMERIC);
+    } else if ((javaType == short.class) || (javaType == Short.class)) {
+      return new ShortBinder(Types.SMALLINT);
+    } else if ((javaType == byte.class) || (javaType == Byte.class)) {
+      return new ByteBinder(Types.TINYINT);
+    } else if ((javaType == boolean.class) || (javaType == Boolean.class)) {
+      return new BooleanBinder(Types.BOOLEAN);
+    } else if ((javaType == float.class) || (javaType == Float.class)) {
+      return new FloatBinder(Types.REAL);
+    } else if ((javaType == double.class) || (javaType == Double.class)) {
+      return new DoubleBinder(Types.DOUBLE);
+    } else if (javaType == java.sql.Date.class) {
+      return new DateBinder(Types.DATE);
+    } else if (javaType == java.sql.Time.class) {
+      return new TimeBinder(Types.TIME);
+    } else if (javaType == java.sql.Timestamp.class) {
+      return new TimestampBinder(Types.TIMESTAMP);
+    } else {
+      // java.time types only have setObject
+      return OBJECT;
+    }
+  }
+
+  /**
+   * Returns the binder for a parameter with a known SQL type.
+   *
+   * <p>The typed setter is only used if it sends the same SQL type,
+   * otherwise {@link CallableStatement#setObject(int, Object, int)} is
+   * used so that the driver performs the conversion.</p>
+   *
+   * @param javaType the Java type of the parameter
+   * @param sqlType the SQL type of the parameter
+   * @return the binder
+   */
+  static ParameterBinder forType(Class<?> javaType, int sqlType) {
+    ParameterBinder binder = forType(javaType);
+    if (binder.supportsSqlType(sqlType)) {
+      return binder.withNullType(sqlType);
+    }
+    return new SqlTypeBinder(sqlType);
+  }
+
+  /**
+   * Returns binders that all use {@link CallableStatement#setObject(int, Object)}.
+   *
+   * @param length the number of parameters
+   * @return the binders
+   */
+  static ParameterBinder[] objectBinders(int length) {
+    ParameterBinder[] binders = new ParameterBinder[length];
+    for (int i = 0; i < length; i++) {
+      binders[i] = OBJECT;
+    }
+    return binders;
+  }
+
+  /**
+   * Returns binders that all use {@link CallableStatement#setObject(int, Object, int)}.
+   *
+   * @param sqlTypes the SQL type of each parameter
+   * @return the binders
+   */
+  static ParameterBinder[] sqlTypeBinders(int[] sqlTypes) {
+    ParameterBinder[] binders = new ParameterBinder[sqlTypes.length];
+    for (int i = 0; i < sqlTypes.length; i++) {
+      binders[i] = new SqlTypeBinder(sqlTypes[i]);
+    }
+    return binders;
+  }
+
+  static boolean areAllObject(ParameterBinder[] binders) {
+    for (ParameterBinder binder : binders) {
+      if (binder != OBJECT) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  abstract void bind(CallableStatement statement, int parameterIndex, Object arg) throws SQLException;
+
+  abstract void bind(CallableStatement statement, String parameterName, Object arg) throws SQLException;
+
+  boolean supportsSqlType(int sqlType) {
+    return false;
+  }
+
+  ParameterBinder withNullType(int sqlType) {
+    return this;
+  }
+
+  @Override
+  public String toString() {
+    return this.getClass().getSimpleName();
+  }
+
+}
+
+final class ObjectBinder extends ParameterBinder {
+
+  ObjectBinder() {
+    super();
+  }
+
+  @Override
+  void bind(CallableStatement statement, int parameterIndex, Object arg) throws SQLException {
+    statement.setObject(parameterIndex, arg);
+  }
+
+  @Override
+  void bind(CallableStatement statement, String parameterName, Object arg) throws SQLException {
+    statement.setObject(parameterName, arg);
+  }
+
+}
+
+/**
+ * Binds using {@link CallableStatement#setObject(int, Object, int)}
+ * with an SQL type.
+ */
+final class SqlTypeBinder extends ParameterBinder {
+
+  private final int sqlType;
+
+  SqlTypeBinder(int sqlType) {
+    this.sqlType = sqlType;
+  }
+
+  @Override
+  void bind(CallableStatement statement, int parameterIndex, Object arg) throws SQLException {
+    if (arg != null) {
+      if (InParameterRegistration.hasScale(this.sqlType) && (arg instanceof BigDecimal)) {
+        // if we don't do this a scale of 0 is assumed
+        statement.setObject(parameterIndex, arg, this.sqlType, ((BigDecimal) arg).scale());
+      } else {
+        // Javadoc
+        // This method is similar to #setObject
+        // except that it assumes a scale of zero!
+        statement.setObject(parameterIndex, arg, this.sqlType);
+      }
+    } else {
+      statement.setNull(parameterIndex, this.sqlType);
+    }
+  }
+
+  @Override
+  void bind(CallableStatement statement, String parameterName, Object arg) throws SQLException {
+    if (arg != null) {
+      if (InParameterRegistration.hasScale(this.sqlType) && (arg instanceof BigDecimal)) {
+        // if we don't do this a scale of 0 is assumed
+        statement.setObject(parameterName, arg, this.sqlType, ((BigDecimal) arg).scale());
+      } else {
+        // Javadoc
+        // This method is similar to #setObject
+        // except that it assumes a scale of zero!
+        statement.setObject(parameterName, arg, this.sqlType);
+      }
+    } else {
+      statement.setNull(parameterName, this.sqlType);
+    }
+  }
+
+  @Override
+  public String toString() {
+    return this.getClass().getSimpleName() + '[' + this.sqlType + ']';
+  }
+
+}
+
+final class IntBinder extends ParameterBinder {
+
+  private final int nullType;
+
+  IntBinder(int nullType) {
+    this.nullType = nullType;
+  }
+
+  @Override
+  void bind(CallableStatement statement, int parameterIndex, Object arg) throws SQLException {
+    if (arg != null) {
+      statement.setInt(parameterIndex, (Integer) arg);
+    } else {
+      statement.setNull(parameterIndex, this.nullType);
+    }
+  }
+
+  @Override
+  void bind(CallableStatement statement, String parameterName, Object arg) throws SQLException {
+    if (arg != null) {
+      statement.setInt(parameterName, (Integer) arg);
+    } else {
+      statement.setNull(parameterName, this.nullType);
+    }
+  }
+
+  @Override
+  boolean supportsSqlType(int sqlType) {
+    return sqlType == Types.INTEGER;
+  }
+
+  @Override
+  ParameterBinder withNullType(int sqlType) {
+    return new IntBinder(sqlType);
+  }
+
+}
+
+final class LongBinder extends ParameterBinder {
+
+  private final int nullType;
+
+  LongBinder(int nullType) {
+    this.nullType = nullType;
+  }
+
+  @Override
+  void bind(CallableStatement statement, int parameterIndex, Object arg) throws SQLException {
+    if (arg != null) {
+      statement.setLong(parameterIndex, (Long) arg);
+    } else {
+      statement.setNull(parameterIndex, this.nullType);
+    }
+  }
+
+  @Override
+  void bind(CallableStatement statement, String parameterName, Object arg) throws SQLException {
+    if (arg != null) {
+      statement.setLong(parameterName, (Long) arg);
+    } else {
+      statement.setNull(parameterName, this.nullType);
+    }
+  }
+
+  @Override
+  boolean supportsSqlType(int sqlType) {
+    return sqlType == Types.BIGINT;
+  }
+
+  @Override
+  ParameterBinder withNullType(int sqlType) {
+    return new LongBinder(sqlType);
+  }
+
+}
+
+final class ShortBinder extends ParameterBinder {
+
+  private final int nullType;
+
+  ShortBinder(int nullType) {
+    this.nullType = nullType;
+  }
+
+  @Override
+  void bind(CallableStatement statement, int parameterIndex, Object arg) throws SQLException {
+    if (arg != null) {
+      statement.setShort(parameterIndex, (Short) arg);
+    } else {
+      statement.setNull(parameterIndex, this.nullType);
+    }
+  }
+
+  @Override
+  void bind(CallableStatement statement, String parameterName, Object arg) throws SQLException {
+    if (arg != null) {
+      statement.setShort(parameterName, (Short) arg);
+    } else {
+      statement.setNull(parameterName, this.nullType);
+    }
+  }
+
+  @Override
+  boolean supportsSqlType(int sqlType) {
+    return sqlType == Types.SMALLINT;
+  }
+
+  @Override
+  ParameterBinder withNullType(int sqlType) {
+    return new ShortBinder(sqlType);
+  }
+
+}
+
+final class ByteBinder extends ParameterBinder {
+
+  private final int nullType;
+
+  ByteBinder(int nullType) {
+    this.nullType = nullType;
+  }
+
+  @Override
+  void bind(CallableStatement statement, int parameterIndex, Object arg) throws SQLException {
+    if (arg != null) {
+      statement.setByte(parameterIndex, (Byte) arg);
+    } else {
+      statement.setNull(parameterIndex, this.nullType);
+    }
+  }
+
+  @Override
+  void bind(CallableStatement statement, String parameterName, Object arg) throws SQLException {
+    if (arg != null) {
+      statement.setByte(parameterName, (Byte) arg);
+    } else {
+      statement.setNull(parameterName, this.nullType);
+    }
+  }
+
+  @Override
+  boolean supportsSqlType(int sqlType) {
+    return sqlType == Types.TINYINT;
+  }
+
+  @Override
+  ParameterBinder withNullType(int sqlType) {
+    return new ByteBinder(sqlType);
+  }
+
+}
+
+final class BooleanBinder extends ParameterBinder {
+
+  private final int nullType;
+
+  BooleanBinder(int nullType) {
+    this.nullType = nullType;
+  }
+
+  @Override
+  void bind(CallableStatement statement, int parameterIndex, Object arg) throws SQLException {
+    if (arg != null) {
+      statement.setBoolean(parameterIndex, (Boolean) arg);
+    } else {
+      statement.setNull(parameterIndex, this.nullType);
+    }
+  }
+
+  @Override
+  void bind(CallableStatement statement, String parameterName, Object arg) throws SQLException {
+    if (arg != null) {
+      statement.setBoolean(parameterName, (Boolean) arg);
+    } else {
+      statement.setNull(parameterName, this.nullType);
+    }
+  }
+
+  @Override
+  boolean supportsSqlType(int sqlType) {
+    return sqlType == Types.BOOLEAN;
+  }
+
+  @Override
+  ParameterBinder withNullType(int sqlType) {
+    return new BooleanBinder(sqlType);
+  }
+
+}
+
+final class FloatBinder extends ParameterBinder {
+
+  private final int nullType;
+
+  FloatBinder(int nullType) {
+    this.nullType = nullType;
+  }
+
+  @Override
+  void bind(CallableStatement statement, int parameterIndex, Object arg) throws SQLException {
+    if (arg != null) {
+      statement.setFloat(parameterIndex, (Float) arg);
+    } else {
+      statement.setNull(parameterIndex, this.nullType);
+    }
+  }
+
+  @Override
+  void bind(CallableStatement statement, String parameterName, Object arg) throws SQLException {
+    if (arg != null) {
+      statement.setFloat(parameterName, (Float) arg);
+    } else {
+      statement.setNull(parameterName, this.nullType);
+    }
+  }
+
+  @Override
+  boolean supportsSqlType(int sqlType) {
+    return sqlType == Types.REAL;
+  }
+
+  @Override
+  ParameterBinder withNullType(int sqlType) {
+    return new FloatBinder(sqlType);
+  }
+
+}
+
+final class DoubleBinder extends ParameterBinder {
+
+  private final int nullType;
+
+  DoubleBinder(int nullType) {
+    this.nullType = nullType;
+  }
+
+  @Override
+  void bind(CallableStatement statement, int parameterIndex, Object arg) throws SQLException {
+    if (arg != null) {
+      statement.setDouble(parameterIndex, (Double) arg);
+    } else {
+      statement.setNull(parameterIndex, this.nullType);
+    }
+  }
+
+  @Override
+  void bind(CallableStatement statement, String parameterName, Object arg) throws SQLException {
+    if (arg != null) {
+      statement.setDouble(parameterName, (Double) arg);
+    } else {
+      statement.setNull(parameterName, this.nullType);
+    }
+  }
+
+  @Override
+  boolean supportsSqlType(int sqlType) {
+    return sqlType == Types.DOUBLE;
+  }
+
+  @Override
+  ParameterBinder withNullType(int sqlType) {
+    return new DoubleBinder(sqlType);
+  }
+
+}
+
+final class StringBinder extends ParameterBinder {
+
+  private final int nullType;
+
+  StringBinder(int nullType) {
+    this.nullType = nullType;
+  }
+
+  @Override
+  void bind(CallableStatement statement, int parameterIndex, Object arg) throws SQLException {
+    if (arg != null) {
+      statement.setString(parameterIndex, (String) arg);
+    } else {
+      statement.setNull(parameterIndex, this.nullType);
+    }
+  }
+
+  @Override
+  void bind(CallableStatement statement, String parameterName, Object arg) throws SQLException {
+    if (arg != null) {
+      statement.setString(parameterName, (String) arg);
+    } else {
+      statement.setNull(parameterName, this.nullType);
+    }
+  }
+
+  @Override
+  boolean supportsSqlType(int sqlType) {
+    return sqlType == Types.VARCHAR;
+  }
+
+  @Override
+  ParameterBinder withNullType(int sqlType) {
+    return new StringBinder(sqlType);
+  }
+
+}
+
+final class BigDecimalBinder extends ParameterBinder {
+
+  private final int nullType;
+
+  BigDecimalBinder(int nullType) {
+    this.nullType = nullType;
+  }
+
+  @Override
+  void bind(CallableStatement statement, int parameterIndex, Object arg) throws SQLException {
+    if (arg != null) {
+      statement.setBigDecimal(parameterIndex, (BigDecimal) arg);
+    } else {
+      statement.setNull(parameterIndex, this.nullType);
+    }
+  }
+
+  @Override
+  void bind(CallableStatement statement, String parameterName, Object arg) throws SQLException {
+    if (arg != null) {
+      statement.setBigDecimal(parameterName, (BigDecimal) arg);
+    } else {
+      statement.setNull(parameterName, this.nullType);
+    }
+  }
+
+  @Override
+  boolean supportsSqlType(int sqlType) {
+    return InParameterRegistration.hasScale(sqlType);
+  }
+
+  @Override
+  ParameterBinder withNullType(int sqlType) {
+    return new BigDecimalBinder(sqlType);
+  }
+
+}
+
+final class DateBinder extends ParameterBinder {
+
+  private final int nullType;
+
+  DateBinder(int nullType) {
+    this.nullType = nullType;
+  }
+
+  @Override
+  void bind(CallableStatement statement, int parameterIndex, Object arg) throws SQLException {
+    if (arg != null) {
+      statement.setDate(parameterIndex, (java.sql.Date) arg);
+    } else {
+      statement.setNull(parameterIndex, this.nullType);
+    }
+  }
+
+  @Override
+  void bind(CallableStatement statement, String parameterName, Object arg) throws SQLException {
+    if (arg != null) {
+      statement.setDate(parameterName, (java.sql.Date) arg);
+    } else {
+      statement.setNull(parameterName, this.nullType);
+    }
+  }
+
+  @Override
+  boolean supportsSqlType(int sqlType) {
+    return sqlType == Types.DATE;
+  }
+
+  @Override
+  ParameterBinder withNullType(int sqlType) {
+    return new DateBinder(sqlType);
+  }
+
+}
+
+final class TimeBinder extends ParameterBinder {
+
+  private final int nullType;
+
+  TimeBinder(int nullType) {
+    this.nullType = nullType;
+  }
+
+  @Override
+  void bind(CallableStatement statement, int parameterIndex, Object arg) throws SQLException {
+    if (arg != null) {
+      statement.setTime(parameterIndex, (java.sql.Time) arg);
+    } else {
+      statement.setNull(parameterIndex, this.nullType);
+    }
+  }
+
+  @Override
+  void bind(CallableStatement statement, String parameterName, Object arg) throws SQLException {
+    if (arg != null) {
+      statement.setTime(parameterName, (java.sql.Time) arg);
+    } else {
+      statement.setNull(parameterName, this.nullType);
+    }
+  }
+
+  @Override
+  boolean supportsSqlType(int sqlType) {
+    return sqlType == Types.TIME;
+  }
+
+  @Override
+  ParameterBinder withNullType(int sqlType) {
+    return new TimeBinder(sqlType);
+  }
+
+}
+
+final class TimestampBinder extends ParameterBinder {
+
+  private final int nullType;
+
+  TimestampBinder(int nullType) {
+    this.nullType = nullType;
+  }
+
+  @Override
+  void bind(CallableStatement statement, int parameterIndex, Object arg) throws SQLException {
+    if (arg != null) {
+      statement.setTimestamp(parameterIndex, (java.sql.Timestamp) arg);
+    } else {
+      statement.setNull(parameterIndex, this.nullType);
+    }
+  }
+
+  @Override
+  void bind(CallableStatement statement, String parameterName, Object arg) throws SQLException {
+    if (arg != null) {
+      statement.setTimestamp(parameterName, (java.sql.Timestamp) arg);
+    } else {
+      statement.setNull(parameterName, this.nullType);
+    }
+  }
+
+  @Override
+  boolean supportsSqlType(int sqlType) {
+    return sqlType == Types.TIMESTAMP;
+  }
+
+  @Override
+  ParameterBinder withNullType(int sqlType) {
+    return new TimestampBinder(sqlType);
+  }
+
+}
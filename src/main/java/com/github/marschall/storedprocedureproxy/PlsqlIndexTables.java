@@ -0,0 +1,181 @@
+package com.github.marschall.storedprocedureproxy;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodHandles.Lookup;
+import java.math.BigDecimal;
+import java.sql.CallableStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+
+/**
+ * Binds and reads PL/SQL index-by tables using the Oracle API.
+ *
+ * <p>Only numbers and strings are supported as elements. Index-by
+ * tables can only be bound by index.</p>
+ *
+ * @see <a href="https://docs.oracle.com/en/database/oracle/oracle-database/19/jjdbc/accessing-PL-SQL-associative-arrays.html">Accessing PL/SQL Associative Arrays</a>
+ */
+final class PlsqlIndexTables {
+
+  private static final Class<?> ORACLE_CALLABLE_STATEMENT;
+  private static final MethodHandle SET_PLSQL_INDEX_TABLE;
+  private static final MethodHandle REGISTER_INDEX_TABLE_OUT_PARAMETER;
+  private static final MethodHandle GET_PLSQL_INDEX_TABLE;
+  private static final MethodHandle GET_PRIMITIVE_PLSQL_INDEX_TABLE;
+
+  static {
+    // https://docs.oracle.com/en/database/oracle/oracle-database/12.2/jajdb/oracle/jdbc/OracleCallableStatement.html
+    Class<?> oracleCallableStatement;
+    MethodHandle setPlsqlIndexTable;
+    MethodHandle registerIndexTableOutParameter;
+    MethodHandle getPlsqlIndexTable;
+    MethodHandle getPrimitivePlsqlIndexTable;
+    try {
+      oracleCallableStatement = Class.forName("oracle.jdbc.OracleCallableStatement");
+      Lookup lookup = MethodHandles.publicLookup();
+      setPlsqlIndexTable = lookup.unreflect(oracleCallableStatement.getMethod("setPlsqlIndexTable",
+              int.class, Object.class, int.class, int.class, int.class, int.class));
+      registerIndexTableOutParameter = lookup.unreflect(oracleCallableStatement.getMethod("registerIndexTableOutParameter",
+              int.class, int.class, int.class, int.class));
+      getPlsqlIndexTable = lookup.unreflect(oracleCallableStatement.getMethod("getPlsqlIndexTable", int.class));
+      getPrimitivePlsqlIndexTable = lookup.unreflect(oracleCallableStatement.getMethod("getPlsqlIndexTable", int.class, Class.class));
+    } catch (ReflectiveOperationException e) {
+      oracleCallableStatement = null;
+      setPlsqlIndexTable = null;
+      registerIndexTableOutParameter = null;
+      getPlsqlIndexTable = null;
+      getPrimitivePlsqlIndexTable = null;
+    }
+    ORACLE_CALLABLE_STATEMENT = oracleCallableStatement;
+    SET_PLSQL_INDEX_TABLE = setPlsqlIndexTable;
+    REGISTER_INDEX_TABLE_OUT_PARAMETER = registerIndexTableOutParameter;
+    GET_PLSQL_INDEX_TABLE = getPlsqlIndexTable;
+    GET_PRIMITIVE_PLSQL_INDEX_TABLE = getPrimitivePlsqlIndexTable;
+  }
+
+  private PlsqlIndexTables() {
+    throw new AssertionError("not instantiable");
+  }
+
+  static boolean isSupported() {
+    return ORACLE_CALLABLE_STATEMENT != null;
+  }
+
+  static void checkSupported() {
+    if (!isSupported()) {
+      throw new IllegalStateException("Oracle JDBC classes not found in expected shape");
+    }
+  }
+
+  /**
+   * Whether elements of a type can be stored in an index-by table.
+   *
+   * @param elementType the Java element type
+   * @return whether the type is supported
+   */
+  static boolean isSupportedElementType(Class<?> elementType) {
+    return (elementType == String.class)
+            || (elementType == BigDecimal.class)
+            || isPrimitiveElementType(elementType)
+            || (elementType == Integer.class)
+            || (elementType == Long.class)
+            || (elementType == Double.class)
+            || (elementType == Float.class)
+            || (elementType == Short.class);
+  }
+
+  /**
+   * Whether an index-by table can directly be read into a primitive
+   * array of a type.
+   *
+   * @param elementType the Java element type
+   * @return whether the type is a primitive supported by the driver
+   */
+  static boolean isPrimitiveElementType(Class<?> elementType) {
+    return (elementType == int.class)
+            || (elementType == long.class)
+            || (elementType == double.class)
+            || (elementType == float.class)
+            || (elementType == short.class);
+  }
+
+  /**
+   * Returns the SQL type of the elements of an index-by table.
+   *
+   * @param elementType the Java element type
+   * @return the SQL type
+   */
+  static int elementSqlType(Class<?> elementType) {
+    if (elementType == String.class) {
+      return Types.VARCHAR;
+    } else {
+      return Types.NUMERIC;
+    }
+  }
+
+  static void setPlsqlIndexTable(CallableStatement statement, int parameterIndex,
+          Object elements, int maxLength, int length, int elementSqlType, int elementLength) throws SQLException {
+    Object oracleStatement = statement.unwrap(ORACLE_CALLABLE_STATEMENT);
+    try {
+      SET_PLSQL_INDEX_TABLE.invoke(oracleStatement, parameterIndex, elements, maxLength, length, elementSqlType, elementLength);
+    } catch (SQLException e) {
+      throw e;
+    } catch (RuntimeException e) {
+      throw e;
+    } catch (Error e) {
+      throw e;
+    } catch (Throwable e) {
+      // should not happen, does not fall into type signature
+      throw new RuntimeException("unknwon exception occured when calling " + SET_PLSQL_INDEX_TABLE, e);
+    }
+  }
+
+  static void registerIndexTableOutParameter(CallableStatement statement, int parameterIndex,
+          int maxLength, int elementSqlType, int elementLength) throws SQLException {
+    Object oracleStatement = statement.unwrap(ORACLE_CALLABLE_STATEMENT);
+    try {
+      REGISTER_INDEX_TABLE_OUT_PARAMETER.invoke(oracleStatement, parameterIndex, maxLength, elementSqlType, elementLength);
+    } catch (SQLException e) {
+      throw e;
+    } catch (RuntimeException e) {
+      throw e;
+    } catch (Error e) {
+      throw e;
+    } catch (Throwable e) {
+      // should not happen, does not fall into type signature
+      throw new RuntimeException("unknwon exception occured when calling " + REGISTER_INDEX_TABLE_OUT_PARAMETER, e);
+    }
+  }
+
+  /**
+   * Reads an index-by table out parameter.
+   *
+   * @param statement the statement to read from
+   * @param parameterIndex the index of the out parameter
+   * @param primitiveType the primitive element type, {@code null} to read
+   *        {@code BigDecimal[]} or {@code String[]}
+   * @return the array of elements
+   * @throws SQLException if reading fails
+   */
+  static Object getPlsqlIndexTable(CallableStatement statement, int parameterIndex, Class<?> primitiveType) throws SQLException {
+    Object oracleStatement = statement.unwrap(ORACLE_CALLABLE_STATEMENT);
+    try {
+      if (primitiveType != null) {
+        return GET_PRIMITIVE_PLSQL_INDEX_TABLE.invoke(oracleStatement, parameterIndex, primitiveType);
+      } else {
+        return GET_PLSQL_INDEX_TABLE.invoke(oracleStatement, parameterIndex);
+      }
+    } catch (SQLException e) {
+      throw e;
+    } catch (RuntimeException e) {
+      throw e;
+    } catch (Error e) {
+      throw e;
+    } catch (Throwable e) {
+      // should not happen, does not fall into type signature
+      throw new RuntimeException("unknwon exception occured when calling " + GET_PLSQL_INDEX_TABLE, e);
+    }
+  }
+
+}
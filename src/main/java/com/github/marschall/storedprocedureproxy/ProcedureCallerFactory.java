@@ -1,5 +1,9 @@
 package com.github.marschall.storedprocedureproxy;
 
+import java.io.InputStream;
+import java.io.Reader;
+import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandle;
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
 import java.lang.reflect.Parameter;
@@ -8,24 +12,46 @@ import java.lang.reflect.Proxy;
 import java.lang.reflect.Type;
 import java.sql.CallableStatement;
 import java.sql.Connection;
+import java.sql.DatabaseMetaData;
 import java.sql.SQLException;
 import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
 
 import javax.sql.DataSource;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.transform.Source;
+import javax.xml.transform.stax.StAXSource;
 
 import org.springframework.jdbc.support.SQLErrorCodeSQLExceptionTranslator;
 
+import com.github.marschall.storedprocedureproxy.FusedCall.RecordingHandler;
+import com.github.marschall.storedprocedureproxy.ResultCache.CacheEntry;
+import com.github.marschall.storedprocedureproxy.annotations.Aggregated;
+import com.github.marschall.storedprocedureproxy.annotations.Cached;
+import com.github.marschall.storedprocedureproxy.annotations.Chunked;
+import com.github.marschall.storedprocedureproxy.annotations.Coalesced;
 import com.github.marschall.storedprocedureproxy.annotations.FetchSize;
 import com.github.marschall.storedprocedureproxy.annotations.InOutParameter;
+import com.github.marschall.storedprocedureproxy.annotations.IndexTable;
+import com.github.marschall.storedprocedureproxy.annotations.LobPrefetchSize;
+import com.github.marschall.storedprocedureproxy.annotations.Memoized;
 import com.github.marschall.storedprocedureproxy.annotations.Namespace;
 import com.github.marschall.storedprocedureproxy.annotations.OutParameter;
 import com.github.marschall.storedprocedureproxy.annotations.ParameterName;
@@ -33,10 +59,17 @@ import com.github.marschall.storedprocedureproxy.annotations.ParameterType;
 import com.github.marschall.storedprocedureproxy.annotations.ProcedureName;
 import com.github.marschall.storedprocedureproxy.annotations.ReturnValue;
 import com.github.marschall.storedprocedureproxy.annotations.Schema;
+import com.github.marschall.storedprocedureproxy.annotations.Selectable;
+import com.github.marschall.storedprocedureproxy.annotations.ServerPrepared;
+import com.github.marschall.storedprocedureproxy.annotations.TempTable;
+import com.github.marschall.storedprocedureproxy.annotations.Vectorized;
+import com.github.marschall.storedprocedureproxy.annotations.WriteBehind;
 import com.github.marschall.storedprocedureproxy.annotations.TypeName;
+import com.github.marschall.storedprocedureproxy.spi.Dialect;
 import com.github.marschall.storedprocedureproxy.spi.NamingStrategy;
 import com.github.marschall.storedprocedureproxy.spi.TypeMapper;
 import com.github.marschall.storedprocedureproxy.spi.TypeNameResolver;
+import com.github.marschall.storedprocedureproxy.spi.WriteBehindFailureHandler;
 
 /**
  * Creates instances of an interface containing stored procedure declarations.
@@ -120,6 +153,15 @@ public final class ProcedureCallerFactory<T> {
 
   private ParameterRegistration parameterRegistration;
 
+  private boolean resolveParameterNames;
+
+  private CallSyntax callSyntax;
+
+  /**
+   * {@code null} for the default, which is only created on
+   * {@link #build()} because Spring's translator eagerly connects to
+   * the database.
+   */
   private SQLExceptionAdapter exceptionAdapter;
 
   private TypeMapper typeMapper;
@@ -130,6 +172,12 @@ public final class ProcedureCallerFactory<T> {
 
   private ArrayResultExtractorFactory arrayResultExtractorFactory;
 
+  private Executor chunkExecutor;
+
+  private ScheduledExecutorService writeBehindExecutor;
+
+  private WriteBehindFailureHandler writeBehindFailureHandler;
+
   private ProcedureCallerFactory(Class<T> interfaceDeclaration, DataSource dataSource) {
     this.interfaceDeclaration = interfaceDeclaration;
     this.dataSource = dataSource;
@@ -140,7 +188,8 @@ public final class ProcedureCallerFactory<T> {
     this.hasSchema = false;
     this.hasNamespace = false;
     this.parameterRegistration = ParameterRegistration.INDEX_ONLY;
-    this.exceptionAdapter = getDefaultExceptionAdapter(dataSource);
+    this.resolveParameterNames = false;
+    this.callSyntax = CallSyntax.ESCAPE;
     this.typeMapper = DefaultTypeMapper.INSTANCE;
     this.typeNameResolver = DEFAULT_TYPE_NAME_RESOLVER;
     this.arrayResourceFactoryFactory = ArrayResourceFactoryFactory.JDBC;
@@ -286,6 +335,45 @@ public final class ProcedureCallerFactory<T> {
     return this;
   }
 
+  /**
+   * Binds parameters declared by name using their index.
+   *
+   * <p>Only applies to {@link ParameterRegistration#NAME_ONLY} and
+   * {@link ParameterRegistration#NAME_AND_TYPE}. The parameter names are
+   * resolved to indices once per method using
+   * {@link java.sql.DatabaseMetaData#getProcedureColumns(String, String, String, String)}.
+   * Calls are then made with the index based methods on
+   * {@link CallableStatement} which some drivers implement more
+   * efficiently than the name based ones.</p>
+   *
+   * <p>If a name can not be resolved, eg. because the procedure is
+   * overloaded or the driver does not report parameter names, or the
+   * resolved positions do not match the placeholders of the call, eg.
+   * because a parameter with a default value is omitted, the
+   * parameters of the method are bound by name.</p>
+   *
+   * @return this builder for chaining
+   * @see #withParameterRegistration(ParameterRegistration)
+   */
+  public ProcedureCallerFactory<T> withParameterNameResolution() {
+    this.resolveParameterNames = true;
+    return this;
+  }
+
+  /**
+   * Allows you to change the syntax used to call procedures. The default
+   * is {@link CallSyntax#ESCAPE}.
+   *
+   * @param callSyntax the call syntax
+   * @return this builder for chaining
+   * @see CallSyntax
+   */
+  public ProcedureCallerFactory<T> withCallSyntax(CallSyntax callSyntax) {
+    Objects.requireNonNull(callSyntax);
+    this.callSyntax = callSyntax;
+    return this;
+  }
+
   /**
    * Allows you to change the way {@link SQLException}s are translated into
    * unchecked exceptions.
@@ -349,6 +437,10 @@ public final class ProcedureCallerFactory<T> {
   /**
    * Uses PostgreS API to create primitive arrays.
    *
+   * <p>Lists and arrays of records or {@code Object[]} are bound as
+   * arrays of the composite type given by the type name, usually given
+   * with {@link TypeName}.</p>
+   *
    * @return this builder for chaining
    * @see <a href="https://github.com/marschall/stored-procedure-proxy/wiki/Arrays#postgres">PostgreS extensions</a>
    */
@@ -357,6 +449,65 @@ public final class ProcedureCallerFactory<T> {
     return this;
   }
 
+  /**
+   * Uses the SQL Server API to bind collections and arrays as table
+   * valued parameters.
+   *
+   * <p>The type name, usually given with {@link TypeName}, is the name
+   * of the table type. Each element becomes a row and can be an
+   * {@code Object[]} of column values, a record or a single value for
+   * tables with one column.</p>
+   *
+   * @return this builder for chaining
+   * @see <a href="https://learn.microsoft.com/en-us/sql/connect/jdbc/using-table-valued-parameters">Using table-valued parameters</a>
+   */
+  public ProcedureCallerFactory<T> withSqlServerTableValuedParameters() {
+    this.arrayResourceFactoryFactory = ArrayResourceFactoryFactory.SQL_SERVER;
+    return this;
+  }
+
+  /**
+   * Sets the executor used to call the chunks of a {@link Chunked}
+   * argument in parallel.
+   *
+   * <p>Every chunk is called on its own connection. The executor should
+   * not be a shared pool intended for non-blocking tasks like
+   * {@link java.util.concurrent.ForkJoinPool#commonPool()}.</p>
+   *
+   * @param chunkExecutor the executor to call chunks, not {@code null}
+   * @return this builder for chaining
+   * @see Chunked#parallel()
+   */
+  public ProcedureCallerFactory<T> withChunkExecutor(Executor chunkExecutor) {
+    Objects.requireNonNull(chunkExecutor, "chunkExecutor");
+    this.chunkExecutor = chunkExecutor;
+    return this;
+  }
+
+  /**
+   * Sets the executor used to flush the calls queued by
+   * {@link WriteBehind} procedures and the sums of {@link Aggregated}
+   * procedures and the handler notified of failed flushes.
+   *
+   * <p>Every flush uses its own connection. Before the executor is shut
+   * down {@link #shutdownWriteBehind(Object)} should be called so that
+   * no queued calls are lost.</p>
+   *
+   * @param writeBehindExecutor the executor to flush queued calls, not {@code null}
+   * @param writeBehindFailureHandler notified of failed flushes, not {@code null}
+   * @return this builder for chaining
+   * @see WriteBehind
+   * @see Aggregated
+   */
+  public ProcedureCallerFactory<T> withWriteBehind(ScheduledExecutorService writeBehindExecutor,
+          WriteBehindFailureHandler writeBehindFailureHandler) {
+    Objects.requireNonNull(writeBehindExecutor, "writeBehindExecutor");
+    Objects.requireNonNull(writeBehindFailureHandler, "writeBehindFailureHandler");
+    this.writeBehindExecutor = writeBehindExecutor;
+    this.writeBehindFailureHandler = writeBehindFailureHandler;
+    return this;
+  }
+
   /**
    * Uses Oracle JDBC types.
    *
@@ -390,6 +541,136 @@ public final class ProcedureCallerFactory<T> {
     return this.withOracleTypeMapper();
   }
 
+  /**
+   * Applies the settings of a database dialect.
+   *
+   * <p>Settings made after this method has been called take precedence
+   * over the ones of the dialect.</p>
+   *
+   * @param dialect the dialect to apply
+   * @return this builder for chaining
+   * @see Dialect#oracle()
+   * @see Dialect#postgres()
+   */
+  public ProcedureCallerFactory<T> withDialect(Dialect dialect) {
+    Objects.requireNonNull(dialect);
+    dialect.configure(this);
+    return this;
+  }
+
+  /**
+   * Detects and applies the settings of the database dialect.
+   *
+   * <p>The dialect is chosen based on
+   * {@link DatabaseMetaData#getDatabaseProductName()} which requires
+   * getting a connection from the data source once. If no dialect
+   * supports the database the defaults are kept.</p>
+   *
+   * <p>Settings made after this method has been called take precedence
+   * over the ones of the dialect.</p>
+   *
+   * @return this builder for chaining
+   * @throws UncheckedSQLException if the database product name can not be read
+   * @see Dialect#forDatabaseProduct(String)
+   */
+  public ProcedureCallerFactory<T> withDetectedDialect() {
+    String databaseProductName;
+    try (Connection connection = this.dataSource.getConnection()) {
+      databaseProductName = connection.getMetaData().getDatabaseProductName();
+    } catch (SQLException e) {
+      throw new UncheckedSQLException("could not detect database product", e);
+    }
+    Dialect dialect = Dialect.forDatabaseProduct(databaseProductName);
+    if (dialect != null) {
+      dialect.configure(this);
+    }
+    return this;
+  }
+
+  /**
+   * Starts recording calls that are executed together in a single
+   * anonymous block.
+   *
+   * @return a new fused call
+   * @see FusedCall
+   */
+  public static FusedCall fuse() {
+    return new FusedCall();
+  }
+
+  /**
+   * Executes all calls queued by {@link WriteBehind} procedures and the
+   * sums of {@link Aggregated} procedures of an interface instance on
+   * the current thread and stops flushing them in the background. Calls
+   * made afterwards are executed immediately.
+   *
+   * <p>Should be called before the executor passed to
+   * {@link #withWriteBehind(ScheduledExecutorService, WriteBehindFailureHandler)}
+   * is shut down, for example when the application stops.</p>
+   *
+   * @param procedures the interface instance created by this class, not {@code null}
+   * @throws IllegalArgumentException if the instance was not created by
+   *         this class
+   */
+  public static void shutdownWriteBehind(Object procedures) {
+    Objects.requireNonNull(procedures, "procedures");
+    getProcedureCaller(procedures).shutdownWriteBehind();
+  }
+
+  /**
+   * Removes all cached results of {@link Cached} procedures of an
+   * interface instance.
+   *
+   * @param procedures the interface instance created by this class, not {@code null}
+   * @throws IllegalArgumentException if the instance was not created by
+   *         this class
+   */
+  public static void invalidateCache(Object procedures) {
+    Objects.requireNonNull(procedures, "procedures");
+    getProcedureCaller(procedures).invalidateCaches();
+  }
+
+  /**
+   * Removes the cached result of a single call of a {@link Cached}
+   * procedure. The call is only recorded to find the result, the
+   * procedure is not called.
+   *
+   * <pre><code>
+   * ProcedureCallerFactory.invalidateCache(procedures, p -&gt; p.lookUpCountry("CH"));
+   * </code></pre>
+   *
+   * @param procedures the interface instance created by this class, not {@code null}
+   * @param call calls the procedure whose result should be removed, not {@code null}
+   * @param <T> the type of the interface
+   * @throws IllegalArgumentException if the instance was not created by
+   *         this class or if the call does not call exactly one
+   *         procedure annotated with {@link Cached}
+   */
+  public static <T> void invalidateCache(T procedures, Consumer<? super T> call) {
+    Objects.requireNonNull(procedures, "procedures");
+    Objects.requireNonNull(call, "call");
+    ProcedureCaller caller = getProcedureCaller(procedures);
+    RecordingHandler handler = new RecordingHandler();
+    @SuppressWarnings("unchecked")
+    T recorder = (T) Proxy.newProxyInstance(procedures.getClass().getClassLoader(),
+            procedures.getClass().getInterfaces(), handler);
+    call.accept(recorder);
+    if (handler.method == null) {
+      throw new IllegalArgumentException("no procedure was called");
+    }
+    caller.invalidateCache(handler.method, handler.args);
+  }
+
+  static ProcedureCaller getProcedureCaller(Object procedures) {
+    if (Proxy.isProxyClass(procedures.getClass())) {
+      InvocationHandler handler = Proxy.getInvocationHandler(procedures);
+      if (handler instanceof ProcedureCaller) {
+        return (ProcedureCaller) handler;
+      }
+    }
+    throw new IllegalArgumentException("not created by " + ProcedureCallerFactory.class + ": " + procedures.getClass());
+  }
+
   /**
    * Creates a caller for the interface of stored procedures using the configured options.
    *
@@ -400,10 +681,13 @@ public final class ProcedureCallerFactory<T> {
             this.parameterNamingStrategy, this.procedureNamingStrategy, this.schemaNamingStrategy,
             this.hasSchema,
             this.namespaceNamingStrategy, this.hasNamespace,
-            this.parameterRegistration, this.exceptionAdapter,
+            this.parameterRegistration, this.resolveParameterNames, this.callSyntax,
+            this.exceptionAdapter != null ? this.exceptionAdapter : getDefaultExceptionAdapter(this.dataSource),
             this.typeMapper, this.typeNameResolver,
             this.arrayResourceFactoryFactory,
-            this.arrayResultExtractorFactory);
+            this.arrayResultExtractorFactory,
+            this.chunkExecutor,
+            this.writeBehindExecutor, this.writeBehindFailureHandler);
     // REVIEW correct class loader
     Object proxy = Proxy.newProxyInstance(this.interfaceDeclaration.getClassLoader(),
             new Class<?>[]{this.interfaceDeclaration}, caller);
@@ -448,6 +732,75 @@ public final class ProcedureCallerFactory<T> {
     NAME_AND_TYPE;
   }
 
+  /**
+   * Determines the syntax of the SQL string used to call a procedure.
+   *
+   * <p>The JDBC escape syntax has to be rewritten by the driver into the
+   * native syntax of the database on every prepare. Using the native
+   * syntax directly saves this work which matters most if statements are
+   * not cached.</p>
+   */
+  public enum CallSyntax {
+
+    /**
+     * Uses the JDBC escape syntax.
+     *
+     * <pre><code>
+     * {call procedure(?, ?)}
+     * { ? = call function(?)}
+     * </code></pre>
+     */
+    ESCAPE,
+
+    /**
+     * Uses an anonymous PL/SQL block.
+     *
+     * <pre><code>
+     * BEGIN procedure(?, ?); END;
+     * BEGIN ? := function(?); END;
+     * </code></pre>
+     */
+    ORACLE,
+
+    /**
+     * Uses a {@code SELECT} which is what the PostgreSQL driver
+     * translates the escape syntax to by default.
+     *
+     * <pre><code>
+     * SELECT * FROM procedure(?, ?)
+     * </code></pre>
+     *
+     * <p>The driver only supports out parameters and return values with
+     * the escape syntax so it is still used for such procedures.</p>
+     *
+     * <p>Only works for functions, procedures created with
+     * {@code CREATE PROCEDURE} have to be called with
+     * {@link #POSTGRES_CALL}.</p>
+     */
+    POSTGRES,
+
+    /**
+     * Uses a {@code CALL} statement as required for procedures created
+     * with {@code CREATE PROCEDURE} on PostgreSQL 11 and later.
+     *
+     * <pre><code>
+     * CALL procedure(?, ?)
+     * </code></pre>
+     *
+     * <p>Out parameters are passed as placeholders as well, the
+     * procedure returns them as a single row that the driver reads as
+     * out parameters. Methods with a
+     * {@link com.github.marschall.storedprocedureproxy.annotations.ReturnValue}
+     * call a function and use the escape syntax.</p>
+     *
+     * <p>This is a separate constant rather than what {@link #POSTGRES}
+     * does for procedures without a return value because a function can
+     * not be called with {@code CALL}, the interface method does not tell
+     * which of the two the database object is.</p>
+     */
+    POSTGRES_CALL;
+  }
+
   static final class ProcedureCaller implements InvocationHandler {
 
     static final int DEFAULT_FETCH_SIZE = 0;
@@ -483,6 +836,10 @@ public final class ProcedureCallerFactory<T> {
 
     private final ParameterRegistration parameterRegistration;
 
+    private final boolean resolveParameterNames;
+
+    private final CallSyntax callSyntax;
+
     private final SQLExceptionAdapter exceptionAdapter;
 
     private final TypeMapper typeMapper;
@@ -503,6 +860,32 @@ public final class ProcedureCallerFactory<T> {
 
     private final DefaultMethodSupport defaultMethodSupport;
 
+    /**
+     * Calls chunks in parallel, {@code null} if not configured.
+     */
+    private final Executor chunkExecutor;
+
+    /**
+     * Flushes the queued calls of {@link WriteBehind} procedures,
+     * {@code null} if not configured.
+     */
+    private final ScheduledExecutorService writeBehindExecutor;
+
+    private final WriteBehindFailureHandler writeBehindFailureHandler;
+
+    private final Map<Method, WriteBehindQueue> writeBehindQueues;
+
+    private final Map<Method, DeltaAggregator> deltaAggregators;
+
+    private volatile boolean writeBehindShutdown;
+
+    /**
+     * The currently running calls of {@link Coalesced} procedures.
+     */
+    private final Map<CallKey, FutureTask<Object>> runningCalls;
+
+    private final Map<Method, ResultCache> resultCaches;
+
     ProcedureCaller(DataSource dataSource,
             Class<?> interfaceDeclaration,
             NamingStrategy parameterNamingStrategy,
@@ -510,11 +893,16 @@ public final class ProcedureCallerFactory<T> {
             NamingStrategy schemaNamingStrategy, boolean hasSchemaName,
             NamingStrategy namespaceNamingStrategy, boolean hasNamespace,
             ParameterRegistration parameterRegistration,
+            boolean resolveParameterNames,
+            CallSyntax callSyntax,
             SQLExceptionAdapter exceptionAdapter,
             TypeMapper typeMapper,
             TypeNameResolver typeNameResolver,
             ArrayResourceFactoryFactory arrayResourceFactoryFactory,
-            ArrayResultExtractorFactory arrayResultExtractorFactory) {
+            ArrayResultExtractorFactory arrayResultExtractorFactory,
+            Executor chunkExecutor,
+            ScheduledExecutorService writeBehindExecutor,
+            WriteBehindFailureHandler writeBehindFailureHandler) {
       this.dataSource = dataSource;
       this.interfaceDeclaration = interfaceDeclaration;
       this.parameterNamingStrategy = parameterNamingStrategy;
@@ -524,6 +912,8 @@ public final class ProcedureCallerFactory<T> {
       this.namespaceNamingStrategy = namespaceNamingStrategy;
       this.hasNamespace = hasNamespace;
       this.parameterRegistration = parameterRegistration;
+      this.resolveParameterNames = resolveParameterNames;
+      this.callSyntax = callSyntax;
       this.exceptionAdapter = exceptionAdapter;
       this.typeMapper = typeMapper;
       this.typeNameResolver = typeNameResolver;
@@ -532,6 +922,13 @@ public final class ProcedureCallerFactory<T> {
       this.callInfoCache = new HashMap<>();
       this.cacheLock = new ReentrantReadWriteLock();
       this.defaultMethodSupport = DefaultMethodSupportFactory.newInstance(interfaceDeclaration);
+      this.chunkExecutor = chunkExecutor;
+      this.writeBehindExecutor = writeBehindExecutor;
+      this.writeBehindFailureHandler = writeBehindFailureHandler;
+      this.writeBehindQueues = new ConcurrentHashMap<>();
+      this.deltaAggregators = new ConcurrentHashMap<>();
+      this.runningCalls = new ConcurrentHashMap<>();
+      this.resultCaches = new ConcurrentHashMap<>();
     }
 
     @Override
@@ -553,14 +950,442 @@ public final class ProcedureCallerFactory<T> {
 
       // handle actual interface methods
       CallInfo callInfo = this.getCallInfo(method, args);
+      if (callInfo.streamingResult) {
+        return this.invokeStreaming(callInfo, args);
+      }
+      if (callInfo.writeBehind != null) {
+        return this.invokeWriteBehind(method, callInfo, args);
+      }
+      if (callInfo.aggregated != null) {
+        return this.invokeAggregated(method, callInfo, args);
+      }
+      if (callInfo.memoized) {
+        MemoizationScope scope = MemoizationScope.current();
+        if (scope != null) {
+          return this.invokeMemoized(scope, method, callInfo, args);
+        }
+      }
+      return this.invokeShared(method, callInfo, args);
+    }
+
+    /**
+     * Calls a procedure whose result may be shared with other callers.
+     */
+    private Object invokeShared(Method method, CallInfo callInfo, Object[] args) throws Exception {
+      if (callInfo.cached != null) {
+        return this.invokeCached(method, callInfo, args);
+      }
+      if (callInfo.coalesced) {
+        return this.invokeCoalesced(new CallKey(method, args), callInfo, () -> this.invokeCallOrChunked(callInfo, args));
+      }
+      return this.invokeCallOrChunked(callInfo, args);
+    }
+
+    /**
+     * Returns the result of an earlier call of a {@link Memoized}
+     * procedure with equal arguments in the same scope, otherwise calls
+     * it and remembers the result.
+     */
+    private Object invokeMemoized(MemoizationScope scope, Method method, CallInfo callInfo, Object[] args) throws Exception {
+      Map<CallKey, Object> results = scope.getResults(this);
+      CallKey key = new CallKey(method, args);
+      Object result = results.get(key);
+      if ((result != null) || results.containsKey(key)) {
+        return result;
+      }
+      result = this.invokeShared(method, callInfo, args);
+      results.put(key, result);
+      return result;
+    }
+
+    private Object invokeCallOrChunked(CallInfo callInfo, Object[] args) throws Exception {
+      if ((callInfo.chunking != null) && callInfo.chunking.needsChunking(args)) {
+        return this.invokeChunked(callInfo, args);
+      }
+      return this.invokeCall(callInfo, args);
+    }
+
+    /**
+     * Calls a {@link Coalesced} procedure unless a call with equal
+     * arguments is already running, in which case its result is
+     * shared.
+     */
+    private Object invokeCoalesced(CallKey key, CallInfo callInfo, Callable<Object> call) throws Exception {
+      FutureTask<Object> task = new FutureTask<>(call);
+      FutureTask<Object> running = this.runningCalls.putIfAbsent(key, task);
+      if (running != null) {
+        return this.getTaskResult(running, callInfo);
+      }
+      try {
+        task.run();
+      } finally {
+        this.runningCalls.remove(key, task);
+      }
+      return this.getTaskResult(task, callInfo);
+    }
+
+    /**
+     * Returns the cached result of a {@link Cached} procedure, otherwise
+     * calls it coalesced and caches the result.
+     */
+    private Object invokeCached(Method method, CallInfo callInfo, Object[] args) throws Exception {
+      ResultCache cache = this.resultCaches.get(method);
+      if (cache == null) {
+        Cached cached = callInfo.cached;
+        cache = this.resultCaches.computeIfAbsent(method, m -> new ResultCache(cached.ttl(), cached.maxEntries()));
+      }
+      CallKey key = new CallKey(method, args);
+      CacheEntry entry = cache.get(key);
+      if (entry != null) {
+        return entry.value;
+      }
+      ResultCache loadingCache = cache;
+      // only the call that loads the result caches it, using the stamp
+      // from before the procedure was called, a call joining it after an
+      // invalidation would otherwise cache a stale result
+      return this.invokeCoalesced(key, callInfo, () -> {
+        long stamp = loadingCache.stamp();
+        Object result = this.invokeCallOrChunked(callInfo, args);
+        loadingCache.put(CallKey.copyOf(method, args), result, stamp);
+        return result;
+      });
+    }
+
+    void invalidateCaches() {
+      for (ResultCache cache : this.resultCaches.values()) {
+        cache.invalidateAll();
+      }
+    }
+
+    void invalidateCache(Method method, Object[] args) {
+      if (!method.isAnnotationPresent(Cached.class)) {
+        throw new IllegalArgumentException("method " + method + " is not annotated with " + Cached.class);
+      }
+      ResultCache cache = this.resultCaches.get(method);
+      if (cache != null) {
+        cache.invalidate(new CallKey(method, args));
+      }
+    }
+
+    private Object invokeCall(CallInfo callInfo, Object[] args) throws Exception {
+      Object[] callArgs = callInfo.vectorization != null ? callInfo.vectorization.transpose(args) : args;
+      Object result;
       try (Connection connection = this.dataSource.getConnection()) {
-        try (CallResource callResource = callInfo.callResourceFactory.createResource(connection, args);
+        try (CallResource callResource = callInfo.callResourceFactory.createResource(connection, callArgs);
              CallableStatement statement = prepareCall(connection, callInfo)) {
-          bindParameters(args, callInfo, statement, callResource);
-          return execute(statement, callInfo, args);
+          bindParameters(callArgs, callInfo, statement, callResource);
+          result = execute(statement, callInfo, callArgs);
+        }
+      } catch (SQLException e) {
+        throw this.translate(e, callInfo);
+      }
+      return callInfo.vectorization != null ? callInfo.vectorization.checkResult(args, result) : result;
+    }
+
+    /**
+     * Queues the call of a {@link WriteBehind} procedure, only executes
+     * it immediately if the queue is full and the caller should run it
+     * or if write behind has been shut down.
+     */
+    private Object invokeWriteBehind(Method method, CallInfo callInfo, Object[] args) throws Exception {
+      if (!this.writeBehindShutdown) {
+        WriteBehindQueue queue = this.writeBehindQueues.computeIfAbsent(method, m -> this.newWriteBehindQueue(callInfo));
+        if (queue.enqueue(args)) {
+          if (this.writeBehindShutdown) {
+            // raced with shutdown, make sure the call is not lost
+            queue.shutdown();
+          }
+          return null;
+        }
+      }
+      return this.invokeCall(callInfo, args);
+    }
+
+    private WriteBehindQueue newWriteBehindQueue(CallInfo callInfo) {
+      WriteBehind writeBehind = callInfo.writeBehind;
+      return new WriteBehindQueue(callInfo.procedureName, writeBehind.queueCapacity(), writeBehind.batchSize(),
+              writeBehind.flushInterval(), writeBehind.backpressure(),
+              this.writeBehindExecutor, this.writeBehindFailureHandler,
+              batch -> this.invokeBatch(callInfo, batch));
+    }
+
+    /**
+     * Adds the delta of an {@link Aggregated} procedure, only executes
+     * the call immediately if write behind has been shut down.
+     */
+    private Object invokeAggregated(Method method, CallInfo callInfo, Object[] args) throws Exception {
+      if (!this.writeBehindShutdown) {
+        DeltaAggregator aggregator = this.deltaAggregators.computeIfAbsent(method, m -> this.newDeltaAggregator(m, callInfo));
+        if (aggregator.add(args)) {
+          if (this.writeBehindShutdown) {
+            // raced with shutdown, make sure the delta is not lost
+            aggregator.shutdown();
+          }
+          return null;
+        }
+      }
+      return this.invokeCall(callInfo, args);
+    }
+
+    private DeltaAggregator newDeltaAggregator(Method method, CallInfo callInfo) {
+      Aggregated aggregated = callInfo.aggregated;
+      Class<?>[] parameterTypes = method.getParameterTypes();
+      boolean intDelta = parameterTypes[parameterTypes.length - 1] == int.class;
+      return new DeltaAggregator(callInfo.procedureName, aggregated.flushInterval(), aggregated.maxKeys(), intDelta,
+              this.writeBehindExecutor, this.writeBehindFailureHandler,
+              batch -> this.invokeBatch(callInfo, batch));
+    }
+
+    /**
+     * Executes the queued calls of a {@link WriteBehind} or
+     * {@link Aggregated} procedure in a single JDBC batch.
+     */
+    private void invokeBatch(CallInfo callInfo, List<Object[]> batch) throws Exception {
+      CallResource[] resources = new CallResource[batch.size()];
+      Arrays.fill(resources, NoResource.INSTANCE);
+      try (Connection connection = this.dataSource.getConnection()) {
+        CallResource callResource = new CompositeResource(resources);
+        try (CallableStatement statement = prepareCall(connection, callInfo)) {
+          for (int i = 0; i < resources.length; i++) {
+            Object[] args = batch.get(i);
+            Object[] callArgs = callInfo.vectorization != null ? callInfo.vectorization.transpose(args) : args;
+            resources[i] = callInfo.callResourceFactory.createResource(connection, callArgs);
+            bindParameters(callArgs, callInfo, statement, resources[i]);
+            statement.addBatch();
+          }
+          statement.executeBatch();
+        } finally {
+          // closes the resources created so far
+          callResource.close();
+        }
+      } catch (SQLException e) {
+        throw this.translate(e, callInfo);
+      }
+    }
+
+    void shutdownWriteBehind() {
+      this.writeBehindShutdown = true;
+      for (WriteBehindQueue queue : this.writeBehindQueues.values()) {
+        queue.shutdown();
+      }
+      for (DeltaAggregator aggregator : this.deltaAggregators.values()) {
+        aggregator.shutdown();
+      }
+    }
+
+    /**
+     * Calls a procedure once for every chunk of a {@link Chunked}
+     * argument and merges the results.
+     */
+    private Object invokeChunked(CallInfo callInfo, Object[] args) throws Exception {
+      Chunking chunking = callInfo.chunking;
+      Object[][] chunks = chunking.split(args);
+      Object[] results = new Object[chunks.length];
+      if (chunking.isParallel()) {
+        List<FutureTask<Object>> tasks = new ArrayList<>(chunks.length);
+        try {
+          for (Object[] chunkArgs : chunks) {
+            FutureTask<Object> task = new FutureTask<>(() -> this.invokeCall(callInfo, chunkArgs));
+            tasks.add(task);
+            this.chunkExecutor.execute(task);
+          }
+          for (int i = 0; i < results.length; i++) {
+            results[i] = this.getTaskResult(tasks.get(i), callInfo);
+          }
+        } catch (Exception | Error e) {
+          cancelChunks(tasks, e);
+          throw e;
+        }
+      } else {
+        for (int i = 0; i < chunks.length; i++) {
+          results[i] = this.invokeCall(callInfo, chunks[i]);
+        }
+      }
+      return chunking.merge(results);
+    }
+
+    /**
+     * Cancels the chunks that have not completed yet after one failed,
+     * was rejected by the executor or waiting for it was interrupted.
+     *
+     * <p>Chunks that are already running are not interrupted as some
+     * drivers close the connection when interrupted. The failures of
+     * chunks that have already completed are added as suppressed.</p>
+     */
+    private static void cancelChunks(List<FutureTask<Object>> tasks, Throwable failure) {
+      for (FutureTask<Object> task : tasks) {
+        if (task.cancel(false)) {
+          continue;
+        }
+        try {
+          task.get();
+        } catch (ExecutionException e) {
+          Throwable cause = e.getCause();
+          if ((cause != null) && (cause != failure)) {
+            failure.addSuppressed(cause);
+          }
+        } catch (InterruptedException | CancellationException e) {
+          // can not happen, the task is done and was not cancelled before
+        }
+      }
+    }
+
+    private Object getTaskResult(FutureTask<Object> task, CallInfo callInfo) throws Exception {
+      try {
+        return task.get();
+      } catch (InterruptedException e) {
+        // restore the flag, the caller decides how to react to it
+        Thread.currentThread().interrupt();
+        SQLException exception = new SQLException("interrupted while waiting for call of '"
+                + callInfo.procedureName + "'", e);
+        throw this.translate(exception, callInfo);
+      } catch (ExecutionException e) {
+        Throwable cause = e.getCause();
+        if (cause instanceof Exception) {
+          throw (Exception) cause;
+        } else if (cause instanceof Error) {
+          throw (Error) cause;
+        } else {
+          throw e;
+        }
+      }
+    }
+
+    /**
+     * Calls several procedures in a single anonymous block.
+     *
+     * <p>The call information of every method is reused, the parameters
+     * of every call are bound and read through a statement that shifts
+     * the parameter indices by the number of parameters of the previous
+     * calls.</p>
+     *
+     * @return the result of every call
+     * @see FusedCall
+     */
+    static Object[] invokeFused(ProcedureCaller[] callers, Method[] methods, Object[][] args) throws SQLException {
+      int count = callers.length;
+      DataSource dataSource = callers[0].dataSource;
+      CallInfo[] callInfos = new CallInfo[count];
+      StatementTuning[] tunings = new StatementTuning[count];
+      int[] offsets = new int[count];
+      Object[][] callArgs = new Object[count][];
+      StringBuilder callStringBuilder = new StringBuilder("BEGIN");
+      StringBuilder procedureNames = new StringBuilder();
+      boolean wantsExceptionTranslation = true;
+      int offset = 0;
+      for (int i = 0; i < count; i++) {
+        ProcedureCaller caller = callers[i];
+        if (caller.dataSource != dataSource) {
+          throw new IllegalArgumentException("fused calls have to use the same data source");
+        }
+        CallInfo callInfo = caller.getCallInfo(methods[i], args[i]);
+        callArgs[i] = callInfo.vectorization != null ? callInfo.vectorization.transpose(args[i]) : args[i];
+        String body = getAnonymousBlockBody(callInfo, methods[i]);
+        callStringBuilder.append(' ').append(body);
+        if (i > 0) {
+          procedureNames.append(", ");
+        }
+        procedureNames.append(callInfo.procedureName);
+        wantsExceptionTranslation &= callInfo.wantsExceptionTranslation;
+        callInfos[i] = callInfo;
+        tunings[i] = callInfo.statementTuning;
+        offsets[i] = offset;
+        offset += countParameters(body);
+      }
+      String callString = callStringBuilder.append(" END;").toString();
+
+      try (Connection connection = dataSource.getConnection()) {
+        CallResource[] resources = new CallResource[count];
+        for (int i = 0; i < count; i++) {
+          try {
+            resources[i] = callInfos[i].callResourceFactory.createResource(connection, callArgs[i]);
+          } catch (SQLException | RuntimeException e) {
+            ResourceCloser.closeAfterException(e, resources);
+            throw e;
+          }
+        }
+        CallResource callResource = new CompositeResource(resources);
+        try (CallableStatement statement = prepareCall(connection, callString, new CompositeStatementTuning(tunings))) {
+          CallableStatement[] views = new CallableStatement[count];
+          for (int i = 0; i < count; i++) {
+            views[i] = OffsetCallableStatement.newInstance(statement, offsets[i]);
+            bindParameters(callArgs[i], callInfos[i], views[i], resources[i]);
+          }
+          statement.execute();
+          Object[] results = new Object[count];
+          for (int i = 0; i < count; i++) {
+            Object result = execute(views[i], callInfos[i], callArgs[i]);
+            Vectorization vectorization = callInfos[i].vectorization;
+            results[i] = vectorization != null ? vectorization.checkResult(args[i], result) : result;
+          }
+          return results;
+        } finally {
+          callResource.close();
+        }
+      } catch (SQLException e) {
+        if (wantsExceptionTranslation) {
+          throw callers[0].exceptionAdapter.translate(procedureNames.toString(), callString, e);
+        }
+        throw e;
+      }
+    }
+
+    private static String getAnonymousBlockBody(CallInfo callInfo, Method method) {
+      String callString = callInfo.callString;
+      if (!callString.startsWith("BEGIN ") || !callString.endsWith(" END;")) {
+        throw new IllegalArgumentException("method " + method + " has to use " + CallSyntax.ORACLE + " call syntax to be fused");
+      }
+      if (callInfo.streamingResult) {
+        throw new IllegalArgumentException("method " + method + " with a streaming result can not be fused");
+      }
+      if ((callInfo.inParameterRegistration instanceof ByNameInParameterRegistration)
+              || (callInfo.inParameterRegistration instanceof ByNameAndTypeInParameterRegistration)
+              || (callInfo.outParameterRegistration instanceof ByNameOutParameterRegistration)
+              || (callInfo.outParameterRegistration instanceof ByNameAndTypeNameOutParameterRegistration)) {
+        throw new IllegalArgumentException("method " + method + " has to bind parameters by index to be fused");
+      }
+      return callString.substring("BEGIN ".length(), callString.length() - " END;".length());
+    }
+
+    private static int countParameters(String callString) {
+      int count = 0;
+      for (int i = 0; i < callString.length(); i++) {
+        if (callString.charAt(i) == '?') {
+          count += 1;
+        }
+      }
+      return count;
+    }
+
+    /**
+     * Calls a procedure whose result outlives the call. The connection,
+     * statement and call resources are handed over to the result and
+     * only closed when the result is closed.
+     */
+    private Object invokeStreaming(CallInfo callInfo, Object[] args) throws Exception {
+      Connection connection = null;
+      CallResource callResource = null;
+      CallableStatement statement = null;
+      try {
+        connection = this.dataSource.getConnection();
+        callResource = callInfo.callResourceFactory.createResource(connection, args);
+        statement = prepareCall(connection, callInfo);
+        bindParameters(args, callInfo, statement, callResource);
+        Object result = execute(statement, callInfo, args);
+        if (result != null) {
+          ((ResourceOwner) result).closeAlso(statement, callResource, connection);
+        } else {
+          statement.close();
+          callResource.close();
+          connection.close();
         }
+        return result;
       } catch (SQLException e) {
+        ResourceCloser.closeAfterException(e, statement, callResource, connection);
         throw this.translate(e, callInfo);
+      } catch (RuntimeException e) {
+        ResourceCloser.closeAfterException(e, statement, callResource, connection);
+        throw e;
       }
     }
 
@@ -655,6 +1480,24 @@ public final class ProcedureCallerFactory<T> {
       return types;
     }
 
+    private static ParameterBinder[] buildParameterBinders(Method method) {
+      Class<?>[] parameterTypes = method.getParameterTypes();
+      ParameterBinder[] binders = new ParameterBinder[parameterTypes.length];
+      for (int i = 0; i < parameterTypes.length; i++) {
+        binders[i] = ParameterBinder.forType(parameterTypes[i]);
+      }
+      return binders;
+    }
+
+    private static ParameterBinder[] buildParameterBinders(Method method, int[] sqlTypes) {
+      Class<?>[] parameterTypes = method.getParameterTypes();
+      ParameterBinder[] binders = new ParameterBinder[parameterTypes.length];
+      for (int i = 0; i < parameterTypes.length; i++) {
+        binders[i] = ParameterBinder.forType(parameterTypes[i], sqlTypes[i]);
+      }
+      return binders;
+    }
+
     private int getParameterType(Parameter parameter) {
       Class<?> parameterType = parameter.getType();
       if (ValueExtractorUtils.isAnyValueExtractor(parameterType)) {
@@ -670,7 +1513,18 @@ public final class ProcedureCallerFactory<T> {
     }
 
     private static CallableStatement prepareCall(Connection connection, CallInfo callInfo) throws SQLException {
-      return connection.prepareCall(callInfo.callString);
+      return prepareCall(connection, callInfo.callString, callInfo.statementTuning);
+    }
+
+    private static CallableStatement prepareCall(Connection connection, String callString, StatementTuning statementTuning) throws SQLException {
+      CallableStatement statement = connection.prepareCall(callString);
+      try {
+        statementTuning.tune(statement);
+      } catch (SQLException | RuntimeException e) {
+        ResourceCloser.closeAfterException(e, statement);
+        throw e;
+      }
+      return statement;
     }
 
     private CallInfo getCallInfo(Method method, Object[] args) {
@@ -683,133 +1537,636 @@ public final class ProcedureCallerFactory<T> {
       // rather than locking for a long time
       callInfo = this.buildCallInfo(method, args);
 
-      CallInfo previous = this.tryWriteCallInfoToCache(method, callInfo);
-      return previous != null ? previous : callInfo;
+      CallInfo previous = this.tryWriteCallInfoToCache(method, callInfo);
+      return previous != null ? previous : callInfo;
+    }
+
+    private CallInfo getCallInfoFromCacheOrNull(Method method) {
+      Lock lock = this.cacheLock.readLock();
+      lock.lock();
+      try {
+        return this.callInfoCache.get(method);
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    private CallInfo tryWriteCallInfoToCache(Method method, CallInfo callInfo) {
+      Lock lock = this.cacheLock.writeLock();
+      lock.lock();
+      try {
+        return this.callInfoCache.putIfAbsent(method, callInfo);
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    private CallInfo buildCallInfo(Method method, Object[] args) {
+      Vectorized vectorized = getVectorized(method);
+      if (vectorized != null) {
+        return this.buildVectorizedCallInfo(method, vectorized);
+      }
+      int sqlInputParameterCount = getInputParameterCount(method);
+      String procedureName = this.extractProcedureName(method);
+      Class<?> methodReturnType = method.getReturnType();
+
+      int outParameterSqlIndex = getOutParameterSqlIndex(method);
+      boolean hasOutParameter = outParameterSqlIndex != NO_OUT_PARAMTER;
+      if (hasOutParameter && isSelectable(method)) {
+        throw new IllegalArgumentException("method " + method + " annotated with " + Selectable.class
+                + " can not have an out parameter or return value");
+      }
+
+      ProcedureColumns procedureColumns = this.lookUpProcedureColumns(method, procedureName,
+              sqlInputParameterCount, hasOutParameter);
+
+      InParameterRegistration inParameterRegistration = this.buildInParameterRegistration(
+              method, sqlInputParameterCount, outParameterSqlIndex, procedureColumns);
+
+      OutParameterRegistration outParameterRegistration = this.buildOutParameterRegistration(
+              method, outParameterSqlIndex, hasOutParameter, procedureColumns);
+
+      CallResourceFactory callResourceFactory = this.buildCallResourceFactory(method);
+
+      String callString = this.buildCallString(method,
+              procedureName, sqlInputParameterCount, hasOutParameter);
+      boolean wantsExceptionTranslation = wantsExceptionTranslation(method);
+      ResultExtractor resultExtractor = this.buildResultExtractor(method, methodReturnType);
+      boolean streamingResult = resultExtractor instanceof StreamingResultExtractor;
+      StatementTuning statementTuning = buildStatementTuning(method);
+      Chunking chunking = this.buildChunking(method, streamingResult);
+
+      return new CallInfo(procedureName, callString,
+              wantsExceptionTranslation, resultExtractor, outParameterRegistration,
+              inParameterRegistration, callResourceFactory, streamingResult, statementTuning,
+              chunking, null, this.buildWriteBehind(method, resultExtractor, outParameterRegistration, chunking),
+              this.buildAggregated(method, resultExtractor, outParameterRegistration, chunking),
+              isCoalesced(method, resultExtractor), buildCached(method, resultExtractor),
+              isMemoized(method, resultExtractor));
+
     }
 
-    private CallInfo getCallInfoFromCacheOrNull(Method method) {
-      Lock lock = this.cacheLock.readLock();
-      lock.lock();
-      try {
-        return this.callInfoCache.get(method);
-      } finally {
-        lock.unlock();
+    private static Vectorized getVectorized(Method method) {
+      Parameter[] parameters = method.getParameters();
+      Vectorized vectorized = null;
+      for (Parameter parameter : parameters) {
+        Vectorized annotation = parameter.getAnnotation(Vectorized.class);
+        if (annotation != null) {
+          if (parameters.length != 1) {
+            throw new IllegalArgumentException("parameter " + parameter + " annotated with " + Vectorized.class
+                    + " has to be the only parameter of method " + method);
+          }
+          vectorized = annotation;
+        }
       }
+      return vectorized;
     }
 
-    private CallInfo tryWriteCallInfoToCache(Method method, CallInfo callInfo) {
-      Lock lock = this.cacheLock.writeLock();
-      lock.lock();
-      try {
-        return this.callInfoCache.putIfAbsent(method, callInfo);
-      } finally {
-        lock.unlock();
+    /**
+     * Builds the call information of a method with a {@link Vectorized}
+     * parameter. Every column is passed as an array in parameter.
+     */
+    private CallInfo buildVectorizedCallInfo(Method method, Vectorized vectorized) {
+      Parameter parameter = method.getParameters()[0];
+      Vectorization vectorization = buildVectorization(parameter, vectorized);
+      if ((this.getParameterRegistration(method) != ParameterRegistration.INDEX_ONLY)
+              && (this.getParameterRegistration(method) != ParameterRegistration.INDEX_AND_TYPE)) {
+        throw new IllegalArgumentException("method " + method + " with a parameter annotated with " + Vectorized.class
+                + " can only be registered by index");
       }
-    }
-
-    private CallInfo buildCallInfo(Method method, Object[] args) {
-      int sqlInputParameterCount = getInputParameterCount(method);
+      if (method.isAnnotationPresent(InOutParameter.class)) {
+        throw new IllegalArgumentException("method " + method + " with a parameter annotated with " + Vectorized.class
+                + " can not have an in out parameter");
+      }
+      int columnCount = vectorization.getColumnCount();
       String procedureName = this.extractProcedureName(method);
       Class<?> methodReturnType = method.getReturnType();
 
-      int outParameterSqlIndex = getOutParameterSqlIndex(method);
+      int outParameterSqlIndex = getVectorizedOutParameterSqlIndex(method, columnCount);
       boolean hasOutParameter = outParameterSqlIndex != NO_OUT_PARAMTER;
+      if (hasOutParameter && isSelectable(method)) {
+        throw new IllegalArgumentException("method " + method + " annotated with " + Selectable.class
+                + " can not have an out parameter or return value");
+      }
 
-      InParameterRegistration inParameterRegistration = this.buildInParameterRegistration(
-              method, sqlInputParameterCount, outParameterSqlIndex);
+      Class<?>[] columnTypes = new Class<?>[columnCount];
+      Arrays.fill(columnTypes, Object[].class);
+      byte[] inParameterIndices = hasOutParameter
+              ? buildInParameterIndices(columnCount, outParameterSqlIndex, columnTypes)
+              : buildInParameterIndices(columnCount, columnTypes);
+      InParameterRegistration inParameterRegistration = new ByIndexInParameterRegistration(inParameterIndices);
 
       OutParameterRegistration outParameterRegistration = this.buildOutParameterRegistration(
-              method, outParameterSqlIndex, hasOutParameter);
+              method, outParameterSqlIndex, hasOutParameter, null);
 
-      CallResourceFactory callResourceFactory = this.buildCallResourceFactory(method);
+      String[] typeNames = vectorized.value();
+      CallResourceFactory[] factories = new CallResourceFactory[columnCount];
+      for (int i = 0; i < columnCount; i++) {
+        factories[i] = this.arrayResourceFactoryFactory.createArrayFactory(i, typeNames[i], null, true, null);
+      }
+      CallResourceFactory callResourceFactory = columnCount == 1 ? factories[0] : new CompositeFactory(factories);
 
       String callString = this.buildCallString(method,
-              procedureName, sqlInputParameterCount, hasOutParameter);
+              procedureName, columnCount, hasOutParameter);
       boolean wantsExceptionTranslation = wantsExceptionTranslation(method);
       ResultExtractor resultExtractor = this.buildResultExtractor(method, methodReturnType);
+      if ((methodReturnType != void.class) && (methodReturnType != List.class) && !methodReturnType.isArray()) {
+        throw new IllegalArgumentException("method " + method + " with a parameter annotated with " + Vectorized.class
+                + " has to return void, a list or an array");
+      }
+      StatementTuning statementTuning = buildStatementTuning(method);
+      Chunking chunking = this.buildChunking(method, false);
 
       return new CallInfo(procedureName, callString,
               wantsExceptionTranslation, resultExtractor, outParameterRegistration,
-              inParameterRegistration, callResourceFactory);
+              inParameterRegistration, callResourceFactory, false, statementTuning,
+              chunking, vectorization, this.buildWriteBehind(method, resultExtractor, outParameterRegistration, chunking),
+              null, isCoalesced(method, resultExtractor), buildCached(method, resultExtractor),
+              isMemoized(method, resultExtractor));
+    }
+
+    private static Vectorization buildVectorization(Parameter parameter, Vectorized vectorized) {
+      Class<?> elementType = getElementType(parameter);
+      if ((elementType == null) || elementType.isPrimitive()) {
+        throw new IllegalArgumentException("parameter " + parameter + " annotated with " + Vectorized.class
+                + " has to be an array or collection of records or Object[]");
+      }
+      int columnCount = vectorized.value().length;
+      if (columnCount == 0) {
+        throw new IllegalArgumentException("parameter " + parameter + " annotated with " + Vectorized.class
+                + " needs at least one type name");
+      }
+      if (elementType == Object[].class) {
+        return new Vectorization(columnCount, null);
+      }
+      MethodHandle[] accessors = TableRows.lookUpAccessors(elementType);
+      if (accessors == null) {
+        throw new IllegalArgumentException("parameter " + parameter + " annotated with " + Vectorized.class
+                + " has to be an array or collection of records or Object[]");
+      }
+      if (accessors.length != columnCount) {
+        throw new IllegalArgumentException("parameter " + parameter + " annotated with " + Vectorized.class
+                + " needs a type name for each of the " + accessors.length + " record components");
+      }
+      return new Vectorization(columnCount, accessors);
+    }
+
+    private static int getVectorizedOutParameterSqlIndex(Method method, int columnCount) {
+      int outParameterIndex = getOutParameterSqlIndex(method);
+      OutParameter outParameter = method.getAnnotation(OutParameter.class);
+      if ((outParameter != null) && (outParameter.index() == NO_OUT_PARAMTER)) {
+        // default is the last parameter, after all columns
+        return columnCount + 1;
+      }
+      return outParameterIndex;
+    }
+
+    /**
+     * Validates the {@link WriteBehind} annotation of a method.
+     *
+     * @return the annotation, {@code null} if the method is not
+     *         annotated
+     */
+    private WriteBehind buildWriteBehind(Method method, ResultExtractor resultExtractor,
+            OutParameterRegistration outParameterRegistration, Chunking chunking) {
+      WriteBehind writeBehind = method.getAnnotation(WriteBehind.class);
+      if (writeBehind == null) {
+        return null;
+      }
+      if ((resultExtractor != VoidResultExtractor.INSTANCE)
+              || (outParameterRegistration != NoOutParameterRegistration.INSTANCE)) {
+        throw new IllegalArgumentException("method " + method + " annotated with " + WriteBehind.class
+                + " has to return void and can not have out parameters or value extractors");
+      }
+      if (chunking != null) {
+        throw new IllegalArgumentException("method " + method + " annotated with " + WriteBehind.class
+                + " can not have a parameter annotated with " + Chunked.class);
+      }
+      if ((writeBehind.queueCapacity() <= 0) || (writeBehind.batchSize() <= 0) || (writeBehind.flushInterval() <= 0L)) {
+        throw new IllegalArgumentException("method " + method + " annotated with " + WriteBehind.class
+                + " needs a positive queue capacity, batch size and flush interval");
+      }
+      if (this.writeBehindExecutor == null) {
+        throw new IllegalArgumentException("method " + method + " is annotated with " + WriteBehind.class
+                + " but no write behind executor is configured");
+      }
+      return writeBehind;
+    }
+
+    private static boolean isCoalesced(Method method, ResultExtractor resultExtractor) {
+      if (!method.isAnnotationPresent(Coalesced.class)) {
+        return false;
+      }
+      if ((resultExtractor == VoidResultExtractor.INSTANCE)
+              || (resultExtractor instanceof StreamingResultExtractor)
+              || (resultExtractor instanceof CursorExportResultExtractor)
+              || (getValueExtractorIndex(method) != NO_VALUE_EXTRACTOR)) {
+        throw new IllegalArgumentException("method " + method + " annotated with " + Coalesced.class
+                + " has to return a value that is not a stream");
+      }
+      if (method.isAnnotationPresent(WriteBehind.class) || method.isAnnotationPresent(Aggregated.class)) {
+        throw new IllegalArgumentException("method " + method + " annotated with " + Coalesced.class
+                + " can not be written behind or aggregated");
+      }
+      return true;
+    }
+
+    private static boolean isMemoized(Method method, ResultExtractor resultExtractor) {
+      if (!method.isAnnotationPresent(Memoized.class)) {
+        return false;
+      }
+      if ((resultExtractor == VoidResultExtractor.INSTANCE)
+              || (resultExtractor instanceof StreamingResultExtractor)
+              || (resultExtractor instanceof CursorExportResultExtractor)
+              || (getValueExtractorIndex(method) != NO_VALUE_EXTRACTOR)) {
+        throw new IllegalArgumentException("method " + method + " annotated with " + Memoized.class
+                + " has to return a value that is not a stream");
+      }
+      return true;
+    }
+
+    /**
+     * Validates the {@link Cached} annotation of a method.
+     *
+     * @return the annotation, {@code null} if the method is not
+     *         annotated
+     */
+    private static Cached buildCached(Method method, ResultExtractor resultExtractor) {
+      Cached cached = method.getAnnotation(Cached.class);
+      if (cached == null) {
+        return null;
+      }
+      if ((resultExtractor == VoidResultExtractor.INSTANCE)
+              || (resultExtractor instanceof StreamingResultExtractor)
+              || (resultExtractor instanceof CursorExportResultExtractor)
+              || (getValueExtractorIndex(method) != NO_VALUE_EXTRACTOR)) {
+        throw new IllegalArgumentException("method " + method + " annotated with " + Cached.class
+                + " has to return a value that is not a stream");
+      }
+      if ((cached.ttl() <= 0L) || (cached.maxEntries() <= 0)) {
+        throw new IllegalArgumentException("method " + method + " annotated with " + Cached.class
+                + " needs a positive time to live and maximum number of entries");
+      }
+      return cached;
+    }
+
+    /**
+     * Validates the {@link Aggregated} annotation of a method.
+     *
+     * @return the annotation, {@code null} if the method is not
+     *         annotated
+     */
+    private Aggregated buildAggregated(Method method, ResultExtractor resultExtractor,
+            OutParameterRegistration outParameterRegistration, Chunking chunking) {
+      Aggregated aggregated = method.getAnnotation(Aggregated.class);
+      if (aggregated == null) {
+        return null;
+      }
+      if ((resultExtractor != VoidResultExtractor.INSTANCE)
+              || (outParameterRegistration != NoOutParameterRegistration.INSTANCE)) {
+        throw new IllegalArgumentException("method " + method + " annotated with " + Aggregated.class
+                + " has to return void and can not have out parameters or value extractors");
+      }
+      Class<?>[] parameterTypes = method.getParameterTypes();
+      if ((parameterTypes.length == 0)
+              || ((parameterTypes[parameterTypes.length - 1] != int.class) && (parameterTypes[parameterTypes.length - 1] != long.class))) {
+        throw new IllegalArgumentException("last parameter of method " + method + " annotated with " + Aggregated.class
+                + " has to be an int or long delta");
+      }
+      if ((chunking != null) || method.isAnnotationPresent(WriteBehind.class)) {
+        throw new IllegalArgumentException("method " + method + " annotated with " + Aggregated.class
+                + " can not be chunked or written behind");
+      }
+      if ((aggregated.flushInterval() <= 0L) || (aggregated.maxKeys() <= 0)) {
+        throw new IllegalArgumentException("method " + method + " annotated with " + Aggregated.class
+                + " needs a positive flush interval and maximum number of keys");
+      }
+      if (this.writeBehindExecutor == null) {
+        throw new IllegalArgumentException("method " + method + " is annotated with " + Aggregated.class
+                + " but no write behind executor is configured");
+      }
+      return aggregated;
+    }
 
+    /**
+     * Builds the chunking of a method.
+     *
+     * @return the chunking, {@code null} if no argument is chunked
+     */
+    private Chunking buildChunking(Method method, boolean streamingResult) {
+      Parameter[] parameters = method.getParameters();
+      Chunking chunking = null;
+      for (int i = 0; i < parameters.length; i++) {
+        Parameter parameter = parameters[i];
+        Chunked chunked = parameter.getAnnotation(Chunked.class);
+        if (chunked == null) {
+          continue;
+        }
+        if (chunking != null) {
+          throw new IllegalArgumentException("method " + method + " can have only one parameter annotated with " + Chunked.class);
+        }
+        if (!isCollection(parameter.getType())) {
+          throw new IllegalArgumentException("parameter " + parameter + " annotated with " + Chunked.class
+                  + " has to be an array or collection");
+        }
+        ResultMerger merger = ResultMerger.forReturnType(method.getReturnType(), chunked.sumResults());
+        if ((merger == null) || streamingResult) {
+          if (chunked.sumResults()) {
+            throw new IllegalArgumentException("method " + method + " with a parameter annotated with " + Chunked.class
+                    + " summing results has to return int or long");
+          }
+          throw new IllegalArgumentException("method " + method + " with a parameter annotated with " + Chunked.class
+                  + " has to return void, a list or an array");
+        }
+        if (chunked.parallel() && (this.chunkExecutor == null)) {
+          throw new IllegalArgumentException("method " + method + " calls chunks in parallel but no chunk executor is configured");
+        }
+        chunking = new Chunking(i, chunked.value(), chunked.parallel(), merger);
+      }
+      return chunking;
     }
 
     private CallResourceFactory buildCallResourceFactory(Method method) {
-      int arrayCount = 0;
+      int resourceCount = 0;
       for (Class<?> parameterType : method.getParameterTypes()) {
-        if (isCollection(parameterType)) {
-          arrayCount += 1;
+        if (needsCallResource(parameterType)) {
+          resourceCount += 1;
         }
       }
-      if (arrayCount == 0) {
+      if (resourceCount == 0) {
         return NoResourceFactory.INSTANCE;
-      } else if (arrayCount == 1) {
+      } else if (resourceCount == 1) {
         Parameter[] parameters = method.getParameters();
         for (int i = 0; i < parameters.length; i++) {
           Parameter parameter = parameters[i];
-          if (isCollection(parameter.getType())) {
-            return this.createArrayResourceFactory(parameter, i);
+          if (needsCallResource(parameter.getType())) {
+            return this.createResourceFactory(parameter, i);
           }
         }
-        throw new AssertionError("inconsistent state we checked for an array but found none");
+        throw new AssertionError("inconsistent state we checked for a resource but found none");
       } else {
-        CallResourceFactory[] factories = new CallResourceFactory[arrayCount];
+        CallResourceFactory[] factories = new CallResourceFactory[resourceCount];
         int factoryIndex = 0;
         Parameter[] parameters = method.getParameters();
         for (int i = 0; i < parameters.length; i++) {
           Parameter parameter = parameters[i];
-          if (isCollection(parameter.getType())) {
-            factories[factoryIndex++] = this.createArrayResourceFactory(parameter, i);
+          if (needsCallResource(parameter.getType())) {
+            factories[factoryIndex++] = this.createResourceFactory(parameter, i);
           }
         }
         return new CompositeFactory(factories);
       }
     }
 
+    private static boolean needsCallResource(Class<?> parameterType) {
+      return isCollection(parameterType)
+              || LobStreamFactory.isLobStream(parameterType)
+              || SqlXmlFactory.isXmlContent(parameterType);
+    }
+
+    private CallResourceFactory createResourceFactory(Parameter parameter, int parameterIndex) {
+      if (LobStreamFactory.isLobStream(parameter.getType())) {
+        return new LobStreamFactory(parameterIndex);
+      } else if (SqlXmlFactory.isXmlContent(parameter.getType())) {
+        return new SqlXmlFactory(parameterIndex);
+      } else if (parameter.isAnnotationPresent(TempTable.class)) {
+        return createTempTableResourceFactory(parameter, parameterIndex);
+      } else if (parameter.isAnnotationPresent(IndexTable.class)) {
+        return createIndexTableResourceFactory(parameter, parameterIndex);
+      } else {
+        return this.createArrayResourceFactory(parameter, parameterIndex);
+      }
+    }
+
     private static boolean isCollection(Class<?> parameterType) {
       return parameterType.isArray() || Collection.class.isAssignableFrom(parameterType);
     }
 
     private CallResourceFactory createArrayResourceFactory(Parameter parameter, int parameterIndex) {
       String typeName = this.typeNameResolver.resolveTypeName(parameter);
-      return this.arrayResourceFactoryFactory.createArrayFactory(parameterIndex, typeName);
+      boolean explicitTypeName = AnnotationBasedTypeNameResolver.INSTANCE.resolveTypeName(parameter) != null;
+      CollectionUnboxer unboxer = getCollectionUnboxer(parameter);
+      return this.arrayResourceFactoryFactory.createArrayFactory(parameterIndex, typeName, getElementType(parameter),
+              explicitTypeName, unboxer);
+    }
+
+    private static CallResourceFactory createTempTableResourceFactory(Parameter parameter, int parameterIndex) {
+      TempTable tempTable = parameter.getAnnotation(TempTable.class);
+      String createStatement = tempTable.create().isEmpty() ? null : tempTable.create();
+      return new TempTableFactory(parameterIndex, tempTable.value(), createStatement,
+              tempTable.columns(), tempTable.batchSize());
+    }
+
+    private static CallResourceFactory createIndexTableResourceFactory(Parameter parameter, int parameterIndex) {
+      IndexTable indexTable = parameter.getAnnotation(IndexTable.class);
+      Class<?> elementType = getIndexTableElementType(parameter);
+      return new PlsqlIndexTableFactory(parameterIndex, indexTable.maxLength(),
+              PlsqlIndexTables.elementSqlType(elementType), indexTable.elementLength(), getCollectionUnboxer(parameter));
+    }
+
+    private static Class<?> getIndexTableElementType(Parameter parameter) {
+      Class<?> elementType = getElementType(parameter);
+      if ((elementType == null) || !PlsqlIndexTables.isSupportedElementType(elementType)) {
+        throw new IllegalArgumentException("parameter " + parameter + " annotated with " + IndexTable.class
+                + " has to be an array or collection of numbers or strings");
+      }
+      return elementType;
+    }
+
+    /**
+     * Returns the element type of an array or collection parameter.
+     *
+     * @return the element type, {@code null} if not known
+     */
+    private static Class<?> getElementType(Parameter parameter) {
+      Class<?> parameterType = parameter.getType();
+      if (parameterType.isArray()) {
+        return parameterType.getComponentType();
+      }
+      Type parameterizedType = parameter.getParameterizedType();
+      if (parameterizedType instanceof ParameterizedType) {
+        Type[] actualTypeArguments = ((ParameterizedType) parameterizedType).getActualTypeArguments();
+        if ((actualTypeArguments.length == 1) && (actualTypeArguments[0] instanceof Class)) {
+          return (Class<?>) actualTypeArguments[0];
+        }
+      }
+      return null;
+    }
+
+    private static CollectionUnboxer getCollectionUnboxer(Parameter parameter) {
+      if (!Collection.class.isAssignableFrom(parameter.getType())) {
+        return null;
+      }
+      Type parameterizedType = parameter.getParameterizedType();
+      if (parameterizedType instanceof ParameterizedType) {
+        Type[] actualTypeArguments = ((ParameterizedType) parameterizedType).getActualTypeArguments();
+        if ((actualTypeArguments.length == 1) && (actualTypeArguments[0] instanceof Class)) {
+          return CollectionUnboxer.forElementType((Class<?>) actualTypeArguments[0]);
+        }
+      }
+      return null;
+    }
+
+    /**
+     * Looks up the parameter positions of a procedure if parameters
+     * declared by name should be bound by index.
+     *
+     * @return the parameter positions or {@code null} if parameters
+     *         should be bound by name
+     */
+    private ProcedureColumns lookUpProcedureColumns(Method method, String procedureName,
+            int sqlInputParameterCount, boolean hasOutParameter) {
+      ParameterRegistration registration = this.getParameterRegistration(method);
+      if (!this.resolveParameterNames
+              || ((registration != ParameterRegistration.NAME_ONLY)
+                      && (registration != ParameterRegistration.NAME_AND_TYPE))
+              || ((sqlInputParameterCount == 0) && !hasOutParameter)) {
+        return null;
+      }
+      String namespace = this.hasNamespace(method) ? this.extractsNamespace(method) : null;
+      String schemaName = this.hasSchema(method) ? this.extractSchema(method) : null;
+      ProcedureColumns procedureColumns;
+      try (Connection connection = this.dataSource.getConnection()) {
+        procedureColumns = ProcedureColumns.lookUp(connection, namespace, schemaName, procedureName);
+      } catch (SQLException e) {
+        // only an optimization, the call itself will report any real problem
+        return null;
+      }
+      // binding by index and by name can not be mixed
+      boolean isFunction = procedureHasReturnValue(method);
+      boolean separateOutParameter = hasOutParameter && !shareOutParameter(method) && !isFunction;
+      int placeholderCount = sqlInputParameterCount + ((isFunction || separateOutParameter) ? 1 : 0);
+      boolean[] bound = new boolean[placeholderCount + 1];
+      if (isFunction) {
+        // the return value is always the first parameter
+        bound[1] = true;
+      }
+      if (sqlInputParameterCount > 0) {
+        String[] inParameterNames = this.extractParameterNames(method);
+        byte[] inParameterIndices = resolveInParameterIndices(method, inParameterNames, procedureColumns);
+        if (inParameterIndices == null) {
+          return null;
+        }
+        for (byte inParameterIndex : inParameterIndices) {
+          int index = ByteUtils.toInt(inParameterIndex);
+          if ((index != NO_IN_PARAMTER) && !bind(bound, index)) {
+            return null;
+          }
+        }
+      }
+      if (separateOutParameter) {
+        String outParameterName = getOutParameterName(method);
+        if ((outParameterName == null) || !bind(bound, procedureColumns.positionOf(outParameterName))) {
+          return null;
+        }
+      }
+      // the positions do not match the placeholders if the procedure has
+      // parameters that are omitted in the call, eg. ones with a default
+      for (int i = 1; i < bound.length; i++) {
+        if (!bound[i]) {
+          return null;
+        }
+      }
+      return procedureColumns;
+    }
+
+    /**
+     * Marks a placeholder as bound.
+     *
+     * @return {@code false} if the index is not a placeholder or already bound
+     */
+    private static boolean bind(boolean[] bound, int index) {
+      if ((index < 1) || (index >= bound.length) || bound[index]) {
+        return false;
+      }
+      bound[index] = true;
+      return true;
+    }
+
+    /**
+     * Resolves the names of in parameters to indices.
+     *
+     * @return the indices or {@code null} if not all names can be resolved
+     */
+    private static byte[] resolveInParameterIndices(Method method, String[] inParameterNames, ProcedureColumns procedureColumns) {
+      // a function return value is the first parameter
+      int offset = procedureHasReturnValue(method) ? 1 : 0;
+      byte[] indices = new byte[inParameterNames.length];
+      for (int i = 0; i < inParameterNames.length; i++) {
+        String inParameterName = inParameterNames[i];
+        if (inParameterName == null) {
+          indices[i] = NO_IN_PARAMTER;
+          continue;
+        }
+        int position = procedureColumns.positionOf(inParameterName);
+        if ((position == ProcedureColumns.UNKNOWN) || ((position + offset) > 255)) {
+          return null;
+        }
+        indices[i] = ByteUtils.toByte(position + offset);
+      }
+      return indices;
     }
 
-    private InParameterRegistration buildInParameterRegistration(Method method, int sqlParameterCount, int outParameterSqlIndex) {
+    private InParameterRegistration buildInParameterRegistration(Method method, int sqlParameterCount, int outParameterSqlIndex,
+            ProcedureColumns procedureColumns) {
       boolean hasOutParameter = !method.isAnnotationPresent(InOutParameter.class) && (outParameterSqlIndex != NO_OUT_PARAMTER);
       if (sqlParameterCount > 0) {
-        switch (this.parameterRegistration) {
+        ParameterRegistration registration = this.getParameterRegistration(method);
+        switch (registration) {
           case INDEX_ONLY: {
             int valueExtractorIndex = getValueExtractorIndex(method);
+            int cursorExportIndex = getCursorExportIndex(method);
             int javaParameterCount = method.getParameterCount();
-            if (valueExtractorIndex == NO_VALUE_EXTRACTOR) {
+            ParameterBinder[] binders = buildParameterBinders(method);
+            if (ParameterBinder.areAllObject(binders)) {
+              binders = null;
+            }
+            if ((valueExtractorIndex == NO_VALUE_EXTRACTOR) && (cursorExportIndex == NO_VALUE_EXTRACTOR)) {
               if (hasOutParameter && (outParameterSqlIndex == 1)) {
-                return PrefixByIndexInParameterRegistration.INSTANCE;
+                if (binders == null) {
+                  return PrefixByIndexInParameterRegistration.INSTANCE;
+                }
+                return new PrefixByIndexInParameterRegistration(binders);
               }
               if (!hasOutParameter || (outParameterSqlIndex == (javaParameterCount + 1))) {
-                return SuffixByIndexInParameterRegistration.INSTANCE;
+                if (binders == null) {
+                  return SuffixByIndexInParameterRegistration.INSTANCE;
+                }
+                return new SuffixByIndexInParameterRegistration(binders);
               }
             }
             byte[] inParameterIndices = buildInParameterIndices(method, javaParameterCount, hasOutParameter, outParameterSqlIndex);
-            return new ByIndexInParameterRegistration(inParameterIndices);
+            return new ByIndexInParameterRegistration(inParameterIndices, binders);
           }
           case INDEX_AND_TYPE: {
             int javaParameterCount = method.getParameterCount();
             byte[] inParameterIndices = buildInParameterIndices(method, javaParameterCount, hasOutParameter, outParameterSqlIndex);
             int[] inParameterTypes = this.extractParameterTypes(method);
-            return new ByIndexAndTypeInParameterRegistration(inParameterIndices, inParameterTypes);
+            ParameterBinder[] binders = buildParameterBinders(method, inParameterTypes);
+            return new ByIndexAndTypeInParameterRegistration(inParameterIndices, inParameterTypes, binders);
           }
           case NAME_ONLY: {
             String[] inParameterNames = this.extractParameterNames(method);
-            return new ByNameInParameterRegistration(inParameterNames);
+            ParameterBinder[] binders = buildParameterBinders(method);
+            if (procedureColumns != null) {
+              byte[] inParameterIndices = resolveInParameterIndices(method, inParameterNames, procedureColumns);
+              return new ByIndexInParameterRegistration(inParameterIndices,
+                      ParameterBinder.areAllObject(binders) ? null : binders);
+            }
+            return new ByNameInParameterRegistration(inParameterNames, binders);
           }
           case NAME_AND_TYPE: {
             String[] inParameterNames = this.extractParameterNames(method);
             int[] inParameterTypes = this.extractParameterTypes(method);
-            return new ByNameAndTypeInParameterRegistration(inParameterNames, inParameterTypes);
+            ParameterBinder[] binders = buildParameterBinders(method, inParameterTypes);
+            if (procedureColumns != null) {
+              byte[] inParameterIndices = resolveInParameterIndices(method, inParameterNames, procedureColumns);
+              return new ByIndexAndTypeInParameterRegistration(inParameterIndices, inParameterTypes, binders);
+            }
+            return new ByNameAndTypeInParameterRegistration(inParameterNames, inParameterTypes, binders);
           }
           default:
-            throw new IllegalStateException("unknown parameter registration: " + this.parameterRegistration);
+            throw new IllegalStateException("unknown parameter registration: " + registration);
         }
       } else {
         return NoInParameterRegistration.INSTANCE;
@@ -817,6 +2174,17 @@ public final class ProcedureCallerFactory<T> {
     }
 
     private ResultExtractor buildResultExtractor(Method method, Class<?> methodReturnType) {
+      int cursorExportIndex = getCursorExportIndex(method);
+      if (cursorExportIndex != NO_VALUE_EXTRACTOR) {
+        if (!CursorExportResultExtractor.isSupportedReturnType(methodReturnType)) {
+          throw new IllegalArgumentException("method " + method + " using a " + CursorExport.class
+                  + " has to return void, int or long");
+        }
+        return new CursorExportResultExtractor(cursorExportIndex, getFetchSize(method), methodReturnType);
+      }
+      if (method.isAnnotationPresent(IndexTable.class)) {
+        return new IndexTableResultExtractor(getIndexTableElementType(method), methodReturnType == List.class);
+      }
       boolean methodHasReturnValue = methodReturnType != void.class;
       boolean isList = methodHasReturnValue && (methodReturnType == List.class);
       boolean isArray = methodHasReturnValue && methodReturnType.isArray();
@@ -827,6 +2195,10 @@ public final class ProcedureCallerFactory<T> {
         int fetchSize = getFetchSize(method);
         if (valueExtractorIndex == NO_VALUE_EXTRACTOR) {
           Class<?> listElementType = getListReturnTypeParamter(method);
+          if (this.getOutParameterType(method) == Types.ARRAY) {
+            // SQL ARRAY rather than a ref cursor
+            return new ArrayResultExtractor(listElementType, true);
+          }
           return new ListResultExtractor(listElementType, fetchSize);
         } else {
           Class<?> parameterType = method.getParameterTypes()[valueExtractorIndex];
@@ -842,6 +2214,14 @@ public final class ProcedureCallerFactory<T> {
         }
       } else if (isArray) {
         return this.arrayResultExtractorFactory.newArrayResultExtractor(methodReturnType);
+      } else if (methodReturnType == InputStream.class) {
+        return LobResultExtractor.BINARY;
+      } else if (methodReturnType == Reader.class) {
+        return LobResultExtractor.CHARACTER;
+      } else if (methodReturnType == XMLStreamReader.class) {
+        return SqlXmlResultExtractor.STREAM_READER;
+      } else if ((methodReturnType == Source.class) || (methodReturnType == StAXSource.class)) {
+        return SqlXmlResultExtractor.SOURCE;
       } else {
         Class<?> boxedReturnType = getBoxedClass(method.getReturnType());
         return new ScalarResultExtractor(boxedReturnType);
@@ -860,10 +2240,13 @@ public final class ProcedureCallerFactory<T> {
     }
 
     private OutParameterRegistration buildOutParameterRegistration(
-            Method method, int outParameterSqlIndex, boolean hasOutParameter) {
+            Method method, int outParameterSqlIndex, boolean hasOutParameter, ProcedureColumns procedureColumns) {
       if (hasOutParameter) {
         InOutParameter inOutParameter = method.getAnnotation(InOutParameter.class);
-        if (inOutParameter == null) {
+        IndexTable indexTable = method.getAnnotation(IndexTable.class);
+        if (indexTable != null) {
+          return this.buildIndexTableOutParameterRegistration(method, indexTable, outParameterSqlIndex, procedureColumns);
+        } else if (inOutParameter == null) {
           int outParameterType = this.getOutParameterType(method);
           String returnTypeName = getReturnTypeName(method);
           switch (this.parameterRegistration) {
@@ -872,6 +2255,12 @@ public final class ProcedureCallerFactory<T> {
               return createIndexedOutParameterRegistration(outParameterSqlIndex, outParameterType, returnTypeName);
             case NAME_ONLY:
             case NAME_AND_TYPE:
+              if (procedureColumns != null) {
+                int resolvedIndex = procedureHasReturnValue(method)
+                        ? outParameterSqlIndex // the return value is always the first parameter
+                        : procedureColumns.positionOf(getOutParameterName(method));
+                return createIndexedOutParameterRegistration(resolvedIndex, outParameterType, returnTypeName);
+              }
               String outParameterName = getOutParameterName(method);
               return createNamedOutParameterRegistration(outParameterType, returnTypeName, outParameterName);
             default:
@@ -895,6 +2284,10 @@ public final class ProcedureCallerFactory<T> {
             case NAME_ONLY:
             case NAME_AND_TYPE:
               String outParameterName = this.getParameterName(parameter, method, outParameterIndex);
+              if (procedureColumns != null) {
+                int resolvedIndex = procedureColumns.positionOf(outParameterName);
+                return createIndexedOutParameterRegistration(resolvedIndex, outParameterType, typeName);
+              }
               return createNamedOutParameterRegistration(outParameterType, typeName, outParameterName);
             default:
               throw new IllegalStateException("unknown parameter registration: " + this.parameterRegistration);
@@ -905,6 +2298,56 @@ public final class ProcedureCallerFactory<T> {
       }
     }
 
+    private OutParameterRegistration buildIndexTableOutParameterRegistration(
+            Method method, IndexTable indexTable, int outParameterSqlIndex, ProcedureColumns procedureColumns) {
+      Class<?> elementType = getIndexTableElementType(method);
+      int elementSqlType = PlsqlIndexTables.elementSqlType(elementType);
+      if (indexTable.maxLength() <= 0) {
+        throw new IllegalArgumentException("method " + method + " annotated with " + IndexTable.class + " needs a maxLength");
+      }
+      if ((elementSqlType == Types.VARCHAR) && (indexTable.elementLength() <= 0)) {
+        throw new IllegalArgumentException("method " + method + " annotated with " + IndexTable.class + " needs an elementLength");
+      }
+      int outParameterIndex;
+      switch (this.parameterRegistration) {
+        case INDEX_ONLY:
+        case INDEX_AND_TYPE:
+          outParameterIndex = outParameterSqlIndex;
+          break;
+        case NAME_ONLY:
+        case NAME_AND_TYPE:
+          if (procedureColumns == null) {
+            throw new IllegalArgumentException("method " + method + " annotated with " + IndexTable.class
+                    + " can only be registered by index, use parameter name resolution");
+          }
+          outParameterIndex = procedureHasReturnValue(method)
+                  ? outParameterSqlIndex // the return value is always the first parameter
+                  : procedureColumns.positionOf(getOutParameterName(method));
+          break;
+        default:
+          throw new IllegalStateException("unknown parameter registration: " + this.parameterRegistration);
+      }
+      return new IndexTableOutParameterRegistration(outParameterIndex, indexTable.maxLength(),
+              elementSqlType, indexTable.elementLength());
+    }
+
+    private static Class<?> getIndexTableElementType(Method method) {
+      Class<?> methodReturnType = method.getReturnType();
+      Class<?> elementType;
+      if (methodReturnType.isArray()) {
+        elementType = methodReturnType.getComponentType();
+      } else if (methodReturnType == List.class) {
+        elementType = getListReturnTypeParamter(method);
+      } else {
+        elementType = null;
+      }
+      if ((elementType == null) || !PlsqlIndexTables.isSupportedElementType(elementType)) {
+        throw new IllegalArgumentException("method " + method + " annotated with " + IndexTable.class
+                + " has to return an array or list of numbers or strings");
+      }
+      return elementType;
+    }
+
     private static OutParameterRegistration createNamedOutParameterRegistration(int outParameterType, String returnTypeName, String outParameterName) {
       if (returnTypeName == null) {
         return new ByNameOutParameterRegistration(outParameterName, outParameterType);
@@ -1010,7 +2453,8 @@ public final class ProcedureCallerFactory<T> {
 
     private int getOutParameterType(Method method) {
       Class<?> methodReturnType = method.getReturnType();
-      if (methodReturnType == void.class) {
+      boolean isCursorExport = getCursorExportIndex(method) != NO_VALUE_EXTRACTOR;
+      if ((methodReturnType == void.class) && !isCursorExport) {
         return NO_OUT_PARAMTER;
       }
       OutParameter outParameter = method.getAnnotation(OutParameter.class);
@@ -1027,7 +2471,7 @@ public final class ProcedureCallerFactory<T> {
         outParameterType = Integer.MIN_VALUE;
       }
       if (outParameterType == Integer.MIN_VALUE) {
-        if (methodReturnType == List.class) {
+        if ((methodReturnType == List.class) || isCursorExport) {
           return Types.REF_CURSOR;
         } else {
           return this.typeMapper.mapToSqlType(methodReturnType);
@@ -1036,6 +2480,36 @@ public final class ProcedureCallerFactory<T> {
       return outParameterType;
     }
 
+    private static StatementTuning buildStatementTuning(Method method) {
+      StatementTuning pgTuning = null;
+      ServerPrepared serverPrepared = getMethodOrInterfaceAnnotation(method, ServerPrepared.class);
+      if ((serverPrepared != null) && PgPrepareThreshold.isSupported()) {
+        pgTuning = new PgPrepareThreshold(serverPrepared.threshold());
+      }
+      StatementTuning oracleTuning = null;
+      LobPrefetchSize lobPrefetchSize = getMethodOrInterfaceAnnotation(method, LobPrefetchSize.class);
+      if ((lobPrefetchSize != null) && OracleLobPrefetchSize.isSupported()) {
+        oracleTuning = new OracleLobPrefetchSize(lobPrefetchSize.value());
+      }
+      if ((pgTuning != null) && (oracleTuning != null)) {
+        return new CompositeStatementTuning(new StatementTuning[] {pgTuning, oracleTuning});
+      } else if (pgTuning != null) {
+        return pgTuning;
+      } else if (oracleTuning != null) {
+        return oracleTuning;
+      } else {
+        return NoStatementTuning.INSTANCE;
+      }
+    }
+
+    private static <A extends Annotation> A getMethodOrInterfaceAnnotation(Method method, Class<A> annotationClass) {
+      A annotation = method.getAnnotation(annotationClass);
+      if (annotation != null) {
+        return annotation;
+      }
+      return method.getDeclaringClass().getAnnotation(annotationClass);
+    }
+
     private static int getFetchSize(Method method) {
       if (method.isAnnotationPresent(FetchSize.class)) {
         return method.getAnnotation(FetchSize.class).value();
@@ -1110,6 +2584,16 @@ public final class ProcedureCallerFactory<T> {
       return NO_VALUE_EXTRACTOR;
     }
 
+    private static int getCursorExportIndex(Method method) {
+      Class<?>[] methodParameterTypes = method.getParameterTypes();
+      for (int i = 0; i < methodParameterTypes.length; i++) {
+        if (ValueExtractorUtils.isCursorExport(methodParameterTypes[i])) {
+          return i;
+        }
+      }
+      return NO_VALUE_EXTRACTOR;
+    }
+
     private static int getInputParameterCount(Method method) {
       int count = 0;
       for (Class<?> parameterType : method.getParameterTypes()) {
@@ -1124,9 +2608,17 @@ public final class ProcedureCallerFactory<T> {
             int sqlInputParameterCount, boolean hasOutParameter) {
       String namespace = this.hasNamespace(method) ? this.extractsNamespace(method) : null;
       String schemaName = this.hasSchema(method) ? this.extractSchema(method) : null;
+      if (isSelectable(method)) {
+        return buildSelectCallString(namespace, schemaName, procedureName, sqlInputParameterCount);
+      }
       boolean isFunction = procedureHasReturnValue(method);
       if (isFunction) {
-        return buildQualifiedFunctionCallString(namespace, schemaName, procedureName, sqlInputParameterCount);
+        switch (this.callSyntax) {
+          case ORACLE:
+            return buildOracleFunctionCallString(namespace, schemaName, procedureName, sqlInputParameterCount);
+          default:
+            return buildQualifiedFunctionCallString(namespace, schemaName, procedureName, sqlInputParameterCount);
+        }
       } else {
         int sqlParameterCount;
         if (hasOutParameter && !shareOutParameter(method)) {
@@ -1134,7 +2626,20 @@ public final class ProcedureCallerFactory<T> {
         } else {
           sqlParameterCount = sqlInputParameterCount;
         }
-        return buildQualifiedProcedureCallString(namespace, schemaName, procedureName, sqlParameterCount);
+        switch (this.callSyntax) {
+          case ORACLE:
+            return buildOracleProcedureCallString(namespace, schemaName, procedureName, sqlParameterCount);
+          case POSTGRES:
+            if (!hasOutParameter) {
+              return buildSelectCallString(namespace, schemaName, procedureName, sqlParameterCount);
+            }
+            // pgjdbc only supports out parameters with the escape syntax
+            return buildQualifiedProcedureCallString(namespace, schemaName, procedureName, sqlParameterCount);
+          case POSTGRES_CALL:
+            return buildPostgresProcedureCallString(namespace, schemaName, procedureName, sqlParameterCount);
+          default:
+            return buildQualifiedProcedureCallString(namespace, schemaName, procedureName, sqlParameterCount);
+        }
       }
     }
 
@@ -1152,7 +2657,31 @@ public final class ProcedureCallerFactory<T> {
       return buildCallString("{ ? = call ", namespace, schemaName, functionName, parameterCount);
     }
 
+    static String buildOracleProcedureCallString(String namespace, String schemaName, String functionName, int parameterCount) {
+      // BEGIN RAISE_PRICE(?,?,?); END;
+      return buildCallString("BEGIN ", namespace, schemaName, functionName, parameterCount, "); END;");
+    }
+
+    static String buildOracleFunctionCallString(String namespace, String schemaName, String functionName, int parameterCount) {
+      // BEGIN ? := RAISE_PRICE(?,?,?); END;
+      return buildCallString("BEGIN ? := ", namespace, schemaName, functionName, parameterCount, "); END;");
+    }
+
+    static String buildPostgresProcedureCallString(String namespace, String schemaName, String functionName, int parameterCount) {
+      // CALL raise_price(?,?,?)
+      return buildCallString("CALL ", namespace, schemaName, functionName, parameterCount, ")");
+    }
+
+    static String buildSelectCallString(String namespace, String schemaName, String functionName, int parameterCount) {
+      // SELECT * FROM raise_price(?,?,?)
+      return buildCallString("SELECT * FROM ", namespace, schemaName, functionName, parameterCount, ")");
+    }
+
     static String buildCallString(String prefix, String namespace, String schemaName, String functionName, int parameterCount) {
+      return buildCallString(prefix, namespace, schemaName, functionName, parameterCount, ")}");
+    }
+
+    static String buildCallString(String prefix, String namespace, String schemaName, String functionName, int parameterCount, String suffix) {
       // compute the capacity
       int capacity = prefix.length(); // { ? = call
       if (namespace != null) {
@@ -1166,7 +2695,7 @@ public final class ProcedureCallerFactory<T> {
       capacity += functionName.length()
               + 1 // (
               + Math.max((parameterCount * 2) - 1, 0) // ?,?
-              + 2; // )}
+              + suffix.length(); // )}
 
       // build the string
       StringBuilder builder = new StringBuilder(capacity);
@@ -1187,10 +2716,32 @@ public final class ProcedureCallerFactory<T> {
         }
         builder.append('?');
       }
-      builder.append(")}");
+      builder.append(suffix);
       return builder.toString();
     }
 
+    private static boolean isSelectable(Method method) {
+      return method.isAnnotationPresent(Selectable.class);
+    }
+
+    /**
+     * Returns the parameter registration used for a method. Selectable
+     * procedures have no named parameters.
+     */
+    private ParameterRegistration getParameterRegistration(Method method) {
+      if (!isSelectable(method)) {
+        return this.parameterRegistration;
+      }
+      switch (this.parameterRegistration) {
+        case NAME_ONLY:
+          return ParameterRegistration.INDEX_ONLY;
+        case NAME_AND_TYPE:
+          return ParameterRegistration.INDEX_AND_TYPE;
+        default:
+          return this.parameterRegistration;
+      }
+    }
+
     private static boolean procedureHasReturnValue(Method method) {
       return method.getAnnotation(ReturnValue.class) != null;
     }
@@ -1267,10 +2818,51 @@ public final class ProcedureCallerFactory<T> {
     final OutParameterRegistration outParameterRegistration;
     final InParameterRegistration inParameterRegistration;
     final CallResourceFactory callResourceFactory;
+    /**
+     * Whether the result holds on to the connection until it is closed.
+     */
+    final boolean streamingResult;
+    final StatementTuning statementTuning;
+    /**
+     * How an argument is split into chunks, {@code null} if no argument
+     * is chunked.
+     */
+    final Chunking chunking;
+    /**
+     * How the rows of an argument are transposed into columns,
+     * {@code null} if no argument is vectorized.
+     */
+    final Vectorization vectorization;
+    /**
+     * How calls are queued, {@code null} if the procedure is called
+     * immediately.
+     */
+    final WriteBehind writeBehind;
+    /**
+     * How the deltas of calls are added up, {@code null} if the
+     * procedure is called immediately.
+     */
+    final Aggregated aggregated;
+    /**
+     * Whether concurrent calls with equal arguments share a result.
+     */
+    final boolean coalesced;
+    /**
+     * How results are cached, {@code null} if results are not cached.
+     */
+    final Cached cached;
+    /**
+     * Whether calls with equal arguments in a {@link MemoizationScope}
+     * share a result.
+     */
+    final boolean memoized;
 
     CallInfo(String procedureName, String callString, boolean wantsExceptionTranslation,
             ResultExtractor resultExtractor, OutParameterRegistration outParameterRegistration,
-            InParameterRegistration inParameterRegistration, CallResourceFactory callResourceFactory) {
+            InParameterRegistration inParameterRegistration, CallResourceFactory callResourceFactory,
+            boolean streamingResult, StatementTuning statementTuning, Chunking chunking,
+            Vectorization vectorization, WriteBehind writeBehind, Aggregated aggregated,
+            boolean coalesced, Cached cached, boolean memoized) {
       this.procedureName = procedureName;
       this.callString = callString;
       this.wantsExceptionTranslation = wantsExceptionTranslation;
@@ -1278,6 +2870,15 @@ public final class ProcedureCallerFactory<T> {
       this.outParameterRegistration = outParameterRegistration;
       this.inParameterRegistration = inParameterRegistration;
       this.callResourceFactory = callResourceFactory;
+      this.streamingResult = streamingResult;
+      this.statementTuning = statementTuning;
+      this.chunking = chunking;
+      this.vectorization = vectorization;
+      this.writeBehind = writeBehind;
+      this.aggregated = aggregated;
+      this.coalesced = coalesced;
+      this.cached = cached;
+      this.memoized = memoized;
     }
 
     @Override
@@ -1287,7 +2888,16 @@ public final class ProcedureCallerFactory<T> {
               + ", resultExtractor: " + this.resultExtractor
               + ", outParameterRegistration: " + this.outParameterRegistration
               + ", inParameterRegistration: " + this.inParameterRegistration
-              + ", callResourceFactory: " + this.callResourceFactory;
+              + ", callResourceFactory: " + this.callResourceFactory
+              + (this.streamingResult ? ", streaming result" : "")
+              + (this.statementTuning != NoStatementTuning.INSTANCE ? ", statementTuning: " + this.statementTuning : "")
+              + (this.chunking != null ? ", chunking: " + this.chunking : "")
+              + (this.vectorization != null ? ", vectorization: " + this.vectorization : "")
+              + (this.writeBehind != null ? ", writeBehind: " + this.writeBehind : "")
+              + (this.aggregated != null ? ", aggregated: " + this.aggregated : "")
+              + (this.coalesced ? ", coalesced" : "")
+              + (this.cached != null ? ", cached: " + this.cached : "")
+              + (this.memoized ? ", memoized" : "");
     }
 
   }
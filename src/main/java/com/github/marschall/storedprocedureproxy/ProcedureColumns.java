@@ -0,0 +1,134 @@
+package com.github.marschall.storedprocedureproxy;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * The positions of the parameters of a stored procedure as reported by
+ * {@link DatabaseMetaData#getProcedureColumns(String, String, String, String)}.
+ *
+ * <p>Allows parameters declared by name to be bound by index. Looked up
+ * once when the call information of a method is built.</p>
+ *
+ * <p>This class is immutable.</p>
+ */
+final class ProcedureColumns {
+
+  /**
+   * Marks a parameter name that is reported at different positions, eg.
+   * for overloaded procedures.
+   */
+  private static final int AMBIGUOUS = -1;
+
+  /**
+   * The name of the parameter is not known.
+   */
+  static final int UNKNOWN = -1;
+
+  private final Map<String, Integer> positions;
+
+  private ProcedureColumns(Map<String, Integer> positions) {
+    this.positions = positions;
+  }
+
+  /**
+   * Reads the parameter positions of a procedure.
+   *
+   * @param connection the connection to read the meta data from
+   * @param catalog the catalog name, for Oracle the package name, may be {@code null}
+   * @param schema the schema name, may be {@code null}
+   * @param procedureName the name of the procedure
+   * @return the parameter positions, not {@code null}
+   * @throws SQLException if reading the meta data fails
+   */
+  static ProcedureColumns lookUp(Connection connection, String catalog, String schema, String procedureName) throws SQLException {
+    DatabaseMetaData metaData = connection.getMetaData();
+    String escape = metaData.getSearchStringEscape();
+    String catalogName = catalog != null ? toStoredCase(metaData, catalog) : null;
+    String schemaPattern = schema != null ? escapePattern(toStoredCase(metaData, schema), escape) : null;
+    String procedurePattern = escapePattern(toStoredCase(metaData, procedureName), escape);
+
+    Map<String, Integer> positions = new HashMap<>();
+    try (ResultSet columns = metaData.getProcedureColumns(catalogName, schemaPattern, procedurePattern, null)) {
+      while (columns.next()) {
+        int columnType = columns.getShort("COLUMN_TYPE");
+        if ((columnType == DatabaseMetaData.procedureColumnResult)
+                || (columnType == DatabaseMetaData.procedureColumnReturn)) {
+          // not a parameter
+          continue;
+        }
+        String columnName = columns.getString("COLUMN_NAME");
+        if (columnName == null) {
+          continue;
+        }
+        int position = columns.getInt("ORDINAL_POSITION");
+        positions.merge(normalize(columnName), position,
+                (previous, current) -> previous.equals(current) ? previous : AMBIGUOUS);
+      }
+    }
+    return new ProcedureColumns(positions);
+  }
+
+  /**
+   * Returns the position of a parameter.
+   *
+   * @param parameterName the name of the parameter as used for binding
+   * @return the one based position, not counting a function return
+   *         value, or {@link #UNKNOWN}
+   */
+  int positionOf(String parameterName) {
+    Integer position = this.positions.get(normalize(parameterName));
+    if ((position == null) || (position <= 0)) {
+      return UNKNOWN;
+    }
+    return position;
+  }
+
+  private static String normalize(String parameterName) {
+    // SQL Server reports parameters with @
+    String name = parameterName.startsWith("@") ? parameterName.substring(1) : parameterName;
+    return name.toUpperCase(Locale.ROOT);
+  }
+
+  private static String toStoredCase(DatabaseMetaData metaData, String identifier) throws SQLException {
+    if (metaData.storesUpperCaseIdentifiers()) {
+      return identifier.toUpperCase(Locale.ROOT);
+    } else if (metaData.storesLowerCaseIdentifiers()) {
+      return identifier.toLowerCase(Locale.ROOT);
+    } else {
+      return identifier;
+    }
+  }
+
+  static String escapePattern(String name, String escape) {
+    if ((escape == null) || escape.isEmpty()) {
+      return name;
+    }
+    StringBuilder builder = null;
+    for (int i = 0; i < name.length(); i++) {
+      char c = name.charAt(i);
+      if ((c == '_') || (c == '%')) {
+        if (builder == null) {
+          builder = new StringBuilder(name.length() + 4);
+          builder.append(name, 0, i);
+        }
+        builder.append(escape);
+      }
+      if (builder != null) {
+        builder.append(c);
+      }
+    }
+    return builder != null ? builder.toString() : name;
+  }
+
+  @Override
+  public String toString() {
+    return this.getClass().getSimpleName() + this.positions;
+  }
+
+}
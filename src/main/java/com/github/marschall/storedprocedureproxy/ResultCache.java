@@ -0,0 +1,323 @@
+package com.github.marschall.storedprocedureproxy;
+
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.github.marschall.storedprocedureproxy.annotations.Cached;
+
+/**
+ * Caches the results of a {@link Cached} procedure.
+ *
+ * <p>Lookups are lock free. New results first enter a small admission
+ * window. Results leaving the window only replace the oldest result of
+ * the main area if they were requested more often, as estimated by a
+ * {@link FrequencySketch}. This is a simplified W-TinyLFU where both
+ * areas are kept in insertion order so that lookups do not need to
+ * reorder them.</p>
+ *
+ * <p>A result loaded while the cache was invalidated is not cached.</p>
+ *
+ * <p>This class is thread safe.</p>
+ *
+ * @see <a href="https://arxiv.org/abs/1512.00727">TinyLFU: A Highly Efficient Cache Admission Policy</a>
+ */
+final class ResultCache {
+
+  private final long ttlNanos;
+
+  private final int windowCapacity;
+
+  private final int mainCapacity;
+
+  private final ConcurrentHashMap<CallKey, CacheEntry> entries;
+
+  private final FrequencySketch sketch;
+
+  /**
+   * Guards {@link #window} and {@link #main}.
+   */
+  private final Lock evictionLock;
+
+  private final LinkedHashSet<CallKey> window;
+
+  private final LinkedHashSet<CallKey> main;
+
+  /**
+   * Incremented on every invalidation so that results loaded before
+   * are not cached.
+   */
+  private final AtomicLong invalidations;
+
+  ResultCache(long ttlMillis, int maxEntries) {
+    this.ttlNanos = ttlMillis * 1_000_000L;
+    this.windowCapacity = Math.max(1, maxEntries / 100);
+    this.mainCapacity = maxEntries - this.windowCapacity;
+    this.entries = new ConcurrentHashMap<>();
+    this.sketch = new FrequencySketch(maxEntries);
+    this.evictionLock = new ReentrantLock();
+    this.window = new LinkedHashSet<>();
+    this.main = new LinkedHashSet<>();
+    this.invalidations = new AtomicLong();
+  }
+
+  /**
+   * Looks up a cached result.
+   *
+   * @param key the method and arguments of the call
+   * @return the entry or {@code null} if nothing or only an expired
+   *         result is cached
+   */
+  CacheEntry get(CallKey key) {
+    this.sketch.increment(key.hashCode());
+    CacheEntry entry = this.entries.get(key);
+    if (entry == null) {
+      return null;
+    }
+    if ((System.nanoTime() - entry.expiresAt) >= 0L) {
+      this.entries.remove(key, entry);
+      return null;
+    }
+    return entry;
+  }
+
+  /**
+   * Returns the invalidation stamp to pass to
+   * {@link #put(CallKey, Object, long)} once the result is loaded.
+   *
+   * @return the current invalidation stamp
+   */
+  long stamp() {
+    return this.invalidations.get();
+  }
+
+  /**
+   * Caches a result unless the cache was invalidated since loading
+   * started.
+   *
+   * @param key the method and arguments of the call
+   * @param value the result, may be {@code null}
+   * @param stamp the value of {@link #stamp()} before loading
+   */
+  void put(CallKey key, Object value, long stamp) {
+    CacheEntry entry = new CacheEntry(value, System.nanoTime() + this.ttlNanos);
+    this.evictionLock.lock();
+    try {
+      if (this.invalidations.get() != stamp) {
+        return;
+      }
+      this.entries.put(key, entry);
+      if (this.window.contains(key) || this.main.contains(key)) {
+        // refreshed an expired result
+        return;
+      }
+      this.window.add(key);
+      if (this.window.size() > this.windowCapacity) {
+        this.admit(removeEldest(this.window));
+      }
+    } finally {
+      this.evictionLock.unlock();
+    }
+  }
+
+  private void admit(CallKey candidate) {
+    if (this.main.size() < this.mainCapacity) {
+      this.main.add(candidate);
+      return;
+    }
+    if (this.main.isEmpty()) {
+      this.entries.remove(candidate);
+      return;
+    }
+    CallKey victim = this.main.iterator().next();
+    if (this.sketch.frequency(candidate.hashCode()) > this.sketch.frequency(victim.hashCode())) {
+      this.main.remove(victim);
+      this.entries.remove(victim);
+      this.main.add(candidate);
+    } else {
+      this.entries.remove(candidate);
+    }
+  }
+
+  private static CallKey removeEldest(LinkedHashSet<CallKey> keys) {
+    Iterator<CallKey> iterator = keys.iterator();
+    CallKey eldest = iterator.next();
+    iterator.remove();
+    return eldest;
+  }
+
+  /**
+   * Removes the cached result of a call.
+   *
+   * @param key the method and arguments of the call
+   */
+  void invalidate(CallKey key) {
+    this.evictionLock.lock();
+    try {
+      this.invalidations.incrementAndGet();
+      this.entries.remove(key);
+      if (!this.window.remove(key)) {
+        this.main.remove(key);
+      }
+    } finally {
+      this.evictionLock.unlock();
+    }
+  }
+
+  /**
+   * Removes all cached results.
+   */
+  void invalidateAll() {
+    this.evictionLock.lock();
+    try {
+      this.invalidations.incrementAndGet();
+      this.entries.clear();
+      this.window.clear();
+      this.main.clear();
+    } finally {
+      this.evictionLock.unlock();
+    }
+  }
+
+  int size() {
+    return this.entries.size();
+  }
+
+  @Override
+  public String toString() {
+    return this.getClass().getSimpleName() + "[ttl=" + (this.ttlNanos / 1_000_000L) + "ms"
+            + ", maxEntries=" + (this.windowCapacity + this.mainCapacity) + ']';
+  }
+
+  /**
+   * A cached result.
+   */
+  static final class CacheEntry {
+
+    final Object value;
+
+    final long expiresAt;
+
+    CacheEntry(Object value, long expiresAt) {
+      this.value = value;
+      this.expiresAt = expiresAt;
+    }
+
+  }
+
+}
+
+/**
+ * Estimates how often a key was requested recently using a count-min
+ * sketch with four hash functions and 4 bit counters, sixteen per
+ * cache entry packed into longs.
+ *
+ * <p>Once ten times the number of cache entries has been counted all
+ * counters are halved so that keys that used to be popular are
+ * eventually forgotten. Updates are lock free, counting is approximate
+ * under contention.</p>
+ */
+final class FrequencySketch {
+
+  private static final long[] SEEDS = {
+    0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L
+  };
+
+  private static final long MAX_FREQUENCY = 15L;
+
+  /**
+   * Clears the bits shifted into the neighbouring counter when halving.
+   */
+  private static final long RESET_MASK = 0x7777777777777777L;
+
+  private final AtomicLongArray table;
+
+  private final int mask;
+
+  private final int sampleSize;
+
+  private final AtomicInteger additions;
+
+  FrequencySketch(int maxEntries) {
+    int entries = Math.max(maxEntries, 8);
+    int length = Integer.highestOneBit(entries - 1) << 1;
+    this.table = new AtomicLongArray(length);
+    this.mask = length - 1;
+    this.sampleSize = entries * 10;
+    this.additions = new AtomicInteger();
+  }
+
+  void increment(int hashCode) {
+    int spread = spread(hashCode);
+    boolean added = false;
+    for (int i = 0; i < SEEDS.length; i++) {
+      long hash = hash(spread, i);
+      int index = ((int) hash) & this.mask;
+      int shift = counterShift(hash);
+      while (true) {
+        long value = this.table.get(index);
+        if (((value >>> shift) & MAX_FREQUENCY) == MAX_FREQUENCY) {
+          break;
+        }
+        if (this.table.compareAndSet(index, value, value + (1L << shift))) {
+          added = true;
+          break;
+        }
+      }
+    }
+    if (added && (this.additions.incrementAndGet() == this.sampleSize)) {
+      this.reset();
+    }
+  }
+
+  int frequency(int hashCode) {
+    int spread = spread(hashCode);
+    long frequency = MAX_FREQUENCY;
+    for (int i = 0; i < SEEDS.length; i++) {
+      long hash = hash(spread, i);
+      long value = this.table.get(((int) hash) & this.mask);
+      frequency = Math.min(frequency, (value >>> counterShift(hash)) & MAX_FREQUENCY);
+    }
+    return (int) frequency;
+  }
+
+  private void reset() {
+    for (int i = 0; i < this.table.length(); i++) {
+      this.table.getAndUpdate(i, value -> (value >>> 1) & RESET_MASK);
+    }
+    this.additions.addAndGet(-(this.sampleSize / 2));
+  }
+
+  /**
+   * Spreads sequential hash codes, for example of small integers.
+   */
+  private static int spread(int hashCode) {
+    int x = ((hashCode >>> 16) ^ hashCode) * 0x45d9f3b;
+    x = ((x >>> 16) ^ x) * 0x45d9f3b;
+    return (x >>> 16) ^ x;
+  }
+
+  private static long hash(int spread, int i) {
+    long hash = (spread + SEEDS[i]) * SEEDS[i];
+    return hash + (hash >>> 32);
+  }
+
+  /**
+   * Selects one of the sixteen counters in a long using the high bits
+   * of the hash, the low bits select the long.
+   */
+  private static int counterShift(long hash) {
+    return ((int) (hash >>> 60)) << 2;
+  }
+
+  @Override
+  public String toString() {
+    return this.getClass().getSimpleName() + "[width=" + this.table.length() + ']';
+  }
+
+}
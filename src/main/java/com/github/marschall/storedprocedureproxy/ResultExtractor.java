@@ -4,13 +4,19 @@ import java.lang.invoke.MethodHandle;
 import java.lang.invoke.MethodHandles;
 import java.lang.invoke.MethodHandles.Lookup;
 import java.sql.Array;
+import java.sql.Blob;
 import java.sql.CallableStatement;
+import java.sql.Clob;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.SQLXML;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.function.Function;
 
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.transform.stax.StAXSource;
+
 import com.github.marschall.storedprocedureproxy.ProcedureCallerFactory.ProcedureCaller;
 
 /**
@@ -28,6 +34,32 @@ interface ResultExtractor {
    */
   Object extractResult(CallableStatement statement, OutParameterRegistration outParameterRegistration, Object[] args) throws SQLException;
 
+  /**
+   * Returns a ref cursor out parameter.
+   *
+   * <p>The fetch size of the statement is not inherited by the cursor,
+   * Oracle for example uses the default row prefetch of the connection.
+   * Therefore the fetch size is also set on the cursor.</p>
+   *
+   * @param statement the executed statement
+   * @param outParameterRegistration the out parameter registration
+   * @param fetchSize the fetch size, {@link ProcedureCaller#DEFAULT_FETCH_SIZE} for the driver default
+   * @return the ref cursor
+   * @throws SQLException if the JDBC driver throws an exception
+   */
+  static ResultSet getOutResultSet(CallableStatement statement, OutParameterRegistration outParameterRegistration, int fetchSize) throws SQLException {
+    ResultSet resultSet = outParameterRegistration.getOutParamter(statement, ResultSet.class);
+    if ((resultSet != null) && (fetchSize != ProcedureCaller.DEFAULT_FETCH_SIZE)) {
+      try {
+        resultSet.setFetchSize(fetchSize);
+      } catch (SQLException | RuntimeException e) {
+        ResourceCloser.closeAfterException(e, resultSet);
+        throw e;
+      }
+    }
+    return resultSet;
+  }
+
 }
 
 /**
@@ -141,7 +173,7 @@ final class ListResultExtractor implements ResultExtractor {
         return read(rs, this.listElementType);
       }
     } else {
-      try (ResultSet rs = getOutResultSet(statement, outParameterRegistration)) {
+      try (ResultSet rs = ResultExtractor.getOutResultSet(statement, outParameterRegistration, this.fetchSize)) {
         return read(rs, this.listElementType);
       }
     }
@@ -156,10 +188,6 @@ final class ListResultExtractor implements ResultExtractor {
     return result;
   }
 
-  private static ResultSet getOutResultSet(CallableStatement statement, OutParameterRegistration outParameterRegistration) throws SQLException {
-    return outParameterRegistration.getOutParamter(statement, ResultSet.class);
-  }
-
   @Override
   public String toString() {
     return this.getClass().getSimpleName() +"[type=" + ToStringUtils.classNameToString(this.listElementType)
@@ -191,7 +219,7 @@ abstract class AbstractValueExtractorResultExtractor implements ResultExtractor
         return this.read(rs, extractor);
       }
     } else {
-      try (ResultSet rs = getOutResultSet(statement, outParameterRegistration)) {
+      try (ResultSet rs = ResultExtractor.getOutResultSet(statement, outParameterRegistration, this.fetchSize)) {
         return this.read(rs, extractor);
       }
     }
@@ -199,10 +227,6 @@ abstract class AbstractValueExtractorResultExtractor implements ResultExtractor
 
   abstract Object read(ResultSet rs, Object extractor) throws SQLException;
 
-  private static ResultSet getOutResultSet(CallableStatement statement, OutParameterRegistration outParameterRegistration) throws SQLException {
-    return outParameterRegistration.getOutParamter(statement, ResultSet.class);
-  }
-
   @Override
   public String toString() {
     return this.getClass().getSimpleName() +"[methodParameterIndex=" + this.extractorIndex
@@ -290,15 +314,246 @@ final class FunctionResultExtractor extends AbstractValueExtractorResultExtracto
 }
 
 
+/**
+ * Exports a ref cursor or {@link ResultSet} using a {@link CursorExport}.
+ *
+ * <p>The result type is either {@code void}, {@link Integer} or {@link Long}.</p>
+ */
+final class CursorExportResultExtractor implements ResultExtractor {
+
+  private final int exportIndex;
+
+  private final int fetchSize;
+
+  /**
+   * Instead of {@code long.class} contains {@code Long.class}.
+   */
+  private final Class<?> returnType;
+
+  CursorExportResultExtractor(int exportIndex, int fetchSize, Class<?> returnType) {
+    this.exportIndex = exportIndex;
+    this.fetchSize = fetchSize;
+    this.returnType = returnType;
+  }
+
+  static boolean isSupportedReturnType(Class<?> returnType) {
+    return (returnType == void.class)
+            || (returnType == long.class)
+            || (returnType == Long.class)
+            || (returnType == int.class)
+            || (returnType == Integer.class);
+  }
+
+  @Override
+  public Object extractResult(CallableStatement statement, OutParameterRegistration outParameterRegistration, Object[] args) throws SQLException {
+    if (this.fetchSize != ProcedureCaller.DEFAULT_FETCH_SIZE) {
+      statement.setFetchSize(this.fetchSize);
+    }
+    CursorExport export = (CursorExport) args[this.exportIndex];
+    long rowCount;
+    boolean hasResultSet = statement.execute();
+    if (hasResultSet) {
+      try (ResultSet rs = statement.getResultSet()) {
+        rowCount = export.export(rs);
+      }
+    } else {
+      try (ResultSet rs = ResultExtractor.getOutResultSet(statement, outParameterRegistration, this.fetchSize)) {
+        rowCount = export.export(rs);
+      }
+    }
+    return this.convertRowCount(rowCount);
+  }
+
+  private Object convertRowCount(long rowCount) {
+    if ((this.returnType == Long.class) || (this.returnType == long.class)) {
+      return rowCount;
+    } else if ((this.returnType == Integer.class) || (this.returnType == int.class)) {
+      return Math.toIntExact(rowCount);
+    } else {
+      return null;
+    }
+  }
+
+  @Override
+  public String toString() {
+    return this.getClass().getSimpleName() + "[methodParameterIndex=" + this.exportIndex
+            + ", fetchSize=" + ToStringUtils.fetchSizeToString(this.fetchSize) + ']';
+  }
+
+}
+
+/**
+ * Base class for results that outlive the call. The result is read
+ * either from the first column of the first row of a result set or
+ * from the out parameter.
+ *
+ * @see ResourceOwner
+ */
+abstract class StreamingResultExtractor implements ResultExtractor {
+
+  @Override
+  public Object extractResult(CallableStatement statement, OutParameterRegistration outParameterRegistration, Object[] args) throws SQLException {
+    boolean hasResultSet = statement.execute();
+    if (hasResultSet) {
+      ResultSet rs = statement.getResultSet();
+      try {
+        Object result = null;
+        if (rs.next()) {
+          result = this.openColumn(rs);
+        }
+        if (result == null) {
+          rs.close();
+        }
+        return result;
+      } catch (SQLException e) {
+        ResourceCloser.closeAfterException(e, rs);
+        throw e;
+      }
+    } else {
+      return this.openOutParameter(statement, outParameterRegistration);
+    }
+  }
+
+  /**
+   * Opens the result from the first column, the result set has to be
+   * closed together with the result.
+   */
+  abstract Object openColumn(ResultSet rs) throws SQLException;
+
+  abstract Object openOutParameter(CallableStatement statement, OutParameterRegistration outParameterRegistration) throws SQLException;
+
+}
+
+/**
+ * Extracts a {@link Blob} or {@link Clob} as a stream. The stream
+ * outlives the call and frees the LOB when closed.
+ */
+final class LobResultExtractor extends StreamingResultExtractor {
+
+  static final ResultExtractor BINARY = new LobResultExtractor(true);
+
+  static final ResultExtractor CHARACTER = new LobResultExtractor(false);
+
+  private final boolean binary;
+
+  private LobResultExtractor(boolean binary) {
+    this.binary = binary;
+  }
+
+  @Override
+  Object openColumn(ResultSet rs) throws SQLException {
+    if (this.binary) {
+      return openStream(rs.getBlob(1), rs);
+    } else {
+      return openReader(rs.getClob(1), rs);
+    }
+  }
+
+  @Override
+  Object openOutParameter(CallableStatement statement, OutParameterRegistration outParameterRegistration) throws SQLException {
+    if (this.binary) {
+      return openStream(outParameterRegistration.getOutParamter(statement, Blob.class), null);
+    } else {
+      return openReader(outParameterRegistration.getOutParamter(statement, Clob.class), null);
+    }
+  }
+
+  private static Object openStream(Blob blob, ResultSet resultSet) throws SQLException {
+    if (blob == null) {
+      return null;
+    }
+    return new ClosingInputStream(blob, resultSet);
+  }
+
+  private static Object openReader(Clob clob, ResultSet resultSet) throws SQLException {
+    if (clob == null) {
+      return null;
+    }
+    return new ClosingReader(clob, resultSet);
+  }
+
+  @Override
+  public String toString() {
+    return this.getClass().getSimpleName() + '[' + (this.binary ? "binary" : "character") + ']';
+  }
+
+}
+
+/**
+ * Extracts a {@link SQLXML} as a {@link XMLStreamReader} or
+ * {@link StAXSource} without materializing the document. The reader
+ * outlives the call and frees the {@link SQLXML} when closed.
+ */
+final class SqlXmlResultExtractor extends StreamingResultExtractor {
+
+  static final ResultExtractor STREAM_READER = new SqlXmlResultExtractor(false);
+
+  static final ResultExtractor SOURCE = new SqlXmlResultExtractor(true);
+
+  private final boolean source;
+
+  private SqlXmlResultExtractor(boolean source) {
+    this.source = source;
+  }
+
+  @Override
+  Object openColumn(ResultSet rs) throws SQLException {
+    return this.open(rs.getSQLXML(1), rs);
+  }
+
+  @Override
+  Object openOutParameter(CallableStatement statement, OutParameterRegistration outParameterRegistration) throws SQLException {
+    return this.open(outParameterRegistration.getOutParamter(statement, SQLXML.class), null);
+  }
+
+  private Object open(SQLXML xml, ResultSet resultSet) throws SQLException {
+    if (xml == null) {
+      return null;
+    }
+    ClosingXMLStreamReader reader;
+    try {
+      reader = new ClosingXMLStreamReader(xml.getSource(StAXSource.class).getXMLStreamReader(), xml, resultSet);
+    } catch (SQLException e) {
+      ResourceCloser.closeAfterException(e, xml::free);
+      throw e;
+    }
+    if (this.source) {
+      return new ClosingStAXSource(reader);
+    } else {
+      return reader;
+    }
+  }
+
+  @Override
+  public String toString() {
+    return this.getClass().getSimpleName() + '[' + (this.source ? "Source" : "XMLStreamReader") + ']';
+  }
+
+}
+
 /**
  * Extracts a {@link Array} of scalar values.
  */
 final class ArrayResultExtractor implements ResultExtractor {
 
   private final Class<?> arrayElementType;
+  private final boolean list;
+  private final ArrayConverter converter;
 
   ArrayResultExtractor(Class<?> arrayElementType) {
+    this(arrayElementType, false);
+  }
+
+  /**
+   * Constructs a new {@link ArrayResultExtractor}.
+   *
+   * @param arrayElementType the element type of the array or list
+   * @param list whether a {@link List} should be returned instead of an array
+   */
+  ArrayResultExtractor(Class<?> arrayElementType, boolean list) {
     this.arrayElementType = arrayElementType;
+    this.list = list;
+    this.converter = ArrayConverter.forElementType(arrayElementType);
   }
 
   @Override
@@ -317,41 +572,75 @@ final class ArrayResultExtractor implements ResultExtractor {
   }
 
   private Object extractValue(Array jdbcArray) throws SQLException {
+    if (jdbcArray == null) {
+      return null;
+    }
     try {
       Object array = jdbcArray.getArray();
       Class<? extends Object> arrayClass = array.getClass();
       if (!arrayClass.isArray()) {
         throw new ClassCastException("expected array of " + this.arrayElementType + " but got " + arrayClass);
       }
-      Class<?> actualComponentType = arrayClass.getComponentType();
-      if (actualComponentType == this.arrayElementType) {
-        return array;
+      if (this.list) {
+        return this.converter.toList(array);
+      } else {
+        return this.converter.toArray(array);
       }
-      return this.convertElementType(array, actualComponentType);
     } finally {
       jdbcArray.free();
     }
   }
 
-  private Object convertElementType(Object array, Class<?> actualComponentType) {
-    if (actualComponentType != Object.class) {
-      if (actualComponentType.isPrimitive() == this.arrayElementType.isPrimitive()) {
-        throw new ClassCastException("expected array of " + this.arrayElementType + " but got array of " + actualComponentType);
-      }
+  @Override
+  public String toString() {
+    String elementType = ToStringUtils.classNameToString(this.arrayElementType);
+    return this.getClass().getSimpleName() + '[' + (this.list ? "List<" + elementType + '>' : elementType) + ']';
+  }
+}
+
+/**
+ * Extracts a PL/SQL index-by table out parameter as an array or list.
+ *
+ * <p>Primitive element types are read directly by the driver, others are
+ * converted from {@code BigDecimal[]} or {@code String[]} so that
+ * {@code null} elements are preserved.</p>
+ */
+final class IndexTableResultExtractor implements ResultExtractor {
+
+  private final Class<?> arrayElementType;
+  private final boolean list;
+  private final Class<?> readType;
+  private final ArrayConverter converter;
+
+  IndexTableResultExtractor(Class<?> arrayElementType, boolean list) {
+    this.arrayElementType = arrayElementType;
+    this.list = list;
+    this.readType = arrayElementType.isPrimitive()
+            ? java.lang.reflect.Array.newInstance(arrayElementType, 0).getClass()
+            : Object[].class;
+    this.converter = ArrayConverter.forElementType(arrayElementType);
+  }
+
+  @Override
+  public Object extractResult(CallableStatement statement, OutParameterRegistration outParameterRegistration, Object[] args) throws SQLException {
+    statement.execute();
+    Object array = outParameterRegistration.getOutParamter(statement, this.readType);
+    if (array == null) {
+      return null;
     }
-    int length = java.lang.reflect.Array.getLength(array);
-    Object value = java.lang.reflect.Array.newInstance(this.arrayElementType, length);
-    for (int i = 0; i < length; ++i) {
-      Object elementValue = java.lang.reflect.Array.get(array, i);
-      java.lang.reflect.Array.set(value, i, elementValue);
+    if (this.list) {
+      return this.converter.toList(array);
+    } else {
+      return this.converter.toArray(array);
     }
-    return value;
   }
 
   @Override
   public String toString() {
-    return this.getClass().getSimpleName() +'[' + ToStringUtils.classNameToString(this.arrayElementType) + ']';
+    String elementType = ToStringUtils.classNameToString(this.arrayElementType);
+    return this.getClass().getSimpleName() + '[' + (this.list ? "List<" + elementType + '>' : elementType) + ']';
   }
+
 }
 
 final class OracleArrayResultExtractor implements ResultExtractor {
@@ -0,0 +1,197 @@
+package com.github.marschall.storedprocedureproxy;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Method;
+import java.sql.CallableStatement;
+import java.sql.SQLException;
+
+import org.postgresql.PGStatement;
+
+/**
+ * Vendor specific tuning of a statement applied after it has been
+ * prepared.
+ */
+interface StatementTuning {
+
+  void tune(CallableStatement statement) throws SQLException;
+
+}
+
+/**
+ * Does not tune the statement.
+ */
+final class NoStatementTuning implements StatementTuning {
+
+  static final StatementTuning INSTANCE = new NoStatementTuning();
+
+  private NoStatementTuning() {
+    super();
+  }
+
+  @Override
+  public void tune(CallableStatement statement) {
+    // nothing
+  }
+
+  @Override
+  public String toString() {
+    return this.getClass().getSimpleName();
+  }
+
+}
+
+/**
+ * Sets the prepare threshold of a PostgreSQL statement.
+ *
+ * @see PGStatement#setPrepareThreshold(int)
+ */
+final class PgPrepareThreshold implements StatementTuning {
+
+  private static final Class<?> PG_STATEMENT;
+
+  static {
+    Class<?> pgStatement;
+    try {
+      pgStatement = Class.forName("org.postgresql.PGStatement");
+    } catch (ClassNotFoundException e) {
+      pgStatement = null;
+    }
+    PG_STATEMENT = pgStatement;
+  }
+
+  private final int threshold;
+
+  PgPrepareThreshold(int threshold) {
+    this.threshold = threshold;
+  }
+
+  static boolean isSupported() {
+    return PG_STATEMENT != null;
+  }
+
+  @Override
+  public void tune(CallableStatement statement) throws SQLException {
+    if (statement.isWrapperFor(PG_STATEMENT)) {
+      PgStatementSupport.setPrepareThreshold(statement, this.threshold);
+    }
+  }
+
+  @Override
+  public String toString() {
+    return this.getClass().getSimpleName() + "[threshold=" + this.threshold + ']';
+  }
+
+}
+
+/**
+ * Isolates the references to the PostgreSQL driver so that they are only
+ * resolved when the driver is present.
+ */
+final class PgStatementSupport {
+
+  private PgStatementSupport() {
+    throw new AssertionError("not instantiable");
+  }
+
+  static void setPrepareThreshold(CallableStatement statement, int threshold) throws SQLException {
+    statement.unwrap(PGStatement.class).setPrepareThreshold(threshold);
+  }
+
+}
+
+/**
+ * Sets the LOB prefetch size of an Oracle statement, applies to LOB out
+ * parameters and return values but not to ref cursors.
+ */
+final class OracleLobPrefetchSize implements StatementTuning {
+
+  private static final Class<?> ORACLE_STATEMENT;
+  private static final MethodHandle SET_LOB_PREFETCH_SIZE;
+
+  static {
+    // https://docs.oracle.com/en/database/oracle/oracle-database/12.2/jajdb/oracle/jdbc/OracleStatement.html#setLobPrefetchSize-int-
+    Class<?> oracleStatement;
+    MethodHandle setLobPrefetchSize;
+    try {
+      oracleStatement = Class.forName("oracle.jdbc.OracleStatement");
+      Method setLobPrefetchSizeMethod = oracleStatement.getMethod("setLobPrefetchSize", int.class);
+      setLobPrefetchSize = MethodHandles.publicLookup().unreflect(setLobPrefetchSizeMethod);
+    } catch (ReflectiveOperationException e) {
+      oracleStatement = null;
+      setLobPrefetchSize = null;
+    }
+    ORACLE_STATEMENT = oracleStatement;
+    SET_LOB_PREFETCH_SIZE = setLobPrefetchSize;
+  }
+
+  private final int size;
+
+  OracleLobPrefetchSize(int size) {
+    this.size = size;
+  }
+
+  static boolean isSupported() {
+    return SET_LOB_PREFETCH_SIZE != null;
+  }
+
+  @Override
+  public void tune(CallableStatement statement) throws SQLException {
+    if (statement.isWrapperFor(ORACLE_STATEMENT)) {
+      Object oracleStatement = statement.unwrap(ORACLE_STATEMENT);
+      try {
+        SET_LOB_PREFETCH_SIZE.invoke(oracleStatement, this.size);
+      } catch (SQLException e) {
+        throw e;
+      } catch (RuntimeException e) {
+        throw e;
+      } catch (Error e) {
+        throw e;
+      } catch (Throwable e) {
+        // should not happen, does not fall into type signature
+        throw new RuntimeException("unknwon exception occured when calling " + SET_LOB_PREFETCH_SIZE, e);
+      }
+    }
+  }
+
+  @Override
+  public String toString() {
+    return this.getClass().getSimpleName() + "[size=" + this.size + ']';
+  }
+
+}
+
+/**
+ * Applies several tunings.
+ */
+final class CompositeStatementTuning implements StatementTuning {
+
+  private final StatementTuning[] tunings;
+
+  CompositeStatementTuning(StatementTuning[] tunings) {
+    this.tunings = tunings;
+  }
+
+  @Override
+  public void tune(CallableStatement statement) throws SQLException {
+    for (StatementTuning tuning : this.tunings) {
+      tuning.tune(statement);
+    }
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder builder = new StringBuilder();
+    builder.append(this.getClass().getSimpleName());
+    builder.append('[');
+    for (int i = 0; i < this.tunings.length; i++) {
+      if (i > 0) {
+        builder.append(", ");
+      }
+      builder.append(this.tunings[i]);
+    }
+    builder.append(']');
+    return builder.toString();
+  }
+
+}
@@ -0,0 +1,137 @@
+package com.github.marschall.storedprocedureproxy;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodHandles.Lookup;
+import java.lang.reflect.Method;
+
+/**
+ * Converts collection elements into table rows.
+ *
+ * <p>Records are supported when running on Java 16 or later, their
+ * components are looked up reflectively since the code has to run on
+ * Java 8.</p>
+ */
+final class TableRows {
+
+  private static final MethodHandle IS_RECORD;
+  private static final MethodHandle GET_RECORD_COMPONENTS;
+  private static final MethodHandle GET_ACCESSOR;
+
+  private static final ClassValue<MethodHandle[]> ACCESSORS = new ClassValue<MethodHandle[]>() {
+
+    @Override
+    protected MethodHandle[] computeValue(Class<?> type) {
+      return lookUpAccessors(type);
+    }
+
+  };
+
+  static {
+    MethodHandle isRecord;
+    MethodHandle getRecordComponents;
+    MethodHandle getAccessor;
+    try {
+      Lookup lookup = MethodHandles.publicLookup();
+      isRecord = lookup.unreflect(Class.class.getMethod("isRecord"));
+      getRecordComponents = lookup.unreflect(Class.class.getMethod("getRecordComponents"));
+      Class<?> recordComponent = Class.forName("java.lang.reflect.RecordComponent");
+      getAccessor = lookup.unreflect(recordComponent.getMethod("getAccessor"));
+    } catch (ReflectiveOperationException e) {
+      // Java 15 or earlier
+      isRecord = null;
+      getRecordComponents = null;
+      getAccessor = null;
+    }
+    IS_RECORD = isRecord;
+    GET_RECORD_COMPONENTS = getRecordComponents;
+    GET_ACCESSOR = getAccessor;
+  }
+
+  private TableRows() {
+    throw new AssertionError("not instantiable");
+  }
+
+  /**
+   * Converts an element into the column values of a row.
+   *
+   * @param element the element, not {@code null}
+   * @return the column values, the element itself if it is an
+   *         {@code Object[]}, the record components if it is a record or
+   *         a single column otherwise
+   */
+  static Object[] toRow(Object element) {
+    if (element instanceof Object[]) {
+      return (Object[]) element;
+    }
+    MethodHandle[] accessors = ACCESSORS.get(element.getClass());
+    if (accessors == null) {
+      return new Object[] {element};
+    }
+    return toRow(element, accessors);
+  }
+
+  /**
+   * Converts a record into the column values of a row.
+   *
+   * @param record the record, not {@code null}
+   * @param accessors the accessors of the record components as returned
+   *        by {@link #lookUpAccessors(Class)}
+   * @return the record components
+   */
+  static Object[] toRow(Object record, MethodHandle[] accessors) {
+    Object[] row = new Object[accessors.length];
+    for (int i = 0; i < accessors.length; i++) {
+      row[i] = invoke(accessors[i], record);
+    }
+    return row;
+  }
+
+  /**
+   * Looks up the accessors of the components of a record class.
+   *
+   * @param type the class to look up
+   * @return the accessors in declaration order, {@code null} if the class
+   *         is not a record
+   */
+  static MethodHandle[] lookUpAccessors(Class<?> type) {
+    if (IS_RECORD == null) {
+      return null;
+    }
+    try {
+      if (!(boolean) IS_RECORD.invoke(type)) {
+        return null;
+      }
+      Object[] components = (Object[]) GET_RECORD_COMPONENTS.invoke(type);
+      MethodHandle[] accessors = new MethodHandle[components.length];
+      Lookup lookup = MethodHandles.lookup();
+      for (int i = 0; i < components.length; i++) {
+        Method accessor = (Method) GET_ACCESSOR.invoke(components[i]);
+        // records declared in non-public classes
+        accessor.setAccessible(true);
+        accessors[i] = lookup.unreflect(accessor);
+      }
+      return accessors;
+    } catch (RuntimeException e) {
+      throw e;
+    } catch (Error e) {
+      throw e;
+    } catch (Throwable e) {
+      throw new IllegalArgumentException("could not access components of record: " + type, e);
+    }
+  }
+
+  private static Object invoke(MethodHandle accessor, Object record) {
+    try {
+      return accessor.invoke(record);
+    } catch (RuntimeException e) {
+      throw e;
+    } catch (Error e) {
+      throw e;
+    } catch (Throwable e) {
+      // should not happen, accessors do not throw checked exceptions
+      throw new RuntimeException("unknwon exception occured when calling " + accessor, e);
+    }
+  }
+
+}
@@ -9,7 +9,8 @@ final class ValueExtractorUtils {
   static boolean isAnyValueExtractor(Class<?> clazz) {
     return isValueExtractor(clazz)
 //            || isFunction(clazz)
-            || isNumberedValueExtractor(clazz);
+            || isNumberedValueExtractor(clazz)
+            || isCursorExport(clazz);
   }
 
   static boolean isValueExtractor(Class<?> clazz) {
@@ -20,6 +21,10 @@ final class ValueExtractorUtils {
     return clazz.isAssignableFrom(NumberedValueExtractor.class);
   }
 
+  static boolean isCursorExport(Class<?> clazz) {
+    return clazz == CursorExport.class;
+  }
+
 //  static boolean isFunction(Class<?> clazz) {
 //    return clazz.isAssignableFrom(Function.class);
 //  }
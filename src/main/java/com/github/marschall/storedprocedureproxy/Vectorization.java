@@ -0,0 +1,119 @@
+package com.github.marschall.storedprocedureproxy;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.Array;
+import java.util.Collection;
+import java.util.List;
+
+import com.github.marschall.storedprocedureproxy.annotations.Vectorized;
+
+/**
+ * Transposes the rows of a {@link Vectorized} argument into one array
+ * per column and checks that the procedure returned one result for
+ * every row.
+ *
+ * <p>This class is immutable.</p>
+ *
+ * @see Vectorized
+ */
+final class Vectorization {
+
+  private final int columnCount;
+
+  /**
+   * The accessors of the record components, {@code null} if the rows
+   * are {@code Object[]}.
+   */
+  private final MethodHandle[] accessors;
+
+  Vectorization(int columnCount, MethodHandle[] accessors) {
+    if ((accessors != null) && (accessors.length != columnCount)) {
+      throw new IllegalArgumentException("expected " + columnCount + " record components but was: " + accessors.length);
+    }
+    this.columnCount = columnCount;
+    this.accessors = accessors;
+  }
+
+  int getColumnCount() {
+    return this.columnCount;
+  }
+
+  /**
+   * Transposes the rows of the argument into one array per column.
+   *
+   * @param args the arguments of the call
+   * @return the column arrays in order
+   */
+  Object[] transpose(Object[] args) {
+    Object[] rows = toRows(args[0]);
+    Object[][] columns = new Object[this.columnCount][rows.length];
+    for (int i = 0; i < rows.length; i++) {
+      Object[] row = this.toColumnValues(rows[i]);
+      for (int j = 0; j < this.columnCount; j++) {
+        columns[j][i] = row[j];
+      }
+    }
+    return columns;
+  }
+
+  private static Object[] toRows(Object elements) {
+    if (elements == null) {
+      throw new IllegalArgumentException("vectorized argument must not be null");
+    }
+    if (elements instanceof Collection) {
+      return ((Collection<?>) elements).toArray();
+    }
+    return (Object[]) elements;
+  }
+
+  private Object[] toColumnValues(Object element) {
+    if (element == null) {
+      throw new IllegalArgumentException("vectorized argument must not contain null");
+    }
+    Object[] row;
+    if (this.accessors != null) {
+      row = TableRows.toRow(element, this.accessors);
+    } else {
+      row = (Object[]) element;
+    }
+    if (row.length != this.columnCount) {
+      throw new IllegalArgumentException("expected " + this.columnCount + " columns but got: " + row.length);
+    }
+    return row;
+  }
+
+  /**
+   * Checks that the result has one element for every row.
+   *
+   * @param args the arguments of the call before transposing
+   * @param result the result of the call, {@code null} for procedures
+   *        without a result
+   * @return the result
+   */
+  Object checkResult(Object[] args, Object result) {
+    if (result == null) {
+      return null;
+    }
+    int rowCount = size(args[0]);
+    int resultCount = result instanceof List ? ((List<?>) result).size() : Array.getLength(result);
+    if (resultCount != rowCount) {
+      throw ProcedureCallerFactory.newIncorrectResultSizeException(rowCount, resultCount);
+    }
+    return result;
+  }
+
+  private static int size(Object elements) {
+    if (elements instanceof Collection) {
+      return ((Collection<?>) elements).size();
+    } else {
+      return ((Object[]) elements).length;
+    }
+  }
+
+  @Override
+  public String toString() {
+    return this.getClass().getSimpleName() + "[columnCount=" + this.columnCount
+            + (this.accessors != null ? ", record" : "") + ']';
+  }
+
+}
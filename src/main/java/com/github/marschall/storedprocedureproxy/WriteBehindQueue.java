@@ -0,0 +1,256 @@
+package com.github.marschall.storedprocedureproxy;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.github.marschall.storedprocedureproxy.annotations.WriteBehind;
+import com.github.marschall.storedprocedureproxy.annotations.WriteBehind.Backpressure;
+import com.github.marschall.storedprocedureproxy.spi.WriteBehindFailureHandler;
+
+/**
+ * Queues the calls of a {@link WriteBehind} procedure and flushes them
+ * in batches.
+ *
+ * <p>The calls are held in a non-blocking queue, the capacity is
+ * enforced with a semaphore whose permits are only released after a
+ * batch has been executed so that a slow database slows down the
+ * callers rather than the queue growing.</p>
+ *
+ * <p>Flushes are started periodically and as soon as a batch size of
+ * calls is queued. Only one flush runs at a time, a flush drains the
+ * queue until it is empty.</p>
+ *
+ * <p>This class is thread safe.</p>
+ */
+final class WriteBehindQueue {
+
+  private final String procedureName;
+
+  private final int batchSize;
+
+  private final long flushInterval;
+
+  private final Backpressure backpressure;
+
+  private final ScheduledExecutorService executor;
+
+  private final WriteBehindFailureHandler failureHandler;
+
+  private final BatchCall batchCall;
+
+  private final Queue<Object[]> queue;
+
+  /**
+   * Permits for calls that are neither queued nor being executed.
+   */
+  private final Semaphore capacity;
+
+  /**
+   * The number of queued calls, cheaper than {@link Queue#size()}.
+   */
+  private final AtomicInteger size;
+
+  private final AtomicBoolean started;
+
+  private final AtomicBoolean flushScheduled;
+
+  private final Lock flushLock;
+
+  private volatile ScheduledFuture<?> periodicFlush;
+
+  private volatile boolean shutdown;
+
+  WriteBehindQueue(String procedureName, int queueCapacity, int batchSize, long flushInterval,
+          Backpressure backpressure, ScheduledExecutorService executor,
+          WriteBehindFailureHandler failureHandler, BatchCall batchCall) {
+    this.procedureName = procedureName;
+    this.batchSize = batchSize;
+    this.flushInterval = flushInterval;
+    this.backpressure = backpressure;
+    this.executor = executor;
+    this.failureHandler = failureHandler;
+    this.batchCall = batchCall;
+    this.queue = new ConcurrentLinkedQueue<>();
+    this.capacity = new Semaphore(queueCapacity);
+    this.size = new AtomicInteger();
+    this.started = new AtomicBoolean();
+    this.flushScheduled = new AtomicBoolean();
+    this.flushLock = new ReentrantLock();
+  }
+
+  /**
+   * Queues a call.
+   *
+   * @param args the arguments of the call
+   * @return {@code true} if the call was queued or dropped,
+   *         {@code false} if the caller has to execute the call
+   */
+  boolean enqueue(Object[] args) {
+    if (this.shutdown) {
+      return false;
+    }
+    if (!this.capacity.tryAcquire()) {
+      switch (this.backpressure) {
+        case BLOCK:
+          this.capacity.acquireUninterruptibly();
+          break;
+        case DROP:
+          return true;
+        case CALLER_RUNS:
+          return false;
+        default:
+          throw new IllegalStateException("unknown backpressure: " + this.backpressure);
+      }
+    }
+    this.queue.offer(args != null ? args : new Object[0]);
+    this.start();
+    if (this.size.incrementAndGet() >= this.batchSize) {
+      this.scheduleFlush();
+    }
+    if (this.shutdown) {
+      // raced with shutdown, make sure the call is not lost
+      this.flush();
+    }
+    return true;
+  }
+
+  private void start() {
+    if (!this.started.get() && this.started.compareAndSet(false, true)) {
+      this.periodicFlush = this.executor.scheduleWithFixedDelay(this::backgroundFlush,
+              this.flushInterval, this.flushInterval, MILLISECONDS);
+      if (this.shutdown) {
+        this.periodicFlush.cancel(false);
+      }
+    }
+  }
+
+  private void scheduleFlush() {
+    if (!this.flushScheduled.get() && this.flushScheduled.compareAndSet(false, true)) {
+      this.executor.execute(() -> {
+        this.flushScheduled.set(false);
+        this.backgroundFlush();
+      });
+    }
+  }
+
+  private void backgroundFlush() {
+    // if a flush is already running it drains the queue
+    if (this.flushLock.tryLock()) {
+      try {
+        this.drain();
+      } finally {
+        this.flushLock.unlock();
+      }
+    }
+  }
+
+  /**
+   * Executes all queued calls on the current thread.
+   */
+  void flush() {
+    this.flushLock.lock();
+    try {
+      this.drain();
+    } finally {
+      this.flushLock.unlock();
+    }
+  }
+
+  private void drain() {
+    List<Object[]> batch = this.poll();
+    while (!batch.isEmpty()) {
+      try {
+        this.batchCall.call(batch);
+      } catch (Throwable e) {
+        // keep draining, the next batch may succeed
+        notifyFailure(this.failureHandler, this.procedureName, batch, e);
+      } finally {
+        this.capacity.release(batch.size());
+      }
+      batch = this.poll();
+    }
+  }
+
+  /**
+   * Notifies the failure handler of a failed batch.
+   *
+   * <p>Never throws, an exception thrown from a periodic flush would
+   * silently cancel all later flushes. Exceptions thrown by the handler
+   * are passed to the uncaught exception handler of the current
+   * thread.</p>
+   */
+  static void notifyFailure(WriteBehindFailureHandler failureHandler, String procedureName,
+          List<Object[]> batch, Throwable failure) {
+    Thread thread = Thread.currentThread();
+    try {
+      Exception exception;
+      if (failure instanceof Exception) {
+        exception = (Exception) failure;
+      } else {
+        exception = new RuntimeException("unknwon exception occured when calling " + procedureName, failure);
+      }
+      failureHandler.onFailure(procedureName, Collections.unmodifiableList(batch), exception);
+    } catch (Throwable e) {
+      thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+    }
+  }
+
+  private List<Object[]> poll() {
+    List<Object[]> batch = new ArrayList<>(Math.min(this.size.get(), this.batchSize));
+    Object[] args = this.queue.poll();
+    while (args != null) {
+      this.size.decrementAndGet();
+      batch.add(args);
+      if (batch.size() == this.batchSize) {
+        break;
+      }
+      args = this.queue.poll();
+    }
+    return batch;
+  }
+
+  /**
+   * Stops the periodic flushing and executes all queued calls on the
+   * current thread. Calls made afterwards are not queued.
+   */
+  void shutdown() {
+    this.shutdown = true;
+    ScheduledFuture<?> future = this.periodicFlush;
+    if (future != null) {
+      future.cancel(false);
+    }
+    this.flush();
+  }
+
+  @Override
+  public String toString() {
+    return this.getClass().getSimpleName() + "[procedureName=" + this.procedureName
+            + ", batchSize=" + this.batchSize
+            + ", flushInterval=" + this.flushInterval
+            + ", backpressure=" + this.backpressure
+            + (this.shutdown ? ", shutdown" : "") + ']';
+  }
+
+  /**
+   * Executes a batch of calls.
+   */
+  @FunctionalInterface
+  interface BatchCall {
+
+    void call(List<Object[]> batch) throws Exception;
+
+  }
+
+}
@@ -0,0 +1,33 @@
+package com.github.marschall.storedprocedureproxy;
+
+import java.sql.SQLXML;
+
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+
+/**
+ * Writes the content of a {@link SQLXML} in parameter.
+ *
+ * <p>Declaring a procedure parameter of this type allows to pass
+ * large documents without building a DOM or {@link String} first.
+ * The callback is invoked once per call with a writer into a fresh
+ * {@link SQLXML} obtained through
+ * {@link SQLXML#setResult(Class) setResult(StAXResult.class)}.</p>
+ *
+ * <p>Implementations should only write the content, the start and end
+ * of the document are written by the caller.</p>
+ */
+@FunctionalInterface
+public interface XMLStreamWriterCallback {
+
+  /**
+   * Writes the document content.
+   *
+   * <p>Implementations should not close the writer.</p>
+   *
+   * @param writer the writer into the {@link SQLXML}, not {@code null}
+   * @throws XMLStreamException propagated if a method on {@link XMLStreamWriter} throws an exception
+   */
+  void write(XMLStreamWriter writer) throws XMLStreamException;
+
+}
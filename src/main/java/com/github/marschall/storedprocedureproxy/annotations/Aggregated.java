@@ -0,0 +1,48 @@
+package com.github.marschall.storedprocedureproxy.annotations;
+
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+/**
+ * Adds up the deltas of calls to a counter procedure like
+ * {@code increment_counter(key, delta)} and calls the procedure once per
+ * key with the sum of the deltas later in the background.
+ *
+ * <p>The last parameter of the method is the delta and has to be an
+ * {@code int} or {@code long}, all other parameters form the key and
+ * have to implement {@link Object#equals(Object)} and
+ * {@link Object#hashCode()}. The method has to return {@code void}.</p>
+ *
+ * <p>The sums are flushed in one batch on their own connection and
+ * therefore outside of any transaction of the caller. Failures are
+ * reported to the failure handler, the deltas of a failed flush are
+ * not retried.</p>
+ *
+ * @see com.github.marschall.storedprocedureproxy.ProcedureCallerFactory#withWriteBehind(java.util.concurrent.ScheduledExecutorService, com.github.marschall.storedprocedureproxy.spi.WriteBehindFailureHandler)
+ * @see com.github.marschall.storedprocedureproxy.ProcedureCallerFactory#shutdownWriteBehind(Object)
+ */
+@Documented
+@Retention(RUNTIME)
+@Target(METHOD)
+public @interface Aggregated {
+
+  /**
+   * The interval in milliseconds in which the sums are flushed.
+   *
+   * @return the flush interval in milliseconds
+   */
+  long flushInterval() default 1000L;
+
+  /**
+   * The number of distinct keys at which a flush is started before the
+   * flush interval elapsed.
+   *
+   * @return the maximum number of keys
+   */
+  int maxKeys() default 1000;
+
+}
@@ -0,0 +1,48 @@
+package com.github.marschall.storedprocedureproxy.annotations;
+
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+/**
+ * Caches the results of a pure or read-mostly procedure by its
+ * arguments.
+ *
+ * <p>Arguments are compared with
+ * {@link java.util.Arrays#deepEquals(Object[], Object[])}. Concurrent
+ * calls with equal arguments that miss the cache are
+ * {@link Coalesced coalesced}. When the cache is full a frequency
+ * sketch decides whether a new result replaces an old one so that
+ * rarely used results do not push out frequently used ones.</p>
+ *
+ * <p>Array arguments are copied when a result is cached, collection
+ * arguments are not and must not be modified afterwards. Since callers
+ * share the cached result it should not be modified. Methods returning
+ * {@code void} or streams can not be cached.</p>
+ *
+ * @see com.github.marschall.storedprocedureproxy.ProcedureCallerFactory#invalidateCache(Object)
+ * @see com.github.marschall.storedprocedureproxy.ProcedureCallerFactory#invalidateCache(Object, java.util.function.Consumer)
+ */
+@Documented
+@Retention(RUNTIME)
+@Target(METHOD)
+public @interface Cached {
+
+  /**
+   * The time in milliseconds after which a cached result expires.
+   *
+   * @return the time to live in milliseconds
+   */
+  long ttl() default 60000L;
+
+  /**
+   * The maximum number of results that are cached.
+   *
+   * @return the maximum number of entries
+   */
+  int maxEntries() default 1000;
+
+}
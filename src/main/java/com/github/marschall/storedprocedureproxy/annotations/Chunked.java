@@ -0,0 +1,61 @@
+package com.github.marschall.storedprocedureproxy.annotations;
+
+import static java.lang.annotation.ElementType.PARAMETER;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+/**
+ * Splits an array or collection argument with more elements than the
+ * chunk size into chunks and calls the procedure once for every chunk.
+ *
+ * <p>The results are merged in the order of the chunks. Lists and
+ * arrays are concatenated. {@code int} and {@code long} results like
+ * update counts are only summed up if {@link #sumResults()} is set.
+ * Methods returning anything else can not be chunked.</p>
+ *
+ * <p>Only one parameter of a method can be chunked.</p>
+ *
+ * <p>Note that chunks are not called atomically, if a call fails the
+ * previous chunks may have been committed unless a transaction spans
+ * all the calls.</p>
+ *
+ * @see com.github.marschall.storedprocedureproxy.ProcedureCallerFactory#withChunkExecutor(java.util.concurrent.Executor)
+ */
+@Documented
+@Retention(RUNTIME)
+@Target(PARAMETER)
+public @interface Chunked {
+
+  /**
+   * The maximum number of elements passed in one call.
+   *
+   * @return the chunk size
+   */
+  int value();
+
+  /**
+   * Whether the chunks should be called in parallel. Every chunk uses
+   * its own connection and therefore its own transaction. Requires a
+   * chunk executor to be configured.
+   *
+   * <p>If a chunk fails the chunks that have not started yet are
+   * cancelled and the failures of other chunks are added as
+   * suppressed.</p>
+   *
+   * @return whether the chunks should be called in parallel
+   */
+  boolean parallel() default false;
+
+  /**
+   * Whether the {@code int} or {@code long} results of the chunks, for
+   * example update counts, should be summed up. Only set this if the
+   * sum is meaningful, not for status codes or lookups.
+   *
+   * @return whether the results should be summed up
+   */
+  boolean sumResults() default false;
+
+}
@@ -0,0 +1,29 @@
+package com.github.marschall.storedprocedureproxy.annotations;
+
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a read-only procedure whose concurrent calls with equal
+ * arguments can be coalesced.
+ *
+ * <p>If a call with equal arguments is already running, the caller
+ * waits for it and gets the same result or exception instead of
+ * calling the procedure again. Arguments are compared with
+ * {@link java.util.Arrays#deepEquals(Object[], Object[])}. Nothing is
+ * cached, once a call completed the next call runs the procedure
+ * again.</p>
+ *
+ * <p>Since callers share the result it should not be modified. Methods
+ * returning {@code void} or streams can not be coalesced.</p>
+ */
+@Documented
+@Retention(RUNTIME)
+@Target(METHOD)
+public @interface Coalesced {
+
+}
@@ -0,0 +1,51 @@
+package com.github.marschall.storedprocedureproxy.annotations;
+
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.ElementType.PARAMETER;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+/**
+ * Binds an array or collection as an Oracle PL/SQL index-by table
+ * (associative array) instead of a SQL collection type.
+ *
+ * <p>When applied to a parameter the argument is bound as an in
+ * parameter. When applied to a method the out parameter is read as
+ * an index-by table, the method has to return an array or a
+ * {@link java.util.List}.</p>
+ *
+ * <p>Only numbers and strings are supported as elements. Index-by tables
+ * can only be bound by index, parameters declared by name have to be
+ * resolved to indices.</p>
+ *
+ * <p>Requires the Oracle driver.</p>
+ *
+ * @see <a href="https://docs.oracle.com/en/database/oracle/oracle-database/19/jjdbc/accessing-PL-SQL-associative-arrays.html">Accessing PL/SQL Associative Arrays</a>
+ */
+@Documented
+@Retention(RUNTIME)
+@Target({PARAMETER, METHOD})
+public @interface IndexTable {
+
+  /**
+   * The maximum number of elements of the table. Has to be set for out
+   * parameters. For in parameters the number of elements passed is used
+   * if larger.
+   *
+   * @return the maximum number of elements
+   */
+  int maxLength() default 0;
+
+  /**
+   * The maximum length of each string element. Has to be set for string
+   * out parameters. For in parameters the length of the longest string
+   * passed is used if not set.
+   *
+   * @return the maximum length of a string element
+   */
+  int elementLength() default 0;
+
+}
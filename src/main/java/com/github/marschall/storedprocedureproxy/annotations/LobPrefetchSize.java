@@ -0,0 +1,42 @@
+package com.github.marschall.storedprocedureproxy.annotations;
+
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.ElementType.TYPE;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+/**
+ * Allows manual control over how much LOB data the Oracle driver
+ * fetches together with the LOB locators.
+ *
+ * <p>If the LOBs returned by a procedure as out parameters or return
+ * values are small enough to be prefetched entirely reading them
+ * requires no additional round trips.</p>
+ *
+ * <p>Only applies to the call itself. LOB columns of rows read from a
+ * ref cursor are fetched by the cursor which is not affected.</p>
+ *
+ * <p>When applied to an interface applies to all methods in the class
+ * unless also applied to a method.</p>
+ *
+ * <p>Ignored if the driver is not the Oracle driver.</p>
+ *
+ * @see FetchSize
+ */
+@Documented
+@Retention(RUNTIME)
+@Target({METHOD, TYPE})
+public @interface LobPrefetchSize {
+
+  /**
+   * The number of bytes or characters of each LOB to prefetch,
+   * -1 to disable LOB prefetching.
+   *
+   * @return the LOB prefetch size
+   */
+  int value();
+
+}
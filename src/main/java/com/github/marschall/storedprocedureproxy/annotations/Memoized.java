@@ -0,0 +1,29 @@
+package com.github.marschall.storedprocedureproxy.annotations;
+
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a read-only procedure whose results are remembered within a
+ * {@link com.github.marschall.storedprocedureproxy.MemoizationScope}.
+ *
+ * <p>Inside a scope, repeated calls with equal arguments return the
+ * result of the first call instead of calling the procedure again.
+ * Arguments are compared with
+ * {@link java.util.Arrays#deepEquals(Object[], Object[])}. Exceptions are
+ * not remembered. Outside a scope the procedure is always called,
+ * nothing is cached globally.</p>
+ *
+ * <p>Since callers share the result it should not be modified. Methods
+ * returning {@code void} or streams can not be memoized.</p>
+ */
+@Documented
+@Retention(RUNTIME)
+@Target(METHOD)
+public @interface Memoized {
+
+}
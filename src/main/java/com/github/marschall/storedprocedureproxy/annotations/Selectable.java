@@ -0,0 +1,39 @@
+package com.github.marschall.storedprocedureproxy.annotations;
+
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import com.github.marschall.storedprocedureproxy.ProcedureCallerFactory.ParameterRegistration;
+
+/**
+ * Signals that the procedure returns rows and should be selected from
+ * rather than called.
+ *
+ * <p>You would use this for PostgreSQL set returning functions, Firebird
+ * selectable procedures or H2 table functions. Returning the rows
+ * directly is cheaper than returning a cursor and allows the driver to
+ * fetch the rows incrementally as specified by {@link FetchSize}.</p>
+ *
+ * <p>Causes a call string to be generated in the form of
+ * {@code "SELECT * FROM function_name(?)"} instead of
+ * {@code "{call function_name(?)}"}.</p>
+ *
+ * <p>Can not be combined with {@link OutParameter}, {@link InOutParameter}
+ * or {@link ReturnValue}. Parameters are always bound by index,
+ * {@link ParameterRegistration#NAME_ONLY} is treated as
+ * {@link ParameterRegistration#INDEX_ONLY} and
+ * {@link ParameterRegistration#NAME_AND_TYPE} as
+ * {@link ParameterRegistration#INDEX_AND_TYPE}.</p>
+ *
+ * @see FetchSize
+ */
+@Documented
+@Retention(RUNTIME)
+@Target(METHOD)
+public @interface Selectable {
+
+}
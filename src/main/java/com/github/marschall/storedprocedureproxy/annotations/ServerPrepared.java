@@ -0,0 +1,44 @@
+package com.github.marschall.storedprocedureproxy.annotations;
+
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.ElementType.TYPE;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+/**
+ * Allows manual control over when the PostgreSQL driver switches to a
+ * server side prepared statement.
+ *
+ * <p>By default the driver only does so after a statement has been
+ * executed five times. With short lived or pooled connections that
+ * don't cache statements this threshold may never be reached and the
+ * procedure call is planned again every time. Server side prepared
+ * statements also allow the driver to transfer arrays and numbers in
+ * binary.</p>
+ *
+ * <p>When applied to an interface applies to all methods in the class
+ * unless also applied to a method.</p>
+ *
+ * <p>Ignored if the driver is not the PostgreSQL driver.</p>
+ *
+ * @see <a href="https://jdbc.postgresql.org/documentation/server-prepare/">Server Prepared Statements</a>
+ */
+@Documented
+@Retention(RUNTIME)
+@Target({METHOD, TYPE})
+public @interface ServerPrepared {
+
+  /**
+   * The number of executions after which a server side prepared
+   * statement is used, 1 to use one for the first execution, 0 to
+   * never use one.
+   *
+   * @return the prepare threshold
+   * @see org.postgresql.PGStatement#setPrepareThreshold(int)
+   */
+  int threshold() default 1;
+
+}
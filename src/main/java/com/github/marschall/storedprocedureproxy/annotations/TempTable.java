@@ -0,0 +1,62 @@
+package com.github.marschall.storedprocedureproxy.annotations;
+
+import static java.lang.annotation.ElementType.PARAMETER;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+/**
+ * Stages the elements of an array or collection argument in a temporary
+ * table before the procedure is called. Useful for databases without
+ * support for array or table valued parameters.
+ *
+ * <p>The rows are inserted with a JDBC batch on the same connection
+ * that calls the procedure and therefore in the same transaction.
+ * Elements can be an {@code Object[]} holding the column values, a
+ * record whose components are the column values or a single value
+ * for tables with only one column. Instead of the elements the name of
+ * the table is passed to the procedure as a string.</p>
+ *
+ * <p>The rows are deleted after the call so that no data is left in
+ * the table of a pooled connection.</p>
+ */
+@Documented
+@Retention(RUNTIME)
+@Target(PARAMETER)
+public @interface TempTable {
+
+  /**
+   * The name of the temporary table.
+   *
+   * @return the name of the table
+   */
+  String value();
+
+  /**
+   * The statement that creates the temporary table if it does not
+   * already exist in the session, for example
+   * {@code CREATE TEMPORARY TABLE IF NOT EXISTS ids (id BIGINT)}.
+   * Executed before every call, if empty the table has to exist.
+   *
+   * @return the statement creating the table
+   */
+  String create() default "";
+
+  /**
+   * The names of the columns to insert into, if empty the values are
+   * inserted into the columns of the table in order.
+   *
+   * @return the names of the columns
+   */
+  String[] columns() default {};
+
+  /**
+   * The number of rows sent to the database in one batch.
+   *
+   * @return the batch size
+   */
+  int batchSize() default 1000;
+
+}
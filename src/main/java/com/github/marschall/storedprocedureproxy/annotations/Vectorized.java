@@ -0,0 +1,44 @@
+package com.github.marschall.storedprocedureproxy.annotations;
+
+import static java.lang.annotation.ElementType.PARAMETER;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+/**
+ * Transposes an array or collection of rows into one SQL array per
+ * column so that a procedure taking parallel arrays can be called once
+ * for all rows.
+ *
+ * <p>Elements can be an {@code Object[]} holding the column values or a
+ * record whose components are the column values. The parameter has to
+ * be the only parameter of the method.</p>
+ *
+ * <p>The method can return a list or array read from an array out
+ * parameter, the result for every row has to be at the same position
+ * as the row. If the procedure returns a different number of results
+ * than rows were passed an exception is thrown.</p>
+ *
+ * <pre><code>
+ * &#64;OutParameter(type = Types.ARRAY, typeName = "NUMBER_TABLE")
+ * List&lt;BigDecimal&gt; priceAll(&#64;Vectorized({"NUMBER_TABLE", "NUMBER_TABLE"}) List&lt;PriceRequest&gt; requests);
+ * </code></pre>
+ *
+ * <p>Vectorized parameters can only be bound by index.</p>
+ */
+@Documented
+@Retention(RUNTIME)
+@Target(PARAMETER)
+public @interface Vectorized {
+
+  /**
+   * The SQL type names of the arrays, one for every column in order.
+   *
+   * @return the type names of the arrays
+   * @see java.sql.Connection#createArrayOf(String, Object[])
+   */
+  String[] value();
+
+}
@@ -0,0 +1,84 @@
+package com.github.marschall.storedprocedureproxy.annotations;
+
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+/**
+ * Queues the calls of a {@code void} procedure and executes them later
+ * in batches on a background thread. The method returns as soon as the
+ * call is queued.
+ *
+ * <p>Useful for writes nobody waits for like audit or telemetry records.
+ * The queued calls are executed on their own connection and therefore
+ * outside of any transaction of the caller. Failures are reported to
+ * the failure handler rather than the caller.</p>
+ *
+ * <p>Only procedures without out parameters, value extractors and
+ * streams can be written behind.</p>
+ *
+ * @see com.github.marschall.storedprocedureproxy.ProcedureCallerFactory#withWriteBehind(java.util.concurrent.ScheduledExecutorService, com.github.marschall.storedprocedureproxy.spi.WriteBehindFailureHandler)
+ * @see com.github.marschall.storedprocedureproxy.ProcedureCallerFactory#shutdownWriteBehind(Object)
+ */
+@Documented
+@Retention(RUNTIME)
+@Target(METHOD)
+public @interface WriteBehind {
+
+  /**
+   * The maximum number of calls that are queued or being executed.
+   *
+   * @return the capacity of the queue
+   */
+  int queueCapacity() default 10000;
+
+  /**
+   * The maximum number of calls executed in one batch. A flush is
+   * started as soon as this number of calls is queued.
+   *
+   * @return the batch size
+   */
+  int batchSize() default 100;
+
+  /**
+   * The interval in milliseconds in which queued calls are flushed
+   * even if fewer than the batch size are queued.
+   *
+   * @return the flush interval in milliseconds
+   */
+  long flushInterval() default 1000L;
+
+  /**
+   * What happens with a call when the queue is full.
+   *
+   * @return the backpressure policy
+   */
+  Backpressure backpressure() default Backpressure.BLOCK;
+
+  /**
+   * What happens with a call when the queue is full.
+   */
+  enum Backpressure {
+
+    /**
+     * The caller waits until there is space in the queue.
+     */
+    BLOCK,
+
+    /**
+     * The call is discarded.
+     */
+    DROP,
+
+    /**
+     * The call is executed immediately on the thread of the caller.
+     * Failures are thrown to the caller.
+     */
+    CALLER_RUNS;
+
+  }
+
+}
@@ -0,0 +1,109 @@
+package com.github.marschall.storedprocedureproxy.spi;
+
+import java.sql.DatabaseMetaData;
+import java.util.ServiceLoader;
+
+import com.github.marschall.storedprocedureproxy.ProcedureCallerFactory;
+
+/**
+ * Bundles the vendor specific settings that give the best performance
+ * for a database.
+ *
+ * <p>A dialect configures a {@link ProcedureCallerFactory} through its
+ * public methods, eg. the array support, the type mapper or the call
+ * syntax. Settings made on the factory after a dialect has been applied
+ * take precedence.</p>
+ *
+ * <p>Additional dialects can be registered through
+ * {@link ServiceLoader}, they are consulted before the built in ones by
+ * {@link #forDatabaseProduct(String)}.</p>
+ *
+ * @see ProcedureCallerFactory#withDialect(Dialect)
+ * @see ProcedureCallerFactory#withDetectedDialect()
+ */
+public interface Dialect {
+
+  /**
+   * Whether this dialect is for a certain database.
+   *
+   * @param databaseProductName the database product name as returned by
+   *                            {@link DatabaseMetaData#getDatabaseProductName()},
+   *                            never {@code null}
+   * @return {@code true} if this dialect is for the database
+   */
+  boolean supportsDatabaseProduct(String databaseProductName);
+
+  /**
+   * Applies the settings of this dialect.
+   *
+   * @param factory the factory to configure, never {@code null}
+   */
+  void configure(ProcedureCallerFactory<?> factory);
+
+  /**
+   * The dialect for Oracle.
+   *
+   * <p>Enables the Oracle extensions and anonymous PL/SQL blocks instead
+   * of the JDBC escape syntax.</p>
+   *
+   * @return the dialect for Oracle
+   * @see ProcedureCallerFactory#withOracleExtensions()
+   * @see ProcedureCallerFactory.CallSyntax#ORACLE
+   */
+  public static Dialect oracle() {
+    return OracleDialect.INSTANCE;
+  }
+
+  /**
+   * The dialect for PostgreSQL.
+   *
+   * <p>Enables the PostgreSQL array support. The JDBC escape syntax is
+   * kept so that the driver translates it to {@code SELECT} or
+   * {@code CALL} depending on its {@code escapeSyntaxCallMode}, a
+   * {@link ProcedureCallerFactory.CallSyntax} can not call both
+   * functions and procedures.</p>
+   *
+   * @return the dialect for PostgreSQL
+   * @see ProcedureCallerFactory#withPostgresArrays()
+   * @see ProcedureCallerFactory.CallSyntax#POSTGRES
+   * @see ProcedureCallerFactory.CallSyntax#POSTGRES_CALL
+   */
+  public static Dialect postgres() {
+    return PostgresDialect.INSTANCE;
+  }
+
+  /**
+   * The dialect for SQL Server.
+   *
+   * <p>Binds collections and arrays as table valued parameters.</p>
+   *
+   * @return the dialect for SQL Server
+   * @see ProcedureCallerFactory#withSqlServerTableValuedParameters()
+   */
+  public static Dialect sqlServer() {
+    return SqlServerDialect.INSTANCE;
+  }
+
+  /**
+   * Looks up the dialect for a database.
+   *
+   * @param databaseProductName the database product name as returned by
+   *                            {@link DatabaseMetaData#getDatabaseProductName()},
+   *                            never {@code null}
+   * @return the dialect for the database, {@code null} if there is none
+   */
+  public static Dialect forDatabaseProduct(String databaseProductName) {
+    for (Dialect dialect : ServiceLoader.load(Dialect.class)) {
+      if (dialect.supportsDatabaseProduct(databaseProductName)) {
+        return dialect;
+      }
+    }
+    for (Dialect dialect : new Dialect[] {OracleDialect.INSTANCE, PostgresDialect.INSTANCE, SqlServerDialect.INSTANCE}) {
+      if (dialect.supportsDatabaseProduct(databaseProductName)) {
+        return dialect;
+      }
+    }
+    return null;
+  }
+
+}
@@ -0,0 +1,30 @@
+package com.github.marschall.storedprocedureproxy.spi;
+
+import com.github.marschall.storedprocedureproxy.ProcedureCallerFactory;
+import com.github.marschall.storedprocedureproxy.ProcedureCallerFactory.CallSyntax;
+
+final class OracleDialect implements Dialect {
+
+  static final Dialect INSTANCE = new OracleDialect();
+
+  private OracleDialect() {
+    super();
+  }
+
+  @Override
+  public boolean supportsDatabaseProduct(String databaseProductName) {
+    return databaseProductName.equals("Oracle");
+  }
+
+  @Override
+  public void configure(ProcedureCallerFactory<?> factory) {
+    factory.withOracleExtensions()
+      .withCallSyntax(CallSyntax.ORACLE);
+  }
+
+  @Override
+  public String toString() {
+    return this.getClass().getSimpleName();
+  }
+
+}
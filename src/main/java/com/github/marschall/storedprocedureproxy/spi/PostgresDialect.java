@@ -0,0 +1,30 @@
+package com.github.marschall.storedprocedureproxy.spi;
+
+import com.github.marschall.storedprocedureproxy.ProcedureCallerFactory;
+
+final class PostgresDialect implements Dialect {
+
+  static final Dialect INSTANCE = new PostgresDialect();
+
+  private PostgresDialect() {
+    super();
+  }
+
+  @Override
+  public boolean supportsDatabaseProduct(String databaseProductName) {
+    return databaseProductName.equals("PostgreSQL");
+  }
+
+  @Override
+  public void configure(ProcedureCallerFactory<?> factory) {
+    // the escape syntax lets the driver decide between SELECT and CALL
+    // based on its escapeSyntaxCallMode
+    factory.withPostgresArrays();
+  }
+
+  @Override
+  public String toString() {
+    return this.getClass().getSimpleName();
+  }
+
+}
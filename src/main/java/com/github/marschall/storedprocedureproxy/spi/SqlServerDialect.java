@@ -0,0 +1,29 @@
+package com.github.marschall.storedprocedureproxy.spi;
+
+import com.github.marschall.storedprocedureproxy.ProcedureCallerFactory;
+
+final class SqlServerDialect implements Dialect {
+
+  static final Dialect INSTANCE = new SqlServerDialect();
+
+  private SqlServerDialect() {
+    super();
+  }
+
+  @Override
+  public boolean supportsDatabaseProduct(String databaseProductName) {
+    return databaseProductName.equals("Microsoft SQL Server");
+  }
+
+  @Override
+  public void configure(ProcedureCallerFactory<?> factory) {
+    // the escape syntax is turned into a direct RPC call by the driver
+    factory.withSqlServerTableValuedParameters();
+  }
+
+  @Override
+  public String toString() {
+    return this.getClass().getSimpleName();
+  }
+
+}
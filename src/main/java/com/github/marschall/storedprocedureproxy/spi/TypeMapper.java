@@ -47,6 +47,11 @@ import com.github.marschall.storedprocedureproxy.annotations.ReturnValue;
  * <tr><td>Blob</td><td>{@link Types#BLOB}</td></tr>
  * <tr><td>Clob</td><td>{@link Types#CLOB}</td></tr>
  * <tr><td>NClob</td><td>{@link Types#NCLOB}</td></tr>
+ * <tr><td>InputStream</td><td>{@link Types#BLOB}</td></tr>
+ * <tr><td>ReadableByteChannel</td><td>{@link Types#BLOB}</td></tr>
+ * <tr><td>ByteBuffer</td><td>{@link Types#BLOB}</td></tr>
+ * <tr><td>Path</td><td>{@link Types#BLOB}</td></tr>
+ * <tr><td>Reader</td><td>{@link Types#CLOB}</td></tr>
 
  * <tr><td colspan="2">java 8 date time</td></tr>
  * <tr><td>LocalDate</td><td>{@link Types#DATE}</td></tr>
@@ -62,6 +67,10 @@ import com.github.marschall.storedprocedureproxy.annotations.ReturnValue;
 
  * <tr><td colspan="2">XML</td></tr>
  * <tr><td>SQLXML</td><td>{@link Types#SQLXML}</td></tr>
+ * <tr><td>Source</td><td>{@link Types#SQLXML}</td></tr>
+ * <tr><td>StAXSource</td><td>{@link Types#SQLXML}</td></tr>
+ * <tr><td>XMLStreamReader</td><td>{@link Types#SQLXML}</td></tr>
+ * <tr><td>XMLStreamWriterCallback</td><td>{@link Types#SQLXML}</td></tr>
  * <tr><td colspan="2">boolean</td></tr>
  * <tr><td>Boolean</td><td>{@link Types#BOOLEAN}</td></tr>
  * <tr><td>boolean</td><td>{@link Types#BOOLEAN}</td></tr>
@@ -0,0 +1,31 @@
+package com.github.marschall.storedprocedureproxy.spi;
+
+import java.util.List;
+
+import com.github.marschall.storedprocedureproxy.annotations.WriteBehind;
+
+/**
+ * Is notified when a batch of calls queued by {@link WriteBehind} fails.
+ *
+ * <p>Called on the thread flushing the queue. The calls of the batch
+ * are not retried, an implementation may log or store them.</p>
+ *
+ * <p>Implementations must not throw. Flushing continues with the next
+ * batch anyway, an exception thrown is only passed to the uncaught
+ * exception handler of the flushing thread.</p>
+ */
+@FunctionalInterface
+public interface WriteBehindFailureHandler {
+
+  /**
+   * Called when a batch of calls failed.
+   *
+   * @param procedureName the name of the procedure called
+   * @param arguments the arguments of every call in the batch
+   * @param exception the exception, translated if the method does not
+   *        declare {@link java.sql.SQLException}, an {@link Error} is
+   *        wrapped in a {@link RuntimeException}
+   */
+  void onFailure(String procedureName, List<Object[]> arguments, Exception exception);
+
+}
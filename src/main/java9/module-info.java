@@ -5,6 +5,8 @@ module com.github.marschall.stored.procedure.proxy {
   exports com.github.marschall.storedprocedureproxy.annotations;
   exports com.github.marschall.storedprocedureproxy.spi;
 
+  uses com.github.marschall.storedprocedureproxy.spi.Dialect;
+
   requires static spring.beans;
   requires static spring.core;
   requires static spring.jdbc;
@@ -0,0 +1,191 @@
+package com.github.marschall.storedprocedureproxy;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.lang.Thread.UncaughtExceptionHandler;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.github.marschall.storedprocedureproxy.annotations.Aggregated;
+import com.github.marschall.storedprocedureproxy.spi.WriteBehindFailureHandler;
+
+public class AggregatedTest {
+
+  private DataSource dataSource;
+
+  private Connection connection;
+
+  private CallableStatement statement;
+
+  private ScheduledExecutorService executor;
+
+  private List<Exception> failures;
+
+  private WriteBehindFailureHandler failureHandler;
+
+  @BeforeEach
+  public void setUp() throws SQLException {
+    this.dataSource = mock(DataSource.class);
+    this.connection = mock(Connection.class);
+    this.statement = mock(CallableStatement.class);
+    // never runs any task, flushes only happen on shutdown
+    this.executor = mock(ScheduledExecutorService.class);
+    this.failures = new ArrayList<>();
+    this.failureHandler = (procedureName, arguments, exception) -> this.failures.add(exception);
+
+    when(this.dataSource.getConnection()).thenReturn(this.connection);
+    when(this.connection.prepareCall(anyString())).thenReturn(this.statement);
+  }
+
+  @Test
+  public void sumPerKey() throws SQLException {
+    CounterProcedures procedures = this.newProcedures(CounterProcedures.class);
+
+    procedures.incrementCounter("a", 1L);
+    procedures.incrementCounter("b", 2L);
+    procedures.incrementCounter("a", 3L);
+
+    verifyNoInteractions(this.dataSource);
+
+    ProcedureCallerFactory.shutdownWriteBehind(procedures);
+
+    verify(this.connection).prepareCall("{call incrementCounter(?,?)}");
+    verify(this.statement).setString(1, "a");
+    verify(this.statement).setLong(2, 4L);
+    verify(this.statement).setString(1, "b");
+    verify(this.statement).setLong(2, 2L);
+    verify(this.statement, times(2)).addBatch();
+    verify(this.statement).executeBatch();
+    verify(this.statement, never()).execute();
+  }
+
+  @Test
+  public void zeroSumIsNotCalled() throws SQLException {
+    CounterProcedures procedures = this.newProcedures(CounterProcedures.class);
+
+    procedures.incrementCounter("a", 1L);
+    procedures.incrementCounter("a", -1L);
+    ProcedureCallerFactory.shutdownWriteBehind(procedures);
+
+    verifyNoInteractions(this.dataSource);
+  }
+
+  @Test
+  public void intOverflow() throws SQLException {
+    CounterProcedures procedures = this.newProcedures(CounterProcedures.class);
+
+    procedures.increment(Integer.MAX_VALUE);
+    procedures.increment(2);
+    ProcedureCallerFactory.shutdownWriteBehind(procedures);
+
+    verify(this.statement).setInt(1, Integer.MAX_VALUE);
+    verify(this.statement).setInt(1, 2);
+    verify(this.statement, times(2)).addBatch();
+  }
+
+  @Test
+  public void flushWhenMaxKeysReached() throws SQLException {
+    CounterProcedures procedures = this.newProcedures(CounterProcedures.class);
+
+    procedures.incrementCounter("a", 1L);
+    procedures.incrementCounter("a", 1L);
+    verify(this.executor, never()).execute(any(Runnable.class));
+
+    procedures.incrementCounter("b", 1L);
+    verify(this.executor).execute(any(Runnable.class));
+  }
+
+  @Test
+  public void callsAfterShutdown() throws SQLException {
+    CounterProcedures procedures = this.newProcedures(CounterProcedures.class);
+
+    ProcedureCallerFactory.shutdownWriteBehind(procedures);
+    procedures.incrementCounter("a", 1L);
+
+    verify(this.statement).setLong(2, 1L);
+    verify(this.statement).execute();
+  }
+
+  @Test
+  public void failure() throws SQLException {
+    when(this.statement.executeBatch()).thenThrow(new SQLException("failed"));
+    CounterProcedures procedures = this.newProcedures(CounterProcedures.class);
+
+    procedures.incrementCounter("a", 1L);
+    ProcedureCallerFactory.shutdownWriteBehind(procedures);
+
+    assertEquals(1, this.failures.size());
+  }
+
+  @Test
+  public void failingHandler() throws SQLException {
+    when(this.statement.executeBatch()).thenThrow(new SQLException("failed"));
+    this.failureHandler = (procedureName, arguments, exception) -> {
+      throw new IllegalStateException("handler failed");
+    };
+    CounterProcedures procedures = this.newProcedures(CounterProcedures.class);
+
+    procedures.incrementCounter("a", 1L);
+    Thread thread = Thread.currentThread();
+    UncaughtExceptionHandler previous = thread.getUncaughtExceptionHandler();
+    List<Throwable> uncaught = new ArrayList<>();
+    thread.setUncaughtExceptionHandler((t, e) -> uncaught.add(e));
+    try {
+      ProcedureCallerFactory.shutdownWriteBehind(procedures);
+    } finally {
+      thread.setUncaughtExceptionHandler(previous);
+    }
+
+    assertEquals(1, uncaught.size());
+  }
+
+  @Test
+  public void invalidDelta() {
+    InvalidProcedures procedures = this.newProcedures(InvalidProcedures.class);
+
+    assertThrows(IllegalArgumentException.class, () -> procedures.incrementCounter(1L, "a"));
+  }
+
+  private <T> T newProcedures(Class<T> interfaceDeclaration) {
+    return ProcedureCallerFactory.of(interfaceDeclaration, this.dataSource)
+            .withWriteBehind(this.executor, this.failureHandler)
+            .withExceptionAdapter(UncheckedSQLExceptionAdapter.INSTANCE)
+            .build();
+  }
+
+  interface CounterProcedures {
+
+    @Aggregated(maxKeys = 2)
+    void incrementCounter(String key, long delta) throws SQLException;
+
+    @Aggregated
+    void increment(int delta) throws SQLException;
+
+  }
+
+  interface InvalidProcedures {
+
+    @Aggregated
+    void incrementCounter(long delta, String key);
+
+  }
+
+}
@@ -0,0 +1,119 @@
+package com.github.marschall.storedprocedureproxy;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+public class ArrayConverterTest {
+
+  @Test
+  public void primitiveIdentity() {
+    int[] source = new int[] {1, 2};
+    assertSame(source, ArrayConverter.forElementType(int.class).toArray(source));
+  }
+
+  @Test
+  public void boxedIdentity() {
+    Long[] source = new Long[] {1L, 2L};
+    assertSame(source, ArrayConverter.forElementType(Long.class).toArray(source));
+  }
+
+  @Test
+  public void unbox() {
+    Object result = ArrayConverter.forElementType(int.class).toArray(new Integer[] {1, 2});
+    assertArrayEquals(new int[] {1, 2}, (int[]) result);
+  }
+
+  @Test
+  public void box() {
+    Object result = ArrayConverter.forElementType(Double.class).toArray(new double[] {1.0d, 2.0d});
+    assertArrayEquals(new Double[] {1.0d, 2.0d}, (Double[]) result);
+  }
+
+  @Test
+  public void bigDecimalToLong() {
+    Object result = ArrayConverter.forElementType(long.class).toArray(new BigDecimal[] {BigDecimal.ONE, new BigDecimal("2.00")});
+    assertArrayEquals(new long[] {1L, 2L}, (long[]) result);
+  }
+
+  @Test
+  public void bigDecimalToIntLosesPrecision() {
+    ArrayConverter converter = ArrayConverter.forElementType(int.class);
+    assertThrows(ArithmeticException.class, () -> converter.toArray(new BigDecimal[] {new BigDecimal("1.5")}));
+    assertThrows(ArithmeticException.class, () -> converter.toArray(new Object[] {Long.MAX_VALUE}));
+  }
+
+  @Test
+  public void doubleToLongLosesPrecision() {
+    ArrayConverter converter = ArrayConverter.forElementType(long.class);
+    assertArrayEquals(new long[] {1L, 2L}, (long[]) converter.toArray(new Object[] {1.0d, 2.0f}));
+    assertThrows(ArithmeticException.class, () -> converter.toArray(new Object[] {1.5d}));
+    assertThrows(ArithmeticException.class, () -> converter.toArray(new Object[] {Double.NaN}));
+    assertThrows(ArithmeticException.class, () -> converter.toArray(new Object[] {Float.POSITIVE_INFINITY}));
+    assertThrows(ArithmeticException.class, () -> ArrayConverter.forElementType(Integer.class).toList(new Object[] {0.5f}));
+  }
+
+  @Test
+  public void nullToPrimitive() {
+    NullPointerException exception = assertThrows(NullPointerException.class,
+            () -> ArrayConverter.forElementType(int.class).toArray(new Object[] {1, null}));
+    assertEquals("null element at index 1 can not be converted to int", exception.getMessage());
+    assertThrows(NullPointerException.class, () -> ArrayConverter.forElementType(boolean.class).toArray(new Boolean[] {null}));
+  }
+
+  @Test
+  public void mismatchedPrimitives() {
+    ArrayConverter converter = ArrayConverter.forElementType(int.class);
+    assertThrows(ClassCastException.class, () -> converter.toArray(new long[] {1L}));
+  }
+
+  @Test
+  public void boxedKeepsNull() {
+    Object result = ArrayConverter.forElementType(Short.class).toArray(new Object[] {1, null});
+    assertArrayEquals(new Short[] {(short) 1, null}, (Short[]) result);
+  }
+
+  @Test
+  public void listFromPrimitive() {
+    List<?> result = ArrayConverter.forElementType(Integer.class).toList(new int[] {1, 2});
+    assertEquals(Arrays.asList(1, 2), result);
+  }
+
+  @Test
+  public void listFromObjectArrayInPlace() {
+    Object[] source = new Object[] {BigDecimal.ONE, 2L, null};
+    List<?> result = ArrayConverter.forElementType(Long.class).toList(source);
+    assertEquals(Arrays.asList(1L, 2L, null), result);
+    // no second copy
+    assertEquals(1L, source[0]);
+  }
+
+  @Test
+  public void reference() {
+    ArrayConverter converter = ArrayConverter.forElementType(String.class);
+    String[] source = new String[] {"a"};
+    assertSame(source, converter.toArray(source));
+
+    Object result = converter.toArray(new Object[] {"a", "b"});
+    assertArrayEquals(new String[] {"a", "b"}, (String[]) result);
+    assertThrows(ArrayStoreException.class, () -> converter.toArray(new Object[] {1}));
+
+    assertEquals(Arrays.asList("a", "b"), converter.toList(new Object[] {"a", "b"}));
+    assertThrows(ClassCastException.class, () -> converter.toList(new Object[] {1}));
+  }
+
+  @Test
+  public void testToString() {
+    assertEquals("IntArrayConverter[int]", ArrayConverter.forElementType(int.class).toString());
+    assertEquals("IntArrayConverter[Integer]", ArrayConverter.forElementType(Integer.class).toString());
+    assertEquals("ReferenceArrayConverter[java.math.BigDecimal]", ArrayConverter.forElementType(BigDecimal.class).toString());
+  }
+
+}
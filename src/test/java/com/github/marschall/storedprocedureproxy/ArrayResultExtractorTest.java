@@ -5,12 +5,15 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.math.BigDecimal;
 import java.sql.Array;
 import java.sql.CallableStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.Collections;
 
 import org.junit.jupiter.api.Test;
 
@@ -202,10 +205,33 @@ public class ArrayResultExtractorTest {
     assertArrayEquals(new Integer[] {1}, (Integer[]) result);
   }
 
+  @Test
+  public void listNoResultSet() throws SQLException {
+    // given
+    ResultExtractor extractor = new ArrayResultExtractor(Long.class, true);
+    CallableStatement statement = mock(CallableStatement.class);
+    Array array = mock(Array.class);
+    OutParameterRegistration outParameterRegistration = mock(OutParameterRegistration.class);
+
+    when(statement.execute()).thenReturn(false);
+    when(outParameterRegistration.getOutParamter(statement, Array.class)).thenReturn(array);
+    when(array.getArray()).thenReturn(new BigDecimal[] {BigDecimal.ONE});
+
+    // when
+    Object result = extractor.extractResult(statement, outParameterRegistration, NO_ARGS);
+
+    // then
+    assertEquals(Collections.singletonList(1L), result);
+    verify(array).free();
+  }
+
   @Test
   public void testToString()  {
     ResultExtractor extractor = new ArrayResultExtractor(Integer.class);
     assertEquals("ArrayResultExtractor[Integer]", extractor.toString());
+
+    extractor = new ArrayResultExtractor(Integer.class, true);
+    assertEquals("ArrayResultExtractor[List<Integer>]", extractor.toString());
   }
 
 }
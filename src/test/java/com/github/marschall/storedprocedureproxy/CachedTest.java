@@ -0,0 +1,280 @@
+package com.github.marschall.storedprocedureproxy;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.github.marschall.storedprocedureproxy.ResultCache.CacheEntry;
+import com.github.marschall.storedprocedureproxy.annotations.Cached;
+import com.github.marschall.storedprocedureproxy.annotations.OutParameter;
+
+public class CachedTest {
+
+  private DataSource dataSource;
+
+  private CallableStatement statement;
+
+  @BeforeEach
+  public void setUp() throws SQLException {
+    this.dataSource = mock(DataSource.class);
+    Connection connection = mock(Connection.class);
+    this.statement = mock(CallableStatement.class);
+
+    when(this.dataSource.getConnection()).thenReturn(connection);
+    when(connection.prepareCall(anyString())).thenReturn(this.statement);
+    when(this.statement.getString(2)).thenReturn("value");
+  }
+
+  @Test
+  public void resultIsCached() throws SQLException {
+    ReferenceProcedures procedures = ProcedureCallerFactory.build(ReferenceProcedures.class, this.dataSource);
+
+    assertEquals("value", procedures.lookUp(1));
+    assertEquals("value", procedures.lookUp(1));
+    verify(this.statement, times(1)).execute();
+
+    assertEquals("value", procedures.lookUp(2));
+    verify(this.statement, times(2)).execute();
+  }
+
+  @Test
+  public void invalidateAll() throws SQLException {
+    ReferenceProcedures procedures = ProcedureCallerFactory.build(ReferenceProcedures.class, this.dataSource);
+
+    procedures.lookUp(1);
+    procedures.lookUp(2);
+    ProcedureCallerFactory.invalidateCache(procedures);
+    procedures.lookUp(1);
+    procedures.lookUp(2);
+
+    verify(this.statement, times(4)).execute();
+  }
+
+  @Test
+  public void invalidateSingleCall() throws SQLException {
+    ReferenceProcedures procedures = ProcedureCallerFactory.build(ReferenceProcedures.class, this.dataSource);
+
+    procedures.lookUp(1);
+    procedures.lookUp(2);
+    ProcedureCallerFactory.invalidateCache(procedures, p -> p.lookUp(1));
+    procedures.lookUp(1);
+    procedures.lookUp(2);
+
+    verify(this.statement, times(3)).execute();
+  }
+
+  @Test
+  public void invalidateNotCached() {
+    ReferenceProcedures procedures = ProcedureCallerFactory.build(ReferenceProcedures.class, this.dataSource);
+
+    assertThrows(IllegalArgumentException.class,
+            () -> ProcedureCallerFactory.invalidateCache(procedures, p -> p.lookUpUncached(1)));
+  }
+
+  @Test
+  public void exceptionIsNotCached() throws SQLException {
+    when(this.statement.execute())
+      .thenThrow(new SQLException("failed"))
+      .thenReturn(false);
+    ReferenceProcedures procedures = ProcedureCallerFactory.build(ReferenceProcedures.class, this.dataSource);
+
+    assertThrows(RuntimeException.class, () -> procedures.lookUp(1));
+    assertEquals("value", procedures.lookUp(1));
+  }
+
+  @Test
+  public void voidMethod() {
+    InvalidProcedures procedures = ProcedureCallerFactory.build(InvalidProcedures.class, this.dataSource);
+
+    assertThrows(IllegalArgumentException.class, () -> procedures.refresh(1));
+  }
+
+  @Test
+  public void invalidatedWhileLoading() throws InterruptedException, ExecutionException {
+    CountDownLatch entered = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    AtomicInteger connectionCount = new AtomicInteger();
+    DataSource blockingDataSource = this.blockingDataSource(entered, release, connectionCount);
+    ReferenceProcedures procedures = ProcedureCallerFactory.of(ReferenceProcedures.class, blockingDataSource)
+            .withExceptionAdapter(UncheckedSQLExceptionAdapter.INSTANCE)
+            .build();
+
+    FutureTask<String> first = new FutureTask<>(() -> procedures.lookUp(1));
+    Thread firstThread = new Thread(first);
+    firstThread.start();
+    entered.await();
+
+    ProcedureCallerFactory.invalidateCache(procedures);
+
+    // misses the cache after the invalidation and joins the first call
+    FutureTask<String> second = new FutureTask<>(() -> procedures.lookUp(1));
+    Thread secondThread = new Thread(second);
+    secondThread.start();
+    while (secondThread.getState() != Thread.State.WAITING) {
+      // wait until the second call waits for the first one
+      Thread.yield();
+    }
+    release.countDown();
+
+    assertEquals("value", first.get());
+    assertEquals("value", second.get());
+    assertEquals(1, connectionCount.get());
+
+    // the result loaded before the invalidation is not cached
+    assertEquals("value", procedures.lookUp(1));
+    assertEquals(2, connectionCount.get());
+    assertEquals("value", procedures.lookUp(1));
+    assertEquals(2, connectionCount.get());
+  }
+
+  @Test
+  public void arrayArgumentsAreCopied() throws NoSuchMethodException {
+    Method method = ReferenceProcedures.class.getMethod("lookUp", int.class);
+    int[] ids = new int[] {1, 2};
+    Object[][] names = new Object[][] {{"a"}};
+    Object[] args = new Object[] {ids, names};
+
+    CallKey key = CallKey.copyOf(method, args);
+    ids[0] = 3;
+    names[0][0] = "b";
+
+    assertEquals(new CallKey(method, new Object[] {new int[] {1, 2}, new Object[][] {{"a"}}}), key);
+    assertNotEquals(new CallKey(method, args), key);
+  }
+
+  @Test
+  public void expiry() throws InterruptedException {
+    ResultCache cache = new ResultCache(1L, 10);
+    CallKey key = this.key(1);
+
+    cache.put(key, "value", cache.stamp());
+    Thread.sleep(5L);
+
+    assertNull(cache.get(key));
+  }
+
+  @Test
+  public void nullResult() {
+    ResultCache cache = new ResultCache(60000L, 10);
+    CallKey key = this.key(1);
+
+    cache.put(key, null, cache.stamp());
+
+    CacheEntry entry = cache.get(key);
+    assertTrue(entry != null);
+    assertNull(entry.value);
+  }
+
+  @Test
+  public void staleResultIsNotCached() {
+    ResultCache cache = new ResultCache(60000L, 10);
+    CallKey key = this.key(1);
+
+    long stamp = cache.stamp();
+    cache.invalidateAll();
+    cache.put(key, "value", stamp);
+
+    assertNull(cache.get(key));
+  }
+
+  @Test
+  public void frequentResultsAreKept() {
+    int maxEntries = 100;
+    ResultCache cache = new ResultCache(60000L, maxEntries);
+    for (int i = 0; i < maxEntries; i++) {
+      CallKey key = this.key(i);
+      for (int j = 0; j < 5; j++) {
+        cache.get(key);
+      }
+      cache.put(key, i, cache.stamp());
+    }
+
+    // each rare key is requested once, it should not replace a frequent one
+    for (int i = maxEntries; i < (maxEntries * 3); i++) {
+      CallKey key = this.key(i);
+      cache.get(key);
+      cache.put(key, i, cache.stamp());
+    }
+
+    assertTrue(cache.size() <= maxEntries);
+    int kept = 0;
+    for (int i = 0; i < maxEntries; i++) {
+      CacheEntry entry = cache.get(this.key(i));
+      if (entry != null) {
+        assertEquals(i, entry.value);
+        kept += 1;
+      }
+    }
+    assertTrue(kept >= (maxEntries - 2), "kept " + kept);
+  }
+
+  private DataSource blockingDataSource(CountDownLatch entered, CountDownLatch release, AtomicInteger connectionCount) {
+    return (DataSource) Proxy.newProxyInstance(DataSource.class.getClassLoader(), new Class<?>[] {DataSource.class},
+            (proxy, method, args) -> {
+              String methodName = method.getName();
+              if (methodName.equals("hashCode")) {
+                return System.identityHashCode(proxy);
+              } else if (methodName.equals("equals")) {
+                return proxy == args[0];
+              } else if (methodName.equals("toString")) {
+                return "blocking data source";
+              } else if (!methodName.equals("getConnection")) {
+                throw new UnsupportedOperationException(methodName);
+              }
+              connectionCount.incrementAndGet();
+              entered.countDown();
+              release.await();
+              return this.dataSource.getConnection();
+            });
+  }
+
+  private CallKey key(int id) {
+    try {
+      Method method = ReferenceProcedures.class.getMethod("lookUp", int.class);
+      return new CallKey(method, new Object[] {id});
+    } catch (NoSuchMethodException e) {
+      throw new AssertionError("method not found", e);
+    }
+  }
+
+  interface ReferenceProcedures {
+
+    @Cached(ttl = 60000L, maxEntries = 100)
+    @OutParameter
+    String lookUp(int id);
+
+    @OutParameter
+    String lookUpUncached(int id);
+
+  }
+
+  interface InvalidProcedures {
+
+    @Cached
+    void refresh(int id);
+
+  }
+
+}
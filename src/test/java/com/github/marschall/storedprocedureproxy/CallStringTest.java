@@ -18,6 +18,7 @@ import javax.sql.DataSource;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import com.github.marschall.storedprocedureproxy.ProcedureCallerFactory.CallSyntax;
 import com.github.marschall.storedprocedureproxy.annotations.InOutParameter;
 import com.github.marschall.storedprocedureproxy.annotations.OutParameter;
 import com.github.marschall.storedprocedureproxy.annotations.ReturnValue;
@@ -233,6 +234,109 @@ public class CallStringTest {
     verify(connection).prepareCall(eq("{call scope.dynamic.out_parameter(?)}"));
   }
 
+  @Test
+  public void oracleNoReturnValue() throws SQLException {
+    // given
+
+    SimpleProcedures procedures = ProcedureCallerFactory.of(SimpleProcedures.class, dataSource)
+            .withProcedureNamingStrategy(NamingStrategy.snakeCase().thenUpperCase())
+            .withNamespaceNamingStrategy(ignored -> "SCOPE")
+            .withCallSyntax(CallSyntax.ORACLE)
+            .build();
+
+    // when
+    procedures.simpleFunction();
+
+    verify(connection).prepareCall(eq("BEGIN SCOPE.SIMPLE_FUNCTION(); END;"));
+  }
+
+  @Test
+  public void oracleReturnValue() throws SQLException {
+    // given
+
+    SimpleProcedures procedures = ProcedureCallerFactory.of(SimpleProcedures.class, dataSource)
+            .withProcedureNamingStrategy(NamingStrategy.snakeCase().thenUpperCase())
+            .withCallSyntax(CallSyntax.ORACLE)
+            .build();
+
+    // when
+    procedures.returnValue();
+
+    verify(connection).prepareCall(eq("BEGIN ? := RETURN_VALUE(); END;"));
+  }
+
+  @Test
+  public void oracleOutParameter() throws SQLException {
+    // given
+
+    SimpleProcedures procedures = ProcedureCallerFactory.of(SimpleProcedures.class, dataSource)
+            .withProcedureNamingStrategy(NamingStrategy.snakeCase().thenUpperCase())
+            .withCallSyntax(CallSyntax.ORACLE)
+            .build();
+
+    // when
+    procedures.inOutParameter("test");
+
+    verify(connection).prepareCall(eq("BEGIN IN_OUT_PARAMETER(?); END;"));
+  }
+
+  @Test
+  public void postgresNoReturnValue() throws SQLException {
+    // given
+
+    SimpleProcedures procedures = ProcedureCallerFactory.of(SimpleProcedures.class, dataSource)
+            .withProcedureNamingStrategy(NamingStrategy.snakeCase().thenLowerCase())
+            .withSchemaNamingStrategy(ignored -> "dynamic")
+            .withCallSyntax(CallSyntax.POSTGRES)
+            .build();
+
+    // when
+    procedures.simpleFunction();
+
+    verify(connection).prepareCall(eq("SELECT * FROM dynamic.simple_function()"));
+  }
+
+  @Test
+  public void postgresOutParameter() throws SQLException {
+    // given
+
+    SimpleProcedures procedures = ProcedureCallerFactory.of(SimpleProcedures.class, dataSource)
+            .withProcedureNamingStrategy(NamingStrategy.snakeCase().thenLowerCase())
+            .withCallSyntax(CallSyntax.POSTGRES)
+            .build();
+
+    // when
+    procedures.outParameter();
+    procedures.returnValue();
+
+    // the driver needs the escape syntax for out parameters
+    verify(connection).prepareCall(eq("{call out_parameter(?)}"));
+    verify(connection).prepareCall(eq("{ ? = call return_value()}"));
+  }
+
+  @Test
+  public void postgresCall() throws SQLException {
+    // given
+
+    SimpleProcedures procedures = ProcedureCallerFactory.of(SimpleProcedures.class, dataSource)
+            .withProcedureNamingStrategy(NamingStrategy.snakeCase().thenLowerCase())
+            .withSchemaNamingStrategy(ignored -> "dynamic")
+            .withCallSyntax(CallSyntax.POSTGRES_CALL)
+            .build();
+
+    // when
+    procedures.simpleFunction();
+    procedures.outParameter();
+    procedures.inOutParameter("test");
+    procedures.returnValue();
+
+    verify(connection).prepareCall(eq("CALL dynamic.simple_function()"));
+    verify(connection).prepareCall(eq("CALL dynamic.out_parameter(?)"));
+    verify(connection).prepareCall(eq("CALL dynamic.in_out_parameter(?)"));
+    // only functions have a return value
+    verify(connection).prepareCall(eq("{ ? = call dynamic.return_value()}"));
+  }
+
   interface SimpleProcedures {
 
     void simpleFunction();
@@ -0,0 +1,254 @@
+package com.github.marschall.storedprocedureproxy;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.Array;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.github.marschall.storedprocedureproxy.annotations.Chunked;
+import com.github.marschall.storedprocedureproxy.annotations.OutParameter;
+
+public class ChunkedTest {
+
+  private DataSource dataSource;
+
+  private Connection connection;
+
+  private CallableStatement statement;
+
+  @BeforeEach
+  public void setUp() throws SQLException {
+    this.dataSource = mock(DataSource.class);
+    this.connection = mock(Connection.class);
+    this.statement = mock(CallableStatement.class);
+
+    when(this.dataSource.getConnection()).thenReturn(this.connection);
+    when(this.connection.prepareCall(anyString())).thenReturn(this.statement);
+    when(this.connection.createArrayOf(anyString(), any())).thenReturn(mock(Array.class));
+  }
+
+  @Test
+  public void sequential() throws SQLException {
+    ChunkedProcedures procedures = ProcedureCallerFactory.of(ChunkedProcedures.class, this.dataSource)
+            .withExceptionAdapter(UncheckedSQLExceptionAdapter.INSTANCE)
+            .build();
+
+    procedures.deleteIds(Arrays.asList(1, 2, 3, 4, 5));
+
+    verify(this.connection).createArrayOf("INTEGER", new Object[] {1, 2});
+    verify(this.connection).createArrayOf("INTEGER", new Object[] {3, 4});
+    verify(this.connection).createArrayOf("INTEGER", new Object[] {5});
+    verify(this.statement, times(3)).execute();
+    verify(this.connection, times(3)).close();
+  }
+
+  @Test
+  public void notChunked() throws SQLException {
+    ChunkedProcedures procedures = ProcedureCallerFactory.build(ChunkedProcedures.class, this.dataSource);
+
+    procedures.deleteIds(Arrays.asList(1, 2));
+
+    verify(this.connection).createArrayOf("INTEGER", new Object[] {1, 2});
+    verify(this.statement).execute();
+  }
+
+  @Test
+  public void sumUpdateCounts() throws SQLException {
+    when(this.statement.getInt(2)).thenReturn(2, 1);
+    ChunkedProcedures procedures = ProcedureCallerFactory.build(ChunkedProcedures.class, this.dataSource);
+
+    assertEquals(3, procedures.deleteNames(new String[] {"a", "b", "c"}));
+
+    verify(this.connection).createArrayOf("VARCHAR", new Object[] {"a", "b"});
+    verify(this.connection).createArrayOf("VARCHAR", new Object[] {"c"});
+  }
+
+  @Test
+  public void parallel() throws SQLException {
+    Executor executor = Runnable::run;
+    ParallelProcedures procedures = ProcedureCallerFactory.of(ParallelProcedures.class, this.dataSource)
+            .withChunkExecutor(executor)
+            .withExceptionAdapter(UncheckedSQLExceptionAdapter.INSTANCE)
+            .build();
+
+    procedures.deleteIds(new long[] {1L, 2L, 3L});
+
+    verify(this.connection).createArrayOf("BIGINT", new Object[] {1L, 2L});
+    verify(this.connection).createArrayOf("BIGINT", new Object[] {3L});
+    verify(this.connection, times(2)).close();
+  }
+
+  @Test
+  public void parallelFailure() throws SQLException {
+    when(this.statement.execute()).thenThrow(new SQLException("failed"));
+    Executor executor = Runnable::run;
+    ParallelProcedures procedures = ProcedureCallerFactory.of(ParallelProcedures.class, this.dataSource)
+            .withChunkExecutor(executor)
+            .build();
+
+    assertThrows(RuntimeException.class, () -> procedures.deleteIds(new long[] {1L, 2L, 3L}));
+  }
+
+  @Test
+  public void parallelFailureWithThreadPool() throws SQLException, InterruptedException {
+    when(this.statement.execute())
+      .thenThrow(new SQLException("failed"))
+      .thenReturn(false);
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      ParallelProcedures procedures = ProcedureCallerFactory.of(ParallelProcedures.class, this.dataSource)
+              .withChunkExecutor(executor)
+              .withExceptionAdapter(UncheckedSQLExceptionAdapter.INSTANCE)
+              .build();
+
+      UncheckedSQLException exception = assertThrows(UncheckedSQLException.class,
+              () -> procedures.deleteIds(new long[] {1L, 2L, 3L, 4L, 5L}));
+      assertEquals("failed", exception.getCause().getMessage());
+    } finally {
+      executor.shutdown();
+      assertTrue(executor.awaitTermination(10L, TimeUnit.SECONDS));
+    }
+  }
+
+  @Test
+  public void parallelFailuresAreSuppressed() throws SQLException {
+    when(this.statement.execute())
+      .thenThrow(new SQLException("first"), new SQLException("second"), new SQLException("third"));
+    Executor executor = Runnable::run;
+    ParallelProcedures procedures = ProcedureCallerFactory.of(ParallelProcedures.class, this.dataSource)
+            .withChunkExecutor(executor)
+            .withExceptionAdapter(UncheckedSQLExceptionAdapter.INSTANCE)
+            .build();
+
+    UncheckedSQLException exception = assertThrows(UncheckedSQLException.class,
+            () -> procedures.deleteIds(new long[] {1L, 2L, 3L, 4L, 5L}));
+
+    assertEquals("first", exception.getCause().getMessage());
+    assertEquals(2, exception.getSuppressed().length);
+  }
+
+  @Test
+  public void parallelRejected() throws SQLException {
+    List<Runnable> accepted = new ArrayList<>();
+    Executor executor = task -> {
+      if (!accepted.isEmpty()) {
+        throw new RejectedExecutionException("full");
+      }
+      accepted.add(task);
+    };
+    ParallelProcedures procedures = ProcedureCallerFactory.of(ParallelProcedures.class, this.dataSource)
+            .withChunkExecutor(executor)
+            .withExceptionAdapter(UncheckedSQLExceptionAdapter.INSTANCE)
+            .build();
+
+    assertThrows(RejectedExecutionException.class, () -> procedures.deleteIds(new long[] {1L, 2L, 3L}));
+
+    assertTrue(((Future<?>) accepted.get(0)).isCancelled());
+    accepted.get(0).run();
+    verify(this.statement, never()).execute();
+  }
+
+  @Test
+  public void parallelWithoutExecutor() {
+    ParallelProcedures procedures = ProcedureCallerFactory.build(ParallelProcedures.class, this.dataSource);
+
+    assertThrows(IllegalArgumentException.class, () -> procedures.deleteIds(new long[] {1L}));
+  }
+
+  @Test
+  public void unsupportedReturnType() {
+    InvalidProcedures procedures = ProcedureCallerFactory.build(InvalidProcedures.class, this.dataSource);
+
+    assertThrows(IllegalArgumentException.class, () -> procedures.lookUp(Arrays.asList(1)));
+  }
+
+  @Test
+  public void scalarReturnTypeWithoutSum() {
+    InvalidProcedures procedures = ProcedureCallerFactory.build(InvalidProcedures.class, this.dataSource);
+
+    assertThrows(IllegalArgumentException.class, () -> procedures.status(Arrays.asList(1)));
+  }
+
+  @Test
+  public void sumWithoutScalarReturnType() {
+    InvalidProcedures procedures = ProcedureCallerFactory.build(InvalidProcedures.class, this.dataSource);
+
+    assertThrows(IllegalArgumentException.class, () -> procedures.deleteAll(Arrays.asList(1)));
+  }
+
+  @Test
+  public void mergeResults() {
+    assertEquals(Arrays.asList(1, 2, 3), ResultMerger.forReturnType(List.class, false)
+            .merge(new Object[] {Arrays.asList(1, 2), null, Arrays.asList(3)}));
+    assertArrayEquals(new int[] {1, 2, 3}, (int[]) ResultMerger.forReturnType(int[].class, false)
+            .merge(new Object[] {new int[] {1}, new int[] {2, 3}}));
+    assertEquals(3L, ResultMerger.forReturnType(long.class, true).merge(new Object[] {1L, 2L}));
+    assertNull(ResultMerger.forReturnType(long.class, false));
+  }
+
+  @Test
+  public void split() {
+    Chunking chunking = new Chunking(1, 2, false, VoidResultMerger.INSTANCE);
+    Object[][] chunks = chunking.split(new Object[] {"x", new int[] {1, 2, 3}});
+
+    assertEquals(2, chunks.length);
+    assertEquals("x", chunks[0][0]);
+    assertArrayEquals(new int[] {1, 2}, (int[]) chunks[0][1]);
+    assertArrayEquals(new int[] {3}, (int[]) chunks[1][1]);
+  }
+
+  interface ChunkedProcedures {
+
+    void deleteIds(@Chunked(2) List<Integer> ids);
+
+    @OutParameter
+    int deleteNames(@Chunked(value = 2, sumResults = true) String[] names);
+
+  }
+
+  interface ParallelProcedures {
+
+    void deleteIds(@Chunked(value = 2, parallel = true) long[] ids);
+
+  }
+
+  interface InvalidProcedures {
+
+    @OutParameter
+    String lookUp(@Chunked(2) List<Integer> ids);
+
+    @OutParameter
+    int status(@Chunked(2) List<Integer> ids);
+
+    void deleteAll(@Chunked(value = 2, sumResults = true) List<Integer> ids);
+
+  }
+
+}
@@ -0,0 +1,194 @@
+package com.github.marschall.storedprocedureproxy;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.github.marschall.storedprocedureproxy.annotations.Coalesced;
+import com.github.marschall.storedprocedureproxy.annotations.OutParameter;
+
+public class CoalescedTest {
+
+  private Connection connection;
+
+  private CallableStatement statement;
+
+  @BeforeEach
+  public void setUp() throws SQLException {
+    this.connection = mock(Connection.class);
+    this.statement = mock(CallableStatement.class);
+
+    when(this.connection.prepareCall(anyString())).thenReturn(this.statement);
+    when(this.statement.getString(2)).thenReturn("value");
+  }
+
+  @Test
+  public void concurrentCallsAreCoalesced() throws InterruptedException, ExecutionException {
+    CountDownLatch entered = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    AtomicInteger connectionCount = new AtomicInteger();
+    DataSource dataSource = this.blockingDataSource(entered, release, connectionCount);
+    ReferenceProcedures procedures = ProcedureCallerFactory.of(ReferenceProcedures.class, dataSource)
+            .withExceptionAdapter(UncheckedSQLExceptionAdapter.INSTANCE)
+            .build();
+
+    FutureTask<String> first = new FutureTask<>(() -> procedures.lookUp(1));
+    Thread firstThread = new Thread(first);
+    firstThread.start();
+    entered.await();
+
+    FutureTask<String> second = new FutureTask<>(() -> procedures.lookUp(1));
+    Thread secondThread = new Thread(second);
+    secondThread.start();
+    while (secondThread.getState() != Thread.State.WAITING) {
+      // wait until the second call waits for the first one
+      Thread.yield();
+    }
+    release.countDown();
+
+    assertEquals("value", first.get());
+    assertEquals("value", second.get());
+    assertEquals(1, connectionCount.get());
+  }
+
+  @Test
+  public void interruptedWhileWaiting() throws InterruptedException {
+    CountDownLatch entered = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    DataSource dataSource = this.blockingDataSource(entered, release, new AtomicInteger());
+    ReferenceProcedures procedures = ProcedureCallerFactory.of(ReferenceProcedures.class, dataSource)
+            .withExceptionAdapter(UncheckedSQLExceptionAdapter.INSTANCE)
+            .build();
+
+    Thread firstThread = new Thread(() -> procedures.lookUpUnchecked(1));
+    firstThread.start();
+    entered.await();
+
+    AtomicReference<Exception> exception = new AtomicReference<>();
+    AtomicBoolean interrupted = new AtomicBoolean();
+    Thread secondThread = new Thread(() -> {
+      try {
+        procedures.lookUpUnchecked(1);
+      } catch (RuntimeException e) {
+        exception.set(e);
+        interrupted.set(Thread.currentThread().isInterrupted());
+      }
+    });
+    secondThread.start();
+    while (secondThread.getState() != Thread.State.WAITING) {
+      // wait until the second call waits for the first one
+      Thread.yield();
+    }
+    secondThread.interrupt();
+    secondThread.join();
+    release.countDown();
+    firstThread.join();
+
+    assertTrue(exception.get() instanceof UncheckedSQLException);
+    assertTrue(interrupted.get());
+  }
+
+  @Test
+  public void sequentialCallsAreNotCached() throws SQLException {
+    DataSource dataSource = mock(DataSource.class);
+    when(dataSource.getConnection()).thenReturn(this.connection);
+    ReferenceProcedures procedures = ProcedureCallerFactory.build(ReferenceProcedures.class, dataSource);
+
+    assertEquals("value", procedures.lookUp(1));
+    assertEquals("value", procedures.lookUp(1));
+
+    verify(this.statement, times(2)).execute();
+  }
+
+  @Test
+  public void exception() throws SQLException {
+    DataSource dataSource = mock(DataSource.class);
+    when(dataSource.getConnection()).thenThrow(new SQLException("failed"));
+    ReferenceProcedures procedures = ProcedureCallerFactory.build(ReferenceProcedures.class, dataSource);
+
+    assertThrows(SQLException.class, () -> procedures.lookUp(1));
+  }
+
+  @Test
+  public void voidMethod() throws SQLException {
+    DataSource dataSource = mock(DataSource.class);
+    InvalidProcedures procedures = ProcedureCallerFactory.build(InvalidProcedures.class, dataSource);
+
+    assertThrows(IllegalArgumentException.class, () -> procedures.refresh(1));
+  }
+
+  @Test
+  public void callKey() {
+    Object[] args1 = new Object[] {1, new int[] {1, 2}};
+    Object[] args2 = new Object[] {1, new int[] {1, 2}};
+    Object[] args3 = new Object[] {1, new int[] {1, 3}};
+    Method method = ReferenceProcedures.class.getMethods()[0];
+
+    assertEquals(new CallKey(method, args1), new CallKey(method, args2));
+    assertEquals(new CallKey(method, args1).hashCode(), new CallKey(method, args2).hashCode());
+    assertNotEquals(new CallKey(method, args1), new CallKey(method, args3));
+  }
+
+  private DataSource blockingDataSource(CountDownLatch entered, CountDownLatch release, AtomicInteger connectionCount) {
+    return (DataSource) Proxy.newProxyInstance(DataSource.class.getClassLoader(), new Class<?>[] {DataSource.class},
+            (proxy, method, args) -> {
+              String methodName = method.getName();
+              if (methodName.equals("hashCode")) {
+                return System.identityHashCode(proxy);
+              } else if (methodName.equals("equals")) {
+                return proxy == args[0];
+              } else if (methodName.equals("toString")) {
+                return "blocking data source";
+              } else if (!methodName.equals("getConnection")) {
+                throw new UnsupportedOperationException(methodName);
+              }
+              connectionCount.incrementAndGet();
+              entered.countDown();
+              release.await();
+              return this.connection;
+            });
+  }
+
+  interface ReferenceProcedures {
+
+    @Coalesced
+    @OutParameter
+    String lookUp(int id) throws SQLException;
+
+    @Coalesced
+    @OutParameter
+    String lookUpUnchecked(int id);
+
+  }
+
+  interface InvalidProcedures {
+
+    @Coalesced
+    void refresh(int id);
+
+  }
+
+}
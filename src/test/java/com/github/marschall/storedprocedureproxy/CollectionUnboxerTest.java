@@ -0,0 +1,36 @@
+package com.github.marschall.storedprocedureproxy;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.jupiter.api.Test;
+
+public class CollectionUnboxerTest {
+
+  @Test
+  public void forElementType() {
+    assertSame(IntCollectionUnboxer.INSTANCE, CollectionUnboxer.forElementType(Integer.class));
+    assertSame(LongCollectionUnboxer.INSTANCE, CollectionUnboxer.forElementType(Long.class));
+    assertSame(DoubleCollectionUnboxer.INSTANCE, CollectionUnboxer.forElementType(Double.class));
+    assertNull(CollectionUnboxer.forElementType(BigDecimal.class));
+    assertNull(CollectionUnboxer.forElementType(String.class));
+  }
+
+  @Test
+  public void unbox() {
+    assertArrayEquals(new int[] {1, 2}, (int[]) IntCollectionUnboxer.INSTANCE.unbox(Arrays.asList(1, 2)));
+    assertArrayEquals(new long[] {3L}, (long[]) LongCollectionUnboxer.INSTANCE.unbox(Collections.singleton(3L)));
+    assertArrayEquals(new double[] {1.5d}, (double[]) DoubleCollectionUnboxer.INSTANCE.unbox(Collections.singletonList(1.5d)), 0.0d);
+  }
+
+  @Test
+  public void unboxNull() {
+    assertNull(IntCollectionUnboxer.INSTANCE.unbox(Arrays.asList(1, null)));
+  }
+
+}
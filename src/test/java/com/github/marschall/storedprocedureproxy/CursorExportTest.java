@@ -0,0 +1,150 @@
+package com.github.marschall.storedprocedureproxy;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Types;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.marschall.storedprocedureproxy.ProcedureCallerFactory.ProcedureCaller;
+import com.github.marschall.storedprocedureproxy.annotations.FetchSize;
+import com.github.marschall.storedprocedureproxy.annotations.OutParameter;
+
+public class CursorExportTest {
+
+  @Test
+  public void csv() throws SQLException {
+    // given
+    ResultSet resultSet = this.sampleResultSet();
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+    // when
+    long rowCount = CursorExport.csv(outputStream).export(resultSet);
+
+    // then
+    assertEquals(2L, rowCount);
+    String expected = "ID,NAME,PRICE\r\n"
+            + "-1234567890,\"Hello, \"\"W\u00F6rld\"\"\",1000\r\n"
+            + ",\uD83D\uDE00,\r\n";
+    assertEquals(expected, new String(outputStream.toByteArray(), StandardCharsets.UTF_8));
+  }
+
+  @Test
+  public void binary() throws SQLException, IOException {
+    // given
+    ResultSet resultSet = this.sampleResultSet();
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+    // when
+    long rowCount = CursorExport.binary(Channels.newChannel(outputStream)).export(resultSet);
+
+    // then
+    assertEquals(2L, rowCount);
+    DataInputStream input = new DataInputStream(new ByteArrayInputStream(outputStream.toByteArray()));
+    // first row
+    assertEquals(Long.BYTES, input.readInt());
+    assertEquals(-1234567890L, input.readLong());
+    byte[] name = "Hello, \"W\u00F6rld\"".getBytes(StandardCharsets.UTF_8);
+    assertEquals(name.length, input.readInt());
+    byte[] actualName = new byte[name.length];
+    input.readFully(actualName);
+    assertEquals(ByteBuffer.wrap(name), ByteBuffer.wrap(actualName));
+    assertEquals(4, input.readInt());
+    assertEquals((byte) '1', input.readByte());
+    input.skipBytes(3);
+    // second row
+    assertEquals(BinaryRowEncoder.NULL_LENGTH, input.readInt());
+    assertEquals(4, input.readInt());
+    input.skipBytes(4);
+    assertEquals(BinaryRowEncoder.NULL_LENGTH, input.readInt());
+    assertEquals(-1, input.read());
+  }
+
+  @Test
+  public void exportThroughProxy() throws SQLException {
+    // given
+    DataSource dataSource = mock(DataSource.class);
+    CallableStatement callableStatement = mock(CallableStatement.class);
+    Connection connection = mock(Connection.class);
+    DatabaseMetaData metaData = mock(DatabaseMetaData.class);
+    ResultSet resultSet = this.sampleResultSet();
+
+    when(dataSource.getConnection()).thenReturn(connection);
+    when(connection.getMetaData()).thenReturn(metaData);
+    when(metaData.getDatabaseProductName()).thenReturn("junit");
+    when(connection.prepareCall(anyString())).thenReturn(callableStatement);
+    when(callableStatement.execute()).thenReturn(false);
+    when(callableStatement.getObject(2, ResultSet.class)).thenReturn(resultSet);
+
+    ExportProcedures procedures = ProcedureCallerFactory.build(ExportProcedures.class, dataSource);
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+    // when
+    long rowCount = procedures.exportRows(1, CursorExport.csv(outputStream));
+
+    // then
+    assertEquals(2L, rowCount);
+    verify(connection).prepareCall("{call exportRows(?,?)}");
+    verify(callableStatement).setInt(1, 1);
+    verify(callableStatement).registerOutParameter(2, Types.REF_CURSOR);
+    verify(callableStatement).setFetchSize(100);
+  }
+
+  @Test
+  public void testToString() {
+    CursorExport export = CursorExport.csv(new ByteArrayOutputStream());
+    assertEquals("CursorExport[format=CSV, target=OutputStream]", export.toString());
+
+    ResultExtractor extractor = new CursorExportResultExtractor(1, ProcedureCaller.DEFAULT_FETCH_SIZE, long.class);
+    assertEquals("CursorExportResultExtractor[methodParameterIndex=1, fetchSize=default]", extractor.toString());
+  }
+
+  private ResultSet sampleResultSet() throws SQLException {
+    ResultSet resultSet = mock(ResultSet.class);
+    ResultSetMetaData metaData = mock(ResultSetMetaData.class);
+    when(resultSet.getMetaData()).thenReturn(metaData);
+    when(metaData.getColumnCount()).thenReturn(3);
+    when(metaData.getColumnLabel(1)).thenReturn("ID");
+    when(metaData.getColumnLabel(2)).thenReturn("NAME");
+    when(metaData.getColumnLabel(3)).thenReturn("PRICE");
+    when(metaData.getColumnType(1)).thenReturn(Types.BIGINT);
+    when(metaData.getColumnType(2)).thenReturn(Types.VARCHAR);
+    when(metaData.getColumnType(3)).thenReturn(Types.NUMERIC);
+
+    when(resultSet.next()).thenReturn(true, true, false);
+    when(resultSet.getLong(1)).thenReturn(-1234567890L, 0L);
+    when(resultSet.wasNull()).thenReturn(false, true);
+    when(resultSet.getString(2)).thenReturn("Hello, \"W\u00F6rld\"", "\uD83D\uDE00");
+    when(resultSet.getBigDecimal(3)).thenReturn(new BigDecimal("1E+3"), (BigDecimal) null);
+    return resultSet;
+  }
+
+  interface ExportProcedures {
+
+    @OutParameter
+    @FetchSize(100)
+    long exportRows(int id, CursorExport export);
+
+  }
+
+}
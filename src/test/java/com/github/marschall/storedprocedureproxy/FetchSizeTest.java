@@ -28,13 +28,15 @@ public class FetchSizeTest {
 
   private CallableStatement statement;
 
+  private ResultSet resultSet;
+
   @BeforeEach
   public void setUp() throws SQLException {
     dataSource = mock(DataSource.class);
     Connection connection = mock(Connection.class);
     DatabaseMetaData metaData = mock(DatabaseMetaData.class);
     statement = mock(CallableStatement.class);
-    ResultSet resultSet = mock(ResultSet.class);
+    resultSet = mock(ResultSet.class);
 
     when(dataSource.getConnection()).thenReturn(connection);
     when(connection.getMetaData()).thenReturn(metaData);
@@ -71,6 +73,20 @@ public class FetchSizeTest {
     verify(statement).setFetchSize(20);
   }
 
+  @Test
+  public void cursorFetchSize() throws SQLException {
+    // given
+
+    CustomFetchSize procedures = ProcedureCallerFactory.build(CustomFetchSize.class, dataSource);
+
+    // when
+    procedures.customFetchSize();
+
+    // then
+    // the ref cursor does not inherit the fetch size of the statement
+    verify(resultSet).setFetchSize(20);
+  }
+
   @Test
   public void noFetchSize() throws SQLException {
     // given
@@ -82,6 +98,7 @@ public class FetchSizeTest {
 
     // then
     verify(statement, never()).setFetchSize(anyInt());
+    verify(resultSet, never()).setFetchSize(anyInt());
   }
 
   @FetchSize(10)
@@ -0,0 +1,122 @@
+package com.github.marschall.storedprocedureproxy;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.function.Supplier;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.github.marschall.storedprocedureproxy.ProcedureCallerFactory.CallSyntax;
+import com.github.marschall.storedprocedureproxy.annotations.OutParameter;
+import com.github.marschall.storedprocedureproxy.annotations.ReturnValue;
+
+public class FusedCallTest {
+
+  private DataSource dataSource;
+
+  private Connection connection;
+
+  private CallableStatement statement;
+
+  @BeforeEach
+  public void setUp() throws SQLException {
+    this.dataSource = mock(DataSource.class);
+    this.connection = mock(Connection.class);
+    this.statement = mock(CallableStatement.class);
+
+    when(this.dataSource.getConnection()).thenReturn(this.connection);
+    when(this.connection.prepareCall(anyString())).thenReturn(this.statement);
+  }
+
+  @Test
+  public void fuse() throws SQLException {
+    when(this.statement.getInt(2)).thenReturn(2);
+    when(this.statement.getString(4)).thenReturn("name");
+    SampleProcedures procedures = ProcedureCallerFactory.of(SampleProcedures.class, this.dataSource)
+            .withCallSyntax(CallSyntax.ORACLE)
+            .withExceptionAdapter(UncheckedSQLExceptionAdapter.INSTANCE)
+            .build();
+
+    FusedCall fused = ProcedureCallerFactory.fuse();
+    Supplier<Integer> plusOne = fused.call(procedures, p -> p.plusOne(1));
+    fused.run(procedures, p -> p.log("message"));
+    Supplier<String> name = fused.call(procedures, p -> p.name(3));
+    fused.execute();
+
+    assertEquals(Integer.valueOf(2), plusOne.get());
+    assertEquals("name", name.get());
+
+    verify(this.connection).prepareCall("BEGIN plusOne(?,?); log(?); ? := name(?); END;");
+    verify(this.statement).setInt(1, 1);
+    verify(this.statement).registerOutParameter(2, Types.INTEGER);
+    verify(this.statement).setString(3, "message");
+    verify(this.statement).registerOutParameter(4, Types.VARCHAR);
+    verify(this.statement).setInt(5, 3);
+    verify(this.statement, times(1)).execute();
+    verify(this.connection).close();
+  }
+
+  @Test
+  public void resultBeforeExecute() {
+    SampleProcedures procedures = ProcedureCallerFactory.of(SampleProcedures.class, this.dataSource)
+            .withCallSyntax(CallSyntax.ORACLE)
+            .build();
+
+    FusedCall fused = ProcedureCallerFactory.fuse();
+    Supplier<Integer> plusOne = fused.call(procedures, p -> p.plusOne(1));
+
+    assertThrows(IllegalStateException.class, plusOne::get);
+  }
+
+  @Test
+  public void escapeSyntax() {
+    SampleProcedures procedures = ProcedureCallerFactory.build(SampleProcedures.class, this.dataSource);
+
+    FusedCall fused = ProcedureCallerFactory.fuse();
+    fused.run(procedures, p -> p.log("message"));
+
+    assertThrows(IllegalArgumentException.class, fused::execute);
+  }
+
+  @Test
+  public void notAProcedureCaller() {
+    FusedCall fused = ProcedureCallerFactory.fuse();
+    SampleProcedures procedures = mock(SampleProcedures.class);
+
+    assertThrows(IllegalArgumentException.class, () -> fused.run(procedures, p -> p.log("message")));
+  }
+
+  @Test
+  public void noCall() {
+    SampleProcedures procedures = ProcedureCallerFactory.build(SampleProcedures.class, this.dataSource);
+    FusedCall fused = ProcedureCallerFactory.fuse();
+
+    assertThrows(IllegalArgumentException.class, () -> fused.run(procedures, p -> { }));
+  }
+
+  interface SampleProcedures {
+
+    @OutParameter
+    int plusOne(int i);
+
+    void log(String message);
+
+    @ReturnValue
+    String name(int id);
+
+  }
+
+}
@@ -0,0 +1,147 @@
+package com.github.marschall.storedprocedureproxy;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.github.marschall.storedprocedureproxy.ProcedureCallerFactory.ParameterRegistration;
+import com.github.marschall.storedprocedureproxy.annotations.IndexTable;
+import com.github.marschall.storedprocedureproxy.annotations.OutParameter;
+
+import oracle.jdbc.OracleCallableStatement;
+
+public class IndexTableTest {
+
+  private DataSource dataSource;
+
+  private CallableStatement statement;
+
+  private OracleCallableStatement oracleStatement;
+
+  @BeforeEach
+  public void setUp() throws SQLException {
+    this.dataSource = mock(DataSource.class);
+    Connection connection = mock(Connection.class);
+    this.statement = mock(CallableStatement.class);
+    this.oracleStatement = mock(OracleCallableStatement.class);
+
+    when(this.dataSource.getConnection()).thenReturn(connection);
+    when(connection.prepareCall(anyString())).thenReturn(this.statement);
+    when(this.statement.unwrap(OracleCallableStatement.class)).thenReturn(this.oracleStatement);
+  }
+
+  @Test
+  public void bindPrimitiveArray() throws SQLException {
+    IndexTableProcedures procedures = ProcedureCallerFactory.build(IndexTableProcedures.class, this.dataSource);
+
+    int[] ids = new int[] {1, 2, 3};
+    procedures.deleteIds(ids);
+
+    verify(this.oracleStatement).setPlsqlIndexTable(1, ids, 3, 3, Types.NUMERIC, 0);
+  }
+
+  @Test
+  public void bindUnboxedList() throws SQLException {
+    IndexTableProcedures procedures = ProcedureCallerFactory.build(IndexTableProcedures.class, this.dataSource);
+
+    procedures.deleteIds(Arrays.asList(1L, 2L));
+
+    verify(this.oracleStatement).setPlsqlIndexTable(1, new long[] {1L, 2L}, 10, 2, Types.NUMERIC, 0);
+  }
+
+  @Test
+  public void bindStrings() throws SQLException {
+    IndexTableProcedures procedures = ProcedureCallerFactory.build(IndexTableProcedures.class, this.dataSource);
+
+    String[] names = new String[] {"a", null, "abc"};
+    procedures.deleteNames(names);
+
+    verify(this.oracleStatement).setPlsqlIndexTable(1, names, 3, 3, Types.VARCHAR, 3);
+  }
+
+  @Test
+  public void readPrimitiveArray() throws SQLException {
+    when(this.oracleStatement.getPlsqlIndexTable(2, int.class)).thenReturn(new int[] {4, 5});
+    IndexTableProcedures procedures = ProcedureCallerFactory.build(IndexTableProcedures.class, this.dataSource);
+
+    assertArrayEquals(new int[] {4, 5}, procedures.lookUpIds(1));
+
+    verify(this.oracleStatement).registerIndexTableOutParameter(2, 100, Types.NUMERIC, 0);
+  }
+
+  @Test
+  public void readList() throws SQLException {
+    when(this.oracleStatement.getPlsqlIndexTable(2)).thenReturn(new BigDecimal[] {BigDecimal.ONE, null});
+    IndexTableProcedures procedures = ProcedureCallerFactory.build(IndexTableProcedures.class, this.dataSource);
+
+    assertEquals(Arrays.asList(1L, null), procedures.lookUpIdList(1));
+  }
+
+  @Test
+  public void bindByNameNotSupported() {
+    NamedProcedures procedures = ProcedureCallerFactory.of(NamedProcedures.class, this.dataSource)
+            .withParameterRegistration(ParameterRegistration.NAME_ONLY)
+            .build();
+
+    assertThrows(IllegalArgumentException.class, () -> procedures.lookUpNames(1));
+  }
+
+  @Test
+  public void missingElementLength() {
+    InvalidProcedures procedures = ProcedureCallerFactory.build(InvalidProcedures.class, this.dataSource);
+
+    assertThrows(IllegalArgumentException.class, () -> procedures.lookUpNames(1));
+  }
+
+  interface IndexTableProcedures {
+
+    void deleteIds(@IndexTable int[] ids);
+
+    void deleteIds(@IndexTable(maxLength = 10) List<Long> ids);
+
+    void deleteNames(@IndexTable String[] names);
+
+    @IndexTable(maxLength = 100)
+    @OutParameter
+    int[] lookUpIds(int key);
+
+    @IndexTable(maxLength = 100)
+    @OutParameter
+    List<Long> lookUpIdList(int key);
+
+  }
+
+  interface NamedProcedures {
+
+    @IndexTable(maxLength = 100, elementLength = 20)
+    @OutParameter(name = "names")
+    String[] lookUpNames(int key);
+
+  }
+
+  interface InvalidProcedures {
+
+    @IndexTable(maxLength = 100)
+    @OutParameter(name = "names")
+    String[] lookUpNames(int key);
+
+  }
+
+}
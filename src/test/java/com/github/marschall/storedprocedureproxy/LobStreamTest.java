@@ -0,0 +1,181 @@
+package com.github.marschall.storedprocedureproxy;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.sql.Blob;
+import java.sql.CallableStatement;
+import java.sql.Clob;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.github.marschall.storedprocedureproxy.annotations.OutParameter;
+
+public class LobStreamTest {
+
+  private DataSource dataSource;
+
+  private Connection connection;
+
+  private CallableStatement callableStatement;
+
+  private LobProcedures procedures;
+
+  @BeforeEach
+  public void setUp() throws SQLException {
+    this.dataSource = mock(DataSource.class);
+    this.connection = mock(Connection.class);
+    this.callableStatement = mock(CallableStatement.class);
+    DatabaseMetaData metaData = mock(DatabaseMetaData.class);
+
+    when(this.dataSource.getConnection()).thenReturn(this.connection);
+    when(this.connection.getMetaData()).thenReturn(metaData);
+    when(metaData.getDatabaseProductName()).thenReturn("junit");
+    when(this.connection.prepareCall(anyString())).thenReturn(this.callableStatement);
+    when(this.callableStatement.execute()).thenReturn(false);
+
+    this.procedures = ProcedureCallerFactory.of(LobProcedures.class, this.dataSource)
+            .withExceptionAdapter(UncheckedSQLExceptionAdapter.INSTANCE)
+            .build();
+  }
+
+  @Test
+  public void bindInputStream() throws SQLException {
+    InputStream stream = new ByteArrayInputStream(new byte[] {1, 2, 3});
+
+    this.procedures.storeStream(1, stream);
+
+    verify(this.connection).prepareCall("{call storeStream(?,?)}");
+    verify(this.callableStatement).setInt(1, 1);
+    verify(this.callableStatement).setBinaryStream(2, stream);
+    verify(this.callableStatement, never()).setObject(2, stream);
+  }
+
+  @Test
+  public void bindByteBuffer() throws SQLException {
+    ByteBuffer buffer = ByteBuffer.wrap(new byte[] {1, 2, 3, 4});
+    buffer.position(1);
+
+    this.procedures.storeBuffer(buffer);
+
+    verify(this.callableStatement).setBinaryStream(anyInt(), any(InputStream.class), anyLong());
+    // the position of the argument is not changed
+    assertEquals(1, buffer.position());
+  }
+
+  @Test
+  public void bindReader() throws SQLException {
+    Reader reader = new StringReader("text");
+
+    this.procedures.storeText(reader);
+
+    verify(this.callableStatement).setCharacterStream(1, reader);
+  }
+
+  @Test
+  public void bindNull() throws SQLException {
+    this.procedures.storeText(null);
+
+    verify(this.callableStatement).setObject(1, null);
+  }
+
+  @Test
+  public void streamBlob() throws SQLException, IOException {
+    Blob blob = mock(Blob.class);
+    when(blob.getBinaryStream()).thenReturn(new ByteArrayInputStream(new byte[] {1, 2}));
+    when(this.callableStatement.getObject(1, Blob.class)).thenReturn(blob);
+
+    try (InputStream stream = this.procedures.loadStream()) {
+      assertEquals(1, stream.read());
+      // nothing is released while the stream is open
+      verify(this.connection, never()).close();
+      verify(blob, never()).free();
+      assertEquals(2, stream.read());
+      assertEquals(-1, stream.read());
+    }
+
+    verify(blob).free();
+    verify(this.callableStatement).close();
+    verify(this.connection).close();
+  }
+
+  @Test
+  public void streamClob() throws SQLException, IOException {
+    Clob clob = mock(Clob.class);
+    when(clob.getCharacterStream()).thenReturn(new StringReader("a"));
+    when(this.callableStatement.getObject(1, Clob.class)).thenReturn(clob);
+
+    try (Reader reader = this.procedures.loadText()) {
+      assertEquals('a', reader.read());
+      assertEquals(-1, reader.read());
+    }
+
+    verify(clob).free();
+    verify(this.callableStatement).close();
+    verify(this.connection).close();
+  }
+
+  @Test
+  public void streamNull() throws SQLException {
+    when(this.callableStatement.getObject(1, Blob.class)).thenReturn(null);
+
+    assertNull(this.procedures.loadStream());
+
+    verify(this.callableStatement).close();
+    verify(this.connection).close();
+  }
+
+  @Test
+  public void streamFailure() throws SQLException {
+    when(this.callableStatement.execute()).thenThrow(SQLException.class);
+
+    assertThrows(SQLException.class, () -> this.procedures.loadStream());
+
+    verify(this.callableStatement).close();
+    verify(this.connection).close();
+  }
+
+  @Test
+  public void testToString() {
+    assertEquals("LobResultExtractor[binary]", LobResultExtractor.BINARY.toString());
+    assertEquals("LobStreamFactory[argumentIndex=1]", new LobStreamFactory(1).toString());
+  }
+
+  interface LobProcedures {
+
+    void storeStream(int id, InputStream stream) throws SQLException;
+
+    void storeBuffer(ByteBuffer buffer) throws SQLException;
+
+    void storeText(Reader reader) throws SQLException;
+
+    @OutParameter
+    InputStream loadStream() throws SQLException;
+
+    @OutParameter
+    Reader loadText() throws SQLException;
+
+  }
+
+}
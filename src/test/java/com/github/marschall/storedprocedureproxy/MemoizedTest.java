@@ -0,0 +1,143 @@
+package com.github.marschall.storedprocedureproxy;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.github.marschall.storedprocedureproxy.annotations.Memoized;
+import com.github.marschall.storedprocedureproxy.annotations.OutParameter;
+
+public class MemoizedTest {
+
+  private DataSource dataSource;
+
+  private CallableStatement statement;
+
+  @BeforeEach
+  public void setUp() throws SQLException {
+    this.dataSource = mock(DataSource.class);
+    Connection connection = mock(Connection.class);
+    this.statement = mock(CallableStatement.class);
+
+    when(this.dataSource.getConnection()).thenReturn(connection);
+    when(connection.prepareCall(anyString())).thenReturn(this.statement);
+    when(this.statement.getString(2)).thenReturn("value");
+  }
+
+  @Test
+  public void memoizedInScope() throws SQLException {
+    CustomerProcedures procedures = ProcedureCallerFactory.build(CustomerProcedures.class, this.dataSource);
+
+    try (MemoizationScope scope = MemoizationScope.open()) {
+      assertEquals("value", procedures.getCustomerSettings(1));
+      assertEquals("value", procedures.getCustomerSettings(1));
+      verify(this.statement, times(1)).execute();
+
+      assertEquals("value", procedures.getCustomerSettings(2));
+      verify(this.statement, times(2)).execute();
+    }
+  }
+
+  @Test
+  public void forgottenAfterScope() throws SQLException {
+    CustomerProcedures procedures = ProcedureCallerFactory.build(CustomerProcedures.class, this.dataSource);
+
+    try (MemoizationScope scope = MemoizationScope.open()) {
+      procedures.getCustomerSettings(1);
+    }
+    assertNull(MemoizationScope.current());
+    try (MemoizationScope scope = MemoizationScope.open()) {
+      procedures.getCustomerSettings(1);
+    }
+
+    verify(this.statement, times(2)).execute();
+  }
+
+  @Test
+  public void notMemoizedOutsideScope() throws SQLException {
+    CustomerProcedures procedures = ProcedureCallerFactory.build(CustomerProcedures.class, this.dataSource);
+
+    procedures.getCustomerSettings(1);
+    procedures.getCustomerSettings(1);
+
+    verify(this.statement, times(2)).execute();
+  }
+
+  @Test
+  public void nestedScopeJoins() throws SQLException {
+    CustomerProcedures procedures = ProcedureCallerFactory.build(CustomerProcedures.class, this.dataSource);
+
+    try (MemoizationScope outer = MemoizationScope.open()) {
+      try (MemoizationScope inner = MemoizationScope.open()) {
+        procedures.getCustomerSettings(1);
+      }
+      procedures.getCustomerSettings(1);
+    }
+    assertNull(MemoizationScope.current());
+
+    verify(this.statement, times(1)).execute();
+  }
+
+  @Test
+  public void instancesDoNotShare() throws SQLException {
+    CustomerProcedures first = ProcedureCallerFactory.build(CustomerProcedures.class, this.dataSource);
+    CustomerProcedures second = ProcedureCallerFactory.build(CustomerProcedures.class, this.dataSource);
+
+    try (MemoizationScope scope = MemoizationScope.open()) {
+      first.getCustomerSettings(1);
+      second.getCustomerSettings(1);
+    }
+
+    verify(this.statement, times(2)).execute();
+  }
+
+  @Test
+  public void exceptionIsNotMemoized() throws SQLException {
+    when(this.statement.execute())
+      .thenThrow(new SQLException("failed"))
+      .thenReturn(false);
+    CustomerProcedures procedures = ProcedureCallerFactory.build(CustomerProcedures.class, this.dataSource);
+
+    try (MemoizationScope scope = MemoizationScope.open()) {
+      assertThrows(SQLException.class, () -> procedures.getCustomerSettings(1));
+      assertEquals("value", procedures.getCustomerSettings(1));
+    }
+  }
+
+  @Test
+  public void voidMethod() {
+    InvalidProcedures procedures = ProcedureCallerFactory.build(InvalidProcedures.class, this.dataSource);
+
+    assertThrows(IllegalArgumentException.class, () -> procedures.refresh(1));
+  }
+
+  interface CustomerProcedures {
+
+    @Memoized
+    @OutParameter
+    String getCustomerSettings(int id) throws SQLException;
+
+  }
+
+  interface InvalidProcedures {
+
+    @Memoized
+    void refresh(int id);
+
+  }
+
+}
@@ -0,0 +1,70 @@
+package com.github.marschall.storedprocedureproxy;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.CallableStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import org.junit.jupiter.api.Test;
+
+public class OutParameterReaderTest {
+
+  @Test
+  public void typedGetter() throws SQLException {
+    CallableStatement statement = mock(CallableStatement.class);
+    when(statement.getInt(1)).thenReturn(23, 0);
+    when(statement.wasNull()).thenReturn(false, true);
+
+    OutParameterReader reader = new OutParameterReader();
+
+    assertEquals(Integer.valueOf(23), reader.getOutParameter(statement, 1, Integer.class));
+    assertNull(reader.getOutParameter(statement, 1, Integer.class));
+    verify(statement, never()).getObject(1, Integer.class);
+  }
+
+  @Test
+  public void typedGetterByName() throws SQLException {
+    CallableStatement statement = mock(CallableStatement.class);
+    when(statement.getString("name")).thenReturn("value");
+
+    assertEquals("value", OutParameterReader.getOutParameter(statement, "name", String.class));
+  }
+
+  @Test
+  public void fallbackIsRemembered() throws SQLException {
+    CallableStatement statement = mock(CallableStatement.class);
+    ResultSet resultSet = mock(ResultSet.class);
+    when(statement.getObject(1, ResultSet.class)).thenThrow(SQLException.class);
+    when(statement.getObject(1)).thenReturn(resultSet);
+
+    OutParameterReader reader = new OutParameterReader();
+
+    assertSame(resultSet, reader.getOutParameter(statement, 1, ResultSet.class));
+    assertSame(resultSet, reader.getOutParameter(statement, 1, ResultSet.class));
+    verify(statement, times(1)).getObject(1, ResultSet.class);
+    verify(statement, times(2)).getObject(1);
+    assertEquals("OutParameterReader[getObject(int)]", reader.toString());
+  }
+
+  @Test
+  public void typedGetObject() throws SQLException {
+    CallableStatement statement = mock(CallableStatement.class);
+    ResultSet resultSet = mock(ResultSet.class);
+    when(statement.getObject(1, ResultSet.class)).thenReturn(resultSet);
+
+    OutParameterReader reader = new OutParameterReader();
+
+    assertSame(resultSet, reader.getOutParameter(statement, 1, ResultSet.class));
+    verify(statement, never()).getObject(1);
+    assertEquals("OutParameterReader[getObject(int, Class)]", reader.toString());
+  }
+
+}
@@ -0,0 +1,97 @@
+package com.github.marschall.storedprocedureproxy;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+import java.math.BigDecimal;
+import java.sql.CallableStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.Test;
+
+public class ParameterBinderTest {
+
+  @Test
+  public void bindByIndex() throws SQLException {
+    CallableStatement statement = mock(CallableStatement.class);
+
+    ParameterBinder.forType(int.class).bind(statement, 1, 23);
+    ParameterBinder.forType(Long.class).bind(statement, 2, 42L);
+    ParameterBinder.forType(String.class).bind(statement, 3, "value");
+    ParameterBinder.forType(BigDecimal.class).bind(statement, 4, BigDecimal.TEN);
+    ParameterBinder.forType(LocalDate.class).bind(statement, 5, LocalDate.of(2018, 1, 1));
+
+    verify(statement).setInt(1, 23);
+    verify(statement).setLong(2, 42L);
+    verify(statement).setString(3, "value");
+    verify(statement).setBigDecimal(4, BigDecimal.TEN);
+    verify(statement).setObject(5, LocalDate.of(2018, 1, 1));
+  }
+
+  @Test
+  public void bindByName() throws SQLException {
+    CallableStatement statement = mock(CallableStatement.class);
+
+    ParameterBinder.forType(Integer.class).bind(statement, "id", 23);
+    ParameterBinder.forType(boolean.class).bind(statement, "flag", true);
+
+    verify(statement).setInt("id", 23);
+    verify(statement).setBoolean("flag", true);
+  }
+
+  @Test
+  public void bindNull() throws SQLException {
+    CallableStatement statement = mock(CallableStatement.class);
+
+    ParameterBinder.forType(Integer.class).bind(statement, 1, null);
+    ParameterBinder.forType(String.class, Types.NVARCHAR).bind(statement, 2, null);
+    ParameterBinder.forType(Object.class).bind(statement, 3, null);
+
+    verify(statement).setNull(1, Types.INTEGER);
+    verify(statement).setNull(2, Types.NVARCHAR);
+    verify(statement).setObject(3, null);
+  }
+
+  @Test
+  public void typedMatches() throws SQLException {
+    CallableStatement statement = mock(CallableStatement.class);
+
+    ParameterBinder.forType(Long.class, Types.BIGINT).bind(statement, 1, 42L);
+    ParameterBinder.forType(BigDecimal.class, Types.DECIMAL).bind(statement, 2, BigDecimal.ONE);
+    ParameterBinder.forType(BigDecimal.class, Types.DECIMAL).bind(statement, 3, null);
+
+    verify(statement).setLong(1, 42L);
+    verify(statement).setBigDecimal(2, BigDecimal.ONE);
+    verify(statement).setNull(3, Types.DECIMAL);
+  }
+
+  @Test
+  public void typedDiffers() throws SQLException {
+    CallableStatement statement = mock(CallableStatement.class);
+
+    // let the driver convert
+    ParameterBinder.forType(boolean.class, Types.NUMERIC).bind(statement, 1, true);
+    ParameterBinder.forType(Integer.class, Types.NUMERIC).bind(statement, 2, null);
+
+    verify(statement).setObject(1, true, Types.NUMERIC);
+    verify(statement).setNull(2, Types.NUMERIC);
+  }
+
+  @Test
+  public void objectBinders() {
+    ParameterBinder[] binders = ParameterBinder.objectBinders(2);
+    assertSame(ParameterBinder.OBJECT, binders[0]);
+    assertSame(ParameterBinder.OBJECT, binders[1]);
+  }
+
+  @Test
+  public void testToString() {
+    assertEquals("IntBinder", ParameterBinder.forType(int.class).toString());
+    assertEquals("SqlTypeBinder[2]", ParameterBinder.forType(boolean.class, Types.NUMERIC).toString());
+  }
+
+}
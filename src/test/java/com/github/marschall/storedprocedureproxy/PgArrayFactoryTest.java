@@ -0,0 +1,107 @@
+package com.github.marschall.storedprocedureproxy;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.postgresql.PGConnection;
+
+public class PgArrayFactoryTest {
+
+  private Connection connection;
+
+  private PGConnection pgConnection;
+
+  @BeforeEach
+  public void setUp() throws SQLException {
+    this.connection = mock(Connection.class);
+    this.pgConnection = mock(PGConnection.class);
+    when(this.connection.unwrap(PGConnection.class)).thenReturn(this.pgConnection);
+    when(this.pgConnection.createArrayOf(anyString(), any())).thenReturn(mock(Array.class));
+    when(this.connection.createArrayOf(anyString(), any())).thenReturn(mock(Array.class));
+  }
+
+  @Test
+  public void unboxList() throws SQLException {
+    CallResourceFactory factory = new PgArrayFactory(0, "int8", LongCollectionUnboxer.INSTANCE);
+
+    factory.createResource(this.connection, new Object[] {Arrays.asList(1L, 2L)});
+
+    verify(this.pgConnection).createArrayOf("int8", new long[] {1L, 2L});
+    verify(this.connection, never()).createArrayOf(anyString(), any());
+  }
+
+  @Test
+  public void listContainingNull() throws SQLException {
+    CallResourceFactory factory = new PgArrayFactory(0, "int4", IntCollectionUnboxer.INSTANCE);
+
+    factory.createResource(this.connection, new Object[] {Arrays.asList(1, null)});
+
+    verify(this.connection).createArrayOf("int4", new Object[] {1, null});
+  }
+
+  @Test
+  public void primitiveArray() throws SQLException {
+    CallResourceFactory factory = new PgArrayFactory(0, "int4");
+
+    factory.createResource(this.connection, new Object[] {new int[] {1, 2}});
+
+    verify(this.pgConnection).createArrayOf("int4", new int[] {1, 2});
+  }
+
+  @Test
+  public void compositeArray() throws SQLException {
+    CallResourceFactory factory = ArrayResourceFactoryFactory.POSTGRES.createArrayFactory(0, "item", Object[].class, true, null);
+
+    factory.createResource(this.connection, new Object[] {Arrays.asList(new Object[] {1, "a b"}, null, new Object[] {2, null})});
+
+    verify(this.pgConnection).createArrayOf("item", new String[] {"(1,\"a b\")", null, "(2,)"});
+  }
+
+  @Test
+  public void nestedArrayWithoutTypeName() throws SQLException {
+    CallResourceFactory factory = ArrayResourceFactoryFactory.POSTGRES.createArrayFactory(0, "int4", Object[].class, false, null);
+
+    Object[][] elements = new Object[][] {{1, 2}, {3, 4}};
+    factory.createResource(this.connection, new Object[] {elements});
+
+    verify(this.connection).createArrayOf("int4", elements);
+    verify(this.pgConnection, never()).createArrayOf(anyString(), any());
+  }
+
+  @Test
+  public void nestedCollectionField() {
+    assertThrows(IllegalArgumentException.class,
+            () -> PgCompositeArrayFactory.toRowLiteral(new Object[] {1, Arrays.asList(2, 3)}));
+    assertThrows(IllegalArgumentException.class,
+            () -> PgCompositeArrayFactory.toRowLiteral(new Object[] {1, new int[] {2, 3}}));
+  }
+
+  @Test
+  public void rowLiteral() {
+    assertEquals("(1,abc,t,)", PgCompositeArrayFactory.toRowLiteral(new Object[] {1, "abc", true, null}));
+    assertEquals("(\"\",\"a,b\",\"(x)\")", PgCompositeArrayFactory.toRowLiteral(new Object[] {"", "a,b", "(x)"}));
+    assertEquals("(\"a\"\"b\",\"c\\\\d\")", PgCompositeArrayFactory.toRowLiteral(new Object[] {"a\"b", "c\\d"}));
+    assertEquals("(\"\\\\x01ff\")", PgCompositeArrayFactory.toRowLiteral(new Object[] {new byte[] {1, (byte) 0xFF}}));
+    assertEquals("(1,\"(2,x)\")", PgCompositeArrayFactory.toRowLiteral(new Object[] {1, new Object[] {2, "x"}}));
+  }
+
+  @Test
+  public void testToString() {
+    CallResourceFactory factory = new PgArrayFactory(1, "int4", IntCollectionUnboxer.INSTANCE);
+    assertEquals("PgArrayFactory[argumentIndex=1, typeName=int4, unboxer=IntCollectionUnboxer]", factory.toString());
+  }
+
+}
@@ -0,0 +1,182 @@
+package com.github.marschall.storedprocedureproxy;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.Arrays;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.github.marschall.storedprocedureproxy.ProcedureCallerFactory.ParameterRegistration;
+import com.github.marschall.storedprocedureproxy.annotations.OutParameter;
+import com.github.marschall.storedprocedureproxy.annotations.ParameterName;
+
+public class ProcedureColumnsTest {
+
+  private DataSource dataSource;
+
+  private Connection connection;
+
+  private DatabaseMetaData metaData;
+
+  private CallableStatement callableStatement;
+
+  @BeforeEach
+  public void setUp() throws SQLException {
+    this.dataSource = mock(DataSource.class);
+    this.connection = mock(Connection.class);
+    this.metaData = mock(DatabaseMetaData.class);
+    this.callableStatement = mock(CallableStatement.class);
+
+    when(this.dataSource.getConnection()).thenReturn(this.connection);
+    when(this.connection.getMetaData()).thenReturn(this.metaData);
+    when(this.metaData.getDatabaseProductName()).thenReturn("junit");
+    when(this.metaData.getSearchStringEscape()).thenReturn("\\");
+    when(this.metaData.storesUpperCaseIdentifiers()).thenReturn(true);
+    when(this.connection.prepareCall(anyString())).thenReturn(this.callableStatement);
+    when(this.callableStatement.execute()).thenReturn(false);
+  }
+
+  @Test
+  public void escapePattern() {
+    assertEquals("PLUS1INOUT", ProcedureColumns.escapePattern("PLUS1INOUT", "\\"));
+    assertEquals("RAISE\\_PRICE", ProcedureColumns.escapePattern("RAISE_PRICE", "\\"));
+    assertEquals("RAISE_PRICE", ProcedureColumns.escapePattern("RAISE_PRICE", ""));
+  }
+
+  @Test
+  public void positionOf() throws SQLException {
+    ResultSet columns = this.procedureColumns(
+            column("@ITEM_ID", DatabaseMetaData.procedureColumnIn, 1),
+            column("new_price", DatabaseMetaData.procedureColumnIn, 2),
+            column("OVERLOADED", DatabaseMetaData.procedureColumnIn, 1),
+            column("OVERLOADED", DatabaseMetaData.procedureColumnIn, 2));
+    when(this.metaData.getProcedureColumns(null, null, "RAISE\\_PRICE", null)).thenReturn(columns);
+
+    ProcedureColumns procedureColumns = ProcedureColumns.lookUp(this.connection, null, null, "raise_price");
+
+    assertEquals(1, procedureColumns.positionOf("item_id"));
+    assertEquals(2, procedureColumns.positionOf("NEW_PRICE"));
+    assertEquals(ProcedureColumns.UNKNOWN, procedureColumns.positionOf("OVERLOADED"));
+    assertEquals(ProcedureColumns.UNKNOWN, procedureColumns.positionOf("missing"));
+    verify(columns).close();
+  }
+
+  @Test
+  public void bindsResolvedNamesByIndex() throws SQLException {
+    ResultSet columns = this.procedureColumns(
+            column("B", DatabaseMetaData.procedureColumnIn, 1),
+            column("A", DatabaseMetaData.procedureColumnIn, 2),
+            column("RESULT", DatabaseMetaData.procedureColumnOut, 3));
+    when(this.metaData.getProcedureColumns(null, null, "ADD", null)).thenReturn(columns);
+    when(this.callableStatement.getInt(3)).thenReturn(3);
+
+    NamedProcedures procedures = ProcedureCallerFactory.of(NamedProcedures.class, this.dataSource)
+            .withParameterRegistration(ParameterRegistration.NAME_ONLY)
+            .withParameterNameResolution()
+            .build();
+
+    assertEquals(3, procedures.add(1, 2));
+    assertEquals(3, procedures.add(1, 2));
+
+    verify(this.callableStatement, times(2)).registerOutParameter(3, Types.INTEGER);
+    verify(this.callableStatement, times(2)).setInt(2, 1);
+    verify(this.callableStatement, times(2)).setInt(1, 2);
+    verify(this.callableStatement, never()).setInt("a", 1);
+    // only looked up once
+    verify(this.metaData).getProcedureColumns(null, null, "ADD", null);
+  }
+
+  @Test
+  public void fallsBackToNames() throws SQLException {
+    ResultSet columns = this.procedureColumns(
+            column("B", DatabaseMetaData.procedureColumnIn, 1),
+            column("RESULT", DatabaseMetaData.procedureColumnOut, 3));
+    when(this.metaData.getProcedureColumns(null, null, "ADD", null)).thenReturn(columns);
+    when(this.callableStatement.getInt("result")).thenReturn(3);
+
+    NamedProcedures procedures = ProcedureCallerFactory.of(NamedProcedures.class, this.dataSource)
+            .withParameterRegistration(ParameterRegistration.NAME_ONLY)
+            .withParameterNameResolution()
+            .build();
+
+    assertEquals(3, procedures.add(1, 2));
+
+    verify(this.callableStatement).registerOutParameter("result", Types.INTEGER);
+    verify(this.callableStatement).setInt("a", 1);
+    verify(this.callableStatement).setInt("b", 2);
+  }
+
+  @Test
+  public void omittedDefaultParameterBindsByName() throws SQLException {
+    // ROUNDING has a default value and is not passed
+    ResultSet columns = this.procedureColumns(
+            column("A", DatabaseMetaData.procedureColumnIn, 1),
+            column("ROUNDING", DatabaseMetaData.procedureColumnIn, 2),
+            column("B", DatabaseMetaData.procedureColumnIn, 3),
+            column("RESULT", DatabaseMetaData.procedureColumnOut, 4));
+    when(this.metaData.getProcedureColumns(null, null, "ADD", null)).thenReturn(columns);
+    when(this.callableStatement.getInt("result")).thenReturn(3);
+
+    NamedProcedures procedures = ProcedureCallerFactory.of(NamedProcedures.class, this.dataSource)
+            .withParameterRegistration(ParameterRegistration.NAME_ONLY)
+            .withParameterNameResolution()
+            .build();
+
+    assertEquals(3, procedures.add(1, 2));
+
+    verify(this.callableStatement).registerOutParameter("result", Types.INTEGER);
+    verify(this.callableStatement).setInt("a", 1);
+    verify(this.callableStatement).setInt("b", 2);
+    verify(this.callableStatement, never()).setInt(3, 2);
+  }
+
+  private ResultSet procedureColumns(Object[]... rows) throws SQLException {
+    ResultSet resultSet = mock(ResultSet.class);
+    Boolean[] next = new Boolean[rows.length];
+    String[] names = new String[rows.length];
+    Short[] types = new Short[rows.length];
+    Integer[] positions = new Integer[rows.length];
+    for (int i = 0; i < rows.length; i++) {
+      next[i] = i < (rows.length - 1);
+      names[i] = (String) rows[i][0];
+      types[i] = (Short) rows[i][1];
+      positions[i] = (Integer) rows[i][2];
+    }
+    when(resultSet.next()).thenReturn(true, next);
+    when(resultSet.getString("COLUMN_NAME")).thenReturn(names[0], copyOfRange(names));
+    when(resultSet.getShort("COLUMN_TYPE")).thenReturn(types[0], copyOfRange(types));
+    when(resultSet.getInt("ORDINAL_POSITION")).thenReturn(positions[0], copyOfRange(positions));
+    return resultSet;
+  }
+
+  private static <E> E[] copyOfRange(E[] array) {
+    return Arrays.copyOfRange(array, 1, array.length);
+  }
+
+  private static Object[] column(String name, int type, int position) {
+    return new Object[] {name, (short) type, position};
+  }
+
+  interface NamedProcedures {
+
+    @OutParameter(name = "result")
+    int add(@ParameterName("a") int a, @ParameterName("b") int b);
+
+  }
+
+}
@@ -0,0 +1,114 @@
+package com.github.marschall.storedprocedureproxy;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.github.marschall.storedprocedureproxy.ProcedureCallerFactory.ParameterRegistration;
+import com.github.marschall.storedprocedureproxy.annotations.FetchSize;
+import com.github.marschall.storedprocedureproxy.annotations.OutParameter;
+import com.github.marschall.storedprocedureproxy.annotations.Selectable;
+import com.github.marschall.storedprocedureproxy.spi.NamingStrategy;
+
+public class SelectableTest {
+
+  private DataSource dataSource;
+
+  private Connection connection;
+
+  private CallableStatement statement;
+
+  private ResultSet resultSet;
+
+  @BeforeEach
+  public void setUp() throws SQLException {
+    this.dataSource = mock(DataSource.class);
+    this.connection = mock(Connection.class);
+    DatabaseMetaData metaData = mock(DatabaseMetaData.class);
+    this.statement = mock(CallableStatement.class);
+    this.resultSet = mock(ResultSet.class);
+
+    when(this.dataSource.getConnection()).thenReturn(this.connection);
+    when(this.connection.getMetaData()).thenReturn(metaData);
+    when(metaData.getDatabaseProductName()).thenReturn("junit");
+    when(this.connection.prepareCall(anyString())).thenReturn(this.statement);
+    when(this.statement.execute()).thenReturn(true);
+    when(this.statement.getResultSet()).thenReturn(this.resultSet);
+    when(this.resultSet.next()).thenReturn(true, true, false);
+    when(this.resultSet.getObject(1, String.class)).thenReturn("a", "b");
+  }
+
+  @Test
+  public void selectFrom() throws SQLException {
+    // given
+    SelectableProcedures procedures = ProcedureCallerFactory.of(SelectableProcedures.class, this.dataSource)
+            .withProcedureNamingStrategy(NamingStrategy.snakeCase().thenLowerCase())
+            .withSchemaNamingStrategy(ignored -> "dynamic")
+            .build();
+
+    // when
+    List<String> names = procedures.selectNames(1, 2);
+
+    // then
+    assertEquals(Arrays.asList("a", "b"), names);
+    verify(this.connection).prepareCall("SELECT * FROM dynamic.select_names(?,?)");
+    verify(this.statement).setFetchSize(100);
+    verify(this.statement).setInt(1, 1);
+    verify(this.statement).setInt(2, 2);
+    verify(this.resultSet).close();
+  }
+
+  @Test
+  public void namesBoundByIndex() throws SQLException {
+    // given
+    SelectableProcedures procedures = ProcedureCallerFactory.of(SelectableProcedures.class, this.dataSource)
+            .withParameterRegistration(ParameterRegistration.NAME_ONLY)
+            .build();
+
+    // when
+    procedures.selectNames(1, 2);
+
+    // then
+    verify(this.connection).prepareCall("SELECT * FROM selectNames(?,?)");
+    verify(this.statement).setInt(1, 1);
+    verify(this.statement).setInt(2, 2);
+  }
+
+  @Test
+  public void outParameterNotSupported() {
+    // given
+    SelectableProcedures procedures = ProcedureCallerFactory.build(SelectableProcedures.class, this.dataSource);
+
+    // then
+    assertThrows(IllegalArgumentException.class, () -> procedures.outParameter(1));
+  }
+
+  interface SelectableProcedures {
+
+    @Selectable
+    @FetchSize(100)
+    List<String> selectNames(int minId, int maxId);
+
+    @Selectable
+    @OutParameter
+    String outParameter(int id);
+
+  }
+
+}
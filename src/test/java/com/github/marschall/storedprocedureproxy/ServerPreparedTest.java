@@ -0,0 +1,114 @@
+package com.github.marschall.storedprocedureproxy;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.postgresql.PGStatement;
+
+import com.github.marschall.storedprocedureproxy.annotations.ServerPrepared;
+
+public class ServerPreparedTest {
+
+  private DataSource dataSource;
+
+  private CallableStatement statement;
+
+  private PGStatement pgStatement;
+
+  @BeforeEach
+  public void setUp() throws SQLException {
+    this.dataSource = mock(DataSource.class);
+    Connection connection = mock(Connection.class);
+    DatabaseMetaData metaData = mock(DatabaseMetaData.class);
+    this.statement = mock(CallableStatement.class);
+    this.pgStatement = mock(PGStatement.class);
+
+    when(this.dataSource.getConnection()).thenReturn(connection);
+    when(connection.getMetaData()).thenReturn(metaData);
+    when(metaData.getDatabaseProductName()).thenReturn("junit");
+    when(connection.prepareCall(anyString())).thenReturn(this.statement);
+    when(this.statement.execute()).thenReturn(false);
+    when(this.statement.isWrapperFor(PGStatement.class)).thenReturn(true);
+    when(this.statement.unwrap(PGStatement.class)).thenReturn(this.pgStatement);
+  }
+
+  @Test
+  public void methodThreshold() throws SQLException {
+    // given
+    MethodPrepared procedures = ProcedureCallerFactory.build(MethodPrepared.class, this.dataSource);
+
+    // when
+    procedures.hot();
+    procedures.cold();
+
+    // then
+    verify(this.pgStatement).setPrepareThreshold(1);
+    verify(this.pgStatement, never()).setPrepareThreshold(0);
+  }
+
+  @Test
+  public void interfaceThreshold() throws SQLException {
+    // given
+    InterfacePrepared procedures = ProcedureCallerFactory.build(InterfacePrepared.class, this.dataSource);
+
+    // when
+    procedures.inherited();
+    procedures.overridden();
+
+    // then
+    verify(this.pgStatement).setPrepareThreshold(2);
+    verify(this.pgStatement).setPrepareThreshold(0);
+  }
+
+  @Test
+  public void notPostgres() throws SQLException {
+    // given
+    when(this.statement.isWrapperFor(PGStatement.class)).thenReturn(false);
+    MethodPrepared procedures = ProcedureCallerFactory.build(MethodPrepared.class, this.dataSource);
+
+    // when
+    procedures.hot();
+
+    // then
+    verify(this.pgStatement, never()).setPrepareThreshold(anyInt());
+  }
+
+  @Test
+  public void testToString() {
+    assertEquals("PgPrepareThreshold[threshold=1]", new PgPrepareThreshold(1).toString());
+  }
+
+  interface MethodPrepared {
+
+    @ServerPrepared
+    void hot();
+
+    void cold();
+
+  }
+
+  @ServerPrepared(threshold = 2)
+  interface InterfacePrepared {
+
+    void inherited();
+
+    @ServerPrepared(threshold = 0)
+    void overridden();
+
+  }
+
+}
@@ -0,0 +1,170 @@
+package com.github.marschall.storedprocedureproxy;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
+import java.sql.SQLXML;
+
+import javax.sql.DataSource;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.transform.Source;
+import javax.xml.transform.stax.StAXResult;
+import javax.xml.transform.stax.StAXSource;
+import javax.xml.transform.stream.StreamSource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.github.marschall.storedprocedureproxy.annotations.OutParameter;
+
+public class SqlXmlTest {
+
+  private Connection connection;
+
+  private CallableStatement callableStatement;
+
+  private SQLXML xml;
+
+  private XmlProcedures procedures;
+
+  @BeforeEach
+  public void setUp() throws SQLException {
+    DataSource dataSource = mock(DataSource.class);
+    this.connection = mock(Connection.class);
+    this.callableStatement = mock(CallableStatement.class);
+    this.xml = mock(SQLXML.class);
+    DatabaseMetaData metaData = mock(DatabaseMetaData.class);
+
+    when(dataSource.getConnection()).thenReturn(this.connection);
+    when(this.connection.getMetaData()).thenReturn(metaData);
+    when(metaData.getDatabaseProductName()).thenReturn("junit");
+    when(this.connection.prepareCall(anyString())).thenReturn(this.callableStatement);
+    when(this.connection.createSQLXML()).thenReturn(this.xml);
+    when(this.callableStatement.execute()).thenReturn(false);
+
+    this.procedures = ProcedureCallerFactory.of(XmlProcedures.class, dataSource)
+            .withExceptionAdapter(UncheckedSQLExceptionAdapter.INSTANCE)
+            .build();
+  }
+
+  @Test
+  public void bindCallback() throws SQLException, XMLStreamException {
+    StringWriter content = this.captureContent();
+
+    this.procedures.storeDocument(1, writer -> {
+      writer.writeStartElement("a");
+      writer.writeCharacters("b");
+      writer.writeEndElement();
+    });
+
+    assertTrue(content.toString().endsWith("?><a>b</a>"), content.toString());
+    verify(this.callableStatement).setObject(2, this.xml);
+    verify(this.xml).free();
+  }
+
+  @Test
+  public void bindSource() throws SQLException, XMLStreamException {
+    StringWriter content = this.captureContent();
+
+    this.procedures.storeSource(new StreamSource(new StringReader("<a>b</a>")));
+
+    assertTrue(content.toString().endsWith("<a>b</a>"), content.toString());
+    verify(this.callableStatement).setObject(1, this.xml);
+    verify(this.xml).free();
+  }
+
+  @Test
+  public void bindCallbackFailure() throws SQLException, XMLStreamException {
+    this.captureContent();
+
+    assertThrows(SQLException.class, () -> this.procedures.storeDocument(1, writer -> {
+      throw new XMLStreamException("failure");
+    }));
+
+    verify(this.xml).free();
+    verify(this.connection, never()).prepareCall(anyString());
+  }
+
+  @Test
+  public void readStreamReader() throws SQLException, XMLStreamException {
+    this.provideContent("<a>b</a>");
+
+    XMLStreamReader reader = this.procedures.loadDocument();
+    try {
+      assertEquals(XMLStreamConstants.START_ELEMENT, reader.nextTag());
+      assertEquals("a", reader.getLocalName());
+      assertEquals("b", reader.getElementText());
+      verify(this.xml, never()).free();
+      verify(this.connection, never()).close();
+    } finally {
+      reader.close();
+    }
+
+    verify(this.xml).free();
+    verify(this.callableStatement).close();
+    verify(this.connection).close();
+  }
+
+  @Test
+  public void readSource() throws SQLException, XMLStreamException {
+    this.provideContent("<a>b</a>");
+
+    Source source = this.procedures.loadSource();
+    XMLStreamReader reader = ((StAXSource) source).getXMLStreamReader();
+    assertEquals(XMLStreamConstants.START_ELEMENT, reader.nextTag());
+    reader.close();
+
+    verify(this.xml).free();
+    verify(this.connection).close();
+  }
+
+  @Test
+  public void testToString() {
+    assertEquals("SqlXmlResultExtractor[XMLStreamReader]", SqlXmlResultExtractor.STREAM_READER.toString());
+    assertEquals("SqlXmlFactory[argumentIndex=0]", new SqlXmlFactory(0).toString());
+  }
+
+  private StringWriter captureContent() throws SQLException, XMLStreamException {
+    StringWriter content = new StringWriter();
+    StAXResult result = new StAXResult(XMLOutputFactory.newInstance().createXMLStreamWriter(content));
+    when(this.xml.setResult(StAXResult.class)).thenReturn(result);
+    return content;
+  }
+
+  private void provideContent(String content) throws SQLException, XMLStreamException {
+    StAXSource source = new StAXSource(XMLInputFactory.newInstance().createXMLStreamReader(new StringReader(content)));
+    when(this.xml.getSource(StAXSource.class)).thenReturn(source);
+    when(this.callableStatement.getObject(1, SQLXML.class)).thenReturn(this.xml);
+  }
+
+  interface XmlProcedures {
+
+    void storeDocument(int id, XMLStreamWriterCallback document) throws SQLException;
+
+    void storeSource(Source document) throws SQLException;
+
+    @OutParameter
+    XMLStreamReader loadDocument() throws SQLException;
+
+    @OutParameter
+    Source loadSource() throws SQLException;
+
+  }
+
+}
@@ -0,0 +1,73 @@
+package com.github.marschall.storedprocedureproxy;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.CallableStatement;
+import java.sql.SQLException;
+
+import org.junit.jupiter.api.Test;
+import org.postgresql.PGStatement;
+
+import oracle.jdbc.OracleCallableStatement;
+import oracle.jdbc.OracleStatement;
+
+public class StatementTuningTest {
+
+  @Test
+  public void oracleLobPrefetchSize() throws SQLException {
+    assertTrue(OracleLobPrefetchSize.isSupported());
+    CallableStatement statement = mock(CallableStatement.class);
+    OracleCallableStatement oracleStatement = mock(OracleCallableStatement.class);
+    when(statement.isWrapperFor(OracleStatement.class)).thenReturn(true);
+    when(statement.unwrap(OracleStatement.class)).thenReturn(oracleStatement);
+
+    new OracleLobPrefetchSize(4000).tune(statement);
+
+    verify(oracleStatement).setLobPrefetchSize(4000);
+  }
+
+  @Test
+  public void oracleLobPrefetchSizeNotOracle() throws SQLException {
+    CallableStatement statement = mock(CallableStatement.class);
+    when(statement.isWrapperFor(OracleStatement.class)).thenReturn(false);
+
+    new OracleLobPrefetchSize(4000).tune(statement);
+
+    verify(statement, never()).unwrap(any());
+  }
+
+  @Test
+  public void composite() throws SQLException {
+    CallableStatement statement = mock(CallableStatement.class);
+    OracleCallableStatement oracleStatement = mock(OracleCallableStatement.class);
+    PGStatement pgStatement = mock(PGStatement.class);
+    when(statement.isWrapperFor(OracleStatement.class)).thenReturn(true);
+    when(statement.unwrap(OracleStatement.class)).thenReturn(oracleStatement);
+    when(statement.isWrapperFor(PGStatement.class)).thenReturn(true);
+    when(statement.unwrap(PGStatement.class)).thenReturn(pgStatement);
+
+    StatementTuning tuning = new CompositeStatementTuning(new StatementTuning[] {
+        new PgPrepareThreshold(1), new OracleLobPrefetchSize(4000)});
+    tuning.tune(statement);
+
+    verify(pgStatement).setPrepareThreshold(1);
+    verify(oracleStatement).setLobPrefetchSize(4000);
+  }
+
+  @Test
+  public void testToString() {
+    assertEquals("NoStatementTuning", NoStatementTuning.INSTANCE.toString());
+    assertEquals("OracleLobPrefetchSize[size=4000]", new OracleLobPrefetchSize(4000).toString());
+
+    StatementTuning tuning = new CompositeStatementTuning(new StatementTuning[] {
+        new PgPrepareThreshold(1), new OracleLobPrefetchSize(4000)});
+    assertEquals("CompositeStatementTuning[PgPrepareThreshold[threshold=1], OracleLobPrefetchSize[size=4000]]", tuning.toString());
+  }
+
+}
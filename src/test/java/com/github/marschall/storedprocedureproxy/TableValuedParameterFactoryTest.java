@@ -0,0 +1,102 @@
+package com.github.marschall.storedprocedureproxy;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.microsoft.sqlserver.jdbc.ISQLServerCallableStatement;
+import com.microsoft.sqlserver.jdbc.SQLServerDataTable;
+
+public class TableValuedParameterFactoryTest {
+
+  private Connection connection;
+
+  private CallableStatement statement;
+
+  private ISQLServerCallableStatement sqlServerStatement;
+
+  @BeforeEach
+  public void setUp() throws SQLException {
+    this.connection = mock(Connection.class);
+    this.statement = mock(CallableStatement.class);
+    this.sqlServerStatement = mock(ISQLServerCallableStatement.class);
+    when(this.statement.unwrap(ISQLServerCallableStatement.class)).thenReturn(this.sqlServerStatement);
+  }
+
+  @Test
+  public void bindByIndex() throws SQLException {
+    CallResourceFactory factory = new TableValuedParameterFactory(0, "dbo.IdTable");
+    Object[] args = new Object[] {Arrays.asList(1, 2, 3)};
+
+    try (CallResource resource = factory.createResource(this.connection, args)) {
+      assertTrue(resource.hasResourceAt(0));
+      assertFalse(resource.hasResourceAt(1));
+      ((SelfBindingResource) resource.resourceAt(0)).bind(this.statement, 1);
+    }
+
+    verify(this.sqlServerStatement).setStructured(eq(1), eq("dbo.IdTable"), any(SQLServerDataTable.class));
+  }
+
+  @Test
+  public void bindByName() throws SQLException {
+    CallResourceFactory factory = new TableValuedParameterFactory(0, "dbo.PriceTable");
+    Object[] args = new Object[] {new Object[][] {{1, "a"}, {2, null}}};
+
+    try (CallResource resource = factory.createResource(this.connection, args)) {
+      ((SelfBindingResource) resource.resourceAt(0)).bind(this.statement, "prices");
+    }
+
+    verify(this.sqlServerStatement).setStructured(eq("prices"), eq("dbo.PriceTable"), any(SQLServerDataTable.class));
+  }
+
+  @Test
+  public void emptyTable() throws SQLException {
+    CallResourceFactory factory = new TableValuedParameterFactory(0, "dbo.IdTable");
+    Object[] args = new Object[] {Collections.emptyList()};
+
+    try (CallResource resource = factory.createResource(this.connection, args)) {
+      ((SelfBindingResource) resource.resourceAt(0)).bind(this.statement, 1);
+    }
+
+    verify(this.sqlServerStatement).setStructured(eq(1), eq("dbo.IdTable"), eq((SQLServerDataTable) null));
+  }
+
+  @Test
+  public void notACollection() {
+    CallResourceFactory factory = new TableValuedParameterFactory(0, "dbo.IdTable");
+    Object[] args = new Object[] {"1"};
+
+    assertThrows(IllegalArgumentException.class, () -> factory.createResource(this.connection, args));
+  }
+
+  @Test
+  public void toRow() {
+    Object[] row = new Object[] {1, "a"};
+    assertSame(row, TableRows.toRow(row));
+    assertArrayEquals(new Object[] {1L}, TableRows.toRow(1L));
+  }
+
+  @Test
+  public void testToString() {
+    CallResourceFactory factory = new TableValuedParameterFactory(0, "dbo.IdTable");
+    assertEquals("TableValuedParameterFactory[argumentIndex=0, typeName=dbo.IdTable]", factory.toString());
+  }
+
+}
@@ -0,0 +1,109 @@
+package com.github.marschall.storedprocedureproxy;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.github.marschall.storedprocedureproxy.annotations.TempTable;
+
+public class TempTableTest {
+
+  private DataSource dataSource;
+
+  private Connection connection;
+
+  private CallableStatement callableStatement;
+
+  private PreparedStatement insertStatement;
+
+  private Statement statement;
+
+  @BeforeEach
+  public void setUp() throws SQLException {
+    this.dataSource = mock(DataSource.class);
+    this.connection = mock(Connection.class);
+    this.callableStatement = mock(CallableStatement.class);
+    this.insertStatement = mock(PreparedStatement.class);
+    this.statement = mock(Statement.class);
+
+    when(this.dataSource.getConnection()).thenReturn(this.connection);
+    when(this.connection.prepareCall(anyString())).thenReturn(this.callableStatement);
+    when(this.connection.prepareStatement(anyString())).thenReturn(this.insertStatement);
+    when(this.connection.createStatement()).thenReturn(this.statement);
+  }
+
+  @Test
+  public void stageValues() throws SQLException {
+    StagingProcedures procedures = ProcedureCallerFactory.build(StagingProcedures.class, this.dataSource);
+
+    procedures.deleteIds(Arrays.asList(1L, 2L, 3L));
+
+    verify(this.statement).execute("CREATE TEMPORARY TABLE IF NOT EXISTS ids (id BIGINT)");
+    verify(this.connection).prepareStatement("INSERT INTO ids VALUES (?)");
+    verify(this.insertStatement).setObject(1, 1L);
+    verify(this.insertStatement).setObject(1, 2L);
+    verify(this.insertStatement).setObject(1, 3L);
+    verify(this.insertStatement, times(3)).addBatch();
+    // batch size of 2
+    verify(this.insertStatement, times(2)).executeBatch();
+    verify(this.callableStatement).setString(1, "ids");
+    verify(this.statement).executeUpdate("DELETE FROM ids");
+  }
+
+  @Test
+  public void stageRows() throws SQLException {
+    StagingProcedures procedures = ProcedureCallerFactory.build(StagingProcedures.class, this.dataSource);
+
+    procedures.updatePrices(new Object[][] {{1, "1.5"}});
+
+    verify(this.statement, never()).execute(anyString());
+    verify(this.connection).prepareStatement("INSERT INTO prices(item_id, price) VALUES (?, ?)");
+    verify(this.insertStatement).setObject(1, 1);
+    verify(this.insertStatement).setObject(2, "1.5");
+    verify(this.insertStatement).executeBatch();
+    verify(this.callableStatement).setString(1, "prices");
+  }
+
+  @Test
+  public void empty() throws SQLException {
+    StagingProcedures procedures = ProcedureCallerFactory.build(StagingProcedures.class, this.dataSource);
+
+    procedures.deleteIds(Collections.emptyList());
+
+    verify(this.connection, never()).prepareStatement(anyString());
+    verify(this.callableStatement).setString(1, "ids");
+  }
+
+  @Test
+  public void testToString() {
+    TempTableFactory factory = new TempTableFactory(0, "ids", null, new String[0], 100);
+    assertEquals("TempTableFactory[argumentIndex=0, tableName=ids, batchSize=100]", factory.toString());
+  }
+
+  interface StagingProcedures {
+
+    void deleteIds(@TempTable(value = "ids", create = "CREATE TEMPORARY TABLE IF NOT EXISTS ids (id BIGINT)", batchSize = 2) List<Long> ids);
+
+    void updatePrices(@TempTable(value = "prices", columns = {"item_id", "price"}) Object[][] prices);
+
+  }
+
+}
@@ -0,0 +1,142 @@
+package com.github.marschall.storedprocedureproxy;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.sql.Array;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.github.marschall.storedprocedureproxy.ProcedureCallerFactory.ParameterRegistration;
+import com.github.marschall.storedprocedureproxy.annotations.Chunked;
+import com.github.marschall.storedprocedureproxy.annotations.OutParameter;
+import com.github.marschall.storedprocedureproxy.annotations.Vectorized;
+
+public class VectorizedTest {
+
+  private DataSource dataSource;
+
+  private Connection connection;
+
+  private CallableStatement statement;
+
+  private Array idArray;
+
+  private Array quantityArray;
+
+  @BeforeEach
+  public void setUp() throws SQLException {
+    this.dataSource = mock(DataSource.class);
+    this.connection = mock(Connection.class);
+    this.statement = mock(CallableStatement.class);
+    this.idArray = mock(Array.class);
+    this.quantityArray = mock(Array.class);
+
+    when(this.dataSource.getConnection()).thenReturn(this.connection);
+    when(this.connection.prepareCall(anyString())).thenReturn(this.statement);
+    when(this.connection.createArrayOf(anyString(), any())).thenReturn(this.idArray, this.quantityArray);
+  }
+
+  @Test
+  public void transpose() throws SQLException {
+    Array resultArray = mock(Array.class);
+    when(resultArray.getArray()).thenReturn(new Object[] {BigDecimal.ONE, BigDecimal.TEN});
+    when(this.statement.getObject(3, Array.class)).thenReturn(resultArray);
+    VectorizedProcedures procedures = ProcedureCallerFactory.build(VectorizedProcedures.class, this.dataSource);
+
+    List<Object[]> requests = Arrays.asList(new Object[] {1L, 5}, new Object[] {2L, 7});
+    List<BigDecimal> prices = procedures.priceAll(requests);
+
+    assertEquals(Arrays.asList(BigDecimal.ONE, BigDecimal.TEN), prices);
+    verify(this.connection).prepareCall("{call priceAll(?,?,?)}");
+    verify(this.connection).createArrayOf("BIGINT", new Object[] {1L, 2L});
+    verify(this.connection).createArrayOf("INTEGER", new Object[] {5, 7});
+    verify(this.statement).setObject(1, this.idArray);
+    verify(this.statement).setObject(2, this.quantityArray);
+    verify(this.statement).registerOutParameter(3, Types.ARRAY, "PRICE_TABLE");
+    verify(this.statement).execute();
+  }
+
+  @Test
+  public void incorrectResultSize() throws SQLException {
+    Array resultArray = mock(Array.class);
+    when(resultArray.getArray()).thenReturn(new Object[] {BigDecimal.ONE});
+    when(this.statement.getObject(3, Array.class)).thenReturn(resultArray);
+    VectorizedProcedures procedures = ProcedureCallerFactory.build(VectorizedProcedures.class, this.dataSource);
+
+    List<Object[]> requests = Arrays.asList(new Object[] {1L, 5}, new Object[] {2L, 7});
+    assertThrows(RuntimeException.class, () -> procedures.priceAll(requests));
+  }
+
+  @Test
+  public void wrongColumnCount() throws SQLException {
+    VectorizedProcedures procedures = ProcedureCallerFactory.build(VectorizedProcedures.class, this.dataSource);
+
+    List<Object[]> requests = Collections.singletonList(new Object[] {1L});
+    assertThrows(IllegalArgumentException.class, () -> procedures.priceAll(requests));
+    verify(this.statement, never()).execute();
+  }
+
+  @Test
+  public void chunked() throws SQLException {
+    VectorizedProcedures procedures = ProcedureCallerFactory.build(VectorizedProcedures.class, this.dataSource);
+
+    procedures.deleteAll(new Object[][] {{1L, "a"}, {2L, "b"}, {3L, "c"}});
+
+    verify(this.connection).createArrayOf("BIGINT", new Object[] {1L, 2L});
+    verify(this.connection).createArrayOf("VARCHAR", new Object[] {"a", "b"});
+    verify(this.connection).createArrayOf("BIGINT", new Object[] {3L});
+    verify(this.connection).createArrayOf("VARCHAR", new Object[] {"c"});
+    verify(this.statement, times(2)).execute();
+  }
+
+  @Test
+  public void byName() {
+    VectorizedProcedures procedures = ProcedureCallerFactory.of(VectorizedProcedures.class, this.dataSource)
+            .withParameterRegistration(ParameterRegistration.NAME_ONLY)
+            .build();
+
+    assertThrows(IllegalArgumentException.class, () -> procedures.deleteAll(new Object[][] {{1L, "a"}}));
+  }
+
+  @Test
+  public void notOnlyParameter() {
+    InvalidProcedures procedures = ProcedureCallerFactory.build(InvalidProcedures.class, this.dataSource);
+
+    assertThrows(IllegalArgumentException.class, () -> procedures.deleteAll(Collections.emptyList(), 1));
+  }
+
+  interface VectorizedProcedures {
+
+    @OutParameter(type = Types.ARRAY, typeName = "PRICE_TABLE")
+    List<BigDecimal> priceAll(@Vectorized({"BIGINT", "INTEGER"}) List<Object[]> requests);
+
+    void deleteAll(@Chunked(2) @Vectorized({"BIGINT", "VARCHAR"}) Object[][] rows);
+
+  }
+
+  interface InvalidProcedures {
+
+    void deleteAll(@Vectorized({"BIGINT"}) List<Object[]> rows, int i);
+
+  }
+
+}
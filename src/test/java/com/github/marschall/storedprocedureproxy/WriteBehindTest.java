@@ -0,0 +1,228 @@
+package com.github.marschall.storedprocedureproxy;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.lang.Thread.UncaughtExceptionHandler;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.github.marschall.storedprocedureproxy.annotations.WriteBehind;
+import com.github.marschall.storedprocedureproxy.annotations.WriteBehind.Backpressure;
+import com.github.marschall.storedprocedureproxy.spi.WriteBehindFailureHandler;
+
+public class WriteBehindTest {
+
+  private DataSource dataSource;
+
+  private Connection connection;
+
+  private CallableStatement statement;
+
+  private ScheduledExecutorService executor;
+
+  private List<Exception> failures;
+
+  private WriteBehindFailureHandler failureHandler;
+
+  @BeforeEach
+  public void setUp() throws SQLException {
+    this.dataSource = mock(DataSource.class);
+    this.connection = mock(Connection.class);
+    this.statement = mock(CallableStatement.class);
+    // never runs any task, flushes only happen on shutdown
+    this.executor = mock(ScheduledExecutorService.class);
+    this.failures = new ArrayList<>();
+    this.failureHandler = (procedureName, arguments, exception) -> this.failures.add(exception);
+
+    when(this.dataSource.getConnection()).thenReturn(this.connection);
+    when(this.connection.prepareCall(anyString())).thenReturn(this.statement);
+  }
+
+  @Test
+  public void queueAndShutdown() throws SQLException {
+    AuditProcedures procedures = this.newProcedures(AuditProcedures.class);
+
+    procedures.audit("a");
+    procedures.audit("b");
+
+    verifyNoInteractions(this.dataSource);
+
+    ProcedureCallerFactory.shutdownWriteBehind(procedures);
+
+    verify(this.connection).prepareCall("{call audit(?)}");
+    verify(this.statement).setString(1, "a");
+    verify(this.statement).setString(1, "b");
+    verify(this.statement, times(2)).addBatch();
+    verify(this.statement).executeBatch();
+    verify(this.statement, never()).execute();
+    verify(this.connection).close();
+  }
+
+  @Test
+  public void callsAfterShutdown() throws SQLException {
+    AuditProcedures procedures = this.newProcedures(AuditProcedures.class);
+
+    ProcedureCallerFactory.shutdownWriteBehind(procedures);
+    procedures.audit("a");
+
+    verify(this.statement).setString(1, "a");
+    verify(this.statement).execute();
+    verify(this.statement, never()).executeBatch();
+  }
+
+  @Test
+  public void flushWhenBatchIsFull() throws SQLException {
+    AuditProcedures procedures = this.newProcedures(AuditProcedures.class);
+
+    procedures.audit("a");
+    verify(this.executor, never()).execute(any(Runnable.class));
+
+    procedures.audit("b");
+    verify(this.executor).execute(any(Runnable.class));
+  }
+
+  @Test
+  public void drop() throws SQLException {
+    AuditProcedures procedures = this.newProcedures(AuditProcedures.class);
+
+    procedures.drop("a");
+    procedures.drop("b");
+    ProcedureCallerFactory.shutdownWriteBehind(procedures);
+
+    verify(this.statement).setString(1, "a");
+    verify(this.statement, never()).setString(1, "b");
+    verify(this.statement, times(1)).addBatch();
+  }
+
+  @Test
+  public void callerRuns() throws SQLException {
+    AuditProcedures procedures = this.newProcedures(AuditProcedures.class);
+
+    procedures.callerRuns("a");
+    procedures.callerRuns("b");
+
+    verify(this.statement).setString(1, "b");
+    verify(this.statement).execute();
+    verify(this.statement, never()).setString(1, "a");
+  }
+
+  @Test
+  public void failure() throws SQLException {
+    SQLException exception = new SQLException("failed");
+    when(this.statement.executeBatch()).thenThrow(exception);
+    AuditProcedures procedures = this.newProcedures(AuditProcedures.class);
+
+    procedures.audit("a");
+    ProcedureCallerFactory.shutdownWriteBehind(procedures);
+
+    assertEquals(1, this.failures.size());
+    assertSame(exception, this.failures.get(0));
+  }
+
+  @Test
+  public void failingHandler() throws SQLException {
+    when(this.statement.executeBatch()).thenThrow(new SQLException("failed"));
+    this.failureHandler = (procedureName, arguments, exception) -> {
+      this.failures.add(exception);
+      throw new IllegalStateException("handler failed");
+    };
+    AuditProcedures procedures = this.newProcedures(AuditProcedures.class);
+
+    procedures.audit("a");
+    procedures.audit("b");
+    procedures.audit("c");
+    Thread thread = Thread.currentThread();
+    UncaughtExceptionHandler previous = thread.getUncaughtExceptionHandler();
+    List<Throwable> uncaught = new ArrayList<>();
+    thread.setUncaughtExceptionHandler((t, e) -> uncaught.add(e));
+    try {
+      ProcedureCallerFactory.shutdownWriteBehind(procedures);
+    } finally {
+      thread.setUncaughtExceptionHandler(previous);
+    }
+
+    // the second batch is still executed
+    verify(this.statement, times(2)).executeBatch();
+    assertEquals(2, this.failures.size());
+    assertEquals(2, uncaught.size());
+  }
+
+  @Test
+  public void error() throws SQLException {
+    AssertionError error = new AssertionError("failed");
+    when(this.statement.executeBatch()).thenThrow(error);
+    AuditProcedures procedures = this.newProcedures(AuditProcedures.class);
+
+    procedures.audit("a");
+    ProcedureCallerFactory.shutdownWriteBehind(procedures);
+
+    assertEquals(1, this.failures.size());
+    assertSame(error, this.failures.get(0).getCause());
+  }
+
+  @Test
+  public void noExecutor() {
+    AuditProcedures procedures = ProcedureCallerFactory.build(AuditProcedures.class, this.dataSource);
+
+    assertThrows(IllegalArgumentException.class, () -> procedures.audit("a"));
+  }
+
+  @Test
+  public void notVoid() {
+    InvalidProcedures procedures = this.newProcedures(InvalidProcedures.class);
+
+    assertThrows(IllegalArgumentException.class, () -> procedures.audit("a"));
+  }
+
+  @Test
+  public void notCreatedByFactory() {
+    assertThrows(IllegalArgumentException.class, () -> ProcedureCallerFactory.shutdownWriteBehind(mock(AuditProcedures.class)));
+  }
+
+  private <T> T newProcedures(Class<T> interfaceDeclaration) {
+    return ProcedureCallerFactory.of(interfaceDeclaration, this.dataSource)
+            .withWriteBehind(this.executor, this.failureHandler)
+            .withExceptionAdapter(UncheckedSQLExceptionAdapter.INSTANCE)
+            .build();
+  }
+
+  interface AuditProcedures {
+
+    @WriteBehind(batchSize = 2)
+    void audit(String message) throws SQLException;
+
+    @WriteBehind(queueCapacity = 1, backpressure = Backpressure.DROP)
+    void drop(String message);
+
+    @WriteBehind(queueCapacity = 1, backpressure = Backpressure.CALLER_RUNS)
+    void callerRuns(String message) throws SQLException;
+
+  }
+
+  interface InvalidProcedures {
+
+    @WriteBehind
+    int audit(String message);
+
+  }
+
+}
@@ -0,0 +1,92 @@
+package com.github.marschall.storedprocedureproxy.spi;
+
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.marschall.storedprocedureproxy.ProcedureCallerFactory;
+import com.github.marschall.storedprocedureproxy.ProcedureCallerFactory.CallSyntax;
+
+public class DialectTest {
+
+  @Test
+  public void forDatabaseProduct() {
+    assertSame(Dialect.oracle(), Dialect.forDatabaseProduct("Oracle"));
+    assertSame(Dialect.postgres(), Dialect.forDatabaseProduct("PostgreSQL"));
+    assertSame(Dialect.sqlServer(), Dialect.forDatabaseProduct("Microsoft SQL Server"));
+    assertNull(Dialect.forDatabaseProduct("H2"));
+  }
+
+  @Test
+  public void detectedDialect() throws SQLException {
+    Connection connection = this.mockConnection("Oracle");
+    DataSource dataSource = mock(DataSource.class);
+    when(dataSource.getConnection()).thenReturn(connection);
+
+    SimpleProcedures procedures = ProcedureCallerFactory.of(SimpleProcedures.class, dataSource)
+            .withDetectedDialect()
+            .build();
+    procedures.simple(1);
+
+    verify(connection).prepareCall("BEGIN simple(?); END;");
+  }
+
+  @Test
+  public void detectedPostgresKeepsEscapeSyntax() throws SQLException {
+    Connection connection = this.mockConnection("PostgreSQL");
+    DataSource dataSource = mock(DataSource.class);
+    when(dataSource.getConnection()).thenReturn(connection);
+
+    SimpleProcedures procedures = ProcedureCallerFactory.of(SimpleProcedures.class, dataSource)
+            .withDetectedDialect()
+            .build();
+    procedures.simple(1);
+
+    // SELECT would fail for procedures
+    verify(connection).prepareCall("{call simple(?)}");
+  }
+
+  @Test
+  public void laterSettingsTakePrecedence() throws SQLException {
+    Connection connection = this.mockConnection("Oracle");
+    DataSource dataSource = mock(DataSource.class);
+    when(dataSource.getConnection()).thenReturn(connection);
+
+    SimpleProcedures procedures = ProcedureCallerFactory.of(SimpleProcedures.class, dataSource)
+            .withDetectedDialect()
+            .withCallSyntax(CallSyntax.ESCAPE)
+            .build();
+    procedures.simple(1);
+
+    verify(connection).prepareCall("{call simple(?)}");
+  }
+
+  private Connection mockConnection(String databaseProductName) throws SQLException {
+    Connection connection = mock(Connection.class);
+    DatabaseMetaData metaData = mock(DatabaseMetaData.class);
+    CallableStatement statement = mock(CallableStatement.class);
+    when(connection.getMetaData()).thenReturn(metaData);
+    when(metaData.getDatabaseProductName()).thenReturn(databaseProductName);
+    when(connection.prepareCall(anyString())).thenReturn(statement);
+    return connection;
+  }
+
+  interface SimpleProcedures {
+
+    void simple(int i);
+
+  }
+
+}